@@ -1,14 +1,17 @@
 package com.policyinsight.api;
 
-import com.policyinsight.api.messaging.JobPublisher;
+import com.policyinsight.api.events.JobEvent;
+import com.policyinsight.api.events.JobEventHub;
+import com.policyinsight.api.messaging.JobOutboxRelay;
 import com.policyinsight.api.storage.StorageService;
 import com.policyinsight.api.validation.PdfValidator;
 import com.policyinsight.security.RateLimitService;
 import com.policyinsight.security.TokenService;
-import com.policyinsight.shared.model.DocumentChunk;
+import com.policyinsight.shared.model.JobProgress;
 import com.policyinsight.shared.model.PolicyJob;
 import com.policyinsight.shared.model.Report;
 import com.policyinsight.shared.repository.DocumentChunkRepository;
+import com.policyinsight.shared.repository.JobProgressRepository;
 import com.policyinsight.shared.repository.PolicyJobRepository;
 import com.policyinsight.shared.repository.ReportRepository;
 import com.policyinsight.observability.TracingServiceInterface;
@@ -24,17 +27,21 @@ import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import jakarta.servlet.http.HttpServletResponse;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -48,42 +55,53 @@ public class DocumentController {
     private static final Logger logger = LoggerFactory.getLogger(DocumentController.class);
     private static final long MAX_FILE_SIZE_BYTES = 50 * 1024 * 1024; // 50 MB
     private static final String PDF_CONTENT_TYPE = "application/pdf";
+    // Status is pushed over SSE; polling is only the fallback for a dropped stream
+    private static final int FALLBACK_POLL_SECONDS = 30;
+    private static final int MAX_POLL_SECONDS = 120;
 
     private final StorageService storageService;
-    private final JobPublisher jobPublisher;
+    private final JobOutboxRelay jobOutboxRelay;
     private final PolicyJobRepository policyJobRepository;
     private final ReportRepository reportRepository;
     private final DocumentChunkRepository documentChunkRepository;
+    private final JobProgressRepository jobProgressRepository;
     private final TracingServiceInterface tracingService;
     private final TokenService tokenService;
     private final RateLimitService rateLimitService;
     private final PdfValidator pdfValidator;
+    private final JobEventHub jobEventHub;
+    private final TransactionTemplate transactionTemplate;
 
     public DocumentController(
             StorageService storageService,
-            JobPublisher jobPublisher,
+            JobOutboxRelay jobOutboxRelay,
             PolicyJobRepository policyJobRepository,
             ReportRepository reportRepository,
             DocumentChunkRepository documentChunkRepository,
+            JobProgressRepository jobProgressRepository,
             TokenService tokenService,
             RateLimitService rateLimitService,
             PdfValidator pdfValidator,
+            JobEventHub jobEventHub,
+            PlatformTransactionManager transactionManager,
             @Autowired(required = false) TracingServiceInterface tracingService) {
         this.storageService = storageService;
-        this.jobPublisher = jobPublisher;
+        this.jobOutboxRelay = jobOutboxRelay;
         this.policyJobRepository = policyJobRepository;
         this.reportRepository = reportRepository;
         this.documentChunkRepository = documentChunkRepository;
+        this.jobProgressRepository = jobProgressRepository;
         this.tokenService = tokenService;
         this.rateLimitService = rateLimitService;
         this.pdfValidator = pdfValidator;
+        this.jobEventHub = jobEventHub;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
         this.tracingService = tracingService;
     }
 
     @PostMapping("/upload")
     @Operation(summary = "Upload a PDF document for analysis",
                description = "Accepts a PDF file and returns a job ID for tracking the analysis process")
-    @Transactional
     public Object uploadDocument(
             @Parameter(description = "PDF file to upload (max 50 MB)")
             @RequestParam("file") MultipartFile file,
@@ -183,19 +201,19 @@ public class DocumentController {
                 String token = tokenService.generateToken();
                 String tokenHmac = tokenService.computeHmac(token);
 
-                // Create job record in database
+                // Create job record and its queued message in one short transaction;
+                // the outbox relay publishes after commit, off the request thread
                 PolicyJob job = new PolicyJob(jobId);
                 job.setStatus("PENDING");
                 job.setPdfGcsPath(storagePath);
                 job.setPdfFilename(filename);
                 job.setFileSizeBytes(file.getSize());
                 job.setAccessTokenHmac(tokenHmac);
-                job = policyJobRepository.save(job);
-                logger.info("Job record created in database: jobId={}", jobId);
-
-                // Publish Pub/Sub message with request_id for correlation
-                jobPublisher.publishJobQueued(jobId, storagePath, requestId);
-                logger.info("Job queued event published for job: {}, requestId: {}", jobId, requestId);
+                transactionTemplate.executeWithoutResult(status -> {
+                    policyJobRepository.save(job);
+                    jobOutboxRelay.enqueue(jobId, storagePath, requestId);
+                });
+                logger.info("Job record created and queued: jobId={}, requestId={}", jobId, requestId);
 
                 if (uploadSpan != null) {
                     uploadSpan.setStatus(StatusCode.OK);
@@ -277,11 +295,19 @@ public class DocumentController {
         String status = job.getStatus();
         String jobIdStr = job.getJobUuid().toString();
 
+        // Progress lives in its own table; only looked up while the job is running
+        JobProgress progress = "PROCESSING".equals(status)
+                ? jobProgressRepository.findById(jobUuid).orElse(null)
+                : null;
+        int pollAfterSeconds = suggestPollAfterSeconds(job, progress);
+
         // Return HTML fragment for htmx, JSON for API clients
         if (isHtmxRequest) {
             ModelAndView mav = new ModelAndView("fragments/job-status");
             mav.addObject("jobId", jobIdStr);
             mav.addObject("status", status);
+            mav.addObject("progress", progress);
+            mav.addObject("pollAfterSeconds", pollAfterSeconds);
 
             // Add status-specific fields
             if ("SUCCESS".equals(status)) {
@@ -292,6 +318,8 @@ public class DocumentController {
             } else if ("FAILED".equals(status)) {
                 mav.addObject("errorMessage", job.getErrorMessage());
                 mav.addObject("message", "Analysis failed: " + (job.getErrorMessage() != null ? job.getErrorMessage() : "Unknown error"));
+                // Replace the whole status area so the event stream element is removed and closed
+                response.setHeader("HX-Retarget", "#status");
             } else if ("PROCESSING".equals(status)) {
                 mav.addObject("message", "Document is being processed");
             } else {
@@ -325,14 +353,57 @@ public class DocumentController {
                 if (job.getLeaseExpiresAt() != null) {
                     jsonResponse.put("leaseExpiresAt", job.getLeaseExpiresAt().toString());
                 }
+                if (progress != null) {
+                    Map<String, Object> progressJson = new HashMap<>();
+                    progressJson.put("stage", progress.getStage());
+                    progressJson.put("pagesExtracted", progress.getPagesExtracted());
+                    progressJson.put("chunksStored", progress.getChunksStored());
+                    progressJson.put("llmCallsDone", progress.getLlmCallsDone());
+                    progressJson.put("llmCallsTotal", progress.getLlmCallsTotal());
+                    progressJson.put("updatedAt", progress.getUpdatedAt().toString());
+                    jsonResponse.put("progress", progressJson);
+                }
+                jsonResponse.put("pollAfterSeconds", pollAfterSeconds);
             } else {
                 jsonResponse.put("message", "Job is queued for processing");
+                jsonResponse.put("pollAfterSeconds", pollAfterSeconds);
             }
 
             return ResponseEntity.ok(jsonResponse);
         }
     }
 
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream document processing events",
+               description = "Server-sent events for status transitions and processing stages. "
+                       + "Sends the current status on connect and closes once the job is SUCCESS or FAILED.")
+    public ResponseEntity<SseEmitter> streamDocumentEvents(
+            @Parameter(description = "Job ID returned from upload endpoint")
+            @PathVariable("id") String id) {
+
+        UUID jobUuid;
+        try {
+            jobUuid = UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid job ID format: " + id);
+        }
+
+        SseEmitter emitter = jobEventHub.subscribe(jobUuid);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+
+        // Read the current state after subscribing so no transition can fall in between
+        PolicyJob job = policyJobRepository.findByJobUuid(jobUuid).orElse(null);
+        if (job == null) {
+            jobEventHub.unsubscribe(jobUuid, emitter);
+            throw new IllegalArgumentException("Job not found: " + id);
+        }
+        jobEventHub.send(emitter, JobEvent.status(jobUuid, job.getStatus()));
+
+        return ResponseEntity.ok(emitter);
+    }
+
     @GetMapping("/{id}/report-json")
     @Operation(summary = "Get report data in JSON format",
                description = "Returns the report data for a completed job. Requires X-Job-Token header.")
@@ -398,25 +469,9 @@ public class DocumentController {
             return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
         }
 
-        // Fetch chunks for metadata
-        List<DocumentChunk> chunks = documentChunkRepository.findByJobUuid(jobUuid);
-        long chunkCount = chunks.size();
-
-        // Compute average span confidence
-        Double avgSpanConfidence = null;
-        if (!chunks.isEmpty()) {
-            double sum = 0.0;
-            int count = 0;
-            for (DocumentChunk chunk : chunks) {
-                if (chunk.getSpanConfidence() != null) {
-                    sum += chunk.getSpanConfidence().doubleValue();
-                    count++;
-                }
-            }
-            if (count > 0) {
-                avgSpanConfidence = sum / count;
-            }
-        }
+        // Chunk metadata is aggregated in the database; chunk text is never loaded
+        long chunkCount = documentChunkRepository.countByJobUuid(jobUuid);
+        Double avgSpanConfidence = documentChunkRepository.averageSpanConfidenceByJobUuid(jobUuid);
 
         // Build response
         Map<String, Object> response = new HashMap<>();
@@ -448,6 +503,24 @@ public class DocumentController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Suggests how long a client should wait before polling status again.
+     * Never less than FALLBACK_POLL_SECONDS, since pages get status changes over SSE and only
+     * poll in case the stream dropped. Once LLM calls have completed (the bulk of processing
+     * time), the remaining time is extrapolated from them and a long job polls at about half of
+     * it, up to MAX_POLL_SECONDS.
+     */
+    private int suggestPollAfterSeconds(PolicyJob job, JobProgress progress) {
+        if (progress == null || job.getStartedAt() == null
+                || progress.getLlmCallsDone() <= 0 || progress.getLlmCallsTotal() <= 0) {
+            return FALLBACK_POLL_SECONDS;
+        }
+        long elapsedSeconds = Duration.between(job.getStartedAt(), Instant.now()).toSeconds();
+        int remainingCalls = Math.max(0, progress.getLlmCallsTotal() - progress.getLlmCallsDone());
+        long remainingSeconds = elapsedSeconds * remainingCalls / progress.getLlmCallsDone();
+        return (int) Math.max(FALLBACK_POLL_SECONDS, Math.min(MAX_POLL_SECONDS, remainingSeconds / 2));
+    }
+
     /**
      * Sets the job token cookie with proper security attributes.
      * Secure flag is set only when request is HTTPS or X-Forwarded-Proto=https (Cloud Run).
@@ -1,7 +1,8 @@
 package com.policyinsight.api;
 
+import com.policyinsight.api.storage.StorageService;
 import com.policyinsight.processing.PdfExportService;
-import com.policyinsight.shared.model.DocumentChunk;
+import com.policyinsight.shared.model.ChunkMetadata;
 import com.policyinsight.shared.model.PolicyJob;
 import com.policyinsight.shared.model.Report;
 import com.policyinsight.shared.repository.DocumentChunkRepository;
@@ -12,6 +13,9 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -19,8 +23,17 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Instant;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -40,21 +53,28 @@ public class ExportController {
     private final ReportRepository reportRepository;
     private final DocumentChunkRepository chunkRepository;
     private final PdfExportService pdfExportService;
+    private final StorageService storageService;
+    private final boolean streamingEnabled;
 
     public ExportController(
             PolicyJobRepository policyJobRepository,
             ReportRepository reportRepository,
             DocumentChunkRepository chunkRepository,
-            PdfExportService pdfExportService) {
+            PdfExportService pdfExportService,
+            StorageService storageService,
+            @Value("${app.export.streaming:true}") boolean streamingEnabled) {
         this.policyJobRepository = policyJobRepository;
         this.reportRepository = reportRepository;
         this.chunkRepository = chunkRepository;
         this.pdfExportService = pdfExportService;
+        this.storageService = storageService;
+        this.streamingEnabled = streamingEnabled;
     }
 
     @GetMapping("/{id}/export/pdf")
     @Operation(summary = "Export report as PDF",
-               description = "Generates and downloads a PDF report with inline citations, watermark, and disclaimer")
+               description = "Downloads a PDF report with inline citations, watermark, and disclaimer. " +
+                       "The PDF is generated once per report version and stored; supports ETag and Range requests.")
     public ResponseEntity<?> exportPdf(
             @Parameter(description = "Document/job ID")
             @PathVariable("id") String id) {
@@ -89,33 +109,154 @@ public class ExportController {
                     return new NoSuchElementException("Report not available for job: " + jobUuid);
                 });
 
-        // Fetch chunks for citations
-        List<DocumentChunk> chunks = chunkRepository.findByJobUuidOrderByChunkIndex(jobUuid);
+        // Serve the stored export for this report version, generating it only on first request
+        String version = exportVersion(report);
+        String artifactName = "export-" + version + ".pdf";
+        Resource pdf = findStoredExport(jobUuid, artifactName);
 
-        try {
-            // Generate PDF
-            byte[] pdfBytes = pdfExportService.generatePdf(job, report, chunks);
+        if (pdf == null && streamingEnabled) {
+            return streamAndStoreExport(job, report, jobUuid, version, artifactName);
+        }
+
+        if (pdf == null) {
+            // Fetch chunk metadata for citations (text is not needed)
+            List<ChunkMetadata> chunks = chunkRepository.findMetadataByJobUuidOrderByChunkIndex(jobUuid);
+
+            byte[] pdfBytes;
+            try {
+                pdfBytes = pdfExportService.generatePdf(job, report, chunks);
+            } catch (Exception e) {
+                logger.error("Failed to generate PDF for job: {}", jobUuid, e);
+                throw new RuntimeException("Failed to generate PDF: " + e.getMessage(), e);
+            }
 
-            // Build filename
-            String timestamp = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss").format(Instant.now());
-            String filename = String.format("PolicyInsight_%s_%s.pdf", jobUuid.toString().substring(0, 8), timestamp);
+            try {
+                storageService.uploadArtifact(jobUuid, artifactName, new ByteArrayInputStream(pdfBytes), "application/pdf");
+                logger.info("PDF export generated and stored: jobUuid={}, artifact={}, size={} bytes",
+                        jobUuid, artifactName, pdfBytes.length);
+            } catch (Exception e) {
+                logger.warn("Failed to store PDF export, serving generated copy: jobUuid={}, error={}",
+                        jobUuid, e.getMessage());
+            }
+            pdf = new ByteArrayResource(pdfBytes);
+        }
 
-            // Set headers
+        try {
+            // Set headers; Spring answers If-None-Match with 304 and Range requests with 206
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_PDF);
-            headers.setContentDispositionFormData("attachment", filename);
-            headers.setContentLength(pdfBytes.length);
+            headers.setContentDispositionFormData("attachment", exportFilename(jobUuid, report));
+            headers.setContentLength(pdf.contentLength());
+            headers.setETag("\"" + version + "\"");
+            headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+            headers.setCacheControl("private, no-cache");
 
-            logger.info("PDF export successful: jobUuid={}, size={} bytes", jobUuid, pdfBytes.length);
+            logger.info("PDF export served: jobUuid={}, size={} bytes", jobUuid, pdf.contentLength());
 
             return ResponseEntity.ok()
                     .headers(headers)
-                    .body(pdfBytes);
+                    .body(pdf);
+
+        } catch (IOException e) {
+            logger.error("Failed to read PDF export for job: {}", jobUuid, e);
+            throw new RuntimeException("Failed to read PDF export: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Streams a freshly generated export straight to the response while teeing it into a temp file,
+     * which is stored as the export artifact once complete. Memory per export stays bounded.
+     */
+    private ResponseEntity<StreamingResponseBody> streamAndStoreExport(
+            PolicyJob job, Report report, UUID jobUuid, String version, String artifactName) {
+        // Load citation metadata up front, on the request thread
+        List<ChunkMetadata> chunks = chunkRepository.findMetadataByJobUuidOrderByChunkIndex(jobUuid);
+
+        StreamingResponseBody body = outputStream -> {
+            Path tempFile = Files.createTempFile("policyinsight-export-", ".pdf");
+            try {
+                long size;
+                try (OutputStream fileOut = new BufferedOutputStream(Files.newOutputStream(tempFile))) {
+                    size = pdfExportService.writePdf(job, report, chunks, new TeeOutputStream(outputStream, fileOut));
+                }
+                try (InputStream in = Files.newInputStream(tempFile)) {
+                    storageService.uploadArtifact(jobUuid, artifactName, in, "application/pdf");
+                    logger.info("PDF export streamed and stored: jobUuid={}, artifact={}, size={} bytes",
+                            jobUuid, artifactName, size);
+                } catch (Exception e) {
+                    logger.warn("Failed to store streamed PDF export: jobUuid={}, error={}", jobUuid, e.getMessage());
+                }
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        };
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        headers.setContentDispositionFormData("attachment", exportFilename(jobUuid, report));
+        headers.setETag("\"" + version + "\"");
+        headers.setCacheControl("private, no-cache");
+
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(body);
+    }
+
+    /**
+     * Filename is stable per report version so clients can cache it.
+     */
+    private String exportFilename(UUID jobUuid, Report report) {
+        Instant generatedAt = report.getGeneratedAt() != null ? report.getGeneratedAt() : Instant.EPOCH;
+        String timestamp = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss").withZone(ZoneOffset.UTC).format(generatedAt);
+        return String.format("PolicyInsight_%s_%s.pdf", jobUuid.toString().substring(0, 8), timestamp);
+    }
+
+    /**
+     * Version of a report's export: changes whenever the report is regenerated.
+     */
+    private String exportVersion(Report report) {
+        long generatedAtMillis = report.getGeneratedAt() != null ? report.getGeneratedAt().toEpochMilli() : 0L;
+        return report.getId() + "-" + Long.toHexString(generatedAtMillis);
+    }
 
+    private Resource findStoredExport(UUID jobUuid, String artifactName) {
+        try {
+            return storageService.findArtifact(jobUuid, artifactName);
         } catch (Exception e) {
-            logger.error("Failed to generate PDF for job: {}", jobUuid, e);
-            throw new RuntimeException("Failed to generate PDF: " + e.getMessage(), e);
+            logger.warn("Failed to look up stored PDF export, regenerating: jobUuid={}, error={}",
+                    jobUuid, e.getMessage());
+            return null;
         }
     }
-}
 
+    /**
+     * Writes every byte to two streams (response and temp file).
+     */
+    private static final class TeeOutputStream extends OutputStream {
+        private final OutputStream primary;
+        private final OutputStream secondary;
+
+        TeeOutputStream(OutputStream primary, OutputStream secondary) {
+            this.primary = primary;
+            this.secondary = secondary;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            primary.write(b);
+            secondary.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            primary.write(b, off, len);
+            secondary.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            primary.flush();
+            secondary.flush();
+        }
+    }
+}
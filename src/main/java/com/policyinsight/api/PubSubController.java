@@ -3,6 +3,7 @@ package com.policyinsight.api;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.policyinsight.processing.DocumentJobProcessor;
+import com.policyinsight.processing.PushJobExecutor;
 import com.policyinsight.shared.repository.PolicyJobRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,6 +14,8 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -27,6 +30,10 @@ import java.util.UUID;
  *
  * Only created when policyinsight.worker.enabled=true (worker mode).
  * In sleep mode (demSleep profile) or web-only deployments, this controller is not instantiated.
+ *
+ * With pubsub.push.processing=async, a message is acknowledged as soon as its job is claimed and
+ * handed to the bounded PushJobExecutor; the lease and reaper take over durability. When the
+ * executor is full the message is rejected with 429 so Pub/Sub backs off and redelivers.
  */
 @RestController
 @RequestMapping("/internal")
@@ -39,6 +46,7 @@ public class PubSubController {
     private final DocumentJobProcessor documentJobProcessor;
     private final PolicyJobRepository policyJobRepository;
     private final ObjectMapper objectMapper;
+    private final PushJobExecutor pushJobExecutor;
 
     @Value("${app.job.lease-duration-minutes:30}")
     private int leaseDurationMinutes;
@@ -47,7 +55,8 @@ public class PubSubController {
     public PubSubController(PubSubTokenVerifier tokenVerifier,
                            ObjectMapper objectMapper,
                            DocumentJobProcessor documentJobProcessor,
-                           PolicyJobRepository policyJobRepository) {
+                           PolicyJobRepository policyJobRepository,
+                           @Autowired(required = false) PushJobExecutor pushJobExecutor) {
         if (documentJobProcessor == null) {
             throw new IllegalStateException("DocumentJobProcessor bean is required but not available. " +
                     "Ensure LocalDocumentProcessingWorker or DocumentProcessingWorker is configured.");
@@ -56,6 +65,7 @@ public class PubSubController {
         this.documentJobProcessor = documentJobProcessor;
         this.policyJobRepository = policyJobRepository;
         this.objectMapper = objectMapper != null ? objectMapper : new ObjectMapper();
+        this.pushJobExecutor = pushJobExecutor;
     }
 
     /**
@@ -188,11 +198,30 @@ public class PubSubController {
                 MDC.put("pubsub_message_id", pubsubMessageId);
             }
 
+            // Async mode: reserve executor capacity before claiming, so saturation is reported
+            // while the job is still PENDING and the redelivered message can claim it later
+            if (pushJobExecutor != null && !pushJobExecutor.tryReserve()) {
+                logger.warn("BACKPRESSURE: Push executor saturated ({} active), rejecting job_id={} pubsub_message_id={}",
+                        pushJobExecutor.getActiveCount(), jobId, pubsubMessageId);
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+            }
+
             // Atomic idempotency check: try to transition PENDING -> PROCESSING with lease
             // Set lease expiration time (configurable via app.job.lease-duration-minutes)
             java.time.Instant leaseExpiresAt = java.time.Instant.now().plus(leaseDurationMinutes, java.time.temporal.ChronoUnit.MINUTES);
-            int updatedRows = policyJobRepository.updateStatusIfPendingWithLease(jobId, leaseExpiresAt);
+            int updatedRows;
+            try {
+                updatedRows = policyJobRepository.updateStatusIfPendingWithLease(jobId, leaseExpiresAt);
+            } catch (RuntimeException e) {
+                if (pushJobExecutor != null) {
+                    pushJobExecutor.release();
+                }
+                throw e;
+            }
             if (updatedRows == 0) {
+                if (pushJobExecutor != null) {
+                    pushJobExecutor.release();
+                }
                 // Job is not in PENDING status (already processing, completed, or failed)
                 logger.info("SKIP_DUPLICATE: Skipping duplicate processing for job: {} (status not PENDING). request_id: {}, pubsub_message_id: {}",
                         jobId, requestId, pubsubMessageId);
@@ -200,6 +229,14 @@ public class PubSubController {
                 return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
             }
 
+            if (pushJobExecutor != null) {
+                submitAfterCommit(jobId);
+                logger.info("ACCEPTED job_id={} request_id={} pubsub_message_id={} for background processing",
+                        jobId, requestId, pubsubMessageId);
+                // Ack now; the claimed lease covers the job from here on
+                return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+            }
+
             // Log START with all correlation IDs
             logger.info("START processing job_id={} request_id={} pubsub_message_id={}", jobId, requestId, pubsubMessageId);
 
@@ -246,5 +283,25 @@ public class PubSubController {
             MDC.remove("pubsub_message_id");
         }
     }
-}
 
+    /**
+     * Hands a claimed job to the executor once the claim is committed, so the background thread
+     * never sees the job before it is PROCESSING. The reservation is returned on rollback.
+     */
+    private void submitAfterCommit(UUID jobId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            pushJobExecutor.submit(jobId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    pushJobExecutor.submit(jobId);
+                } else {
+                    pushJobExecutor.release();
+                }
+            }
+        });
+    }
+}
@@ -1,5 +1,6 @@
 package com.policyinsight.api;
 
+import com.policyinsight.processing.JobDeadline;
 import com.policyinsight.processing.QaService;
 import com.policyinsight.security.RateLimitService;
 import com.policyinsight.security.TokenService;
@@ -11,20 +12,30 @@ import com.policyinsight.shared.repository.PolicyJobRepository;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.annotation.PreDestroy;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 /**
@@ -44,12 +55,31 @@ public class QaController {
     private final PolicyJobRepository policyJobRepository;
     private final TokenService tokenService;
     private final RateLimitService rateLimitService;
-
-    public QaController(QaService qaService, PolicyJobRepository policyJobRepository, TokenService tokenService, RateLimitService rateLimitService) {
+    private final long streamTimeoutMs;
+    private final ThreadPoolExecutor streamExecutor;
+
+    public QaController(
+            QaService qaService,
+            PolicyJobRepository policyJobRepository,
+            TokenService tokenService,
+            RateLimitService rateLimitService,
+            @Value("${app.qa.stream.timeout-ms:30000}") long streamTimeoutMs,
+            @Value("${app.qa.stream.threads:8}") int streamThreads,
+            @Value("${app.qa.stream.queue-capacity:32}") int streamQueueCapacity) {
         this.qaService = qaService;
         this.policyJobRepository = policyJobRepository;
         this.tokenService = tokenService;
         this.rateLimitService = rateLimitService;
+        this.streamTimeoutMs = streamTimeoutMs;
+        // Streams hold a thread while the model generates; bound them so a burst is rejected, not queued forever
+        AtomicInteger threadCount = new AtomicInteger();
+        this.streamExecutor = new ThreadPoolExecutor(streamThreads, streamThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(streamQueueCapacity), r -> {
+                    Thread thread = new Thread(r, "qa-stream-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.streamExecutor.allowCoreThreadTimeOut(true);
     }
 
     /**
@@ -73,6 +103,168 @@ public class QaController {
             @Valid @RequestBody(required = false) QuestionRequest request,
             HttpServletRequest httpRequest) {
 
+        QuestionCheck check = checkQuestion(documentIdStr, questionText, tokenHeader, request, httpRequest);
+        if (check.rejection() != null) {
+            return check.rejection();
+        }
+        UUID jobUuid = check.jobUuid();
+        String question = check.question();
+
+        try {
+            // Process question
+            QaService.QaResult result = qaService.answerQuestion(jobUuid, question);
+
+            QuestionResponse response = toQuestionResponse(jobUuid, result);
+
+            logger.info("Q&A response generated: jobUuid={}, grounded={}, latencyMs={}",
+                    jobUuid, result.isGrounded(), result.getLatencyMs());
+
+            // Return HTML fragment for htmx requests, JSON for API requests
+            if (hxRequest != null && "true".equals(hxRequest)) {
+                return ResponseEntity.ok()
+                        .contentType(MediaType.TEXT_HTML)
+                        .body(buildHtmlFragment(response));
+            } else {
+                return ResponseEntity.ok(response);
+            }
+
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid Q&A request: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(buildErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Failed to process Q&A request: jobUuid={}", jobUuid, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(buildErrorResponse("Failed to process question. Please try again later."));
+        }
+    }
+
+
+    /**
+     * Submit a question and stream the answer as server-sent events.
+     * Same validation, limits and grounding rules as POST /api/questions, but the answer text is
+     * sent while it is generated, before the citation and cite-or-abstain checks have run:
+     * - "delta": {"text": "..."} provisional fragments of the answer, in order
+     * - "retract": {"reason": "ungrounded" | "revised" | "failed"} sent after deltas when the
+     *   checks reject or change the streamed text, or the request fails; clients must discard
+     *   the text received so far
+     * - "answer": the final QuestionResponse (validated answer, confidence, citations); clients
+     *   show this in place of the streamed text (an ungrounded answer becomes an abstention)
+     * - "error": {"error": "..."} if the question could not be answered
+     * A stream always ends with "answer" or "error", unless the client went away first.
+     */
+    @PostMapping(value = "/stream", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_FORM_URLENCODED_VALUE})
+    @Operation(summary = "Submit a question and stream the answer",
+               description = "Server-sent events: provisional 'delta' answer fragments while generating, then "
+                       + "'answer' with the validated answer and citations, or 'error'. A 'retract' event before "
+                       + "'answer' or 'error' means the streamed text failed validation and must be discarded. "
+                       + "Same limits as POST /api/questions.")
+    public ResponseEntity<SseEmitter> streamQuestion(
+            @RequestParam(value = "document_id", required = false) String documentIdStr,
+            @RequestParam(value = "question", required = false) String questionText,
+            @RequestHeader(value = TOKEN_HEADER, required = false) String tokenHeader,
+            @Valid @RequestBody(required = false) QuestionRequest request,
+            HttpServletRequest httpRequest) {
+
+        QuestionCheck check = checkQuestion(documentIdStr, questionText, tokenHeader, request, httpRequest);
+        if (check.rejection() != null) {
+            return rejectedStream(check.rejection());
+        }
+
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        JobDeadline deadline = new JobDeadline(check.jobUuid());
+        deadline.startStage("qa", (int) TimeUnit.MILLISECONDS.toSeconds(streamTimeoutMs));
+        // Stop generating as soon as the client is gone or the stream times out
+        emitter.onCompletion(() -> deadline.cancel("stream closed"));
+        emitter.onTimeout(() -> deadline.cancel("stream timed out"));
+        emitter.onError(e -> deadline.cancel("stream failed"));
+
+        try {
+            streamExecutor.execute(() -> streamAnswer(emitter, check.jobUuid(), check.question(), deadline));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Rejecting streaming Q&A request, executor saturated: active={}, queued={}",
+                    streamExecutor.getActiveCount(), streamExecutor.getQueue().size());
+            return rejectedStream(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(buildErrorResponse("Too many questions in progress. Please try again shortly.")));
+        }
+        return ResponseEntity.ok().contentType(MediaType.TEXT_EVENT_STREAM).body(emitter);
+    }
+
+    private void streamAnswer(SseEmitter emitter, UUID jobUuid, String question, JobDeadline deadline) {
+        StringBuilder streamed = new StringBuilder();
+        try {
+            QaService.QaResult result = qaService.answerQuestionStreaming(jobUuid, question, deadline, text -> {
+                try {
+                    emitter.send(SseEmitter.event().name("delta").data(Map.of("text", text), MediaType.APPLICATION_JSON));
+                    streamed.append(text);
+                } catch (IOException e) {
+                    deadline.cancel("client disconnected");
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            logger.info("Streamed Q&A response generated: jobUuid={}, grounded={}, latencyMs={}",
+                    jobUuid, result.isGrounded(), result.getLatencyMs());
+            // The deltas were sent before the citation checks; take them back if the checks changed the answer
+            if (streamed.length() > 0 && (!result.isGrounded() || !streamed.toString().equals(result.getAnswer()))) {
+                sendRetraction(emitter, result.isGrounded() ? "revised" : "ungrounded");
+            }
+            emitter.send(SseEmitter.event().name("answer")
+                    .data(toQuestionResponse(jobUuid, result), MediaType.APPLICATION_JSON));
+            emitter.complete();
+
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid Q&A request: {}", e.getMessage());
+            sendStreamError(emitter, streamed, e.getMessage());
+        } catch (Exception e) {
+            if (deadline.isCancelled()) {
+                logger.debug("Streaming Q&A abandoned: jobUuid={}, reason={}", jobUuid, e.getMessage());
+                return;
+            }
+            logger.error("Failed to process streaming Q&A request: jobUuid={}", jobUuid, e);
+            sendStreamError(emitter, streamed, deadline.isExpired()
+                    ? "Q&A request timed out. Please try again with a simpler question."
+                    : "Failed to process question. Please try again later.");
+        }
+    }
+
+    private void sendRetraction(SseEmitter emitter, String reason) throws IOException {
+        emitter.send(SseEmitter.event().name("retract").data(Map.of("reason", reason), MediaType.APPLICATION_JSON));
+    }
+
+    private void sendStreamError(SseEmitter emitter, CharSequence streamed, String message) {
+        try {
+            if (streamed.length() > 0) {
+                sendRetraction(emitter, "failed");
+            }
+            emitter.send(SseEmitter.event().name("error").data(buildErrorResponse(message), MediaType.APPLICATION_JSON));
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+    /**
+     * Turns a validation failure into a one-event stream with the same status code, so streaming
+     * clients read errors the same way as answers.
+     */
+    private ResponseEntity<SseEmitter> rejectedStream(ResponseEntity<?> rejection) {
+        SseEmitter emitter = new SseEmitter();
+        try {
+            emitter.send(SseEmitter.event().name("error").data(rejection.getBody(), MediaType.APPLICATION_JSON));
+            emitter.complete();
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+        return ResponseEntity.status(rejection.getStatusCode()).contentType(MediaType.TEXT_EVENT_STREAM).body(emitter);
+    }
+
+    /**
+     * Validates a submitted question (format, length, rate limit, job, token, per-job quota).
+     * Shared by the blocking and streaming endpoints.
+     */
+    private QuestionCheck checkQuestion(String documentIdStr, String questionText, String tokenHeader,
+                                        QuestionRequest request, HttpServletRequest httpRequest) {
         // Handle both form data (htmx) and JSON
         UUID jobUuid;
         String question;
@@ -86,19 +278,19 @@ public class QaController {
             try {
                 jobUuid = UUID.fromString(documentIdStr);
             } catch (IllegalArgumentException e) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                        .body(buildErrorResponse("Invalid document ID format: " + documentIdStr));
+                return QuestionCheck.rejected(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(buildErrorResponse("Invalid document ID format: " + documentIdStr)));
             }
             question = questionText;
         } else {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(buildErrorResponse("document_id and question are required"));
+            return QuestionCheck.rejected(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(buildErrorResponse("document_id and question are required")));
         }
 
         // Validate and sanitize question
         if (question == null || question.isBlank()) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(buildErrorResponse("Question cannot be blank"));
+            return QuestionCheck.rejected(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(buildErrorResponse("Question cannot be blank")));
         }
 
         // Strip control characters (security: prevent injection)
@@ -106,8 +298,8 @@ public class QaController {
 
         // Enforce max length (500 characters)
         if (question.length() > 500) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(buildErrorResponse("Question must not exceed 500 characters"));
+            return QuestionCheck.rejected(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(buildErrorResponse("Question must not exceed 500 characters")));
         }
 
         logger.info("Received Q&A request: documentId={}, questionLength={}",
@@ -116,15 +308,15 @@ public class QaController {
         // Check per-IP rate limit
         if (rateLimitService.checkQaRateLimit(httpRequest)) {
             logger.warn("Q&A rate limit exceeded for IP: {}", rateLimitService.extractClientIp(httpRequest));
-            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
-                    .body(buildErrorResponse("Q&A rate limit exceeded. Please try again later."));
+            return QuestionCheck.rejected(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .body(buildErrorResponse("Q&A rate limit exceeded. Please try again later.")));
         }
 
         // Verify document exists and is completed
         PolicyJob job = policyJobRepository.findByJobUuid(jobUuid).orElse(null);
         if (job == null) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(buildErrorResponse("Document not found: " + jobUuid));
+            return QuestionCheck.rejected(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(buildErrorResponse("Document not found: " + jobUuid)));
         }
 
         // Validate token for JSON requests (form data requests are validated by filter)
@@ -132,13 +324,13 @@ public class QaController {
             // JSON request - validate token from header
             String token = tokenHeader;
             if (token == null || token.isBlank()) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(buildErrorResponse("Missing job token"));
+                return QuestionCheck.rejected(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(buildErrorResponse("Missing job token")));
             }
             if (job.getAccessTokenHmac() == null ||
                 !tokenService.verifyToken(token, job.getAccessTokenHmac())) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(buildErrorResponse("Invalid job token"));
+                return QuestionCheck.rejected(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(buildErrorResponse("Invalid job token")));
             }
         } else {
             // Form data request - validate token from cookie (filter already checked, but double-check)
@@ -149,8 +341,8 @@ public class QaController {
             if (token == null || token.isBlank() ||
                 job.getAccessTokenHmac() == null ||
                 !tokenService.verifyToken(token, job.getAccessTokenHmac())) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(buildErrorResponse("Missing or invalid job token"));
+                return QuestionCheck.rejected(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(buildErrorResponse("Missing or invalid job token")));
             }
         }
 
@@ -158,54 +350,13 @@ public class QaController {
         long questionCount = qaService.getQuestionCount(jobUuid);
         int maxPerJob = rateLimitService.getQaMaxPerJob();
         if (questionCount >= maxPerJob) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(buildErrorResponse(String.format("Maximum question limit (%d) reached for this document session", maxPerJob)));
+            return QuestionCheck.rejected(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(buildErrorResponse(String.format("Maximum question limit (%d) reached for this document session", maxPerJob))));
         }
 
-        try {
-            // Process question
-            QaService.QaResult result = qaService.answerQuestion(jobUuid, question);
-
-            // Build response
-            QuestionResponse response = new QuestionResponse();
-            response.setJobId(jobUuid);
-            response.setQuestion(result.getQuestion());
-            response.setAnswer(result.getAnswer());
-            response.setConfidence(result.isGrounded() ? "CONFIDENT" : "ABSTAINED");
-
-            // Convert citations
-            List<QuestionResponse.Citation> citations = result.getCitations().stream()
-                    .map(c -> new QuestionResponse.Citation(
-                            c.getChunkId(),
-                            c.getPageNumber(),
-                            c.getTextSpan()))
-                    .collect(Collectors.toList());
-            response.setCitations(citations);
-
-            logger.info("Q&A response generated: jobUuid={}, grounded={}, latencyMs={}",
-                    jobUuid, result.isGrounded(), result.getLatencyMs());
-
-            // Return HTML fragment for htmx requests, JSON for API requests
-            if (hxRequest != null && "true".equals(hxRequest)) {
-                return ResponseEntity.ok()
-                        .contentType(MediaType.TEXT_HTML)
-                        .body(buildHtmlFragment(response));
-            } else {
-                return ResponseEntity.ok(response);
-            }
-
-        } catch (IllegalArgumentException e) {
-            logger.warn("Invalid Q&A request: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(buildErrorResponse(e.getMessage()));
-        } catch (Exception e) {
-            logger.error("Failed to process Q&A request: jobUuid={}", jobUuid, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(buildErrorResponse("Failed to process question. Please try again later."));
-        }
+        return new QuestionCheck(jobUuid, question, null);
     }
 
-
     /**
      * Get all Q&A interactions for a document.
      */
@@ -260,6 +411,24 @@ public class QaController {
         return ResponseEntity.ok(responses);
     }
 
+    private QuestionResponse toQuestionResponse(UUID jobUuid, QaService.QaResult result) {
+        QuestionResponse response = new QuestionResponse();
+        response.setJobId(jobUuid);
+        response.setQuestion(result.getQuestion());
+        response.setAnswer(result.getAnswer());
+        response.setConfidence(result.isGrounded() ? "CONFIDENT" : "ABSTAINED");
+
+        // Convert citations
+        List<QuestionResponse.Citation> citations = result.getCitations().stream()
+                .map(c -> new QuestionResponse.Citation(
+                        c.getChunkId(),
+                        c.getPageNumber(),
+                        c.getTextSpan()))
+                .collect(Collectors.toList());
+        response.setCitations(citations);
+        return response;
+    }
+
     private Map<String, Object> buildErrorResponse(String message) {
         Map<String, Object> error = new HashMap<>();
         error.put("error", message);
@@ -320,5 +489,18 @@ public class QaController {
         }
         return null;
     }
-}
 
+    @PreDestroy
+    public void shutdown() {
+        streamExecutor.shutdownNow();
+    }
+
+    /**
+     * Outcome of checkQuestion: the job and sanitized question, or the response to reject with.
+     */
+    private record QuestionCheck(UUID jobUuid, String question, ResponseEntity<?> rejection) {
+        static QuestionCheck rejected(ResponseEntity<?> rejection) {
+            return new QuestionCheck(null, null, rejection);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.policyinsight.api;
 
+import com.policyinsight.api.events.JobEventPublisher;
 import com.policyinsight.shared.dto.ShareLinkResponse;
 import com.policyinsight.shared.model.ShareLink;
 import com.policyinsight.shared.repository.ShareLinkRepository;
@@ -19,9 +20,11 @@ public class ShareLinkService {
     private static final Logger logger = LoggerFactory.getLogger(ShareLinkService.class);
 
     private final ShareLinkRepository shareLinkRepository;
+    private final JobEventPublisher jobEventPublisher;
 
-    public ShareLinkService(ShareLinkRepository shareLinkRepository) {
+    public ShareLinkService(ShareLinkRepository shareLinkRepository, JobEventPublisher jobEventPublisher) {
         this.shareLinkRepository = shareLinkRepository;
+        this.jobEventPublisher = jobEventPublisher;
     }
 
     /**
@@ -120,6 +123,7 @@ public class ShareLinkService {
 
         shareLink.revoke();
         shareLinkRepository.save(shareLink);
+        jobEventPublisher.publishReportViewChanged(jobUuid);
         logger.info("Share link revoked: token={}, jobUuid={}", shareLink.getShareToken(), jobUuid);
         return true;
     }
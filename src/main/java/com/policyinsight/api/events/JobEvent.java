@@ -0,0 +1,78 @@
+package com.policyinsight.api.events;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A job state change pushed to status watchers: either a status transition
+ * (PENDING, PROCESSING, SUCCESS, FAILED) or a processing stage boundary.
+ */
+public class JobEvent {
+
+    private final UUID jobId;
+    private final String status;
+    private final String stage;
+    private final Instant timestamp;
+
+    @JsonCreator
+    public JobEvent(
+            @JsonProperty("jobId") UUID jobId,
+            @JsonProperty("status") String status,
+            @JsonProperty("stage") String stage,
+            @JsonProperty("timestamp") Instant timestamp) {
+        this.jobId = jobId;
+        this.status = status;
+        this.stage = stage;
+        this.timestamp = timestamp != null ? timestamp : Instant.now();
+    }
+
+    /**
+     * Creates a status transition event.
+     */
+    public static JobEvent status(UUID jobId, String status) {
+        return new JobEvent(jobId, status, null, Instant.now());
+    }
+
+    /**
+     * Creates a stage boundary event for a job that is PROCESSING.
+     */
+    public static JobEvent stage(UUID jobId, String stage) {
+        return new JobEvent(jobId, "PROCESSING", stage, Instant.now());
+    }
+
+    public UUID getJobId() {
+        return jobId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getStage() {
+        return stage;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * SSE event name: "stage" for stage boundaries, "status" for status transitions.
+     */
+    @JsonIgnore
+    public String getEventName() {
+        return stage != null ? "stage" : "status";
+    }
+
+    /**
+     * Whether no further events will follow for this job.
+     */
+    @JsonIgnore
+    public boolean isTerminal() {
+        return "SUCCESS".equals(status) || "FAILED".equals(status);
+    }
+}
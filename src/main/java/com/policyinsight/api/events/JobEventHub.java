@@ -0,0 +1,157 @@
+package com.policyinsight.api.events;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fan-out hub for job status watchers on this node.
+ * Holds the open SSE emitters per job; each published event is looked up once and written to
+ * every watcher of that job. Writes happen on a dedicated dispatcher thread so a slow client
+ * never stalls the worker that published the event.
+ */
+@Component
+public class JobEventHub {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobEventHub.class);
+
+    private final ConcurrentHashMap<UUID, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService dispatcher;
+    private final long timeoutMs;
+    private final int maxSubscribers;
+
+    public JobEventHub(
+            @Value("${app.events.sse-timeout-ms:600000}") long timeoutMs,
+            @Value("${app.events.max-subscribers:2000}") int maxSubscribers) {
+        this.timeoutMs = timeoutMs;
+        this.maxSubscribers = maxSubscribers;
+        this.dispatcher = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "job-events-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        logger.info("JobEventHub initialized: timeoutMs={}, maxSubscribers={}", timeoutMs, maxSubscribers);
+    }
+
+    /**
+     * Registers a new watcher for a job.
+     *
+     * @param jobUuid the job UUID
+     * @return the emitter to return from the controller, or null if the subscriber limit is reached
+     */
+    public SseEmitter subscribe(UUID jobUuid) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            logger.warn("Rejecting job event subscription, limit reached: maxSubscribers={}", maxSubscribers);
+            return null;
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        subscribers.compute(jobUuid, (key, emitters) -> {
+            List<SseEmitter> list = emitters != null ? emitters : new CopyOnWriteArrayList<>();
+            list.add(emitter);
+            return list;
+        });
+        emitter.onCompletion(() -> unsubscribe(jobUuid, emitter));
+        emitter.onTimeout(() -> unsubscribe(jobUuid, emitter));
+        emitter.onError(e -> unsubscribe(jobUuid, emitter));
+        return emitter;
+    }
+
+    /**
+     * Removes a watcher. Safe to call more than once.
+     */
+    public void unsubscribe(UUID jobUuid, SseEmitter emitter) {
+        subscribers.computeIfPresent(jobUuid, (key, emitters) -> {
+            if (emitters.remove(emitter)) {
+                subscriberCount.decrementAndGet();
+            }
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    /**
+     * Delivers an event to every watcher of its job on this node.
+     *
+     * @param event the job event
+     */
+    public void dispatch(JobEvent event) {
+        List<SseEmitter> emitters = subscribers.get(event.getJobId());
+        if (emitters == null || emitters.isEmpty()) {
+            return;
+        }
+        dispatcher.execute(() -> {
+            for (SseEmitter emitter : emitters) {
+                send(emitter, event);
+            }
+        });
+    }
+
+    /**
+     * Writes one event to one watcher, completing the stream once the job is terminal.
+     *
+     * @param emitter the watcher
+     * @param event the job event
+     */
+    public void send(SseEmitter emitter, JobEvent event) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .name(event.getEventName())
+                    .data(event, MediaType.APPLICATION_JSON));
+            if (event.isTerminal()) {
+                emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away or stream already completed
+            logger.debug("Dropping job event watcher for job {}: {}", event.getJobId(), e.getMessage());
+            emitter.completeWithError(e);
+        }
+    }
+
+    /**
+     * Sends a comment line to every watcher so idle connections are not cut by proxies.
+     */
+    @Scheduled(fixedDelayString = "${app.events.heartbeat-ms:15000}")
+    public void sendHeartbeats() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        dispatcher.execute(() -> subscribers.values().forEach(emitters -> {
+            for (SseEmitter emitter : emitters) {
+                try {
+                    emitter.send(SseEmitter.event().comment("keepalive"));
+                } catch (IOException | IllegalStateException e) {
+                    emitter.completeWithError(e);
+                }
+            }
+        }));
+    }
+
+    /**
+     * Number of open watchers on this node.
+     */
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(emitters -> emitters.forEach(SseEmitter::complete));
+        dispatcher.shutdownNow();
+    }
+}
@@ -0,0 +1,47 @@
+package com.policyinsight.api.events;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+/**
+ * Interface for publishing job state change events to status watchers.
+ * Implementations deliver in-process (single node) or via Postgres NOTIFY (multi-node).
+ */
+public interface JobEventPublisher {
+
+    /**
+     * Publishes an event immediately.
+     *
+     * @param event the job event
+     */
+    void publish(JobEvent event);
+
+    /**
+     * Drops the cached report view of a job on every node, after a Q&A interaction was added or
+     * a share link revoked. Inside a transaction, other nodes drop it once the transaction commits.
+     *
+     * @param jobUuid the job UUID
+     */
+    void publishReportViewChanged(UUID jobUuid);
+
+    /**
+     * Publishes an event once the current transaction commits, or immediately if there is none.
+     * Use for status transitions so watchers never re-read state that is not yet visible.
+     *
+     * @param event the job event
+     */
+    default void publishAfterCommit(JobEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(event);
+                }
+            });
+        } else {
+            publish(event);
+        }
+    }
+}
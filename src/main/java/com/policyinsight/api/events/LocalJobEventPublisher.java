@@ -0,0 +1,34 @@
+package com.policyinsight.api.events;
+
+import com.policyinsight.shared.cache.ReportViewCache;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * In-process implementation of JobEventPublisher: events go straight to this node's hub.
+ * Registered when app.events.mode=local or when the property is missing.
+ */
+@Service
+@ConditionalOnProperty(name = "app.events.mode", havingValue = "local", matchIfMissing = true)
+public class LocalJobEventPublisher implements JobEventPublisher {
+
+    private final JobEventHub jobEventHub;
+    private final ReportViewCache reportViewCache;
+
+    public LocalJobEventPublisher(JobEventHub jobEventHub, ReportViewCache reportViewCache) {
+        this.jobEventHub = jobEventHub;
+        this.reportViewCache = reportViewCache;
+    }
+
+    @Override
+    public void publish(JobEvent event) {
+        jobEventHub.dispatch(event);
+    }
+
+    @Override
+    public void publishReportViewChanged(UUID jobUuid) {
+        reportViewCache.invalidate(jobUuid);
+    }
+}
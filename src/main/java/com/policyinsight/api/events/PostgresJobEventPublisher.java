@@ -0,0 +1,162 @@
+package com.policyinsight.api.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.policyinsight.shared.cache.ReportViewCache;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.UUID;
+
+/**
+ * Multi-node implementation of JobEventPublisher using Postgres LISTEN/NOTIFY.
+ * Events are sent with pg_notify (delivered on commit when called inside a transaction) and
+ * each node holds one dedicated LISTEN connection that feeds its local hub, so any number of
+ * watchers on a node cost a single subscription. The LISTEN connection is opened with
+ * DriverManager from the datasource settings rather than borrowed from the pool, so it does not
+ * permanently take one of the pool's connections or trip Hikari's leak detection. Report view changes go over a second channel
+ * on the same connection and drop the cached view on every node; since notifications sent while
+ * a node's listener is reconnecting are lost, the node drops all cached views on reconnect.
+ * Registered when app.events.mode=postgres.
+ */
+@Service
+@ConditionalOnProperty(name = "app.events.mode", havingValue = "postgres")
+public class PostgresJobEventPublisher implements JobEventPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostgresJobEventPublisher.class);
+
+    static final String CHANNEL = "policyinsight_job_events";
+    static final String REPORT_VIEW_CHANNEL = "policyinsight_report_views";
+    private static final int POLL_TIMEOUT_MS = 1000;
+    private static final long RECONNECT_DELAY_MS = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final JobEventHub jobEventHub;
+    private final ObjectMapper objectMapper;
+    private final ReportViewCache reportViewCache;
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public PostgresJobEventPublisher(JdbcTemplate jdbcTemplate, DataSourceProperties dataSourceProperties,
+                                     JobEventHub jobEventHub, ObjectMapper objectMapper,
+                                     ReportViewCache reportViewCache) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.jobEventHub = jobEventHub;
+        this.objectMapper = objectMapper;
+        this.reportViewCache = reportViewCache;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        listenerThread = new Thread(this::listen, "job-events-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+        logger.info("Job event listener started on channels {}, {}", CHANNEL, REPORT_VIEW_CHANNEL);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    @Override
+    public void publish(JobEvent event) {
+        try {
+            String payload = objectMapper.writeValueAsString(event);
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> { }, CHANNEL, payload);
+        } catch (Exception e) {
+            // Watchers on other nodes fall back to their polling interval; still serve local ones
+            logger.warn("Failed to NOTIFY job event for job {}: {}", event.getJobId(), e.getMessage());
+            jobEventHub.dispatch(event);
+        }
+    }
+
+    @Override
+    public void publishReportViewChanged(UUID jobUuid) {
+        reportViewCache.invalidate(jobUuid);
+        try {
+            // Inside a transaction, delivered to the other nodes on commit
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> { }, REPORT_VIEW_CHANNEL, jobUuid.toString());
+        } catch (Exception e) {
+            logger.warn("Failed to NOTIFY report view change for job {}: {}", jobUuid, e.getMessage());
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = openListenConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                    statement.execute("LISTEN " + REPORT_VIEW_CHANNEL);
+                }
+                reportViewCache.invalidateAll();
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        if (REPORT_VIEW_CHANNEL.equals(notification.getName())) {
+                            invalidateReportView(notification.getParameter());
+                        } else {
+                            dispatch(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                if (!running) {
+                    break;
+                }
+                logger.warn("Job event listener connection failed, reconnecting in {}ms: {}",
+                        RECONNECT_DELAY_MS, e.getMessage());
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        logger.info("Job event listener stopped");
+    }
+
+    private Connection openListenConnection() throws Exception {
+        return DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+    }
+
+    private void invalidateReportView(String payload) {
+        try {
+            reportViewCache.invalidate(UUID.fromString(payload));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Ignoring malformed report view payload: {}", e.getMessage());
+        }
+    }
+
+    private void dispatch(String payload) {
+        try {
+            jobEventHub.dispatch(objectMapper.readValue(payload, JobEvent.class));
+        } catch (Exception e) {
+            logger.warn("Ignoring malformed job event payload: {}", e.getMessage());
+        }
+    }
+}
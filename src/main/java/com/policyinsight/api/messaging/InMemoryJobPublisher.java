@@ -0,0 +1,43 @@
+package com.policyinsight.api.messaging;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * In-process implementation of JobPublisher for single-node deployments.
+ * Hands job IDs straight to the local worker through InMemoryJobQueue, so pickup needs no
+ * database polling. Only loads when app.messaging.mode=memory; requires
+ * policyinsight.worker.enabled=true in the same JVM.
+ */
+@Service
+@ConditionalOnProperty(name = "app.messaging.mode", havingValue = "memory")
+public class InMemoryJobPublisher implements JobPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryJobPublisher.class);
+
+    private final InMemoryJobQueue jobQueue;
+
+    public InMemoryJobPublisher(InMemoryJobQueue jobQueue) {
+        this.jobQueue = jobQueue;
+    }
+
+    /**
+     * Enqueues the job for the local worker. A full queue fails the future so the job outbox
+     * keeps the message and retries it later.
+     */
+    @Override
+    public CompletableFuture<String> publishJobQueued(UUID jobId, String gcsPath, String requestId) {
+        if (!jobQueue.offer(jobId)) {
+            logger.warn("In-memory job queue full ({}), deferring job: {}, requestId: {}",
+                    jobQueue.getCapacity(), jobId, requestId);
+            return CompletableFuture.failedFuture(new IllegalStateException("In-memory job queue is full"));
+        }
+        logger.debug("Job queued in memory: {}, requestId: {}", jobId, requestId);
+        return CompletableFuture.completedFuture(null);
+    }
+}
@@ -0,0 +1,92 @@
+package com.policyinsight.api.messaging;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded in-JVM queue of job IDs between uploads and LocalDocumentProcessingWorker.
+ * Only loads when app.messaging.mode=memory.
+ *
+ * Producers never block: a CAS-bounded size counter guards a lock-free ConcurrentLinkedQueue.
+ * Consumers wait on a semaphore counting queued IDs instead of polling. An ID is queued at most
+ * once: offering an ID that is already waiting is a no-op, so the recovery sweep can re-offer
+ * PENDING jobs without duplicating them. The queue is not durable; PENDING rows in the database
+ * stay the source of truth and are re-enqueued by the worker's recovery sweep.
+ */
+@Component
+@ConditionalOnProperty(name = "app.messaging.mode", havingValue = "memory")
+public class InMemoryJobQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryJobQueue.class);
+
+    private final ConcurrentLinkedQueue<UUID> queue = new ConcurrentLinkedQueue<>();
+    private final Set<UUID> queued = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger size = new AtomicInteger();
+    private final Semaphore available = new Semaphore(0);
+    private final int capacity;
+
+    public InMemoryJobQueue(@Value("${app.messaging.memory.capacity:1000}") int capacity) {
+        this.capacity = capacity;
+        logger.info("InMemoryJobQueue initialized: capacity={}", capacity);
+    }
+
+    /**
+     * Enqueues a job ID without blocking. An ID that is already queued is not added again.
+     *
+     * @return false if the queue is full
+     */
+    public boolean offer(UUID jobId) {
+        if (!queued.add(jobId)) {
+            return true;
+        }
+        if (size.incrementAndGet() > capacity) {
+            size.decrementAndGet();
+            queued.remove(jobId);
+            return false;
+        }
+        queue.offer(jobId);
+        available.release();
+        return true;
+    }
+
+    /**
+     * Takes the next job ID, waiting up to the timeout for one to arrive.
+     *
+     * @return the job ID, or null on timeout
+     */
+    public UUID poll(long timeout, TimeUnit unit) throws InterruptedException {
+        if (!available.tryAcquire(timeout, unit)) {
+            return null;
+        }
+        size.decrementAndGet();
+        UUID jobId = queue.poll();
+        queued.remove(jobId);
+        return jobId;
+    }
+
+    /**
+     * Whether the job ID is waiting in the queue (not yet taken by a consumer).
+     */
+    public boolean contains(UUID jobId) {
+        return queued.contains(jobId);
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+}
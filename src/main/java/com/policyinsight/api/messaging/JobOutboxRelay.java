@@ -0,0 +1,219 @@
+package com.policyinsight.api.messaging;
+
+import com.policyinsight.shared.model.JobOutboxMessage;
+import com.policyinsight.shared.repository.JobOutboxRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Transactional outbox for job queued messages.
+ * Uploads record the message in the same transaction as the job row; once that transaction
+ * commits, a single relay thread drains due messages in batches and hands them to the
+ * JobPublisher, off the request thread. A message is only published after its job is visible,
+ * and a failed publish stays in the outbox and is retried with backoff by the periodic sweep.
+ */
+@Component
+public class JobOutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobOutboxRelay.class);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final JobOutboxRepository jobOutboxRepository;
+    private final JobPublisher jobPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long maxBackoffSeconds;
+    private final long publishTimeoutNanos;
+    private final AtomicBoolean drainPending = new AtomicBoolean();
+    private final ExecutorService relayExecutor;
+
+    public JobOutboxRelay(
+            JobOutboxRepository jobOutboxRepository,
+            JobPublisher jobPublisher,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.messaging.outbox.batch-size:100}") int batchSize,
+            @Value("${app.messaging.outbox.max-backoff-seconds:300}") long maxBackoffSeconds,
+            @Value("${app.messaging.outbox.publish-timeout-seconds:30}") long publishTimeoutSeconds) {
+        this.jobOutboxRepository = jobOutboxRepository;
+        this.jobPublisher = jobPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = batchSize;
+        this.maxBackoffSeconds = maxBackoffSeconds;
+        this.publishTimeoutNanos = TimeUnit.SECONDS.toNanos(publishTimeoutSeconds);
+        this.relayExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "job-outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        logger.info("JobOutboxRelay initialized: batchSize={}, maxBackoffSeconds={}", batchSize, maxBackoffSeconds);
+    }
+
+    /**
+     * Records a job queued message in the current transaction and schedules a relay run for
+     * after it commits. If the transaction rolls back, the message disappears with the job.
+     *
+     * @param jobId Job UUID
+     * @param gcsPath GCS path to the uploaded PDF
+     * @param requestId Optional request ID for correlation tracking (can be null)
+     */
+    public void enqueue(UUID jobId, String gcsPath, String requestId) {
+        jobOutboxRepository.save(new JobOutboxMessage(jobId, gcsPath, requestId));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    requestDrain();
+                }
+            });
+        } else {
+            requestDrain();
+        }
+    }
+
+    /**
+     * Schedules a drain on the relay thread. Requests arriving while one is already queued are
+     * coalesced, so a burst of uploads is relayed in a few batches rather than one run each.
+     */
+    public void requestDrain() {
+        if (!drainPending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            relayExecutor.execute(() -> {
+                drainPending.set(false);
+                drain();
+            });
+        } catch (RejectedExecutionException e) {
+            drainPending.set(false);
+            logger.debug("Outbox relay is shut down, leaving messages for the next instance");
+        }
+    }
+
+    /**
+     * Picks up messages whose after-commit drain was missed (restart, failed publish,
+     * another instance's crash). Runs every 5 seconds by default.
+     */
+    @Scheduled(fixedDelayString = "${app.messaging.outbox.sweep-ms:5000}")
+    public void sweep() {
+        requestDrain();
+    }
+
+    /**
+     * Relays due messages until the outbox has no full batch left.
+     *
+     * @return number of messages published
+     */
+    public int drain() {
+        int published = 0;
+        try {
+            while (true) {
+                BatchResult result = transactionTemplate.execute(status -> relayBatch());
+                if (result == null) {
+                    break;
+                }
+                published += result.published();
+                if (result.locked() < batchSize) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Outbox relay run failed, will retry on next sweep: {}", e.getMessage());
+        }
+        if (published > 0) {
+            logger.debug("Outbox relay published {} job queued messages", published);
+        }
+        return published;
+    }
+
+    /**
+     * Publishes one locked batch. All messages are handed to the publisher first so the client
+     * can batch them, then acknowledgements are awaited under a single deadline. Published rows
+     * are deleted in the same transaction; failed rows are rescheduled with exponential backoff.
+     */
+    private BatchResult relayBatch() {
+        List<JobOutboxMessage> batch = jobOutboxRepository.lockDueBatch(batchSize);
+        if (batch.isEmpty()) {
+            return new BatchResult(0, 0);
+        }
+
+        Map<JobOutboxMessage, CompletableFuture<String>> pending = new LinkedHashMap<>();
+        for (JobOutboxMessage message : batch) {
+            try {
+                pending.put(message, jobPublisher.publishJobQueued(
+                        message.getJobUuid(), message.getGcsPath(), message.getRequestId()));
+            } catch (Exception e) {
+                markFailed(message, e);
+            }
+        }
+
+        long deadline = System.nanoTime() + publishTimeoutNanos;
+        List<Long> publishedIds = new ArrayList<>(batch.size());
+        for (Map.Entry<JobOutboxMessage, CompletableFuture<String>> entry : pending.entrySet()) {
+            try {
+                entry.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                publishedIds.add(entry.getKey().getId());
+            } catch (ExecutionException e) {
+                markFailed(entry.getKey(), e.getCause() != null ? e.getCause() : e);
+            } catch (TimeoutException e) {
+                markFailed(entry.getKey(), e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                markFailed(entry.getKey(), e);
+            }
+        }
+
+        if (!publishedIds.isEmpty()) {
+            jobOutboxRepository.deleteByIds(publishedIds);
+        }
+        return new BatchResult(batch.size(), publishedIds.size());
+    }
+
+    private void markFailed(JobOutboxMessage message, Throwable error) {
+        int attempts = message.getAttempts() + 1;
+        long delaySeconds = Math.min(maxBackoffSeconds, 1L << Math.min(attempts, 20));
+        logger.warn("Failed to relay job queued message: jobId={}, attempts={}, retryInSeconds={}",
+                message.getJobUuid(), attempts, delaySeconds, error);
+        String reason = error instanceof TimeoutException ? "publish not acknowledged in time" : error.getMessage();
+        jobOutboxRepository.markFailed(message.getId(), truncate(reason), delaySeconds);
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+
+    private record BatchResult(int locked, int published) {
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        relayExecutor.shutdown();
+    }
+}
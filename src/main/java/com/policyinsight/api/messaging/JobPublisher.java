@@ -1,6 +1,7 @@
 package com.policyinsight.api.messaging;
 
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Interface for publishing job queued events.
@@ -8,12 +9,14 @@ import java.util.UUID;
  */
 public interface JobPublisher {
     /**
-     * Publishes a job queued event.
+     * Publishes a job queued event without waiting for it to be acknowledged.
      *
      * @param jobId Job UUID
      * @param gcsPath GCS path to the uploaded PDF
      * @param requestId Optional request ID for correlation tracking (can be null)
+     * @return future completing with the broker message ID (null when nothing is published),
+     *         or exceptionally if the publish ultimately fails
      */
-    void publishJobQueued(UUID jobId, String gcsPath, String requestId);
+    CompletableFuture<String> publishJobQueued(UUID jobId, String gcsPath, String requestId);
 }
 
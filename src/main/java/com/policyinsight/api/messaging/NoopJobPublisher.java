@@ -6,6 +6,7 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * No-op implementation of JobPublisher for local development when messaging mode is local.
@@ -18,8 +19,9 @@ public class NoopJobPublisher implements JobPublisher {
     private static final Logger logger = LoggerFactory.getLogger(NoopJobPublisher.class);
 
     @Override
-    public void publishJobQueued(UUID jobId, String gcsPath, String requestId) {
+    public CompletableFuture<String> publishJobQueued(UUID jobId, String gcsPath, String requestId) {
         logger.debug("No-op: Job queued event suppressed (Pub/Sub disabled). Job ID: {}, GCS Path: {}, Request ID: {}", jobId, gcsPath, requestId);
+        return CompletableFuture.completedFuture(null);
     }
 }
 
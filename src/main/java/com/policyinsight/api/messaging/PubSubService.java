@@ -1,25 +1,47 @@
 package com.policyinsight.api.messaging;
 
 import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.api.gax.batching.BatchingSettings;
+import com.google.api.gax.batching.FlowControlSettings;
+import com.google.api.gax.batching.FlowController;
+import com.google.api.gax.rpc.ApiException;
+import com.google.api.gax.rpc.StatusCode;
 import com.google.cloud.pubsub.v1.Publisher;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.protobuf.ByteString;
 import com.google.pubsub.v1.PubsubMessage;
 import com.google.pubsub.v1.TopicName;
+import com.policyinsight.observability.DatadogMetricsServiceInterface;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
+import java.util.EnumSet;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Service for publishing messages to Google Cloud Pub/Sub.
  * Supports both real Pub/Sub and local emulator (via PUBSUB_EMULATOR_HOST).
  * Only loads when app.messaging.mode=gcp.
+ *
+ * Publishes are asynchronous: messages are batched by the client (element count, request bytes,
+ * delay) under flow control limits, and callers get a future instead of blocking per message.
+ * Transient failures are retried in-process from a bounded buffer; once the buffer is full or
+ * attempts run out, the future fails and the caller (the job outbox) retries later.
  */
 @Service
 @ConditionalOnProperty(name = "app.messaging.mode", havingValue = "gcp")
@@ -27,15 +49,59 @@ public class PubSubService implements JobPublisher {
 
     private static final Logger logger = LoggerFactory.getLogger(PubSubService.class);
 
+    private static final Set<StatusCode.Code> TRANSIENT_CODES = EnumSet.of(
+            StatusCode.Code.UNAVAILABLE,
+            StatusCode.Code.DEADLINE_EXCEEDED,
+            StatusCode.Code.RESOURCE_EXHAUSTED,
+            StatusCode.Code.ABORTED,
+            StatusCode.Code.INTERNAL);
+
     private final String projectId;
     private final String topicName;
+    private final long batchElementCount;
+    private final long batchRequestBytes;
+    private final long batchDelayMs;
+    private final long maxOutstandingMessages;
+    private final long maxOutstandingBytes;
+    private final FlowController.LimitExceededBehavior limitExceededBehavior;
+    private final int retryMaxAttempts;
+    private final long retryBaseDelayMs;
+    private final int retryBufferSize;
+    private final DatadogMetricsServiceInterface metricsService;
+    private final AtomicInteger retryBuffered = new AtomicInteger();
+    private final ScheduledExecutorService retryScheduler;
     private Publisher publisher;
 
     public PubSubService(
             @Value("${pubsub.project-id:#{T(java.lang.System).getenv('GOOGLE_CLOUD_PROJECT')}}") String projectId,
-            @Value("${pubsub.topic-name:document-analysis-topic}") String topicName) {
+            @Value("${pubsub.topic-name:document-analysis-topic}") String topicName,
+            @Value("${pubsub.publisher.batch-element-count:100}") long batchElementCount,
+            @Value("${pubsub.publisher.batch-request-bytes:1048576}") long batchRequestBytes,
+            @Value("${pubsub.publisher.batch-delay-ms:10}") long batchDelayMs,
+            @Value("${pubsub.publisher.max-outstanding-messages:1000}") long maxOutstandingMessages,
+            @Value("${pubsub.publisher.max-outstanding-bytes:10485760}") long maxOutstandingBytes,
+            @Value("${pubsub.publisher.limit-exceeded-behavior:Block}") FlowController.LimitExceededBehavior limitExceededBehavior,
+            @Value("${pubsub.publisher.retry.max-attempts:3}") int retryMaxAttempts,
+            @Value("${pubsub.publisher.retry.base-delay-ms:200}") long retryBaseDelayMs,
+            @Value("${pubsub.publisher.retry.buffer-size:1000}") int retryBufferSize,
+            @Autowired(required = false) DatadogMetricsServiceInterface metricsService) {
         this.projectId = projectId != null && !projectId.isEmpty() ? projectId : "local-project";
         this.topicName = topicName;
+        this.batchElementCount = batchElementCount;
+        this.batchRequestBytes = batchRequestBytes;
+        this.batchDelayMs = batchDelayMs;
+        this.maxOutstandingMessages = maxOutstandingMessages;
+        this.maxOutstandingBytes = maxOutstandingBytes;
+        this.limitExceededBehavior = limitExceededBehavior;
+        this.retryMaxAttempts = retryMaxAttempts;
+        this.retryBaseDelayMs = retryBaseDelayMs;
+        this.retryBufferSize = retryBufferSize;
+        this.metricsService = metricsService;
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "pubsub-publish-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     @PostConstruct
@@ -43,8 +109,21 @@ public class PubSubService implements JobPublisher {
         try {
             TopicName topic = TopicName.of(projectId, topicName);
 
+            BatchingSettings batchingSettings = BatchingSettings.newBuilder()
+                    .setElementCountThreshold(batchElementCount)
+                    .setRequestByteThreshold(batchRequestBytes)
+                    .setDelayThreshold(org.threeten.bp.Duration.ofMillis(batchDelayMs))
+                    .setFlowControlSettings(FlowControlSettings.newBuilder()
+                            .setMaxOutstandingElementCount(maxOutstandingMessages)
+                            .setMaxOutstandingRequestBytes(maxOutstandingBytes)
+                            .setLimitExceededBehavior(limitExceededBehavior)
+                            .build())
+                    .build();
+
             // Publisher will automatically use PUBSUB_EMULATOR_HOST env var if set
-            this.publisher = Publisher.newBuilder(topic).build();
+            initialize(Publisher.newBuilder(topic)
+                    .setBatchingSettings(batchingSettings)
+                    .build());
 
             String emulatorHost = System.getenv("PUBSUB_EMULATOR_HOST");
             if (emulatorHost != null && !emulatorHost.isEmpty()) {
@@ -52,7 +131,10 @@ public class PubSubService implements JobPublisher {
             } else {
                 logger.info("Using real Pub/Sub (Application Default Credentials or service account)");
             }
-            logger.info("Pub/Sub service initialized for topic: projects/{}/topics/{}", projectId, topicName);
+            logger.info("Pub/Sub service initialized for topic: projects/{}/topics/{} (batch: {} msgs/{} bytes/{} ms, "
+                            + "outstanding: {} msgs/{} bytes, {})",
+                    projectId, topicName, batchElementCount, batchRequestBytes, batchDelayMs,
+                    maxOutstandingMessages, maxOutstandingBytes, limitExceededBehavior);
         } catch (Exception e) {
             logger.error("Failed to initialize Pub/Sub publisher", e);
             throw new RuntimeException("Failed to initialize Pub/Sub publisher", e);
@@ -60,14 +142,24 @@ public class PubSubService implements JobPublisher {
     }
 
     /**
-     * Publishes a job analysis message to Pub/Sub.
+     * Uses the given publisher. Split out so tests can supply one without a topic.
+     */
+    void initialize(Publisher publisher) {
+        this.publisher = publisher;
+    }
+
+    /**
+     * Publishes a job analysis message to Pub/Sub. Returns as soon as the message is handed to
+     * the batching publisher; blocks only when flow control limits are reached and the limit
+     * behavior is Block.
      *
      * @param jobId Job UUID
      * @param gcsPath GCS path to the uploaded PDF
      * @param requestId Optional request ID for correlation tracking (can be null)
+     * @return future completing with the Pub/Sub message ID
      */
     @Override
-    public void publishJobQueued(UUID jobId, String gcsPath, String requestId) {
+    public CompletableFuture<String> publishJobQueued(UUID jobId, String gcsPath, String requestId) {
         // Create message payload as JSON string
         String payload = String.format("{\"job_id\":\"%s\",\"gcs_path\":\"%s\"}", jobId.toString(), gcsPath);
 
@@ -85,20 +177,99 @@ public class PubSubService implements JobPublisher {
 
         logger.debug("Publishing message to Pub/Sub topic: {} for job: {}, requestId: {}", topicName, jobId, requestId);
 
+        CompletableFuture<String> result = new CompletableFuture<>();
+        publishAttempt(message, jobId, requestId, 1, System.nanoTime(), result);
+        return result;
+    }
+
+    private void publishAttempt(PubsubMessage message, UUID jobId, String requestId, int attempt,
+                                long startNanos, CompletableFuture<String> result) {
+        ApiFuture<String> future;
         try {
-            ApiFuture<String> future = publisher.publish(message);
-            String messageId = future.get(10, TimeUnit.SECONDS);
-            logger.info("Successfully published message to Pub/Sub. Message ID: {}, Job ID: {}, Request ID: {}", messageId, jobId, requestId);
+            future = publisher.publish(message);
         } catch (Exception e) {
-            logger.error("Failed to publish message to Pub/Sub for job: {}, requestId: {}", jobId, requestId, e);
-            throw new RuntimeException("Failed to publish message to Pub/Sub", e);
+            onPublishFailure(message, jobId, requestId, attempt, startNanos, result, e);
+            return;
         }
+
+        ApiFutures.addCallback(future, new ApiFutureCallback<>() {
+            @Override
+            public void onSuccess(String messageId) {
+                recordPublish(startNanos, attempt > 1 ? "retried" : "success");
+                logger.info("Successfully published message to Pub/Sub. Message ID: {}, Job ID: {}, Request ID: {}, attempt: {}",
+                        messageId, jobId, requestId, attempt);
+                result.complete(messageId);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                onPublishFailure(message, jobId, requestId, attempt, startNanos, result, t);
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    private void onPublishFailure(PubsubMessage message, UUID jobId, String requestId, int attempt,
+                                  long startNanos, CompletableFuture<String> result, Throwable t) {
+        if (attempt < retryMaxAttempts && isTransient(t) && reserveRetrySlot()) {
+            long delayMs = retryBaseDelayMs << (attempt - 1);
+            logger.warn("Transient Pub/Sub publish failure for job: {}, requestId: {}, attempt: {}; retrying in {} ms: {}",
+                    jobId, requestId, attempt, delayMs, t.getMessage());
+            try {
+                retryScheduler.schedule(() -> {
+                    retryBuffered.decrementAndGet();
+                    publishAttempt(message, jobId, requestId, attempt + 1, startNanos, result);
+                }, delayMs, TimeUnit.MILLISECONDS);
+                return;
+            } catch (RejectedExecutionException e) {
+                retryBuffered.decrementAndGet();
+            }
+        }
+
+        recordPublish(startNanos, "failed");
+        logger.error("Failed to publish message to Pub/Sub for job: {}, requestId: {}, attempts: {}",
+                jobId, requestId, attempt, t);
+        result.completeExceptionally(t);
+    }
+
+    private boolean reserveRetrySlot() {
+        if (retryBuffered.incrementAndGet() > retryBufferSize) {
+            retryBuffered.decrementAndGet();
+            logger.warn("Pub/Sub retry buffer full ({}), failing publish back to caller", retryBufferSize);
+            return false;
+        }
+        return true;
+    }
+
+    static boolean isTransient(Throwable t) {
+        if (t instanceof FlowController.FlowControlException) {
+            return true;
+        }
+        if (t instanceof ApiException apiException) {
+            return apiException.isRetryable()
+                    || TRANSIENT_CODES.contains(apiException.getStatusCode().getCode());
+        }
+        return false;
+    }
+
+    private void recordPublish(long startNanos, String outcome) {
+        if (metricsService != null) {
+            metricsService.recordQueuePublish(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), outcome);
+        }
+    }
+
+    /**
+     * Number of publishes currently waiting for an in-process retry.
+     */
+    public int getRetryBufferedCount() {
+        return retryBuffered.get();
     }
 
     @PreDestroy
     public void shutdown() {
+        retryScheduler.shutdownNow();
         if (publisher != null) {
             try {
+                // Flushes any partially filled batch before closing
                 publisher.shutdown();
                 publisher.awaitTermination(5, TimeUnit.SECONDS);
                 logger.info("Pub/Sub publisher shut down successfully");
@@ -108,4 +279,3 @@ public class PubSubService implements JobPublisher {
         }
     }
 }
-
@@ -1,5 +1,6 @@
 package com.policyinsight.api.storage;
 
+import com.google.cloud.storage.Blob;
 import com.google.cloud.storage.BlobId;
 import com.google.cloud.storage.BlobInfo;
 import com.google.cloud.storage.Storage;
@@ -8,10 +9,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.Channels;
 
 /**
  * Service for storing files in Google Cloud Storage.
@@ -111,5 +115,74 @@ public class GcsStorageService implements StorageService {
             throw new IOException("Failed to download file from GCS", e);
         }
     }
-}
 
+    /**
+     * Uploads a job artifact to GCS: jobs/{jobId}/{artifactName}.
+     *
+     * @return GCS path (gs://bucket-name/jobs/{jobId}/{artifactName})
+     */
+    @Override
+    public String uploadArtifact(java.util.UUID jobId, String artifactName, InputStream content, String contentType) throws IOException {
+        String objectName = "jobs/" + jobId + "/" + StorageService.validateArtifactName(artifactName);
+        BlobInfo blobInfo = BlobInfo.newBuilder(BlobId.of(bucketName, objectName))
+                .setContentType(contentType)
+                .build();
+
+        logger.debug("Uploading artifact to GCS: gs://{}/{}", bucketName, objectName);
+
+        try {
+            storage.createFrom(blobInfo, content);
+            String gcsPath = "gs://" + bucketName + "/" + objectName;
+            logger.info("Successfully uploaded artifact to GCS: {}", gcsPath);
+            return gcsPath;
+        } catch (Exception e) {
+            logger.error("Failed to upload artifact to GCS: gs://{}/{}", bucketName, objectName, e);
+            throw new IOException("Failed to upload artifact to GCS", e);
+        }
+    }
+
+    /**
+     * Looks up a job artifact in GCS. The resource streams the object on each read,
+     * so it is never buffered in memory.
+     */
+    @Override
+    public Resource findArtifact(java.util.UUID jobId, String artifactName) throws IOException {
+        BlobId blobId = BlobId.of(bucketName, "jobs/" + jobId + "/" + StorageService.validateArtifactName(artifactName));
+        Blob blob;
+        try {
+            blob = storage.get(blobId);
+        } catch (Exception e) {
+            throw new IOException("Failed to look up artifact in GCS: " + blobId, e);
+        }
+        if (blob == null) {
+            return null;
+        }
+        long size = blob.getSize();
+        return new AbstractResource() {
+            @Override
+            public String getDescription() {
+                return "GCS object [gs://" + blobId.getBucket() + "/" + blobId.getName() + "]";
+            }
+
+            @Override
+            public String getFilename() {
+                return artifactName;
+            }
+
+            @Override
+            public long contentLength() {
+                return size;
+            }
+
+            @Override
+            public boolean exists() {
+                return true;
+            }
+
+            @Override
+            public InputStream getInputStream() {
+                return Channels.newInputStream(storage.reader(blobId));
+            }
+        };
+    }
+}
@@ -4,6 +4,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
@@ -143,5 +145,48 @@ public class LocalStorageService implements StorageService {
             throw new IOException("Failed to download file from local storage", e);
         }
     }
-}
 
+    /**
+     * Uploads a job artifact to local storage: jobs/{jobId}/{artifactName}.
+     *
+     * @return Local storage path (local://jobs/{jobId}/{artifactName})
+     */
+    @Override
+    public String uploadArtifact(UUID jobId, String artifactName, InputStream content, String contentType) throws IOException {
+        String name = StorageService.validateArtifactName(artifactName);
+        Path jobDir = storageRoot.resolve("jobs").resolve(jobId.toString());
+        Files.createDirectories(jobDir);
+
+        Path filePath = jobDir.resolve(name);
+        Path tempPath = null;
+
+        logger.debug("Uploading artifact to local storage: {}", filePath);
+
+        try {
+            // Write to a unique temp file and move, so readers never see a partially written
+            // artifact and concurrent uploads of the same artifact never share a temp file
+            tempPath = Files.createTempFile(jobDir, name + ".", ".tmp");
+            Files.copy(content, tempPath, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(tempPath, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            String storagePath = "local://jobs/" + jobId + "/" + name;
+            logger.info("Successfully uploaded artifact to local storage: {}", storagePath);
+            return storagePath;
+        } catch (Exception e) {
+            if (tempPath != null) {
+                Files.deleteIfExists(tempPath);
+            }
+            logger.error("Failed to upload artifact to local storage: {}", filePath, e);
+            throw new IOException("Failed to upload artifact to local storage", e);
+        }
+    }
+
+    @Override
+    public Resource findArtifact(UUID jobId, String artifactName) {
+        String name = StorageService.validateArtifactName(artifactName);
+        Path filePath = storageRoot.resolve("jobs").resolve(jobId.toString()).resolve(name).normalize();
+        if (!filePath.startsWith(storageRoot) || !Files.isRegularFile(filePath)) {
+            return null;
+        }
+        return new FileSystemResource(filePath);
+    }
+}
@@ -1,8 +1,11 @@
 package com.policyinsight.api.storage;
 
+import org.springframework.core.io.Resource;
+
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.UUID;
+import java.util.regex.Pattern;
 
 /**
  * Interface for storage operations (local filesystem or GCS).
@@ -10,6 +13,9 @@ import java.util.UUID;
  */
 public interface StorageService {
 
+    /** Allowed characters for artifact names (no path separators). */
+    Pattern ARTIFACT_NAME = Pattern.compile("[a-zA-Z0-9._-]{1,128}");
+
     /**
      * Uploads a file to storage with the specified path structure: {jobId}/{filename}
      *
@@ -30,5 +36,44 @@ public interface StorageService {
      * @throws IOException if download fails
      */
     byte[] downloadFile(String storagePath) throws IOException;
-}
 
+    /**
+     * Uploads a derived artifact for a job (e.g. report.json, export PDFs) to jobs/{jobId}/{artifactName}.
+     * Unlike uploadFile, the name is kept, so artifacts never overwrite the uploaded document.pdf.
+     *
+     * @param jobId        Job UUID
+     * @param artifactName Artifact file name (letters, digits, '.', '_' and '-' only)
+     * @param content      Artifact content input stream
+     * @param contentType  MIME type
+     * @return Storage path of the artifact
+     * @throws IOException if upload fails
+     */
+    String uploadArtifact(UUID jobId, String artifactName, InputStream content, String contentType) throws IOException;
+
+    /**
+     * Looks up a stored artifact for a job.
+     * The returned resource knows its content length and can be re-opened, so it can be streamed
+     * and served for HTTP range requests without loading it into memory.
+     *
+     * @param jobId        Job UUID
+     * @param artifactName Artifact file name
+     * @return the artifact resource, or null if it does not exist
+     * @throws IOException if the lookup fails
+     */
+    Resource findArtifact(UUID jobId, String artifactName) throws IOException;
+
+    /**
+     * Validates an artifact name so it cannot escape the job directory.
+     *
+     * @param artifactName Artifact file name
+     * @return the same name if valid
+     * @throws IllegalArgumentException if the name is invalid or reserved
+     */
+    static String validateArtifactName(String artifactName) {
+        if (artifactName == null || !ARTIFACT_NAME.matcher(artifactName).matches()
+                || artifactName.contains("..") || "document.pdf".equals(artifactName)) {
+            throw new IllegalArgumentException("Invalid artifact name: " + artifactName);
+        }
+        return artifactName;
+    }
+}
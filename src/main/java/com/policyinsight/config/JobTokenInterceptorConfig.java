@@ -19,6 +19,7 @@ public class JobTokenInterceptorConfig implements WebMvcConfigurer {
         registry.addInterceptor(jobTokenInterceptor)
                 .addPathPatterns(
                         "/api/documents/*/status",
+                        "/api/documents/*/events",
                         "/api/documents/*/report-json",
                         "/api/documents/*/export/pdf",
                         "/api/documents/*/share",
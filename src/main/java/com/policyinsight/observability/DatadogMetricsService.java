@@ -4,6 +4,7 @@ import com.policyinsight.shared.repository.PolicyJobRepository;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,6 +28,8 @@ import java.util.concurrent.TimeUnit;
  * - policyinsight.job.duration: Timer for job processing duration
  * - policyinsight.job.success: Counter for successful jobs
  * - policyinsight.job.failure: Counter for failed jobs
+ * - policyinsight.maintenance.rows_affected: Distribution of rows touched by reaper/retention runs
+ * - policyinsight.queue.publish_latency_ms: Timer for job queued publishes, tagged by outcome
  */
 @Service
 @ConditionalOnProperty(name = "datadog.enabled", havingValue = "true", matchIfMissing = false)
@@ -278,5 +281,79 @@ public class DatadogMetricsService implements DatadogMetricsServiceInterface {
         logger.debug("Recorded LLM retry: count={}, model={}, task={}, errorCategory={}",
                 retryCount, model, taskType, errorCategory);
     }
-}
 
+    /**
+     * Record rows affected by a scheduled maintenance task run.
+     * @param task Task name (e.g., "job_reaper", "retention_cleanup")
+     * @param rows Number of rows updated or deleted
+     */
+    public void recordMaintenanceRowsAffected(String task, long rows) {
+        DistributionSummary.builder("policyinsight.maintenance.rows_affected")
+                .description("Rows updated or deleted per maintenance task run")
+                .tag("service", "policy-insight")
+                .tag("task", task != null ? task : "unknown")
+                .register(meterRegistry)
+                .record(rows);
+        logger.debug("Recorded maintenance rows affected: task={}, rows={}", task, rows);
+    }
+
+    /**
+     * Record the end-to-end latency of a job queued publish, including in-process retries.
+     * @param durationMs Time from first publish attempt to acknowledgement or final failure
+     * @param outcome "success", "retried" (succeeded after a retry) or "failed"
+     */
+    public void recordQueuePublish(long durationMs, String outcome) {
+        Timer.builder("policyinsight.queue.publish_latency_ms")
+                .description("Job queued publish latency in milliseconds")
+                .tag("service", "policy-insight")
+                .tag("outcome", outcome != null ? outcome : "unknown")
+                .register(meterRegistry)
+                .record(durationMs, TimeUnit.MILLISECONDS);
+        logger.debug("Recorded queue publish: durationMs={}, outcome={}", durationMs, outcome);
+    }
+
+    /**
+     * Record the duration of one document pipeline stage.
+     * @param durationMs Stage wall-clock time in milliseconds
+     * @param stage Stage name (e.g., "extraction", "risk_scan")
+     * @param outcome "success" or "failed"
+     */
+    public void recordStageDuration(long durationMs, String stage, String outcome) {
+        Timer.builder("policyinsight.job.stage_duration_ms")
+                .description("Document pipeline stage duration in milliseconds")
+                .tag("service", "policy-insight")
+                .tag("stage", stage != null ? stage : "unknown")
+                .tag("outcome", outcome != null ? outcome : "unknown")
+                .register(meterRegistry)
+                .record(durationMs, TimeUnit.MILLISECONDS);
+        logger.debug("Recorded stage duration: stage={}, durationMs={}, outcome={}", stage, durationMs, outcome);
+    }
+
+    /**
+     * Record chunks left out of a prompt to keep it within its token budget.
+     * @param taskType Task type (e.g., "qa", "summary")
+     * @param droppedChunks Number of chunks not included
+     */
+    public void recordPromptChunksDropped(String taskType, int droppedChunks) {
+        Counter.builder("policyinsight.llm.prompt_chunks_dropped")
+                .description("Document chunks left out of prompts to stay within the token budget")
+                .tag("service", "policy-insight")
+                .tag("task_type", taskType != null ? taskType : "unknown")
+                .register(meterRegistry)
+                .increment(droppedChunks);
+        logger.debug("Recorded prompt chunks dropped: taskType={}, droppedChunks={}", taskType, droppedChunks);
+    }
+
+    /**
+     * Record a request admitted without counting because the in-memory rate limiter is full.
+     * @param endpoint Rate-limited endpoint (e.g., "/api/questions")
+     */
+    public void recordRateLimitUntracked(String endpoint) {
+        Counter.builder("policyinsight.rate_limit.untracked_requests")
+                .description("Requests admitted uncounted because the rate limiter key map was full")
+                .tag("service", "policy-insight")
+                .tag("endpoint", endpoint != null ? endpoint : "unknown")
+                .register(meterRegistry)
+                .increment();
+    }
+}
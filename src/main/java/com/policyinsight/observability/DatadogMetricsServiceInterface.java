@@ -15,5 +15,10 @@ public interface DatadogMetricsServiceInterface {
     void recordLlmTokens(int inputTokens, int outputTokens, String model, String taskType);
     void recordLlmCostEstimate(double costUsd, String model, String taskType);
     void recordLlmRetry(int retryCount, String model, String taskType, String errorCategory);
+    void recordMaintenanceRowsAffected(String task, long rows);
+    void recordQueuePublish(long durationMs, String outcome);
+    void recordStageDuration(long durationMs, String stage, String outcome);
+    void recordPromptChunksDropped(String taskType, int droppedChunks);
+    void recordRateLimitUntracked(String endpoint);
 }
 
@@ -56,5 +56,29 @@ public class DatadogMetricsServiceStub implements DatadogMetricsServiceInterface
     public void recordLlmRetry(int retryCount, String model, String taskType, String errorCategory) {
         // No-op when Datadog is disabled
     }
-}
 
+    @Override
+    public void recordMaintenanceRowsAffected(String task, long rows) {
+        // No-op when Datadog is disabled
+    }
+
+    @Override
+    public void recordQueuePublish(long durationMs, String outcome) {
+        // No-op when Datadog is disabled
+    }
+
+    @Override
+    public void recordStageDuration(long durationMs, String stage, String outcome) {
+        // No-op when Datadog is disabled
+    }
+
+    @Override
+    public void recordPromptChunksDropped(String taskType, int droppedChunks) {
+        // No-op when Datadog is disabled
+    }
+
+    @Override
+    public void recordRateLimitUntracked(String endpoint) {
+        // No-op when Datadog is disabled
+    }
+}
@@ -0,0 +1,77 @@
+package com.policyinsight.processing;
+
+import com.policyinsight.shared.model.ChunkText;
+import com.policyinsight.shared.model.Report;
+import com.policyinsight.shared.repository.DocumentChunkRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Loads the text of the chunks a report actually cites, for citation display.
+ * Report pages only link to cited chunks, so the remaining chunk text is never fetched.
+ */
+@Service
+public class ChunkCitationService {
+
+    private final DocumentChunkRepository chunkRepository;
+
+    public ChunkCitationService(DocumentChunkRepository chunkRepository) {
+        this.chunkRepository = chunkRepository;
+    }
+
+    /**
+     * Loads text for every chunk cited anywhere in the report, in one query.
+     *
+     * @param jobUuid the job UUID
+     * @param report the report whose citations are resolved
+     * @return cited chunks ordered by chunk index (empty if the report cites nothing)
+     */
+    public List<ChunkText> loadCitedChunks(UUID jobUuid, Report report) {
+        Set<Long> citedIds = collectCitedChunkIds(report);
+        if (citedIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return chunkRepository.findTextByJobUuidAndIdIn(jobUuid, citedIds);
+    }
+
+    /**
+     * Collects chunk IDs referenced by "chunk_ids" arrays and "chunk_id" fields in all report sections.
+     */
+    public Set<Long> collectCitedChunkIds(Report report) {
+        Set<Long> ids = new LinkedHashSet<>();
+        collect(report.getSummaryBullets(), ids);
+        collect(report.getObligations(), ids);
+        collect(report.getRestrictions(), ids);
+        collect(report.getTerminationTriggers(), ids);
+        collect(report.getRiskTaxonomy(), ids);
+        return ids;
+    }
+
+    private void collect(Object node, Set<Long> ids) {
+        if (node instanceof Map<?, ?> map) {
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if ("chunk_id".equals(entry.getKey()) && entry.getValue() instanceof Number number) {
+                    ids.add(number.longValue());
+                } else if ("chunk_ids".equals(entry.getKey()) && entry.getValue() instanceof List<?> list) {
+                    for (Object id : list) {
+                        if (id instanceof Number number) {
+                            ids.add(number.longValue());
+                        }
+                    }
+                } else {
+                    collect(entry.getValue(), ids);
+                }
+            }
+        } else if (node instanceof List<?> list) {
+            for (Object element : list) {
+                collect(element, ids);
+            }
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.policyinsight.processing;
+
+import com.policyinsight.shared.model.DocumentChunk;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The "Document excerpts" block that opens every report and Q&A prompt of a job: each chunk with
+ * its citation tag, e.g. "[Chunk ID: 12, Page: 3]". Rendered once per job into a single char
+ * buffer and shared (through DocumentContextCache) by the risk, summary and obligations prompt
+ * builders and by Q&A, which append it instead of formatting the chunks again.
+ *
+ * Immutable. Prompts over a subset of the chunks (prompt budget, map-reduce windows) use
+ * {@link #select}, which copies the already rendered excerpts of those chunks. Because every
+ * prompt starts with this block, prompts over the same chunks share an identical prefix that
+ * Gemini can serve from cached content (see GeminiContextCache).
+ */
+public final class DocumentContext implements CharSequence {
+
+    private static final String HEADER = "Document excerpts:\n";
+
+    private final UUID jobUuid;
+    private final List<DocumentChunk> chunks;
+    private final char[] text;
+    // End offset (exclusive) of each chunk's excerpt; the first excerpt starts after HEADER
+    private final int[] excerptEnds;
+    private volatile String contentHash;
+
+    private DocumentContext(UUID jobUuid, List<DocumentChunk> chunks, char[] text, int[] excerptEnds) {
+        this.jobUuid = jobUuid;
+        this.chunks = chunks;
+        this.text = text;
+        this.excerptEnds = excerptEnds;
+    }
+
+    /**
+     * Renders the chunks of a job.
+     *
+     * @param jobUuid job the chunks belong to
+     * @param chunks chunks in document order
+     */
+    public static DocumentContext of(UUID jobUuid, List<DocumentChunk> chunks) {
+        List<DocumentChunk> chunksCopy = Collections.unmodifiableList(new ArrayList<>(chunks));
+        String[] tags = new String[chunksCopy.size()];
+        int length = HEADER.length();
+        for (int i = 0; i < tags.length; i++) {
+            DocumentChunk chunk = chunksCopy.get(i);
+            tags[i] = "[Chunk ID: " + chunk.getId() + ", Page: "
+                    + (chunk.getPageNumber() != null ? chunk.getPageNumber() : 0) + "]\n";
+            length += tags[i].length() + textOf(chunk).length() + 2;
+        }
+
+        char[] text = new char[length];
+        int[] excerptEnds = new int[tags.length];
+        HEADER.getChars(0, HEADER.length(), text, 0);
+        int position = HEADER.length();
+        for (int i = 0; i < tags.length; i++) {
+            String chunkText = textOf(chunksCopy.get(i));
+            tags[i].getChars(0, tags[i].length(), text, position);
+            position += tags[i].length();
+            chunkText.getChars(0, chunkText.length(), text, position);
+            position += chunkText.length();
+            text[position++] = '\n';
+            text[position++] = '\n';
+            excerptEnds[i] = position;
+        }
+        return new DocumentContext(jobUuid, chunksCopy, text, excerptEnds);
+    }
+
+    /**
+     * The context restricted to some of its chunks, copied from the rendered excerpts.
+     *
+     * @param selected chunks of this context in document order (as returned by
+     *                 PromptBudgetManager.selectChunks or a window of them)
+     * @return this context when all chunks are selected
+     */
+    public DocumentContext select(List<DocumentChunk> selected) {
+        if (selected == chunks || selected.size() == chunks.size() && selected.equals(chunks)) {
+            return this;
+        }
+
+        int[] indexes = new int[selected.size()];
+        int length = HEADER.length();
+        int next = 0;
+        for (int i = 0; i < indexes.length; i++) {
+            while (next < chunks.size() && chunks.get(next) != selected.get(i)) {
+                next++;
+            }
+            if (next == chunks.size()) {
+                // Not a subsequence of this context's chunks: render from scratch
+                return of(jobUuid, selected);
+            }
+            indexes[i] = next;
+            length += excerptEnds[next] - excerptStart(next);
+            next++;
+        }
+
+        char[] selectedText = new char[length];
+        int[] selectedEnds = new int[indexes.length];
+        System.arraycopy(text, 0, selectedText, 0, HEADER.length());
+        int position = HEADER.length();
+        for (int i = 0; i < indexes.length; i++) {
+            int start = excerptStart(indexes[i]);
+            int excerptLength = excerptEnds[indexes[i]] - start;
+            System.arraycopy(text, start, selectedText, position, excerptLength);
+            position += excerptLength;
+            selectedEnds[i] = position;
+        }
+        return new DocumentContext(jobUuid, Collections.unmodifiableList(new ArrayList<>(selected)), selectedText,
+                selectedEnds);
+    }
+
+    /**
+     * Appends the rendered excerpts to a prompt being built.
+     */
+    public StringBuilder appendTo(StringBuilder prompt) {
+        return prompt.append(text, 0, text.length);
+    }
+
+    /**
+     * The full prompt: these excerpts followed by the task instructions.
+     */
+    public String withInstructions(String instructions) {
+        return appendTo(new StringBuilder(text.length + instructions.length())).append(instructions).toString();
+    }
+
+    /**
+     * SHA-256 of the rendered excerpts (hex), computed once.
+     */
+    public String contentHash() {
+        String hash = contentHash;
+        if (hash == null) {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                ByteBuffer bytes = StandardCharsets.UTF_8.encode(CharBuffer.wrap(text));
+                digest.update(bytes);
+                hash = HexFormat.of().formatHex(digest.digest());
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+            contentHash = hash;
+        }
+        return hash;
+    }
+
+    public UUID getJobUuid() {
+        return jobUuid;
+    }
+
+    /**
+     * The chunks in this context, in document order (unmodifiable).
+     */
+    public List<DocumentChunk> getChunks() {
+        return chunks;
+    }
+
+    @Override
+    public int length() {
+        return text.length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return text[index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return new String(text, start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        return new String(text);
+    }
+
+    private int excerptStart(int index) {
+        return index == 0 ? HEADER.length() : excerptEnds[index - 1];
+    }
+
+    private static String textOf(DocumentChunk chunk) {
+        return chunk.getText() != null ? chunk.getText() : "";
+    }
+}
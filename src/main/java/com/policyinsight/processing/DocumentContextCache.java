@@ -0,0 +1,94 @@
+package com.policyinsight.processing;
+
+import com.policyinsight.shared.model.DocumentChunk;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Bounded, TTL'd cache of rendered DocumentContexts, keyed by job UUID.
+ * Risk analysis (five calls), summary, obligations and every Q&A question of a job embed the same
+ * chunk excerpts; this renders them once and hands the same immutable context to all of them.
+ * A cached context is returned only if the chunks passed in are the ones it was rendered from
+ * (same chunk IDs in the same order), so chunks replaced by a retried job are picked up.
+ */
+@Component
+public class DocumentContextCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentContextCache.class);
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Map<UUID, Entry> entries;
+
+    public DocumentContextCache(
+            @Value("${app.processing.document-context-cache.max-entries:32}") int maxEntries,
+            @Value("${app.processing.document-context-cache.ttl-minutes:30}") long ttlMinutes) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = Duration.ofMinutes(ttlMinutes).toNanos();
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Entry> eldest) {
+                return size() > DocumentContextCache.this.maxEntries;
+            }
+        });
+        logger.info("DocumentContextCache initialized: maxEntries={}, ttlMinutes={}", maxEntries, ttlMinutes);
+    }
+
+    /**
+     * Returns the rendered context for a job's chunks, rendering it on a miss.
+     *
+     * @param chunks all chunks of one job, in document order
+     * @return the context; its getChunks() is the list prompt builders should select from
+     */
+    public DocumentContext forChunks(List<DocumentChunk> chunks) {
+        UUID jobUuid = chunks.isEmpty() ? null : chunks.get(0).getJobUuid();
+        long now = System.nanoTime();
+        Entry cached = jobUuid != null ? entries.get(jobUuid) : null;
+        if (cached != null && now - cached.renderedAtNanos < ttlNanos && sameChunks(cached.context.getChunks(), chunks)) {
+            return cached.context;
+        }
+
+        DocumentContext context = DocumentContext.of(jobUuid, chunks);
+        if (jobUuid != null && maxEntries > 0 && ttlNanos > 0) {
+            entries.put(jobUuid, new Entry(context, now));
+        }
+        logger.debug("Rendered document context: jobUuid={}, chunks={}, chars={}", jobUuid, chunks.size(), context.length());
+        return context;
+    }
+
+    /**
+     * Drops every cached context, for bulk deletions that do not know the affected UUIDs.
+     */
+    public void invalidateAll() {
+        entries.clear();
+        logger.debug("Invalidated all cached document contexts");
+    }
+
+    private static boolean sameChunks(List<DocumentChunk> rendered, List<DocumentChunk> chunks) {
+        if (rendered == chunks) {
+            return true;
+        }
+        if (rendered.size() != chunks.size()) {
+            return false;
+        }
+        for (int i = 0; i < chunks.size(); i++) {
+            if (rendered.get(i).getId() == null || !Objects.equals(rendered.get(i).getId(), chunks.get(i).getId())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private record Entry(DocumentContext context, long renderedAtNanos) {
+    }
+}
@@ -1,38 +1,29 @@
 package com.policyinsight.processing;
 
+import com.google.api.gax.batching.FlowControlSettings;
+import com.google.api.gax.core.InstantiatingExecutorProvider;
 import com.google.cloud.pubsub.v1.AckReplyConsumer;
 import com.google.cloud.pubsub.v1.MessageReceiver;
 import com.google.cloud.pubsub.v1.Subscriber;
 import com.google.pubsub.v1.PubsubMessage;
-import com.policyinsight.api.storage.StorageService;
-import com.policyinsight.processing.model.ExtractedText;
-import com.policyinsight.processing.model.TextChunk;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.policyinsight.shared.model.DocumentChunk;
-import com.policyinsight.shared.model.PolicyJob;
-import com.policyinsight.shared.model.Report;
-import com.policyinsight.shared.repository.DocumentChunkRepository;
+import com.policyinsight.processing.pipeline.DocumentPipeline;
 import com.policyinsight.shared.repository.PolicyJobRepository;
-import com.policyinsight.shared.repository.ReportRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
-import jakarta.transaction.Transactional;
-import java.io.ByteArrayInputStream;
-import java.io.InputStream;
 import java.time.Instant;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.Optional;
+import java.time.temporal.ChronoUnit;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Worker service that consumes Pub/Sub messages and processes documents.
@@ -41,6 +32,15 @@ import java.util.UUID;
  * In push mode: Available as a DocumentJobProcessor bean for PubSubController to use (when app.messaging.mode=gcp).
  *
  * This bean is required in cloudrun profile for PubSubController to process push messages.
+ *
+ * Pull mode follows the same claim/lease semantics as LocalDocumentProcessingWorker: a message is
+ * only processed if it claims the job (PENDING -> PROCESSING with lease); duplicates are acked
+ * without work. Concurrency is bounded by subscriber flow control and the callback executor, and
+ * while a job makes progress its DB lease is extended by a heartbeat and its ack deadline by the
+ * client (up to the lease duration), so slow jobs are not redelivered to other instances.
+ *
+ * The processing itself (download through export) is done by DocumentPipeline, the same engine
+ * the local worker uses.
  */
 @Service
 @ConditionalOnProperty(name = "app.messaging.mode", havingValue = "gcp")
@@ -50,43 +50,41 @@ public class DocumentProcessingWorker implements DocumentJobProcessor {
 
     private final String projectId;
     private final String subscriptionName;
+    private final long maxOutstandingMessages;
+    private final long maxOutstandingBytes;
+    private final int executorThreads;
+    private final int parallelPullCount;
+    private final Set<UUID> inFlightJobs = ConcurrentHashMap.newKeySet();
     private Subscriber subscriber;
 
-    @Autowired
-    private FallbackOcrService fallbackOcrService;
-
-    @Autowired
-    private TextChunkerService textChunkerService;
-
-    @Autowired
-    private DocumentClassifierService documentClassifierService;
+    @Value("${app.job.lease-duration-minutes:30}")
+    private int leaseDurationMinutes;
 
-    @Autowired
-    private RiskAnalysisService riskAnalysisService;
-
-    @Autowired
-    private ReportGenerationService reportGenerationService;
-
-    @Autowired
-    private ReportGroundingValidator reportGroundingValidator;
+    @Value("${app.processing.stage-timeout-seconds:300}")
+    private int stageTimeoutSeconds;
 
     @Autowired
     private PolicyJobRepository policyJobRepository;
 
     @Autowired
-    private DocumentChunkRepository documentChunkRepository;
+    private JobClaimService jobClaimService;
 
     @Autowired
-    private ReportRepository reportRepository;
-
-    @Autowired
-    private StorageService storageService;
+    private DocumentPipeline documentPipeline;
 
     public DocumentProcessingWorker(
             @Value("${pubsub.project-id:#{T(java.lang.System).getenv('GOOGLE_CLOUD_PROJECT')}}") String projectId,
-            @Value("${pubsub.subscription-name:document-analysis-sub}") String subscriptionName) {
+            @Value("${pubsub.subscription-name:document-analysis-sub}") String subscriptionName,
+            @Value("${pubsub.subscriber.max-outstanding-messages:4}") long maxOutstandingMessages,
+            @Value("${pubsub.subscriber.max-outstanding-bytes:10485760}") long maxOutstandingBytes,
+            @Value("${pubsub.subscriber.executor-threads:4}") int executorThreads,
+            @Value("${pubsub.subscriber.parallel-pull-count:1}") int parallelPullCount) {
         this.projectId = projectId != null && !projectId.isEmpty() ? projectId : "local-project";
         this.subscriptionName = subscriptionName;
+        this.maxOutstandingMessages = maxOutstandingMessages;
+        this.maxOutstandingBytes = maxOutstandingBytes;
+        this.executorThreads = executorThreads;
+        this.parallelPullCount = parallelPullCount;
     }
 
     @PostConstruct
@@ -103,22 +101,27 @@ public class DocumentProcessingWorker implements DocumentJobProcessor {
             String subscriptionPath = String.format("projects/%s/subscriptions/%s", projectId, subscriptionName);
             logger.info("Initializing Pub/Sub subscriber for: {}", subscriptionPath);
 
-            MessageReceiver receiver = (PubsubMessage message, AckReplyConsumer consumer) -> {
-                try {
-                    processMessage(message);
-                    consumer.ack();
-                } catch (Exception e) {
-                    logger.error("Failed to process message, nacking", e);
-                    consumer.nack();
-                }
-            };
+            MessageReceiver receiver = this::receiveMessage;
 
+            // Flow control bounds how many jobs run at once on this instance; the client keeps
+            // extending ack deadlines for outstanding messages up to the job lease duration
             this.subscriber = Subscriber.newBuilder(
                     com.google.pubsub.v1.ProjectSubscriptionName.of(projectId, subscriptionName), receiver)
+                    .setFlowControlSettings(FlowControlSettings.newBuilder()
+                            .setMaxOutstandingElementCount(maxOutstandingMessages)
+                            .setMaxOutstandingRequestBytes(maxOutstandingBytes)
+                            .build())
+                    .setExecutorProvider(InstantiatingExecutorProvider.newBuilder()
+                            .setExecutorThreadCount(executorThreads)
+                            .build())
+                    .setParallelPullCount(parallelPullCount)
+                    .setMaxAckExtensionPeriod(org.threeten.bp.Duration.ofMinutes(leaseDurationMinutes))
                     .build();
 
             subscriber.startAsync().awaitRunning();
-            logger.info("Document processing worker started and listening for messages");
+            logger.info("Document processing worker started and listening for messages: maxOutstandingMessages={}, "
+                            + "executorThreads={}, parallelPullCount={}, maxAckExtensionMinutes={}",
+                    maxOutstandingMessages, executorThreads, parallelPullCount, leaseDurationMinutes);
 
         } catch (Exception e) {
             logger.error("Failed to initialize Pub/Sub subscriber", e);
@@ -129,12 +132,71 @@ public class DocumentProcessingWorker implements DocumentJobProcessor {
     @PreDestroy
     public void shutdown() {
         if (subscriber != null) {
-            subscriber.stopAsync();
+            try {
+                // Stop pulling and let in-flight handlers finish before the context closes
+                subscriber.stopAsync().awaitTerminated(30, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                logger.warn("Pub/Sub subscriber did not stop cleanly: {}", e.getMessage());
+            }
             logger.info("Document processing worker stopped");
         }
     }
 
-    private void processMessage(PubsubMessage message) {
+    private void receiveMessage(PubsubMessage message, AckReplyConsumer consumer) {
+        UUID jobId = parseJobId(message);
+        if (jobId == null) {
+            // Redelivering a malformed message would never succeed
+            consumer.ack();
+            return;
+        }
+
+        boolean claimed;
+        try {
+            claimed = jobClaimService.claimJob(jobId);
+        } catch (Exception e) {
+            logger.error("Failed to claim job {}, nacking for redelivery", jobId, e);
+            consumer.nack();
+            return;
+        }
+        if (!claimed) {
+            logger.info("SKIP_DUPLICATE: Job {} already claimed or finished, acking message {}",
+                    jobId, message.getMessageId());
+            consumer.ack();
+            return;
+        }
+
+        try {
+            logger.info("Processing document for job: {}", jobId);
+            processDocument(jobId);
+            consumer.ack();
+        } catch (Exception e) {
+            logger.error("Failed to process message, nacking", e);
+            consumer.nack();
+        }
+    }
+
+    /**
+     * Extends DB leases of jobs running on this instance while they keep reporting progress.
+     * Jobs that stall for longer than the stage timeout are left to expire and be reaped.
+     */
+    @Scheduled(fixedDelayString = "${pubsub.subscriber.lease-heartbeat-ms:60000}")
+    public void extendLeases() {
+        if (inFlightJobs.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        try {
+            int extended = policyJobRepository.extendLeasesIfProgressing(
+                    Set.copyOf(inFlightJobs),
+                    now.plus(leaseDurationMinutes, ChronoUnit.MINUTES),
+                    now.minusSeconds(stageTimeoutSeconds));
+            logger.debug("Extended leases for {} of {} in-flight job(s)", extended, inFlightJobs.size());
+        } catch (Exception e) {
+            logger.warn("Failed to extend job leases: {}", e.getMessage());
+        }
+    }
+
+    private UUID parseJobId(PubsubMessage message) {
         String jobIdStr = message.getAttributesMap().get("job_id");
         if (jobIdStr == null) {
             // Try parsing from payload
@@ -149,178 +211,28 @@ public class DocumentProcessingWorker implements DocumentJobProcessor {
 
         if (jobIdStr == null) {
             logger.error("Message missing job_id attribute");
-            return;
+            return null;
         }
 
-        UUID jobId;
         try {
-            jobId = UUID.fromString(jobIdStr);
+            return UUID.fromString(jobIdStr);
         } catch (IllegalArgumentException e) {
             logger.error("Invalid job_id format: {}", jobIdStr);
-            return;
+            return null;
         }
-
-        logger.info("Processing document for job: {}", jobId);
-        processDocument(jobId);
     }
 
-    @Transactional
+    /**
+     * Runs the shared document pipeline for a claimed job, keeping its lease alive while it runs.
+     * Deliberately not transactional: stages commit as they go, so job progress is visible to
+     * watchers and to the lease heartbeat, and no connection is held across LLM calls.
+     */
     public void processDocument(UUID jobId) {
-        Optional<PolicyJob> jobOpt = policyJobRepository.findByJobUuid(jobId);
-        if (jobOpt.isEmpty()) {
-            logger.error("Job not found: {}", jobId);
-            return;
-        }
-
-        PolicyJob job = jobOpt.get();
-
+        inFlightJobs.add(jobId);
         try {
-            // Update status to PROCESSING
-            job.setStatus("PROCESSING");
-            job.setStartedAt(Instant.now());
-            policyJobRepository.save(job);
-
-            // Download PDF from storage
-            String storagePath = job.getPdfGcsPath();
-            if (storagePath == null || storagePath.isEmpty()) {
-                throw new IllegalArgumentException("Storage path is null or empty");
-            }
-
-            logger.info("Downloading PDF from storage: {}", storagePath);
-            byte[] pdfBytes = storageService.downloadFile(storagePath);
-            InputStream pdfStream = new ByteArrayInputStream(pdfBytes);
-
-            // Extract text using PDFBox (Gemini-only pipeline)
-            ExtractedText extractedText = fallbackOcrService.extractText(pdfStream);
-
-            // Chunk text
-            List<TextChunk> chunks = textChunkerService.chunkText(extractedText);
-
-            // Store chunks in database
-            for (TextChunk chunk : chunks) {
-                DocumentChunk docChunk = new DocumentChunk(jobId);
-                docChunk.setChunkIndex(chunk.getChunkIndex());
-                docChunk.setText(chunk.getText());
-                docChunk.setPageNumber(chunk.getPageNumber());
-                docChunk.setStartOffset(chunk.getStartOffset());
-                docChunk.setEndOffset(chunk.getEndOffset());
-                docChunk.setSpanConfidence(chunk.getSpanConfidence());
-                documentChunkRepository.save(docChunk);
-            }
-
-            logger.info("Stored {} chunks for job: {}", chunks.size(), jobId);
-
-            // Retrieve stored chunks from DB to get IDs
-            List<DocumentChunk> storedChunks = documentChunkRepository.findByJobUuidOrderByChunkIndex(jobId);
-
-            // Classify document
-            String fullText = extractedText.getFullText();
-            DocumentClassifierService.ClassificationResult classification =
-                    documentClassifierService.classify(fullText);
-
-            job.setClassification(classification.getClassification());
-            job.setClassificationConfidence(classification.getConfidence());
-
-            // Risk analysis (5 categories)
-            logger.info("Starting risk analysis for job: {}", jobId);
-            Map<String, Object> riskTaxonomy = riskAnalysisService.analyzeRisks(storedChunks);
-            logger.info("Risk analysis completed for job: {}", jobId);
-
-            // Generate report sections
-            logger.info("Generating report sections for job: {}", jobId);
-            Map<String, Object> documentOverview = reportGenerationService.generateDocumentOverview(job, storedChunks);
-            Map<String, Object> summary = reportGenerationService.generateSummary(storedChunks);
-            Map<String, Object> obligationsAndRestrictions = reportGenerationService.generateObligationsAndRestrictions(storedChunks);
-
-            // Prepare report data for validation (cite-or-abstain enforcement)
-            logger.info("Validating report grounding for job: {}", jobId);
-            Map<String, Object> reportDataMap = new HashMap<>();
-            reportDataMap.put("summary_bullets", summary);
-            reportDataMap.put("obligations", obligationsAndRestrictions.get("obligations"));
-            reportDataMap.put("restrictions", obligationsAndRestrictions.get("restrictions"));
-            reportDataMap.put("termination_triggers", obligationsAndRestrictions.get("termination_triggers"));
-            reportDataMap.put("risk_taxonomy", riskTaxonomy);
-
-            ReportGroundingValidator.ValidationResult validationResult =
-                    reportGroundingValidator.validateReport(reportDataMap, storedChunks);
-
-            if (!validationResult.isValid()) {
-                logger.warn("Report validation found {} violations for job: {}",
-                        validationResult.getViolations().size(), jobId);
-                for (String violation : validationResult.getViolations()) {
-                    logger.warn("Validation violation: {}", violation);
-                }
-                // Violations are handled by abstain statements in validated data, per PRD
-                // Continue processing with validated (abstained) data
-            } else {
-                logger.info("Report validation passed for job: {}", jobId);
-            }
-
-            // Create and save Report with validated data
-            Report report = new Report(jobId);
-            report.setDocumentOverview(documentOverview);
-            @SuppressWarnings("unchecked")
-            Map<String, Object> validatedSummary = (Map<String, Object>) reportDataMap.get("summary_bullets");
-            report.setSummaryBullets(validatedSummary);
-            // obligations/restrictions/termination_triggers from reportDataMap are already validated
-            @SuppressWarnings("unchecked")
-            List<Map<String, Object>> validatedObligations = (List<Map<String, Object>>) reportDataMap.get("obligations");
-            @SuppressWarnings("unchecked")
-            List<Map<String, Object>> validatedRestrictions = (List<Map<String, Object>>) reportDataMap.get("restrictions");
-            @SuppressWarnings("unchecked")
-            List<Map<String, Object>> validatedTerminationTriggers = (List<Map<String, Object>>) reportDataMap.get("termination_triggers");
-            Map<String, Object> obligationsMap = Map.of("items", validatedObligations != null ? validatedObligations : Collections.emptyList());
-            Map<String, Object> restrictionsMap = Map.of("items", validatedRestrictions != null ? validatedRestrictions : Collections.emptyList());
-            Map<String, Object> terminationTriggersMap = Map.of("items", validatedTerminationTriggers != null ? validatedTerminationTriggers : Collections.emptyList());
-            report.setObligations(obligationsMap);
-            report.setRestrictions(restrictionsMap);
-            report.setTerminationTriggers(terminationTriggersMap);
-            @SuppressWarnings("unchecked")
-            Map<String, Object> validatedRiskTaxonomy = (Map<String, Object>) reportDataMap.get("risk_taxonomy");
-            report.setRiskTaxonomy(validatedRiskTaxonomy);
-            report.setGeneratedAt(Instant.now());
-
-            // Optionally upload report JSON to GCS
-            try {
-                ObjectMapper objectMapper = new ObjectMapper();
-                // Use validated report data for GCS upload
-                String reportJson = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(Map.of(
-                        "document_overview", documentOverview,
-                        "summary_bullets", reportDataMap.get("summary_bullets"),
-                        "obligations", reportDataMap.get("obligations"),
-                        "restrictions", reportDataMap.get("restrictions"),
-                        "termination_triggers", reportDataMap.get("termination_triggers"),
-                        "risk_taxonomy", reportDataMap.get("risk_taxonomy")
-                ));
-                String reportStoragePath = storageService.uploadFile(
-                        jobId, "report.json",
-                        new ByteArrayInputStream(reportJson.getBytes()),
-                        "application/json");
-                report.setGcsPath(reportStoragePath);
-                job.setReportGcsPath(reportStoragePath);
-                logger.info("Report JSON uploaded to storage: {}", reportStoragePath);
-            } catch (Exception e) {
-                logger.warn("Failed to upload report JSON to storage, continuing without storage path: {}", e.getMessage());
-            }
-
-            reportRepository.save(report);
-            logger.info("Report saved to database for job: {}", jobId);
-
-            // Update job status
-            job.setStatus("SUCCESS");
-            job.setCompletedAt(Instant.now());
-            policyJobRepository.save(job);
-
-            logger.info("Document processing completed for job: {}, classification: {}",
-                    jobId, classification.getClassification());
-
-        } catch (Exception e) {
-            logger.error("Failed to process document for job: {}", jobId, e);
-            job.setStatus("FAILED");
-            job.setErrorMessage(e.getMessage());
-            job.setCompletedAt(Instant.now());
-            policyJobRepository.save(job);
+            documentPipeline.process(jobId);
+        } finally {
+            inFlightJobs.remove(jobId);
         }
     }
 }
-
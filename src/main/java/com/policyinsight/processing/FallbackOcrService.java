@@ -30,6 +30,20 @@ public class FallbackOcrService {
      * @throws IOException if extraction fails
      */
     public ExtractedText extractText(InputStream pdfInputStream) throws IOException {
+        return extractText(pdfInputStream, JobDeadline.none());
+    }
+
+    /**
+     * Extracts text from a PDF, checking the job deadline between pages so an over-long
+     * extraction stops at the next page boundary.
+     *
+     * @param pdfInputStream PDF file input stream
+     * @param deadline job deadline/cancellation token
+     * @return ExtractedText with pages and confidence scores
+     * @throws IOException if extraction fails
+     * @throws IllegalStateException if the job is cancelled or the stage deadline passes
+     */
+    public ExtractedText extractText(InputStream pdfInputStream, JobDeadline deadline) throws IOException {
         logger.info("Using fallback PDFBox text extraction");
 
         List<ExtractedText.PageText> pages = new ArrayList<>();
@@ -40,6 +54,7 @@ public class FallbackOcrService {
             int totalPages = document.getNumberOfPages();
 
             for (int pageNum = 1; pageNum <= totalPages; pageNum++) {
+                deadline.check();
                 stripper.setStartPage(pageNum);
                 stripper.setEndPage(pageNum);
                 String pageText = stripper.getText(document);
@@ -0,0 +1,305 @@
+package com.policyinsight.processing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.policyinsight.shared.model.PolicyJob;
+import com.policyinsight.shared.repository.PolicyJobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Per-job Gemini cached content for the document context that opens every report and Q&A prompt.
+ * Prompts are built as document excerpts (DocumentContext) followed by task instructions; the
+ * first report call for a job stores the excerpts as cached content and later calls for that job
+ * (other report sections, Q&A) send only their instructions, referencing the cache by name.
+ *
+ * A cache is used only for the exact context it was created from (matched by its SHA-256), so a
+ * prompt built from a different chunk selection is sent inline. Its lifetime is the configured
+ * TTL, capped at the job's retention expiry so cached document text never outlives the job;
+ * RetentionCleanupTask also deletes the caches of the jobs it purges. The cache name, context hash
+ * and expiry are stored on the job row (policy_jobs.gemini_cache_*), so Q&A on a web instance
+ * uses the cache a worker created for the job.
+ *
+ * If a cached call fails before any output was delivered because the cache is gone or not
+ * accessible (e.g. it expired early), the call is repeated once with the context inline. Callers
+ * whose cached context is larger than their prompt budget (Q&A) pass the budgeted selection to
+ * send inline instead.
+ */
+@Component
+public class GeminiContextCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeminiContextCache.class);
+
+    // Caches closer than this to expiry are not used (a call may outlast them)
+    private static final Duration EXPIRY_MARGIN = Duration.ofMinutes(2);
+    // After a failed creation, calls go inline for this long before creation is tried again
+    private static final Duration RETRY_AFTER_FAILURE = Duration.ofMinutes(5);
+    private static final int LOCK_STRIPES = 64;
+
+    private final GeminiService geminiService;
+    private final PolicyJobRepository policyJobRepository;
+    private final TokenCounter tokenCounter;
+    private final boolean enabled;
+    private final int minTokens;
+    private final Duration ttl;
+    private final int retentionDays;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public GeminiContextCache(
+            GeminiService geminiService,
+            PolicyJobRepository policyJobRepository,
+            TokenCounter tokenCounter,
+            @Value("${app.gemini.context-cache.enabled:true}") boolean enabled,
+            @Value("${app.gemini.context-cache.min-tokens:4096}") int minTokens,
+            @Value("${app.gemini.context-cache.ttl-minutes:60}") long ttlMinutes,
+            @Value("${app.retention.days:30}") int retentionDays) {
+        this.geminiService = geminiService;
+        this.policyJobRepository = policyJobRepository;
+        this.tokenCounter = tokenCounter;
+        this.enabled = enabled;
+        this.minTokens = minTokens;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.retentionDays = retentionDays;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        logger.info("GeminiContextCache initialized: enabled={}, minTokens={}, ttlMinutes={}, retentionDays={}",
+                enabled, minTokens, ttlMinutes, retentionDays);
+    }
+
+    /**
+     * Calls Gemini for a JSON response to a prompt made of the job's document context followed by
+     * instructions; see GeminiService.generateJson.
+     *
+     * @param documentContext the job's document excerpts (prompt prefix)
+     * @param instructions the rest of the prompt
+     * @param createCache whether to create the job's cache from this context if it has none
+     */
+    public JsonNode generateJson(DocumentContext documentContext, String instructions, boolean createCache,
+                                 String taskType, JobDeadline deadline) throws IOException {
+        try {
+            // Nothing reaches the caller before the response is complete, so a failure can always go inline
+            return withContext(documentContext, documentContext, instructions, createCache, deadline,
+                    new AtomicBoolean(), (prompt, cachedContent) -> geminiService.generateJson(prompt, cachedContent,
+                            taskType, deadline));
+        } catch (TimeoutException e) {
+            throw new IOException(e); // Reported as IOException by generateJson
+        }
+    }
+
+    /**
+     * Streams a response (Q&A) for a prompt made of the job's document context followed by
+     * instructions; see GeminiService.generateContentStream.
+     */
+    public String generateContentStream(DocumentContext documentContext, String instructions, boolean createCache,
+                                        String taskType, JobDeadline deadline, Consumer<String> onText)
+            throws IOException {
+        return generateContentStream(documentContext, documentContext, instructions, createCache, taskType,
+                deadline, onText);
+    }
+
+    /**
+     * Streams a response using the job's cache for documentContext when there is one, and
+     * sending inlineContext otherwise (or when the cached call fails).
+     *
+     * @param documentContext context the job's cache must match
+     * @param inlineContext context to send when the cache is not used, within the task's budget
+     */
+    public String generateContentStream(DocumentContext documentContext, DocumentContext inlineContext,
+                                        String instructions, boolean createCache, String taskType,
+                                        JobDeadline deadline, Consumer<String> onText) throws IOException {
+        AtomicBoolean delivered = new AtomicBoolean();
+        Consumer<String> tracking = text -> {
+            delivered.set(true);
+            onText.accept(text);
+        };
+        try {
+            return withContext(documentContext, inlineContext, instructions, createCache, deadline, delivered,
+                    (prompt, cachedContent) -> geminiService.generateContentStream(prompt, cachedContent, taskType,
+                            deadline, tracking));
+        } catch (TimeoutException e) {
+            throw new IOException(e); // Not thrown by the streaming call
+        }
+    }
+
+    /**
+     * Calls Gemini with a prompt made of the job's document context followed by instructions;
+     * see GeminiService.generateContent.
+     */
+    public String generateContent(DocumentContext documentContext, String instructions, boolean createCache,
+                                  int timeoutSeconds, String taskType) throws IOException, TimeoutException {
+        return generateContent(documentContext, documentContext, instructions, createCache, timeoutSeconds, taskType);
+    }
+
+    /**
+     * Calls Gemini using the job's cache for documentContext when there is one, and sending
+     * inlineContext otherwise (or when the cached call fails).
+     *
+     * @param documentContext context the job's cache must match
+     * @param inlineContext context to send when the cache is not used, within the task's budget
+     */
+    public String generateContent(DocumentContext documentContext, DocumentContext inlineContext, String instructions,
+                                  boolean createCache, int timeoutSeconds, String taskType)
+            throws IOException, TimeoutException {
+        JobDeadline deadline = JobDeadline.none();
+        return withContext(documentContext, inlineContext, instructions, createCache, deadline, new AtomicBoolean(),
+                (prompt, cachedContent) -> geminiService.generateContent(prompt, cachedContent, timeoutSeconds,
+                        taskType, deadline));
+    }
+
+    /**
+     * Whether the job has a usable cache for exactly this document context.
+     */
+    public boolean isCached(DocumentContext documentContext) {
+        return enabled && geminiService.isCachedContentAvailable() && documentContext.getJobUuid() != null
+                && lookup(documentContext.getJobUuid(), documentContext.contentHash()).isPresent();
+    }
+
+    /**
+     * Deletes at Gemini the unexpired caches of jobs created before the retention cutoff. Called
+     * before those jobs are purged, while their rows still hold the cache names.
+     *
+     * @param cutoff jobs created before this instant are being purged
+     * @return the number of caches deleted
+     */
+    public int deleteCachesOfJobsCreatedBefore(Instant cutoff) {
+        List<String> names = policyJobRepository.findLiveGeminiCachesCreatedBefore(cutoff, Instant.now());
+        for (String name : names) {
+            geminiService.deleteCachedContent(name);
+        }
+        if (!names.isEmpty()) {
+            logger.info("Deleted {} Gemini context caches of purged jobs", names.size());
+        }
+        return names.size();
+    }
+
+    private <T> T withContext(DocumentContext documentContext, DocumentContext inlineContext, String instructions,
+                              boolean createCache, JobDeadline deadline, AtomicBoolean delivered,
+                              GeminiCall<T> call) throws IOException, TimeoutException {
+        UUID jobUuid = documentContext.getJobUuid();
+        Optional<Entry> cached = Optional.empty();
+        if (enabled && jobUuid != null && geminiService.isCachedContentAvailable()) {
+            String contextHash = documentContext.contentHash();
+            cached = createCache ? getOrCreate(jobUuid, documentContext, contextHash) : lookup(jobUuid, contextHash);
+        }
+
+        if (cached.isPresent()) {
+            try {
+                return call.apply(instructions, cached.get().name());
+            } catch (IOException e) {
+                // Only a missing or inaccessible cache is worth an inline retry; anything else
+                // (rate limits and server errors already retried, bad requests) would fail again
+                if (delivered.get() || !GeminiService.isCachedContentError(e)) {
+                    throw e;
+                }
+                logger.warn("Cached context {} failed for job {}, sending the context inline: {}",
+                        cached.get().name(), jobUuid, e.getMessage());
+                policyJobRepository.clearGeminiCache(jobUuid, cached.get().name());
+                deadline.planLlmCalls(1);
+            }
+        }
+        return call.apply(inlineContext.withInstructions(instructions), null);
+    }
+
+    private Optional<Entry> lookup(UUID jobUuid, String contextHash) {
+        return policyJobRepository.findByJobUuid(jobUuid).map(Entry::of)
+                .filter(entry -> entry.name() != null && entry.matches(contextHash, Instant.now()));
+    }
+
+    private Optional<Entry> getOrCreate(UUID jobUuid, DocumentContext documentContext, String contextHash) {
+        // Serializes creation for a job within this instance; a job is processed by one worker
+        synchronized (locks[Math.floorMod(jobUuid.hashCode(), LOCK_STRIPES)]) {
+            PolicyJob job = policyJobRepository.findByJobUuid(jobUuid).orElse(null);
+            if (job == null) {
+                return Optional.empty();
+            }
+            Entry existing = Entry.of(job);
+            Instant now = Instant.now();
+            if (existing.matches(contextHash, now)) {
+                // A failed or skipped creation is recorded too, so it is not retried on every call
+                return existing.name() != null ? Optional.of(existing) : Optional.empty();
+            }
+
+            Entry created = create(jobUuid, job.getCreatedAt(), documentContext, contextHash, now);
+            if (created == null) {
+                return Optional.empty();
+            }
+            if (policyJobRepository.updateGeminiCache(jobUuid, created.name(), contextHash, created.expiresAt()) == 0) {
+                // Job purged meanwhile: nothing would delete the cache before its TTL
+                if (created.name() != null) {
+                    geminiService.deleteCachedContent(created.name());
+                }
+                return Optional.empty();
+            }
+            if (existing.name() != null && existing.expiresAt().isAfter(now)) {
+                geminiService.deleteCachedContent(existing.name());
+            }
+            return created.name() != null ? Optional.of(created) : Optional.empty();
+        }
+    }
+
+    private Entry create(UUID jobUuid, Instant jobCreatedAt, DocumentContext documentContext, String contextHash,
+                         Instant now) {
+        // Below the provider minimum (and not worth it for short documents)
+        int contextTokens = tokenCounter.count(documentContext);
+        if (contextTokens < minTokens) {
+            logger.debug("Not caching context for job {}: ~{} tokens (minimum {})", jobUuid, contextTokens, minTokens);
+            return new Entry(null, contextHash, now.plus(ttl));
+        }
+
+        if (jobCreatedAt == null) {
+            return null;
+        }
+        Instant expiresAt = now.plus(ttl);
+        Instant retentionExpiry = jobCreatedAt.plus(retentionDays, ChronoUnit.DAYS);
+        if (retentionExpiry.isBefore(expiresAt)) {
+            expiresAt = retentionExpiry;
+        }
+        if (expiresAt.isBefore(now.plus(EXPIRY_MARGIN.multipliedBy(2)))) {
+            return null; // Job is about to be purged
+        }
+
+        String name = geminiService.createCachedContent(documentContext.toString(), Duration.between(now, expiresAt),
+                "policyinsight-job-" + jobUuid).orElse(null);
+        if (name == null) {
+            return new Entry(null, contextHash, now.plus(RETRY_AFTER_FAILURE));
+        }
+        logger.info("Cached document context for job {}: name={}, tokens≈{}, expiresAt={}",
+                jobUuid, name, contextTokens, expiresAt);
+        return new Entry(name, contextHash, expiresAt);
+    }
+
+    /**
+     * A job's cache as stored on its row; name is null when caching was skipped or failed for
+     * this context, and contextHash is null when the job has no cache.
+     */
+    private record Entry(String name, String contextHash, Instant expiresAt) {
+
+        static Entry of(PolicyJob job) {
+            return new Entry(job.getGeminiCacheName(), job.getGeminiCacheHash(), job.getGeminiCacheExpiresAt());
+        }
+
+        // Caches closer than EXPIRY_MARGIN to expiry are not used
+        boolean matches(String hash, Instant now) {
+            return contextHash != null && contextHash.equals(hash) && expiresAt != null
+                    && expiresAt.isAfter(now.plus(EXPIRY_MARGIN));
+        }
+    }
+
+    @FunctionalInterface
+    private interface GeminiCall<T> {
+        T apply(String prompt, String cachedContent) throws IOException, TimeoutException;
+    }
+}
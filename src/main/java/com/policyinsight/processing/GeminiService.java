@@ -3,8 +3,16 @@ package com.policyinsight.processing;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.genai.Client;
+import com.google.genai.ResponseStream;
+import com.google.genai.errors.ApiException;
+import com.google.genai.types.CachedContent;
+import com.google.genai.types.Content;
+import com.google.genai.types.CreateCachedContentConfig;
+import com.google.genai.types.GenerateContentConfig;
 import com.google.genai.types.HttpOptions;
 import com.google.genai.types.GenerateContentResponse;
+import com.google.genai.types.GenerateContentResponseUsageMetadata;
+import com.google.genai.types.Part;
 import com.policyinsight.observability.DatadogMetricsServiceInterface;
 import com.policyinsight.observability.TracingServiceInterface;
 import com.policyinsight.util.Strings;
@@ -17,8 +25,13 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
 import java.util.Random;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
 /**
  * Service for calling Google Vertex AI Gemini API.
@@ -31,6 +44,7 @@ public class GeminiService implements GeminiServiceInterface {
     private static final Logger logger = LoggerFactory.getLogger(GeminiService.class);
     private static final int DEFAULT_TIMEOUT_SECONDS = 10;
     private static final String DEFAULT_MODEL = "gemini-2.0-flash-exp";
+    private static final int STUB_STREAM_CHUNK_CHARS = 16;
     private static final Random random = new Random();
 
     private final boolean enabled;
@@ -43,12 +57,17 @@ public class GeminiService implements GeminiServiceInterface {
     private final TracingServiceInterface tracingService;
     private final int maxRetryAttempts;
     private final long baseRetryDelayMs;
+    private final TokenCounter tokenCounter;
+    private final int maxPromptTokens;
 
     // Gemini pricing (approximate, as of 2024)
     // Input: $0.0005 per 1K tokens, Output: $0.0015 per 1K tokens (for gemini-2.0-flash-exp)
     private static final double INPUT_COST_PER_1K_TOKENS = 0.0005;
     private static final double OUTPUT_COST_PER_1K_TOKENS = 0.0015;
+    // Input tokens served from cached content are billed at a quarter of the input rate
+    private static final double CACHED_INPUT_COST_FACTOR = 0.25;
 
+    @Autowired
     public GeminiService(
             @Value("${vertexai.enabled:false}") boolean enabled,
             @Value("${vertexai.project-id:${GOOGLE_CLOUD_PROJECT:local-project}}") String projectId,
@@ -57,7 +76,9 @@ public class GeminiService implements GeminiServiceInterface {
             @Value("${app.gemini.retry.max-attempts:3}") int maxRetryAttempts,
             @Value("${app.gemini.retry.base-delay-ms:1000}") long baseRetryDelayMs,
             @Autowired(required = false) DatadogMetricsServiceInterface metricsService,
-            @Autowired(required = false) TracingServiceInterface tracingService) {
+            @Autowired(required = false) TracingServiceInterface tracingService,
+            TokenCounter tokenCounter,
+            @Value("${app.gemini.budget.max-prompt-tokens:900000}") int maxPromptTokens) {
         this.enabled = enabled;
         this.projectId = projectId;
         this.location = location;
@@ -67,9 +88,11 @@ public class GeminiService implements GeminiServiceInterface {
         this.tracingService = tracingService; // May be null if Datadog is disabled
         this.maxRetryAttempts = maxRetryAttempts;
         this.baseRetryDelayMs = baseRetryDelayMs;
+        this.tokenCounter = tokenCounter;
+        this.maxPromptTokens = maxPromptTokens;
 
-        logger.info("GeminiService initialized: enabled={}, projectId={}, location={}, model={}, maxRetryAttempts={}, baseRetryDelayMs={}",
-                this.enabled, this.projectId, this.location, this.model, this.maxRetryAttempts, this.baseRetryDelayMs);
+        logger.info("GeminiService initialized: enabled={}, projectId={}, location={}, model={}, maxRetryAttempts={}, baseRetryDelayMs={}, maxPromptTokens={}",
+                this.enabled, this.projectId, this.location, this.model, this.maxRetryAttempts, this.baseRetryDelayMs, this.maxPromptTokens);
 
         // Initialize Google Gen AI SDK client only if enabled
         if (this.enabled && !"local-project".equals(projectId)) {
@@ -136,8 +159,48 @@ public class GeminiService implements GeminiServiceInterface {
      * @throws TimeoutException if request times out
      */
     public String generateContent(String prompt, int timeoutSeconds, String taskType) throws IOException, TimeoutException {
-        logger.debug("Calling Gemini API: enabled={}, model={}, promptLength={}, taskType={}",
-                enabled, model, prompt.length(), taskType);
+        return generateContent(prompt, timeoutSeconds, taskType, JobDeadline.none());
+    }
+
+    /**
+     * Calls Gemini API on behalf of a job. The call is made asynchronously and waited on through
+     * the job deadline, so when the job is cancelled or its stage runs out of time the call (and
+     * any retry backoff) is abandoned and the worker thread released right away.
+     *
+     * @param prompt The prompt to send to Gemini
+     * @param timeoutSeconds Timeout in seconds
+     * @param taskType Task type for metrics (e.g., "classification", "risk_analysis", "summary", "qa")
+     * @param deadline job deadline/cancellation token
+     * @return Generated text response
+     * @throws IOException if API call fails
+     * @throws TimeoutException if request times out
+     * @throws IllegalStateException if the job is cancelled or the stage deadline passes
+     */
+    public String generateContent(String prompt, int timeoutSeconds, String taskType, JobDeadline deadline)
+            throws IOException, TimeoutException {
+        return generateContent(prompt, null, timeoutSeconds, taskType, deadline);
+    }
+
+    /**
+     * Calls Gemini API on behalf of a job, optionally on top of cached content. With a cached
+     * content name the prompt holds only what follows the cached prefix (see GeminiContextCache).
+     *
+     * @param prompt The prompt to send to Gemini
+     * @param cachedContent name of the cached content to prepend, or null
+     * @param timeoutSeconds Timeout in seconds
+     * @param taskType Task type for metrics
+     * @param deadline job deadline/cancellation token
+     * @return Generated text response
+     * @throws IOException if API call fails
+     * @throws TimeoutException if request times out
+     * @throws IllegalStateException if the job is cancelled or the stage deadline passes
+     */
+    public String generateContent(String prompt, String cachedContent, int timeoutSeconds, String taskType,
+                                  JobDeadline deadline) throws IOException, TimeoutException {
+        deadline.check();
+        int promptTokens = checkPromptSize(prompt, taskType);
+        logger.debug("Calling Gemini API: enabled={}, model={}, promptLength={}, promptTokens≈{}, taskType={}",
+                enabled, model, prompt.length(), promptTokens, taskType);
 
         long startTime = System.currentTimeMillis();
 
@@ -150,7 +213,11 @@ public class GeminiService implements GeminiServiceInterface {
                     .setAttribute("model", Strings.safe(model, DEFAULT_MODEL))
                     .setAttribute("task_type", Strings.safe(taskType))
                     .setAttribute("prompt_length", prompt.length())
+                    .setAttribute("prompt_tokens_estimate", promptTokens)
                     .startSpan();
+            if (cachedContent != null) {
+                llmSpan.setAttribute("cached_content", true);
+            }
         }
 
         try (io.opentelemetry.context.Scope scope = llmSpan != null ? llmSpan.makeCurrent() : null) {
@@ -180,14 +247,196 @@ public class GeminiService implements GeminiServiceInterface {
             }
 
             // Real Vertex AI implementation using Google Gen AI SDK with retry logic
-            return generateContentWithRetry(prompt, timeoutSeconds, taskType, startTime, llmSpan);
+            return generateContentWithRetry(prompt, contentConfig(cachedContent), timeoutSeconds, taskType, startTime,
+                    llmSpan, deadline);
         } finally {
+            // Finished calls count towards the job's LLM call progress, failed or not
+            deadline.llmCallDone();
             if (llmSpan != null) {
                 llmSpan.end();
             }
         }
     }
 
+    /**
+     * Streams a Gemini response, handing each text fragment to onText as it arrives, and returns
+     * the full response text. Used to render Q&A answers as they are generated; job pipeline calls
+     * use generateContent / generateJson, whose in-flight wait the job deadline can abandon.
+     *
+     * Retries follow the same policy as generateContent, but only until the first fragment has
+     * been delivered; text already handed to the caller cannot be taken back, so a failure after
+     * that point is returned as an error. The deadline is checked between fragments, and cancelling
+     * it closes the stream so a read blocked waiting for the next fragment is released.
+     *
+     * @param prompt The prompt to send to Gemini
+     * @param taskType Task type for metrics (e.g., "summary", "risk_analysis", "qa")
+     * @param deadline job deadline/cancellation token
+     * @param onText receives each text fragment in order
+     * @return Full generated text response
+     * @throws IOException if API call fails
+     * @throws IllegalStateException if the job is cancelled or the stage deadline passes
+     */
+    public String generateContentStream(String prompt, String taskType, JobDeadline deadline,
+                                        Consumer<String> onText) throws IOException {
+        return generateContentStream(prompt, null, taskType, deadline, onText);
+    }
+
+    /**
+     * Streams a Gemini response on top of cached content; see generateContentStream and
+     * generateContent(String, String, int, String, JobDeadline).
+     *
+     * @param cachedContent name of the cached content to prepend, or null
+     */
+    public String generateContentStream(String prompt, String cachedContent, String taskType, JobDeadline deadline,
+                                        Consumer<String> onText) throws IOException {
+        deadline.check();
+        int promptTokens = checkPromptSize(prompt, taskType);
+        logger.debug("Streaming Gemini API call: enabled={}, model={}, promptLength={}, promptTokens≈{}, taskType={}",
+                enabled, model, prompt.length(), promptTokens, taskType);
+
+        long startTime = System.currentTimeMillis();
+
+        Span llmSpan = null;
+        if (tracingService != null) {
+            llmSpan = tracingService.spanBuilder("llm.call")
+                    .setAttribute("stage", "llm")
+                    .setAttribute("provider", "gemini")
+                    .setAttribute("model", Strings.safe(model, DEFAULT_MODEL))
+                    .setAttribute("task_type", Strings.safe(taskType))
+                    .setAttribute("prompt_length", prompt.length())
+                    .setAttribute("prompt_tokens_estimate", promptTokens)
+                    .setAttribute("streaming", true)
+                    .startSpan();
+            if (cachedContent != null) {
+                llmSpan.setAttribute("cached_content", true);
+            }
+        }
+
+        try (io.opentelemetry.context.Scope scope = llmSpan != null ? llmSpan.makeCurrent() : null) {
+            if (!enabled) {
+                logger.debug("Using stub mode (vertexai.enabled=false)");
+                if (llmSpan != null) {
+                    llmSpan.setAttribute("stub_mode", true);
+                }
+                // Stream the stub in small fragments so callers exercise the incremental path
+                String stubResponse = generateStubResponse(prompt);
+                for (int i = 0; i < stubResponse.length(); i += STUB_STREAM_CHUNK_CHARS) {
+                    onText.accept(stubResponse.substring(i, Math.min(stubResponse.length(), i + STUB_STREAM_CHUNK_CHARS)));
+                }
+                if (metricsService != null) {
+                    metricsService.recordLlmLatency(System.currentTimeMillis() - startTime, model, taskType);
+                }
+                if (llmSpan != null) {
+                    llmSpan.setStatus(StatusCode.OK);
+                    llmSpan.setAttribute("response_length", stubResponse.length());
+                }
+                return stubResponse;
+            }
+
+            if (client == null) {
+                throw new IOException("Vertex AI is enabled but client initialization failed");
+            }
+
+            return generateContentStreamWithRetry(prompt, contentConfig(cachedContent), taskType, startTime, llmSpan,
+                    deadline, onText);
+        } finally {
+            // Finished calls count towards the job's LLM call progress, failed or not
+            deadline.llmCallDone();
+            if (llmSpan != null) {
+                llmSpan.end();
+            }
+        }
+    }
+
+    /**
+     * Calls Gemini for a JSON response on behalf of a job and parses it (see parseJsonResponse).
+     * The call goes through the async generateContent path, so the job deadline abandons it while
+     * it is in flight.
+     *
+     * @param prompt The prompt to send to Gemini
+     * @param taskType Task type for metrics
+     * @param deadline job deadline/cancellation token
+     * @return the parsed root node
+     * @throws IOException if the API call or parsing fails
+     * @throws IllegalStateException if the job is cancelled or the stage deadline passes
+     */
+    public JsonNode generateJson(String prompt, String taskType, JobDeadline deadline) throws IOException {
+        return generateJson(prompt, null, taskType, deadline);
+    }
+
+    /**
+     * Calls Gemini for a JSON response on top of cached content; see
+     * generateJson(String, String, JobDeadline).
+     *
+     * @param cachedContent name of the cached content to prepend, or null
+     */
+    public JsonNode generateJson(String prompt, String cachedContent, String taskType, JobDeadline deadline)
+            throws IOException {
+        String responseText;
+        try {
+            responseText = generateContent(prompt, cachedContent, DEFAULT_TIMEOUT_SECONDS, taskType, deadline);
+        } catch (TimeoutException e) {
+            throw new IOException("Gemini API call timed out: " + e.getMessage(), e);
+        }
+        return parseJsonResponse(responseText);
+    }
+
+    /**
+     * Stores text as Gemini cached content so later calls can reference it by name instead of
+     * resending it. Not available in stub mode.
+     *
+     * @param contents text to cache (sent as a user turn)
+     * @param ttl how long Gemini keeps the content
+     * @param displayName label shown when listing caches
+     * @return the cached content name, or empty if caching is unavailable or failed
+     */
+    public Optional<String> createCachedContent(String contents, Duration ttl, String displayName) {
+        if (!enabled || client == null) {
+            return Optional.empty();
+        }
+        try {
+            CachedContent cachedContent = client.caches.create(model, CreateCachedContentConfig.builder()
+                    .contents(List.of(Content.builder().role("user").parts(List.of(Part.fromText(contents))).build()))
+                    .ttl(ttl)
+                    .displayName(displayName)
+                    .build());
+            logger.debug("Created Gemini cached content: name={}, ttl={}", cachedContent.name().orElse(null), ttl);
+            return cachedContent.name();
+        } catch (Exception e) {
+            logger.warn("Failed to create Gemini cached content {}: {}", displayName, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Deletes cached content ahead of its expiry. Failures are logged; the content still expires
+     * at the end of its TTL.
+     *
+     * @param name cached content name returned by createCachedContent
+     */
+    public void deleteCachedContent(String name) {
+        if (client == null) {
+            return;
+        }
+        try {
+            client.caches.delete(name, null);
+            logger.debug("Deleted Gemini cached content: name={}", name);
+        } catch (Exception e) {
+            logger.warn("Failed to delete Gemini cached content {}: {}", name, e.getMessage());
+        }
+    }
+
+    /**
+     * Whether createCachedContent can be used (false in stub mode).
+     */
+    public boolean isCachedContentAvailable() {
+        return enabled && client != null;
+    }
+
+    private static GenerateContentConfig contentConfig(String cachedContent) {
+        return cachedContent != null ? GenerateContentConfig.builder().cachedContent(cachedContent).build() : null;
+    }
+
     /**
      * Parses a JSON response from Gemini and returns the JSON node.
      * Handles common JSON formatting issues (markdown code blocks, etc.).
@@ -224,16 +473,19 @@ public class GeminiService implements GeminiServiceInterface {
      * Uses exponential backoff with jitter.
      *
      * @param prompt The prompt to send
+     * @param config request config (cached content), or null
      * @param timeoutSeconds Timeout in seconds
      * @param taskType Task type for metrics
      * @param startTime Start time for latency tracking
      * @param llmSpan OpenTelemetry span for tracing
+     * @param deadline job deadline/cancellation token
      * @return Generated text response
      * @throws IOException if API call fails after all retries
      * @throws TimeoutException if request times out after all retries
      */
-    private String generateContentWithRetry(String prompt, int timeoutSeconds, String taskType,
-                                             long startTime, Span llmSpan) throws IOException, TimeoutException {
+    private String generateContentWithRetry(String prompt, GenerateContentConfig config, int timeoutSeconds,
+                                             String taskType, long startTime, Span llmSpan, JobDeadline deadline)
+            throws IOException, TimeoutException {
         int attempt = 0;
         Exception lastException = null;
         String errorCategory = "unknown";
@@ -241,8 +493,13 @@ public class GeminiService implements GeminiServiceInterface {
         while (attempt < maxRetryAttempts) {
             attempt++;
             try {
-                // Pattern: client.models.generateContent(modelId, promptOrContent, null)
-                GenerateContentResponse response = client.models.generateContent(model, prompt, null);
+                // Async variant so the wait can be abandoned when the job deadline passes
+                GenerateContentResponse response;
+                try {
+                    response = deadline.await(client.async.models.generateContent(model, prompt, config));
+                } catch (ExecutionException e) {
+                    throw e.getCause() instanceof Exception cause ? cause : e;
+                }
 
                 // Use SDK accessor response.text()
                 String responseText = response.text();
@@ -251,51 +508,14 @@ public class GeminiService implements GeminiServiceInterface {
                     throw new IOException("Gemini API returned empty or null response");
                 }
 
-                long durationMs = System.currentTimeMillis() - startTime;
-
-                // Estimate token usage and cost
-                // Note: Google Gen AI SDK may not expose usage metadata directly
-                // We estimate based on prompt and response length (rough approximation: 1 token ≈ 4 chars)
-                int estimatedInputTokens = prompt.length() / 4;
-                int estimatedOutputTokens = responseText.length() / 4;
-                double estimatedCost = (estimatedInputTokens * INPUT_COST_PER_1K_TOKENS / 1000.0) +
-                                      (estimatedOutputTokens * OUTPUT_COST_PER_1K_TOKENS / 1000.0);
-
-                // Track metrics if Datadog is enabled
-                if (metricsService != null) {
-                    metricsService.recordLlmLatency(durationMs, model, taskType);
-                    metricsService.recordLlmCost(estimatedCost, model, taskType);
-                    metricsService.recordLlmTokens(estimatedInputTokens, estimatedOutputTokens, model, taskType);
-                    metricsService.recordLlmCostEstimate(estimatedCost, model, taskType);
-                    // Record retry count (0 for first attempt, 1+ for retries)
-                    if (attempt > 1) {
-                        metricsService.recordLlmRetry(attempt - 1, model, taskType, errorCategory);
-                    }
-
-                    logger.debug("Gemini API call metrics: duration={}ms, estimatedCost=${}, inputTokens≈{}, outputTokens≈{}, attempt={}",
-                            durationMs, estimatedCost, estimatedInputTokens, estimatedOutputTokens, attempt);
-                }
-
-                // Set span attributes
-                if (llmSpan != null) {
-                    llmSpan.setStatus(StatusCode.OK);
-                    llmSpan.setAttribute("duration_ms", durationMs);
-                    llmSpan.setAttribute("tokens.input", estimatedInputTokens);
-                    llmSpan.setAttribute("tokens.output", estimatedOutputTokens);
-                    llmSpan.setAttribute("tokens.total", estimatedInputTokens + estimatedOutputTokens);
-                    llmSpan.setAttribute("cost_estimate_usd", estimatedCost);
-                    llmSpan.setAttribute("response_length", responseText.length());
-                    if (attempt > 1) {
-                        llmSpan.setAttribute("retry_count", attempt - 1);
-                        llmSpan.setAttribute("error_category", errorCategory);
-                    }
-                }
-
+                recordSuccessMetrics(prompt, responseText, response.usageMetadata(), startTime, taskType, attempt,
+                        errorCategory, llmSpan);
                 logger.debug("Gemini API call successful, responseLength={}, attempt={}", responseText.length(), attempt);
                 return responseText;
 
             } catch (IOException e) {
                 lastException = e;
+                abortIfDeadlinePassed(deadline, startTime, taskType, attempt, llmSpan, e);
                 // Check if this is a retryable error (429 or 5xx)
                 if (isRetryableError(e)) {
                     errorCategory = extractErrorCategory(e);
@@ -303,7 +523,7 @@ public class GeminiService implements GeminiServiceInterface {
                         long delayMs = calculateBackoffDelay(attempt);
                         logger.warn("Gemini API call failed with retryable error (attempt {}/{}), retrying after {}ms: {}",
                                 attempt, maxRetryAttempts, delayMs, e.getMessage());
-                        sleepWithInterrupt(delayMs);
+                        deadline.sleep(delayMs);
                         continue;
                     }
                 } else {
@@ -318,6 +538,7 @@ public class GeminiService implements GeminiServiceInterface {
 
             } catch (Exception e) {
                 lastException = e;
+                abortIfDeadlinePassed(deadline, startTime, taskType, attempt, llmSpan, e);
                 // Check if this is a retryable error (wrapped 429 or 5xx)
                 if (isRetryableError(e)) {
                     errorCategory = extractErrorCategory(e);
@@ -325,7 +546,7 @@ public class GeminiService implements GeminiServiceInterface {
                         long delayMs = calculateBackoffDelay(attempt);
                         logger.warn("Gemini API call failed with retryable error (attempt {}/{}), retrying after {}ms: {}",
                                 attempt, maxRetryAttempts, delayMs, e.getMessage());
-                        sleepWithInterrupt(delayMs);
+                        deadline.sleep(delayMs);
                         continue;
                     }
                 } else {
@@ -353,6 +574,152 @@ public class GeminiService implements GeminiServiceInterface {
         }
     }
 
+    /**
+     * Streaming counterpart of generateContentWithRetry. Retryable errors are retried with the same
+     * backoff, but only while nothing has been handed to onText yet.
+     */
+    private String generateContentStreamWithRetry(String prompt, GenerateContentConfig config, String taskType,
+                                                  long startTime, Span llmSpan, JobDeadline deadline,
+                                                  Consumer<String> onText) throws IOException {
+        int attempt = 0;
+        String errorCategory = "unknown";
+
+        while (true) {
+            attempt++;
+            StringBuilder responseText = new StringBuilder();
+            Optional<GenerateContentResponseUsageMetadata> usage = Optional.empty();
+            try (ResponseStream<GenerateContentResponse> stream = client.models.generateContentStream(model, prompt, config)) {
+                deadline.onCancel(() -> closeQuietly(stream));
+                for (GenerateContentResponse chunk : stream) {
+                    deadline.check();
+                    // Usage metadata arrives with the final chunk(s)
+                    if (chunk.usageMetadata().isPresent()) {
+                        usage = chunk.usageMetadata();
+                    }
+                    String delta = chunk.text();
+                    if (delta == null || delta.isEmpty()) {
+                        continue;
+                    }
+                    if (responseText.length() == 0 && llmSpan != null) {
+                        llmSpan.setAttribute("time_to_first_chunk_ms", System.currentTimeMillis() - startTime);
+                    }
+                    responseText.append(delta);
+                    onText.accept(delta);
+                }
+
+                if (responseText.toString().isBlank()) {
+                    throw new IOException("Gemini API returned empty or null response");
+                }
+
+                String fullText = responseText.toString();
+                recordSuccessMetrics(prompt, fullText, usage, startTime, taskType, attempt, errorCategory, llmSpan);
+                logger.debug("Gemini streaming call successful, responseLength={}, attempt={}", fullText.length(), attempt);
+                return fullText;
+
+            } catch (Exception e) {
+                abortIfDeadlinePassed(deadline, startTime, taskType, attempt, llmSpan, e);
+                errorCategory = extractErrorCategory(e);
+                if (responseText.length() == 0 && isRetryableError(e) && attempt < maxRetryAttempts) {
+                    long delayMs = calculateBackoffDelay(attempt);
+                    logger.warn("Gemini streaming call failed with retryable error (attempt {}/{}), retrying after {}ms: {}",
+                            attempt, maxRetryAttempts, delayMs, e.getMessage());
+                    deadline.sleep(delayMs);
+                    continue;
+                }
+
+                logger.error("Gemini streaming call failed (attempt {}/{}, receivedChars={}): {}",
+                        attempt, maxRetryAttempts, responseText.length(), e.getMessage(), e);
+                recordErrorMetrics(startTime, taskType, attempt, errorCategory, llmSpan, e);
+                if (e instanceof IOException ioException) {
+                    throw ioException;
+                }
+                throw new IOException("Gemini API call failed: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private static void closeQuietly(ResponseStream<GenerateContentResponse> stream) {
+        try {
+            stream.close();
+        } catch (Exception e) {
+            logger.debug("Failed to close cancelled Gemini stream: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Records latency, token/cost metrics and span attributes for a successful call. Token counts
+     * come from the response's usage metadata when Gemini reports it (which also calibrates the
+     * local TokenCounter), otherwise from the TokenCounter estimate. Input tokens served from
+     * cached content are reported separately and costed at the cached rate.
+     */
+    private void recordSuccessMetrics(String prompt, String responseText,
+                                      Optional<GenerateContentResponseUsageMetadata> usage, long startTime,
+                                      String taskType, int attempt, String errorCategory, Span llmSpan) {
+        long durationMs = System.currentTimeMillis() - startTime;
+
+        Optional<Integer> reportedInput = usage.flatMap(GenerateContentResponseUsageMetadata::promptTokenCount);
+        Optional<Integer> reportedOutput = usage.flatMap(GenerateContentResponseUsageMetadata::candidatesTokenCount);
+        // promptTokenCount includes the cached prefix, which is not part of the prompt text
+        int cachedTokens = usage.flatMap(GenerateContentResponseUsageMetadata::cachedContentTokenCount).orElse(0);
+        reportedInput.ifPresent(tokens -> tokenCounter.calibrate(prompt, tokens - cachedTokens));
+        int inputTokens = reportedInput.orElseGet(() -> tokenCounter.count(prompt));
+        int outputTokens = reportedOutput.orElseGet(() -> tokenCounter.count(responseText));
+        String tokenSource = reportedInput.isPresent() ? "usage_metadata" : "estimate";
+        double estimatedCost = ((inputTokens - cachedTokens) * INPUT_COST_PER_1K_TOKENS / 1000.0) +
+                              (cachedTokens * INPUT_COST_PER_1K_TOKENS * CACHED_INPUT_COST_FACTOR / 1000.0) +
+                              (outputTokens * OUTPUT_COST_PER_1K_TOKENS / 1000.0);
+
+        // Track metrics if Datadog is enabled
+        if (metricsService != null) {
+            metricsService.recordLlmLatency(durationMs, model, taskType);
+            metricsService.recordLlmCost(estimatedCost, model, taskType);
+            metricsService.recordLlmTokens(inputTokens, outputTokens, model, taskType);
+            metricsService.recordLlmCostEstimate(estimatedCost, model, taskType);
+            // Record retry count (0 for first attempt, 1+ for retries)
+            if (attempt > 1) {
+                metricsService.recordLlmRetry(attempt - 1, model, taskType, errorCategory);
+            }
+
+            logger.debug("Gemini API call metrics: duration={}ms, estimatedCost=${}, inputTokens={}, cachedTokens={}, outputTokens={}, tokenSource={}, attempt={}",
+                    durationMs, estimatedCost, inputTokens, cachedTokens, outputTokens, tokenSource, attempt);
+        }
+
+        // Set span attributes
+        if (llmSpan != null) {
+            llmSpan.setStatus(StatusCode.OK);
+            llmSpan.setAttribute("duration_ms", durationMs);
+            llmSpan.setAttribute("tokens.input", inputTokens);
+            llmSpan.setAttribute("tokens.cached", cachedTokens);
+            llmSpan.setAttribute("tokens.output", outputTokens);
+            llmSpan.setAttribute("tokens.total", inputTokens + outputTokens);
+            llmSpan.setAttribute("tokens.source", tokenSource);
+            llmSpan.setAttribute("cost_estimate_usd", estimatedCost);
+            llmSpan.setAttribute("response_length", responseText.length());
+            if (attempt > 1) {
+                llmSpan.setAttribute("retry_count", attempt - 1);
+                llmSpan.setAttribute("error_category", errorCategory);
+            }
+        }
+    }
+
+    /**
+     * Rejects prompts above the hard token limit before anything is sent, so an oversized prompt
+     * fails fast instead of erroring at the API or running up cost. Callers keep prompts within
+     * their task budget through PromptBudgetManager; this is the backstop.
+     *
+     * @return the estimated prompt token count
+     * @throws PromptTooLargeException if the prompt is above the limit
+     */
+    private int checkPromptSize(String prompt, String taskType) throws PromptTooLargeException {
+        int promptTokens = tokenCounter.count(prompt);
+        if (promptTokens > maxPromptTokens) {
+            logger.error("Rejecting Gemini call for task {}: prompt is ~{} tokens, limit is {}",
+                    taskType, promptTokens, maxPromptTokens);
+            throw new PromptTooLargeException(taskType, promptTokens, maxPromptTokens);
+        }
+        return promptTokens;
+    }
+
     /**
      * Checks if an exception represents a retryable error.
      * Retryable: timeouts, 429 (rate limit), 5xx (server errors).
@@ -360,7 +727,8 @@ public class GeminiService implements GeminiServiceInterface {
      */
     private boolean isRetryableError(Exception e) {
         String message = e.getMessage();
-        if (message == null) {
+        // Token counts in the message could look like status codes
+        if (message == null || e instanceof PromptTooLargeException) {
             return false;
         }
         String lowerMessage = message.toLowerCase();
@@ -402,6 +770,29 @@ public class GeminiService implements GeminiServiceInterface {
         return false;
     }
 
+    /**
+     * Whether a call failed because its cached content is gone or not accessible (404 / 403), so
+     * the same request may succeed with the context sent inline. Rate limits and server errors
+     * are not: they were already retried here and would fail inline as well.
+     */
+    static boolean isCachedContentError(Exception e) {
+        if (e instanceof PromptTooLargeException) {
+            return false;
+        }
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ApiException apiException) {
+                return apiException.code() == 404 || apiException.code() == 403;
+            }
+        }
+        String message = e.getMessage();
+        if (message == null) {
+            return false;
+        }
+        String lowerMessage = message.toLowerCase();
+        return lowerMessage.contains("404") || lowerMessage.contains("403")
+                || lowerMessage.contains("not found") || lowerMessage.contains("permission denied");
+    }
+
     /**
      * Extracts error category from exception for metrics.
      */
@@ -442,14 +833,14 @@ public class GeminiService implements GeminiServiceInterface {
     }
 
     /**
-     * Sleeps for the given delay, handling interrupts.
+     * Stops retrying once the job is cancelled or out of time; the abort is rethrown so callers
+     * do not mistake it for an ordinary (retryable or swallowable) API failure.
      */
-    private void sleepWithInterrupt(long delayMs) {
-        try {
-            Thread.sleep(delayMs);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Interrupted during retry delay", e);
+    private void abortIfDeadlinePassed(JobDeadline deadline, long startTime, String taskType, int attempt,
+                                       Span llmSpan, Exception e) {
+        if (deadline.isAborted()) {
+            recordErrorMetrics(startTime, taskType, attempt, "deadline_exceeded", llmSpan, e);
+            deadline.check();
         }
     }
 
@@ -1,9 +1,12 @@
 package com.policyinsight.processing;
 
+import com.policyinsight.api.events.JobEvent;
+import com.policyinsight.api.events.JobEventPublisher;
 import com.policyinsight.shared.model.PolicyJob;
 import com.policyinsight.shared.repository.PolicyJobRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -11,6 +14,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.UUID;
 
 /**
  * Claims pending jobs inside a single transaction.
@@ -22,12 +26,15 @@ public class JobClaimService {
     private static final Logger logger = LoggerFactory.getLogger(JobClaimService.class);
 
     private final PolicyJobRepository policyJobRepository;
+    private final JobEventPublisher jobEventPublisher;
 
     @Value("${app.job.lease-duration-minutes:30}")
     private int leaseDurationMinutes;
 
-    public JobClaimService(PolicyJobRepository policyJobRepository) {
+    public JobClaimService(PolicyJobRepository policyJobRepository,
+                           @Autowired(required = false) JobEventPublisher jobEventPublisher) {
         this.policyJobRepository = policyJobRepository;
+        this.jobEventPublisher = jobEventPublisher;
     }
 
     /**
@@ -47,20 +54,35 @@ public class JobClaimService {
                 .toList();
     }
 
+    /**
+     * Claims a single job delivered by a message (PENDING -> PROCESSING with lease).
+     * Returns false when the job is already claimed or finished, so duplicate deliveries
+     * can be acknowledged without processing.
+     */
+    @Transactional
+    public boolean claimJob(UUID jobUuid) {
+        return claimJobInternal(jobUuid);
+    }
+
     private boolean claimJobInternal(PolicyJob job) {
+        return claimJobInternal(job.getJobUuid());
+    }
+
+    private boolean claimJobInternal(UUID jobUuid) {
         Instant leaseExpiresAt = Instant.now().plus(leaseDurationMinutes, ChronoUnit.MINUTES);
         int updatedRows = policyJobRepository.updateStatusIfPendingWithLease(
-                job.getJobUuid(),
+                jobUuid,
                 leaseExpiresAt
         );
         if (updatedRows == 0) {
-            logger.debug("Could not claim job {} (already claimed or not PENDING)",
-                    job.getJobUuid());
+            logger.debug("Could not claim job {} (already claimed or not PENDING)", jobUuid);
             return false;
         }
 
-        logger.debug("Successfully claimed job: {} with lease expiring at {}",
-                job.getJobUuid(), leaseExpiresAt);
+        logger.debug("Successfully claimed job: {} with lease expiring at {}", jobUuid, leaseExpiresAt);
+        if (jobEventPublisher != null) {
+            jobEventPublisher.publishAfterCommit(JobEvent.status(jobUuid, "PROCESSING"));
+        }
         return true;
     }
 }
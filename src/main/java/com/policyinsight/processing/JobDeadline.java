@@ -0,0 +1,207 @@
+package com.policyinsight.processing;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Job-scoped deadline and cancellation token.
+ * DocumentPipeline creates one per job and re-arms it with the stage timeout as each stage
+ * starts; long-running work (page extraction, LLM calls, retry backoff) checks it or waits
+ * through it, so a stage that runs out of time aborts promptly instead of being detected only
+ * after it returns. An explicit cancel() aborts the job the same way.
+ *
+ * Aborts surface as IllegalStateException, like the stage timeout check they replace.
+ *
+ * The token also counts the job's LLM calls: stages plan the calls they expect to make,
+ * GeminiService reports each call it completes, and the listener (job progress) sees the
+ * running totals.
+ */
+public class JobDeadline {
+
+    private final UUID jobId;
+    private final CompletableFuture<String> cancelled = new CompletableFuture<>();
+    private volatile String stage;
+    private volatile int timeoutSeconds;
+    private volatile long deadlineNanos;
+    private volatile boolean armed;
+    private final AtomicInteger llmCallsPlanned = new AtomicInteger();
+    private final AtomicInteger llmCallsDone = new AtomicInteger();
+    private volatile LlmCallListener llmCallListener;
+
+    public JobDeadline(UUID jobId) {
+        this.jobId = jobId;
+    }
+
+    /**
+     * A token that never expires, for callers outside a job (Q&A, tests).
+     */
+    public static JobDeadline none() {
+        return new JobDeadline(null);
+    }
+
+    /**
+     * Starts the deadline for the next stage.
+     *
+     * @param stage stage name (for the abort message)
+     * @param timeoutSeconds time the stage may take
+     */
+    public void startStage(String stage, int timeoutSeconds) {
+        this.stage = stage;
+        this.timeoutSeconds = timeoutSeconds;
+        this.deadlineNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        this.armed = true;
+    }
+
+    /**
+     * Cancels the job. Work checking or waiting on this token aborts as soon as it can.
+     */
+    public void cancel(String reason) {
+        cancelled.complete(reason != null ? reason : "cancelled");
+    }
+
+    /**
+     * Runs the action once the job is cancelled (right away if it already is), e.g. to close a
+     * blocking stream so the thread reading it is released.
+     */
+    public void onCancel(Runnable action) {
+        cancelled.thenRun(action);
+    }
+
+    /**
+     * Sets the listener told about the job's LLM call counts.
+     */
+    public void onLlmCalls(LlmCallListener listener) {
+        this.llmCallListener = listener;
+    }
+
+    /**
+     * Adds calls to the expected total, e.g. map windows once a section is split, or a fallback
+     * call; negative for a planned call that turned out not to be needed.
+     */
+    public void planLlmCalls(int calls) {
+        llmCallsPlanned.addAndGet(calls);
+        publishLlmCalls();
+    }
+
+    /**
+     * Records a finished LLM call (successful or not).
+     */
+    public void llmCallDone() {
+        llmCallsDone.incrementAndGet();
+        publishLlmCalls();
+    }
+
+    private void publishLlmCalls() {
+        LlmCallListener listener = llmCallListener;
+        if (listener == null) {
+            return;
+        }
+        // Serialized so concurrent map windows never publish an older count after a newer one
+        synchronized (llmCallsDone) {
+            int done = llmCallsDone.get();
+            listener.llmCalls(done, Math.max(done, llmCallsPlanned.get()));
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled.isDone();
+    }
+
+    public boolean isExpired() {
+        return armed && System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    /**
+     * True once the job is cancelled or the current stage is past its deadline.
+     */
+    public boolean isAborted() {
+        return isCancelled() || isExpired();
+    }
+
+    /**
+     * Time left in the current stage, or Long.MAX_VALUE when no deadline is armed.
+     */
+    public long remainingNanos() {
+        return armed ? Math.max(0, deadlineNanos - System.nanoTime()) : Long.MAX_VALUE;
+    }
+
+    /**
+     * Throws if the job was cancelled or the current stage ran out of time.
+     *
+     * @throws IllegalStateException if aborted
+     */
+    public void check() {
+        if (isCancelled()) {
+            throw new IllegalStateException(String.format("Job %s cancelled: %s", jobId, cancelled.getNow("cancelled")));
+        }
+        if (isExpired()) {
+            throw new IllegalStateException(String.format(
+                    "Processing stage '%s' timeout exceeded (limit: %d seconds) for job: %s",
+                    stage, timeoutSeconds, jobId));
+        }
+    }
+
+    /**
+     * Waits for an asynchronous call, giving up when the job is cancelled or the stage deadline
+     * passes. On abort the call is cancelled and the caller's thread is released immediately.
+     *
+     * @param future in-flight call
+     * @return the call's result
+     * @throws ExecutionException if the call failed
+     * @throws IllegalStateException if the job was aborted first
+     */
+    public <T> T await(CompletableFuture<T> future) throws ExecutionException {
+        try {
+            CompletableFuture.anyOf(future, cancelled).get(remainingNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            // Deadline passed, or the call failed; both are handled below
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException("Interrupted while waiting for job " + jobId, e);
+        }
+
+        if (!future.isDone()) {
+            future.cancel(true);
+            check();
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for job " + jobId, e);
+        }
+    }
+
+    /**
+     * Sleeps for up to the given delay (e.g. retry backoff), waking early on cancellation and
+     * never past the stage deadline.
+     *
+     * @throws IllegalStateException if the job was aborted during or before the sleep
+     */
+    public void sleep(long delayMs) {
+        long waitNanos = Math.min(TimeUnit.MILLISECONDS.toNanos(delayMs), remainingNanos());
+        try {
+            cancelled.get(waitNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            // Slept the full delay (or until the deadline)
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted during retry delay", e);
+        }
+        check();
+    }
+
+    /**
+     * Receives the job's LLM call counts after each change.
+     */
+    @FunctionalInterface
+    public interface LlmCallListener {
+
+        void llmCalls(int done, int total);
+    }
+}
@@ -0,0 +1,85 @@
+package com.policyinsight.processing;
+
+import com.policyinsight.api.events.JobEvent;
+import com.policyinsight.api.events.JobEventPublisher;
+import com.policyinsight.shared.repository.JobProgressRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+/**
+ * Records per-stage progress for a job while the worker runs.
+ * Each update runs in its own short transaction (REQUIRES_NEW), so it commits immediately even
+ * if a caller has a transaction open, and a single-row write replaces
+ * re-saving the PolicyJob. Progress is best-effort: failures are logged, never thrown.
+ * Stage changes are also pushed to status watchers.
+ */
+@Service
+public class JobProgressService {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobProgressService.class);
+
+    private final JobProgressRepository jobProgressRepository;
+    private final JobEventPublisher jobEventPublisher;
+    private final TransactionTemplate requiresNew;
+
+    public JobProgressService(JobProgressRepository jobProgressRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Autowired(required = false) JobEventPublisher jobEventPublisher) {
+        this.jobProgressRepository = jobProgressRepository;
+        this.jobEventPublisher = jobEventPublisher;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Starts (or restarts, on retry) progress tracking for a job.
+     */
+    public void start(UUID jobUuid, String stage) {
+        record(jobUuid, "start", () -> jobProgressRepository.resetProgress(jobUuid, stage));
+        publishStage(jobUuid, stage);
+    }
+
+    /**
+     * Records that the job entered a new stage.
+     */
+    public void stage(UUID jobUuid, String stage) {
+        record(jobUuid, "stage " + stage, () -> jobProgressRepository.updateStage(jobUuid, stage));
+        publishStage(jobUuid, stage);
+    }
+
+    public void pagesExtracted(UUID jobUuid, int pages) {
+        record(jobUuid, "pages extracted", () -> jobProgressRepository.updatePagesExtracted(jobUuid, pages));
+    }
+
+    public void chunksStored(UUID jobUuid, int chunks) {
+        record(jobUuid, "chunks stored", () -> jobProgressRepository.updateChunksStored(jobUuid, chunks));
+    }
+
+    /**
+     * Records LLM calls finished and expected so far; fed by the job's JobDeadline.
+     */
+    public void llmCalls(UUID jobUuid, int done, int total) {
+        record(jobUuid, "LLM calls", () -> jobProgressRepository.updateLlmCalls(jobUuid, done, total));
+    }
+
+    private void record(UUID jobUuid, String what, Runnable update) {
+        try {
+            requiresNew.executeWithoutResult(status -> update.run());
+        } catch (Exception e) {
+            logger.warn("Failed to record {} progress for job {}: {}", what, jobUuid, e.getMessage());
+        }
+    }
+
+    private void publishStage(UUID jobUuid, String stage) {
+        if (jobEventPublisher != null) {
+            jobEventPublisher.publish(JobEvent.stage(jobUuid, stage));
+        }
+    }
+}
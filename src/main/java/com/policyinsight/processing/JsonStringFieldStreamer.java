@@ -0,0 +1,102 @@
+package com.policyinsight.processing;
+
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Extracts one string field from a streamed JSON response while it is still being generated.
+ * Fed the raw response fragments, it locates "field": " and hands the decoded value to the
+ * listener piece by piece (escape sequences resolved), so e.g. a Q&A answer can be shown to the
+ * user before the rest of the JSON (citations, flags) has arrived.
+ *
+ * Only the first occurrence of the field is streamed; everything after its closing quote is
+ * ignored. The full response is still parsed normally once complete.
+ */
+public class JsonStringFieldStreamer implements Consumer<String> {
+
+    private final Pattern fieldStart;
+    private final Consumer<String> onValueText;
+    private final StringBuilder raw = new StringBuilder();
+    private int position = -1;
+    private boolean done;
+    private char pendingHighSurrogate;
+
+    /**
+     * @param fieldName name of the string field to stream
+     * @param onValueText receives decoded fragments of the field value in order
+     */
+    public JsonStringFieldStreamer(String fieldName, Consumer<String> onValueText) {
+        this.fieldStart = Pattern.compile("\"" + Pattern.quote(fieldName) + "\"\\s*:\\s*\"");
+        this.onValueText = onValueText;
+    }
+
+    @Override
+    public void accept(String fragment) {
+        if (done || fragment == null || fragment.isEmpty()) {
+            return;
+        }
+        raw.append(fragment);
+
+        if (position < 0) {
+            Matcher matcher = fieldStart.matcher(raw);
+            if (!matcher.find()) {
+                return;
+            }
+            position = matcher.end();
+        }
+
+        StringBuilder decoded = new StringBuilder();
+        if (pendingHighSurrogate != 0) {
+            decoded.append(pendingHighSurrogate);
+            pendingHighSurrogate = 0;
+        }
+        while (position < raw.length()) {
+            char c = raw.charAt(position);
+            if (c == '"') {
+                done = true;
+                break;
+            }
+            if (c != '\\') {
+                decoded.append(c);
+                position++;
+                continue;
+            }
+            // Escape sequence: wait for the rest of it if it was split across fragments
+            if (position + 1 >= raw.length()) {
+                break;
+            }
+            char escaped = raw.charAt(position + 1);
+            if (escaped == 'u') {
+                if (position + 6 > raw.length()) {
+                    break;
+                }
+                try {
+                    decoded.append((char) Integer.parseInt(raw.substring(position + 2, position + 6), 16));
+                } catch (NumberFormatException e) {
+                    // Malformed escape: leave it to the final parse
+                }
+                position += 6;
+                continue;
+            }
+            decoded.append(switch (escaped) {
+                case 'n' -> '\n';
+                case 't' -> '\t';
+                case 'r' -> '\r';
+                case 'b' -> '\b';
+                case 'f' -> '\f';
+                default -> escaped; // \" \\ \/
+            });
+            position += 2;
+        }
+
+        // Never emit half of a surrogate pair; it is completed by the next fragment
+        if (!done && decoded.length() > 0 && Character.isHighSurrogate(decoded.charAt(decoded.length() - 1))) {
+            pendingHighSurrogate = decoded.charAt(decoded.length() - 1);
+            decoded.setLength(decoded.length() - 1);
+        }
+        if (decoded.length() > 0) {
+            onValueText.accept(decoded.toString());
+        }
+    }
+}
@@ -1,46 +1,37 @@
 package com.policyinsight.processing;
 
-import com.policyinsight.api.storage.StorageService;
-import com.policyinsight.api.validation.PdfValidator;
-import com.policyinsight.processing.model.ExtractedText;
-import com.policyinsight.processing.model.TextChunk;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.policyinsight.shared.model.DocumentChunk;
+import com.policyinsight.api.messaging.InMemoryJobQueue;
+import com.policyinsight.processing.pipeline.DocumentPipeline;
 import com.policyinsight.shared.model.PolicyJob;
-import com.policyinsight.shared.model.Report;
-import com.policyinsight.shared.repository.DocumentChunkRepository;
 import com.policyinsight.shared.repository.PolicyJobRepository;
-import com.policyinsight.shared.repository.ReportRepository;
-import com.policyinsight.observability.TracingServiceInterface;
-import com.policyinsight.observability.DatadogMetricsServiceInterface;
-import com.policyinsight.util.NonNulls;
-import com.policyinsight.util.Strings;
-import io.opentelemetry.api.trace.Span;
-import io.opentelemetry.api.trace.StatusCode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.io.ByteArrayInputStream;
-import java.io.InputStream;
-import java.time.Instant;
-import java.util.Collections;
-import java.util.HashMap;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Local worker service that polls the database for PENDING jobs and processes them.
  * Only loads when policyinsight.worker.enabled=true.
  * Uses @Scheduled to periodically poll for jobs in batches.
+ *
+ * With app.messaging.mode=memory, uploads hand job IDs to this worker through InMemoryJobQueue
+ * instead: consumer threads claim and process each ID as it arrives and DB polling is off.
+ * A recovery sweep at startup (and at a low rate afterwards) re-enqueues PENDING jobs the queue
+ * lost to restarts, overflow or lease recovery, skipping IDs that are still queued; any other
+ * duplicate is dropped by the claim.
+ *
+ * The processing itself (download through export) is done by DocumentPipeline.
  */
 @Service
 @ConditionalOnProperty(prefix = "policyinsight.worker", name = "enabled", havingValue = "true")
@@ -48,24 +39,6 @@ public class LocalDocumentProcessingWorker implements DocumentJobProcessor {
 
     private static final Logger logger = LoggerFactory.getLogger(LocalDocumentProcessingWorker.class);
 
-    @Autowired
-    private FallbackOcrService fallbackOcrService;
-
-    @Autowired
-    private TextChunkerService textChunkerService;
-
-    @Autowired
-    private DocumentClassifierService documentClassifierService;
-
-    @Autowired
-    private RiskAnalysisService riskAnalysisService;
-
-    @Autowired
-    private ReportGenerationService reportGenerationService;
-
-    @Autowired
-    private ReportGroundingValidator reportGroundingValidator;
-
     @Autowired
     private PolicyJobRepository policyJobRepository;
 
@@ -73,22 +46,10 @@ public class LocalDocumentProcessingWorker implements DocumentJobProcessor {
     private JobClaimService jobClaimService;
 
     @Autowired
-    private DocumentChunkRepository documentChunkRepository;
-
-    @Autowired
-    private ReportRepository reportRepository;
-
-    @Autowired
-    private StorageService storageService;
-
-    @Autowired
-    private PdfValidator pdfValidator;
+    private DocumentPipeline documentPipeline;
 
     @Autowired(required = false)
-    private TracingServiceInterface tracingService;
-
-    @Autowired(required = false)
-    private DatadogMetricsServiceInterface metricsService;
+    private InMemoryJobQueue inMemoryJobQueue;
 
     @Value("${app.local-worker.poll-ms:2000}")
     private long pollIntervalMs;
@@ -102,8 +63,11 @@ public class LocalDocumentProcessingWorker implements DocumentJobProcessor {
     @Value("${app.processing.max-text-length:1000000}")
     private int maxTextLength;
 
-    @Value("${app.processing.stage-timeout-seconds:300}")
-    private int stageTimeoutSeconds;
+    @Value("${app.messaging.memory.consumer-threads:2}")
+    private int consumerThreads;
+
+    private final List<Thread> consumers = new ArrayList<>();
+    private volatile boolean consuming;
 
     /**
      * Periodically polls for PENDING jobs and processes them in batches.
@@ -112,6 +76,10 @@ public class LocalDocumentProcessingWorker implements DocumentJobProcessor {
      */
     @Scheduled(fixedDelayString = "${app.local-worker.poll-ms:2000}")
     public void pollAndProcessJobs() {
+        if (inMemoryJobQueue != null) {
+            // Jobs arrive through the in-memory queue; no DB polling
+            return;
+        }
         try {
             List<PolicyJob> claimedJobs = jobClaimService.findAndClaimPendingJobs(batchSize);
             if (claimedJobs.isEmpty()) {
@@ -137,411 +105,96 @@ public class LocalDocumentProcessingWorker implements DocumentJobProcessor {
         }
     }
 
-    @Transactional
-    public void processDocument(UUID jobId) {
-        Optional<PolicyJob> jobOpt = policyJobRepository.findByJobUuid(jobId);
-        if (jobOpt.isEmpty()) {
-            logger.error("Job not found: {}", jobId);
-            return;
-        }
-
-        PolicyJob job = jobOpt.get();
-
-        // Idempotency check: if job is already SUCCESS or FAILED, skip processing
-        if ("SUCCESS".equals(job.getStatus()) || "FAILED".equals(job.getStatus())) {
-            logger.info("Job {} is already in final state: {}, skipping processing", jobId, job.getStatus());
+    /**
+     * Starts the in-memory queue consumers and runs the first recovery sweep.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startConsumers() {
+        if (inMemoryJobQueue == null) {
             return;
         }
-
-        // Ensure job is in PROCESSING state (should be set by claimJob)
-        if (!"PROCESSING".equals(job.getStatus())) {
-            logger.warn("Job {} is not in PROCESSING state (status: {}), updating to PROCESSING",
-                    jobId, job.getStatus());
-            job.setStatus("PROCESSING");
-            if (job.getStartedAt() == null) {
-                job.setStartedAt(Instant.now());
-            }
-            policyJobRepository.save(job);
-        }
-
-        // Add job_id to MDC for logging
-        // UUID.toString() never returns null, but wrap through NonNulls for JDT null analysis
-        String jobIdStr = NonNulls.nn(jobId.toString(), "jobId.toString() returned null");
-        MDC.put("job_id", jobIdStr);
-
-        long startTime = System.currentTimeMillis();
-
-        // Create parent span for entire job processing
-        Span parentSpan = null;
-        if (tracingService != null) {
-            parentSpan = tracingService.spanBuilder("job.process")
-                    .setAttribute("job_id", jobIdStr)
-                    .setAttribute("document_id", jobIdStr)
-                    .setAttribute("stage", "processing")
-                    .setAttribute("file_size_bytes", job.getFileSizeBytes() != null ? job.getFileSizeBytes() : 0)
-                    .startSpan();
-        }
-
-        try (io.opentelemetry.context.Scope scope = parentSpan != null ? parentSpan.makeCurrent() : null) {
-            // Enforce overall processing timeout
-            processDocumentWithSpans(jobId, job, parentSpan, startTime);
-
-            // Record success metrics
-            if (metricsService != null) {
-                long durationMs = System.currentTimeMillis() - startTime;
-                metricsService.recordJobDuration(durationMs, jobIdStr);
-                metricsService.recordJobSuccess(jobIdStr);
-            }
-
-            if (parentSpan != null) {
-                parentSpan.setStatus(StatusCode.OK);
-                parentSpan.setAttribute("status", "SUCCESS");
-            }
-        } catch (Exception e) {
-            logger.error("Failed to process document for job: {}", jobId, e);
-            job.setStatus("FAILED");
-            job.setErrorMessage(e.getMessage());
-            job.setLastErrorCode("PROCESSING_ERROR");
-            job.setCompletedAt(Instant.now());
-            policyJobRepository.save(job);
-
-            // Record failure metrics
-            if (metricsService != null) {
-                long durationMs = System.currentTimeMillis() - startTime;
-                metricsService.recordJobDuration(durationMs, jobIdStr);
-                metricsService.recordJobFailure(jobIdStr, e.getClass().getSimpleName());
-            }
-
-            if (parentSpan != null) {
-                parentSpan.setStatus(StatusCode.ERROR);
-                parentSpan.setAttribute("status", "FAILED");
-                parentSpan.setAttribute("error", true);
-                parentSpan.setAttribute("error.message", Strings.safe(e.getMessage()));
-                parentSpan.recordException(e);
-            }
-        } finally {
-            if (parentSpan != null) {
-                parentSpan.end();
-            }
-            MDC.remove("job_id");
+        consuming = true;
+        for (int i = 1; i <= consumerThreads; i++) {
+            Thread thread = new Thread(this::consumeJobs, "local-job-consumer-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            consumers.add(thread);
         }
+        logger.info("Started {} in-memory job consumer(s)", consumerThreads);
+        recoverPendingJobs();
     }
 
-    private void processDocumentWithSpans(UUID jobId, PolicyJob job, Span parentSpan, long overallStartTime) throws Exception {
-        // Check overall timeout
-        long elapsedSeconds = (System.currentTimeMillis() - overallStartTime) / 1000;
-        if (elapsedSeconds > stageTimeoutSeconds) {
-            throw new IllegalStateException(String.format(
-                    "Processing timeout exceeded: %d seconds (limit: %d seconds) for job: %s",
-                    elapsedSeconds, stageTimeoutSeconds, jobId));
-        }
-        // Download PDF from storage
-        String storagePath = job.getPdfGcsPath();
-        if (storagePath == null || storagePath.isEmpty()) {
-            throw new IllegalArgumentException("Storage path is null or empty");
-        }
-
-        logger.info("Downloading PDF from storage: {}", storagePath);
-        long downloadStartTime = System.currentTimeMillis();
-        byte[] pdfBytes = storageService.downloadFile(storagePath);
-
-        // Validate PDF page count (worker-side validation)
-        try (InputStream pdfStreamForValidation = new ByteArrayInputStream(pdfBytes)) {
-            pdfValidator.validateMaxPages(pdfStreamForValidation, null);
-        }
-
-        // Check stage timeout after download
-        checkStageTimeout("download", downloadStartTime, jobId);
-
-        InputStream pdfStream = new ByteArrayInputStream(pdfBytes);
-
-        // Extract text using PDFBox - with span
-        ExtractedText extractedText;
-        String jobIdStr = Strings.safe(jobId.toString());
-        Span extractSpan = null;
-        if (tracingService != null && parentSpan != null) {
-            extractSpan = tracingService.spanBuilder("extraction")
-                    .setAttribute("job_id", jobIdStr)
-                    .setAttribute("document_id", jobIdStr)
-                    .setAttribute("stage", "extraction")
-                    .startSpan();
+    /**
+     * Re-enqueues PENDING jobs that are not in the in-memory queue (lost on restart, rejected
+     * when the queue was full, or reset by the reaper). Runs every 5 minutes by default.
+     */
+    @Scheduled(fixedDelayString = "${app.messaging.memory.recovery-sweep-ms:300000}")
+    public void recoverPendingJobs() {
+        if (inMemoryJobQueue == null || !consuming) {
+            return;
         }
-
-        try (io.opentelemetry.context.Scope extractScope = extractSpan != null ? extractSpan.makeCurrent() : null) {
-            extractedText = fallbackOcrService.extractText(pdfStream);
-            if (extractSpan != null) {
-                extractSpan.setAttribute("provider", "pdfbox");
-                extractSpan.setAttribute("fallback_used", false);
-            }
-        } finally {
-            if (extractSpan != null) {
-                extractSpan.end();
+        try {
+            int queued = inMemoryJobQueue.size();
+            int room = inMemoryJobQueue.getCapacity() - queued;
+            if (room <= 0) {
+                return;
             }
-        }
-
-        // Chunk text
-        List<TextChunk> chunks = textChunkerService.chunkText(extractedText);
-
-        // Delete existing chunks for this job to ensure idempotency (in case of retry)
-        // This prevents duplicate chunks if the job is retried after partial chunk insertion
-        documentChunkRepository.deleteByJobUuid(jobId);
-        logger.debug("Deleted existing chunks for job: {} (idempotency)", jobId);
-
-        // Store chunks in database
-        for (TextChunk chunk : chunks) {
-            DocumentChunk docChunk = new DocumentChunk(jobId);
-            docChunk.setChunkIndex(chunk.getChunkIndex());
-            docChunk.setText(chunk.getText());
-            docChunk.setPageNumber(chunk.getPageNumber());
-            docChunk.setStartOffset(chunk.getStartOffset());
-            docChunk.setEndOffset(chunk.getEndOffset());
-            docChunk.setSpanConfidence(chunk.getSpanConfidence());
-            documentChunkRepository.save(docChunk);
-        }
-
-        logger.info("Stored {} chunks for job: {}", chunks.size(), jobId);
-
-        // Retrieve stored chunks from DB to get IDs
-        List<DocumentChunk> storedChunks = documentChunkRepository.findByJobUuidOrderByChunkIndex(jobId);
-                if (extractSpan != null) {
-                    extractSpan.setAttribute("chunk_count", (long) chunks.size());
+            // Queued jobs are still PENDING, so look past them to find the ones the queue lost
+            int enqueued = 0;
+            for (PolicyJob job : policyJobRepository.findOldestPendingJobs(queued + room)) {
+                if (inMemoryJobQueue.contains(job.getJobUuid())) {
+                    continue;
                 }
-
-        // Classify document - with span
-        Span classifySpan = null;
-        if (tracingService != null && parentSpan != null) {
-            classifySpan = tracingService.spanBuilder("classification")
-                    .setAttribute("job_id", jobIdStr)
-                    .setAttribute("document_id", jobIdStr)
-                    .setAttribute("stage", "classification")
-                    .startSpan();
-        }
-
-        String fullText = extractedText.getFullText();
-
-        // Validate extracted text length (reject if exceeds limit - prevents excessive costs)
-        pdfValidator.validateMaxTextLength(fullText, null);
-
-        DocumentClassifierService.ClassificationResult classification;
-        long classifyStartTime = System.currentTimeMillis();
-        try (io.opentelemetry.context.Scope classifyScope = classifySpan != null ? classifySpan.makeCurrent() : null) {
-            classification = documentClassifierService.classify(fullText);
-            job.setClassification(classification.getClassification());
-            job.setClassificationConfidence(classification.getConfidence());
-
-            if (classifySpan != null) {
-                classifySpan.setAttribute("classification", Strings.safe(classification.getClassification()));
-                if (classification.getConfidence() != null) {
-                    classifySpan.setAttribute("confidence", classification.getConfidence().doubleValue());
-                }
-                classifySpan.setAttribute("provider", "llm");
-            }
-        } finally {
-            checkStageTimeout("classification", classifyStartTime, jobId);
-            if (classifySpan != null) {
-                classifySpan.end();
-            }
-        }
-
-        // Risk analysis (5 categories) - with span
-        Span riskScanSpan = null;
-        if (tracingService != null && parentSpan != null) {
-            riskScanSpan = tracingService.spanBuilder("risk_scan")
-                    .setAttribute("job_id", jobIdStr)
-                    .setAttribute("document_id", jobIdStr)
-                    .setAttribute("stage", "risk_scan")
-                    .startSpan();
-        }
-
-        Map<String, Object> riskTaxonomy;
-        long riskScanStartTime = System.currentTimeMillis();
-        try (io.opentelemetry.context.Scope riskScope = riskScanSpan != null ? riskScanSpan.makeCurrent() : null) {
-            logger.info("Starting risk analysis for job: {}", jobId);
-            riskTaxonomy = riskAnalysisService.analyzeRisks(storedChunks);
-            logger.info("Risk analysis completed for job: {}", jobId);
-
-            if (riskScanSpan != null) {
-                // Count risks by category
-                int totalRisks = 0;
-                if (riskTaxonomy != null) {
-                    for (String category : List.of("data_privacy", "financial", "legal_rights", "termination", "modification")) {
-                        Object categoryData = riskTaxonomy.get(category);
-                        if (categoryData instanceof Map) {
-                            Object items = ((Map<?, ?>) categoryData).get("items");
-                            if (items instanceof List) {
-                                int count = ((List<?>) items).size();
-                                riskScanSpan.setAttribute("risk_count." + category, count);
-                                totalRisks += count;
-                            }
-                        }
-                    }
+                if (!inMemoryJobQueue.offer(job.getJobUuid())) {
+                    break;
                 }
-                riskScanSpan.setAttribute("risk_count.total", totalRisks);
+                enqueued++;
             }
-        } finally {
-            checkStageTimeout("risk_scan", riskScanStartTime, jobId);
-            if (riskScanSpan != null) {
-                riskScanSpan.end();
+            if (enqueued > 0) {
+                logger.info("Recovery sweep re-enqueued {} PENDING job(s)", enqueued);
             }
+        } catch (Exception e) {
+            logger.error("Error during in-memory queue recovery sweep", e);
         }
+    }
 
-        // Generate report sections - with span
-        Span llmSpan = null;
-        if (tracingService != null && parentSpan != null) {
-            llmSpan = tracingService.spanBuilder("llm")
-                    .setAttribute("job_id", jobIdStr)
-                    .setAttribute("document_id", jobIdStr)
-                    .setAttribute("stage", "llm")
-                    .setAttribute("provider", "gemini")
-                    .startSpan();
-        }
-
-        Map<String, Object> documentOverview;
-        Map<String, Object> summary;
-        Map<String, Object> obligationsAndRestrictions;
-        long reportGenStartTime = System.currentTimeMillis();
-        try (io.opentelemetry.context.Scope llmScope = llmSpan != null ? llmSpan.makeCurrent() : null) {
-            logger.info("Generating report sections for job: {}", jobId);
-            documentOverview = reportGenerationService.generateDocumentOverview(job, storedChunks);
-            summary = reportGenerationService.generateSummary(storedChunks);
-            obligationsAndRestrictions = reportGenerationService.generateObligationsAndRestrictions(storedChunks);
-
-            if (llmSpan != null) {
-                // Extract summary bullet count
-                if (summary != null && summary.get("bullets") instanceof List) {
-                    int bulletCount = ((List<?>) summary.get("bullets")).size();
-                    llmSpan.setAttribute("summary_bullet_count", bulletCount);
-                }
+    private void consumeJobs() {
+        while (consuming) {
+            UUID jobId;
+            try {
+                jobId = inMemoryJobQueue.poll(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
             }
-        } finally {
-            checkStageTimeout("report_generation", reportGenStartTime, jobId);
-            if (llmSpan != null) {
-                llmSpan.end();
+            if (jobId == null) {
+                continue;
             }
-        }
-
-        // Prepare report data for validation (cite-or-abstain enforcement)
-        logger.info("Validating report grounding for job: {}", jobId);
-        Map<String, Object> reportDataMap = new HashMap<>();
-        reportDataMap.put("summary_bullets", summary);
-        reportDataMap.put("obligations", obligationsAndRestrictions.get("obligations"));
-        reportDataMap.put("restrictions", obligationsAndRestrictions.get("restrictions"));
-        reportDataMap.put("termination_triggers", obligationsAndRestrictions.get("termination_triggers"));
-        reportDataMap.put("risk_taxonomy", riskTaxonomy);
-
-        ReportGroundingValidator.ValidationResult validationResult =
-                reportGroundingValidator.validateReport(reportDataMap, storedChunks);
-
-        if (!validationResult.isValid()) {
-            logger.warn("Report validation found {} violations for job: {}",
-                    validationResult.getViolations().size(), jobId);
-            for (String violation : validationResult.getViolations()) {
-                logger.warn("Validation violation: {}", violation);
-            }
-            // Violations are handled by abstain statements in validated data, per PRD
-            // Continue processing with validated (abstained) data
-        } else {
-            logger.info("Report validation passed for job: {}", jobId);
-        }
-
-        // Create and save Report with validated data - with span
-        Span exportSpan = null;
-        if (tracingService != null && parentSpan != null) {
-            exportSpan = tracingService.spanBuilder("export")
-                    .setAttribute("job_id", jobIdStr)
-                    .setAttribute("document_id", jobIdStr)
-                    .setAttribute("stage", "export")
-                    .startSpan();
-        }
-
-        try (io.opentelemetry.context.Scope exportScope = exportSpan != null ? exportSpan.makeCurrent() : null) {
-            Report report = new Report(jobId);
-            report.setDocumentOverview(documentOverview);
-            @SuppressWarnings("unchecked")
-            Map<String, Object> validatedSummary = (Map<String, Object>) reportDataMap.get("summary_bullets");
-            report.setSummaryBullets(validatedSummary);
-            // obligations/restrictions/termination_triggers from reportDataMap are already validated
-            @SuppressWarnings("unchecked")
-            List<Map<String, Object>> validatedObligations = (List<Map<String, Object>>) reportDataMap.get("obligations");
-            @SuppressWarnings("unchecked")
-            List<Map<String, Object>> validatedRestrictions = (List<Map<String, Object>>) reportDataMap.get("restrictions");
-            @SuppressWarnings("unchecked")
-            List<Map<String, Object>> validatedTerminationTriggers = (List<Map<String, Object>>) reportDataMap.get("termination_triggers");
-            Map<String, Object> obligationsMap = Map.of("items", validatedObligations != null ? validatedObligations : Collections.emptyList());
-            Map<String, Object> restrictionsMap = Map.of("items", validatedRestrictions != null ? validatedRestrictions : Collections.emptyList());
-            Map<String, Object> terminationTriggersMap = Map.of("items", validatedTerminationTriggers != null ? validatedTerminationTriggers : Collections.emptyList());
-            report.setObligations(obligationsMap);
-            report.setRestrictions(restrictionsMap);
-            report.setTerminationTriggers(terminationTriggersMap);
-            @SuppressWarnings("unchecked")
-            Map<String, Object> validatedRiskTaxonomy = (Map<String, Object>) reportDataMap.get("risk_taxonomy");
-            report.setRiskTaxonomy(validatedRiskTaxonomy);
-            report.setGeneratedAt(Instant.now());
-
-            // Optionally upload report JSON to storage
             try {
-                ObjectMapper objectMapper = new ObjectMapper();
-                // Use validated report data for storage upload
-                String reportJson = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(Map.of(
-                        "document_overview", documentOverview,
-                        "summary_bullets", reportDataMap.get("summary_bullets"),
-                        "obligations", reportDataMap.get("obligations"),
-                        "restrictions", reportDataMap.get("restrictions"),
-                        "termination_triggers", reportDataMap.get("termination_triggers"),
-                        "risk_taxonomy", reportDataMap.get("risk_taxonomy")
-                ));
-                String reportStoragePath = storageService.uploadFile(
-                        jobId, "report.json",
-                        new ByteArrayInputStream(reportJson.getBytes()),
-                        "application/json");
-                report.setGcsPath(reportStoragePath);
-                job.setReportGcsPath(reportStoragePath);
-                logger.info("Report JSON uploaded to storage: {}", reportStoragePath);
-                if (exportSpan != null) {
-                    exportSpan.setAttribute("report_stored", true);
-                    exportSpan.setAttribute("report_path", Strings.safe(reportStoragePath));
+                if (!jobClaimService.claimJob(jobId)) {
+                    logger.debug("Skipping queued job {} (already claimed or finished)", jobId);
+                    continue;
                 }
+                logger.info("Processing queued job: {}", jobId);
+                processDocument(jobId);
             } catch (Exception e) {
-                logger.warn("Failed to upload report JSON to storage, continuing without storage path: {}", e.getMessage());
-                if (exportSpan != null) {
-                    exportSpan.setAttribute("report_stored", false);
-                }
-            }
-
-            reportRepository.save(report);
-            logger.info("Report saved to database for job: {}", jobId);
-        } finally {
-            if (exportSpan != null) {
-                exportSpan.end();
+                // Claimed jobs left PROCESSING are recovered through their lease
+                logger.error("Error processing queued job: {}", jobId, e);
             }
         }
+    }
 
-        // Update job status
-        job.setStatus("SUCCESS");
-        job.setCompletedAt(Instant.now());
-        policyJobRepository.save(job);
-        logger.info("Job marked SUCCESS: {}", jobId);
+    @PreDestroy
+    public void stopConsumers() {
+        // Idle consumers exit within one poll timeout; a job in progress is not interrupted
+        consuming = false;
+        consumers.clear();
     }
 
     /**
-     * Checks if a processing stage has exceeded its timeout limit.
-     * Throws IllegalStateException if timeout exceeded.
-     *
-     * @param stageName Name of the stage (for logging)
-     * @param stageStartTime Start time of the stage in milliseconds
-     * @param jobId Job UUID (for error message)
-     * @throws IllegalStateException if stage timeout exceeded
+     * Runs the shared document pipeline for a claimed job. Not transactional; stages commit as they go.
      */
-    private void checkStageTimeout(String stageName, long stageStartTime, UUID jobId) {
-        long elapsedSeconds = (System.currentTimeMillis() - stageStartTime) / 1000;
-        if (elapsedSeconds > stageTimeoutSeconds) {
-            logger.error("Stage timeout exceeded: stage={}, elapsed={}s, limit={}s, jobId={}",
-                    stageName, elapsedSeconds, stageTimeoutSeconds, jobId);
-            throw new IllegalStateException(String.format(
-                    "Processing stage '%s' timeout exceeded: %d seconds (limit: %d seconds) for job: %s",
-                    stageName, elapsedSeconds, stageTimeoutSeconds, jobId));
-        }
-        logger.debug("Stage '{}' completed in {}s (limit: {}s)", stageName, elapsedSeconds, stageTimeoutSeconds);
+    public void processDocument(UUID jobId) {
+        documentPipeline.process(jobId);
     }
 }
-
@@ -0,0 +1,122 @@
+package com.policyinsight.processing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+/**
+ * Maintains the weekly job_created_at partitions of document_chunks, reports and
+ * qa_interactions (see V10__partition_time_series_tables.sql).
+ * Creates partitions ahead of time on every instance, since any instance may insert rows, and
+ * drops partitions of purged jobs for RetentionCleanupTask, instead of row-level DELETEs.
+ *
+ * Partitions are detached with DETACH PARTITION CONCURRENTLY, which only takes SHARE UPDATE
+ * EXCLUSIVE on the parent, so reads and inserts continue while a week is dropped. It cannot run
+ * inside a transaction, so callers must not be transactional. A detach interrupted half way is
+ * finalized on the next run.
+ */
+@Service
+public class PartitionMaintenanceTask {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartitionMaintenanceTask.class);
+    private static final List<String> PARTITIONED_TABLES = List.of("document_chunks", "reports", "qa_interactions");
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int weeksAhead;
+
+    public PartitionMaintenanceTask(
+            JdbcTemplate jdbcTemplate,
+            @Value("${app.partitioning.weeks-ahead:8}") int weeksAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.weeksAhead = weeksAhead;
+        logger.info("PartitionMaintenanceTask initialized: weeksAhead={}", weeksAhead);
+    }
+
+    /**
+     * Runs at startup and every 6 hours: creates the partitions of the coming weeks.
+     */
+    @Scheduled(fixedDelayString = "21600000") // Every 6 hours (21600000 ms)
+    public void createUpcomingPartitions() {
+        LocalDate weekStart = LocalDate.now(ZoneOffset.UTC).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        for (String table : PARTITIONED_TABLES) {
+            try {
+                for (int i = 0; i <= weeksAhead; i++) {
+                    jdbcTemplate.query("SELECT create_weekly_partition(?, ?)", rs -> { },
+                            table, java.sql.Date.valueOf(weekStart.plusWeeks(i)));
+                }
+            } catch (Exception e) {
+                logger.error("Error creating upcoming partitions for table {}", table, e);
+            }
+        }
+    }
+
+    /**
+     * Detaches and drops partitions whose whole week ends on or before the cutoff date, i.e.
+     * that only hold rows of jobs created before it.
+     *
+     * @param cutoffDate jobs created before this date are past retention
+     * @return number of partitions dropped across all tables
+     */
+    public int dropExpiredPartitions(LocalDate cutoffDate) {
+        int dropped = 0;
+        for (String table : PARTITIONED_TABLES) {
+            try {
+                int droppedForTable = dropExpiredPartitions(table, cutoffDate);
+                if (droppedForTable > 0) {
+                    logger.info("Dropped {} expired partition(s) of {} (cutoff: {})", droppedForTable, table, cutoffDate);
+                }
+                dropped += droppedForTable;
+            } catch (Exception e) {
+                logger.error("Error dropping expired partitions for table {}", table, e);
+            }
+        }
+        return dropped;
+    }
+
+    private int dropExpiredPartitions(String table, LocalDate cutoffDate) {
+        List<PartitionRow> partitions = jdbcTemplate.query(
+                "SELECT c.relname, i.inhdetachpending FROM pg_inherits i " +
+                        "JOIN pg_class c ON c.oid = i.inhrelid " +
+                        "JOIN pg_class p ON p.oid = i.inhparent " +
+                        "WHERE p.relname = ? ORDER BY c.relname",
+                (rs, rowNum) -> new PartitionRow(rs.getString(1), rs.getBoolean(2)), table);
+
+        String prefix = table + "_p";
+        int dropped = 0;
+        for (PartitionRow partition : partitions) {
+            if (!partition.name().startsWith(prefix)) {
+                continue;
+            }
+            LocalDate weekStart;
+            try {
+                weekStart = LocalDate.parse(partition.name().substring(prefix.length()), PARTITION_SUFFIX);
+            } catch (DateTimeParseException e) {
+                logger.warn("Skipping partition with unexpected name: {}", partition.name());
+                continue;
+            }
+            if (weekStart.plusWeeks(1).isAfter(cutoffDate)) {
+                continue; // Partition still holds rows inside the retention window
+            }
+            jdbcTemplate.execute("ALTER TABLE " + table + " DETACH PARTITION " + partition.name()
+                    + (partition.detachPending() ? " FINALIZE" : " CONCURRENTLY"));
+            jdbcTemplate.execute("DROP TABLE " + partition.name());
+            dropped++;
+        }
+        return dropped;
+    }
+
+    private record PartitionRow(String name, boolean detachPending) {
+    }
+}
@@ -1,6 +1,6 @@
 package com.policyinsight.processing;
 
-import com.policyinsight.shared.model.DocumentChunk;
+import com.policyinsight.shared.model.ChunkMetadata;
 import com.policyinsight.shared.model.PolicyJob;
 import com.policyinsight.shared.model.Report;
 import com.itextpdf.kernel.colors.ColorConstants;
@@ -17,6 +17,7 @@ import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.time.Instant;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -37,6 +38,7 @@ public class PdfExportService {
 
     /**
      * Generate a PDF export of the report.
+     * Buffers the whole document; prefer {@link #writePdf} for large reports.
      *
      * @param job the policy job
      * @param report the analysis report
@@ -44,13 +46,32 @@ public class PdfExportService {
      * @return PDF as byte array
      * @throws IOException if PDF generation fails
      */
-    public byte[] generatePdf(PolicyJob job, Report report, List<DocumentChunk> chunks) throws IOException {
+    public byte[] generatePdf(PolicyJob job, Report report, List<? extends ChunkMetadata> chunks) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        writePdf(job, report, chunks, baos);
+        return baos.toByteArray();
+    }
+
+    /**
+     * Write a PDF export of the report directly to an output stream.
+     * Pages are flushed to the stream as they are laid out, so memory per export stays bounded
+     * regardless of report size. The stream is flushed but not closed.
+     *
+     * @param job the policy job
+     * @param report the analysis report
+     * @param chunks document chunks for citation mapping
+     * @param out destination stream (e.g. the servlet response)
+     * @return number of bytes written
+     * @throws IOException if PDF generation fails
+     */
+    public long writePdf(PolicyJob job, Report report, List<? extends ChunkMetadata> chunks, OutputStream out)
+            throws IOException {
         logger.info("Generating PDF export for job: {}", job.getJobUuid());
 
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        PdfWriter writer = new PdfWriter(baos);
+        PdfWriter writer = new PdfWriter(out);
+        writer.setCloseStream(false);
         PdfDocument pdfDoc = new PdfDocument(writer);
-        Document document = new Document(pdfDoc, PageSize.A4);
+        Document document = new Document(pdfDoc, PageSize.A4, true);
 
         try {
             // Add watermark
@@ -78,8 +99,10 @@ public class PdfExportService {
             addFooter(document);
 
             document.close();
-            logger.info("PDF generated successfully: {} bytes", baos.size());
-            return baos.toByteArray();
+            long bytesWritten = writer.getCurrentPos();
+            out.flush();
+            logger.info("PDF generated successfully: {} bytes", bytesWritten);
+            return bytesWritten;
 
         } catch (Exception e) {
             logger.error("Failed to generate PDF for job: {}", job.getJobUuid(), e);
@@ -177,7 +200,7 @@ public class PdfExportService {
         return sb.toString();
     }
 
-    private String buildSummarySection(Report report, List<DocumentChunk> chunks) {
+    private String buildSummarySection(Report report, List<? extends ChunkMetadata> chunks) {
         Map<String, Object> summary = report.getSummaryBullets();
         if (summary == null) {
             return null;
@@ -211,7 +234,7 @@ public class PdfExportService {
         return sb.toString();
     }
 
-    private String buildObligationsSection(Report report, List<DocumentChunk> chunks) {
+    private String buildObligationsSection(Report report, List<? extends ChunkMetadata> chunks) {
         StringBuilder sb = new StringBuilder();
 
         // Obligations
@@ -271,7 +294,7 @@ public class PdfExportService {
         return sb.length() > 0 ? sb.toString() : null;
     }
 
-    private String buildRiskTaxonomySection(Report report, List<DocumentChunk> chunks) {
+    private String buildRiskTaxonomySection(Report report, List<? extends ChunkMetadata> chunks) {
         Map<String, Object> riskTaxonomyMap = report.getRiskTaxonomy();
         if (riskTaxonomyMap == null) {
             return null;
@@ -353,7 +376,7 @@ public class PdfExportService {
         return sb.length() > 0 ? sb.toString() : null;
     }
 
-    private void addCitation(StringBuilder sb, Map<String, Object> item, List<DocumentChunk> chunks) {
+    private void addCitation(StringBuilder sb, Map<String, Object> item, List<? extends ChunkMetadata> chunks) {
         @SuppressWarnings("unchecked")
         List<Map<String, Object>> citations = (List<Map<String, Object>>) item.get("citations");
         if (citations != null && !citations.isEmpty()) {
@@ -0,0 +1,183 @@
+package com.policyinsight.processing;
+
+import com.policyinsight.observability.DatadogMetricsServiceInterface;
+import com.policyinsight.shared.model.DocumentChunk;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps Gemini prompts within a per-task token budget.
+ * Prompts embed document chunks; for large documents the chunk context alone can exceed the
+ * model's context window or run up cost. Before a prompt is built, selectChunks picks the chunks
+ * that fit the task's budget: by relevance when the caller can rank them (Q&A question, risk
+ * category), otherwise the leading chunks in document order. Selected chunks keep their document
+ * order so citations and page references are unaffected.
+ */
+@Component
+public class PromptBudgetManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(PromptBudgetManager.class);
+
+    // Chunk header in prompts, e.g. "[Chunk ID: 12, Page: 3]" plus separators
+    private static final int CHUNK_HEADER_TOKENS = 14;
+    private static final int MIN_TERM_LENGTH = 4;
+
+    private final TokenCounter tokenCounter;
+    private final DatadogMetricsServiceInterface metricsService;
+    private final int defaultPromptTokens;
+    private final Map<String, Integer> taskPromptTokens;
+
+    public PromptBudgetManager(
+            TokenCounter tokenCounter,
+            @Autowired(required = false) DatadogMetricsServiceInterface metricsService,
+            @Value("${app.gemini.budget.default-prompt-tokens:120000}") int defaultPromptTokens,
+            @Value("${app.gemini.budget.task-prompt-tokens:qa=16000}") String taskPromptTokens) {
+        this.tokenCounter = tokenCounter;
+        this.metricsService = metricsService;
+        this.defaultPromptTokens = defaultPromptTokens;
+        this.taskPromptTokens = parseTaskBudgets(taskPromptTokens);
+        logger.info("PromptBudgetManager initialized: defaultPromptTokens={}, taskPromptTokens={}",
+                defaultPromptTokens, this.taskPromptTokens);
+    }
+
+    /**
+     * Prompt token budget for a task type (e.g. "qa", "summary", "risk_analysis").
+     */
+    public int budgetFor(String taskType) {
+        return taskPromptTokens.getOrDefault(taskType, defaultPromptTokens);
+    }
+
+    /**
+     * Estimated token count of a chunk as embedded in a prompt.
+     */
+    public int chunkTokens(DocumentChunk chunk) {
+        return tokenCounter.count(chunk.getText()) + CHUNK_HEADER_TOKENS;
+    }
+
+    /**
+     * Chooses the chunks to embed in a prompt so the prompt stays within the task's budget.
+     *
+     * @param taskType task type the budget applies to
+     * @param promptWithoutChunks the prompt as it would be built with no chunks (instructions,
+     *                            schema, question)
+     * @param chunks candidate chunks in document order
+     * @param relevance ranks chunks when not all fit (higher first); null keeps the leading chunks
+     * @return the chunks to include, in document order; the input list itself when all fit
+     */
+    public List<DocumentChunk> selectChunks(String taskType, String promptWithoutChunks, List<DocumentChunk> chunks,
+                                            ToDoubleFunction<DocumentChunk> relevance) {
+        int budget = budgetFor(taskType);
+        int available = budget - tokenCounter.count(promptWithoutChunks);
+
+        int[] tokens = new int[chunks.size()];
+        long total = 0;
+        for (int i = 0; i < chunks.size(); i++) {
+            tokens[i] = chunkTokens(chunks.get(i));
+            total += tokens[i];
+        }
+        if (total <= available) {
+            return chunks;
+        }
+
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < chunks.size(); i++) {
+            order.add(i);
+        }
+        if (relevance != null) {
+            // Stable sort: equally relevant chunks keep document order
+            double[] scores = new double[chunks.size()];
+            for (int i = 0; i < chunks.size(); i++) {
+                scores[i] = relevance.applyAsDouble(chunks.get(i));
+            }
+            order.sort(Comparator.comparingDouble((Integer i) -> scores[i]).reversed());
+        }
+
+        boolean[] selected = new boolean[chunks.size()];
+        long used = 0;
+        for (int i : order) {
+            if (used + tokens[i] > available) {
+                if (relevance == null) {
+                    // Truncating: keep the selection contiguous
+                    break;
+                }
+                continue;
+            }
+            selected[i] = true;
+            used += tokens[i];
+        }
+
+        List<DocumentChunk> result = new ArrayList<>();
+        for (int i = 0; i < chunks.size(); i++) {
+            if (selected[i]) {
+                result.add(chunks.get(i));
+            }
+        }
+
+        int dropped = chunks.size() - result.size();
+        logger.warn("Prompt for task {} exceeds its budget ({} tokens, ~{} in chunks): keeping {} of {} chunks ({})",
+                taskType, budget, total, result.size(), chunks.size(), relevance != null ? "by relevance" : "truncated");
+        if (metricsService != null) {
+            metricsService.recordPromptChunksDropped(taskType, dropped);
+        }
+        return result;
+    }
+
+    /**
+     * Relevance by overlap with the terms of a query: the number of distinct query terms
+     * a chunk contains, with repeated occurrences breaking ties.
+     *
+     * @param query question or topic description
+     * @return a relevance function for selectChunks
+     */
+    public static ToDoubleFunction<DocumentChunk> termOverlap(String query) {
+        Set<String> terms = Arrays.stream(query.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(term -> term.length() >= MIN_TERM_LENGTH)
+                .collect(Collectors.toSet());
+        return chunk -> {
+            if (chunk.getText() == null || terms.isEmpty()) {
+                return 0;
+            }
+            String text = chunk.getText().toLowerCase(Locale.ROOT);
+            double score = 0;
+            for (String term : terms) {
+                int occurrences = 0;
+                for (int at = text.indexOf(term); at >= 0 && occurrences < 10; at = text.indexOf(term, at + term.length())) {
+                    occurrences++;
+                }
+                if (occurrences > 0) {
+                    score += 1 + occurrences / 100.0;
+                }
+            }
+            return score;
+        };
+    }
+
+    private static Map<String, Integer> parseTaskBudgets(String spec) {
+        Map<String, Integer> budgets = new HashMap<>();
+        if (spec == null || spec.isBlank()) {
+            return budgets;
+        }
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid task prompt budget (expected task=tokens): " + entry);
+            }
+            budgets.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        return budgets;
+    }
+}
@@ -0,0 +1,35 @@
+package com.policyinsight.processing;
+
+import java.io.IOException;
+
+/**
+ * Thrown by GeminiService when a prompt is above the hard token limit
+ * (app.gemini.budget.max-prompt-tokens). Nothing was sent and retrying the same prompt cannot
+ * succeed, so report sections rethrow it and fail the job instead of returning an empty section.
+ */
+public class PromptTooLargeException extends IOException {
+
+    private final String taskType;
+    private final int promptTokens;
+    private final int maxPromptTokens;
+
+    public PromptTooLargeException(String taskType, int promptTokens, int maxPromptTokens) {
+        super(String.format("Prompt too large for task %s: ~%d tokens (limit: %d)",
+                taskType, promptTokens, maxPromptTokens));
+        this.taskType = taskType;
+        this.promptTokens = promptTokens;
+        this.maxPromptTokens = maxPromptTokens;
+    }
+
+    public String getTaskType() {
+        return taskType;
+    }
+
+    public int getPromptTokens() {
+        return promptTokens;
+    }
+
+    public int getMaxPromptTokens() {
+        return maxPromptTokens;
+    }
+}
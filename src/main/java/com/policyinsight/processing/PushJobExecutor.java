@@ -0,0 +1,123 @@
+package com.policyinsight.processing;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded background executor for jobs received via Pub/Sub push.
+ * Only loads when pubsub.push.processing=async.
+ *
+ * Capacity (running threads plus queued jobs) is reserved before a job is claimed, so a full
+ * executor is detected while the message can still be rejected and redelivered. Claimed jobs
+ * that never finish here (crash, shutdown) are recovered by their lease and the job reaper.
+ */
+@Component
+@ConditionalOnProperty(name = "pubsub.push.processing", havingValue = "async")
+public class PushJobExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PushJobExecutor.class);
+
+    private final DocumentJobProcessor documentJobProcessor;
+    private final ExecutorService executor;
+    private final Semaphore slots;
+    private final int capacity;
+    private final long shutdownTimeoutSeconds;
+
+    public PushJobExecutor(
+            DocumentJobProcessor documentJobProcessor,
+            @Value("${pubsub.push.async.threads:4}") int threads,
+            @Value("${pubsub.push.async.queue-capacity:16}") int queueCapacity,
+            @Value("${pubsub.push.async.shutdown-timeout-seconds:30}") long shutdownTimeoutSeconds) {
+        this.documentJobProcessor = documentJobProcessor;
+        this.capacity = threads + queueCapacity;
+        this.slots = new Semaphore(capacity);
+        this.shutdownTimeoutSeconds = shutdownTimeoutSeconds;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "push-job-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        logger.info("PushJobExecutor initialized: threads={}, queueCapacity={}", threads, queueCapacity);
+    }
+
+    /**
+     * Reserves capacity for one job. Every successful reservation must be followed by
+     * exactly one {@link #submit(UUID)} or {@link #release()}.
+     *
+     * @return false if the executor is saturated
+     */
+    public boolean tryReserve() {
+        return slots.tryAcquire();
+    }
+
+    /**
+     * Returns an unused reservation (e.g. the job could not be claimed).
+     */
+    public void release() {
+        slots.release();
+    }
+
+    /**
+     * Runs a claimed job in the background using a previously reserved slot.
+     */
+    public void submit(UUID jobId) {
+        try {
+            executor.execute(() -> run(jobId));
+        } catch (RuntimeException e) {
+            slots.release();
+            logger.warn("Push job executor rejected job {}; lease expiry will recover it", jobId);
+        }
+    }
+
+    private void run(UUID jobId) {
+        MDC.put("job_id", jobId.toString());
+        long startTime = System.currentTimeMillis();
+        try {
+            documentJobProcessor.processDocument(jobId);
+            logger.info("COMPLETE background processing job_id={} duration_ms={}",
+                    jobId, System.currentTimeMillis() - startTime);
+        } catch (Exception e) {
+            // Job stays PROCESSING; its lease expires and the reaper makes it retryable
+            logger.error("Background processing failed for job_id={} duration_ms={}",
+                    jobId, System.currentTimeMillis() - startTime, e);
+        } finally {
+            slots.release();
+            MDC.remove("job_id");
+        }
+    }
+
+    /**
+     * Jobs running or queued on this instance.
+     */
+    public int getActiveCount() {
+        return capacity - slots.availablePermits();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(shutdownTimeoutSeconds, TimeUnit.SECONDS)) {
+                logger.warn("Push job executor did not drain in {}s; {} job(s) left to lease recovery",
+                        shutdownTimeoutSeconds, getActiveCount());
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.policyinsight.processing;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.policyinsight.api.events.JobEventPublisher;
 import com.policyinsight.shared.model.DocumentChunk;
 import com.policyinsight.shared.model.QaInteraction;
 import com.policyinsight.shared.repository.DocumentChunkRepository;
@@ -12,14 +13,19 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
+import java.time.Instant;
 import java.util.*;
 import java.util.UUID;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
  * Service for grounded Q&A with cite-or-abstain enforcement.
  * Uses Gemini to answer questions based on document chunks, or abstains if no evidence exists.
+ * When the job's whole document is held in Gemini's context cache (created during report
+ * generation), questions are answered against the whole cached document; otherwise the prompt
+ * carries the chunks that fit the "qa" budget.
  */
 @Service
 public class QaService {
@@ -28,18 +34,27 @@ public class QaService {
     private static final int QA_TIMEOUT_SECONDS = 3; // PRD constraint: 3-second timeout per answer
     private static final int MAX_QUESTIONS_PER_SESSION = 3; // PRD constraint: up to 3 questions per document session
 
-    private final GeminiService geminiService;
+    private final GeminiContextCache contextCache;
+    private final DocumentContextCache documentContextCache;
     private final DocumentChunkRepository chunkRepository;
     private final QaInteractionRepository qaInteractionRepository;
+    private final JobEventPublisher jobEventPublisher;
+    private final PromptBudgetManager promptBudgetManager;
     private final ObjectMapper objectMapper;
 
     public QaService(
-            GeminiService geminiService,
+            GeminiContextCache contextCache,
+            DocumentContextCache documentContextCache,
             DocumentChunkRepository chunkRepository,
-            QaInteractionRepository qaInteractionRepository) {
-        this.geminiService = geminiService;
+            QaInteractionRepository qaInteractionRepository,
+            JobEventPublisher jobEventPublisher,
+            PromptBudgetManager promptBudgetManager) {
+        this.contextCache = contextCache;
+        this.documentContextCache = documentContextCache;
         this.chunkRepository = chunkRepository;
         this.qaInteractionRepository = qaInteractionRepository;
+        this.jobEventPublisher = jobEventPublisher;
+        this.promptBudgetManager = promptBudgetManager;
         this.objectMapper = new ObjectMapper();
     }
 
@@ -55,29 +70,16 @@ public class QaService {
     public QaResult answerQuestion(UUID jobUuid, String question) throws IllegalArgumentException {
         logger.info("Processing Q&A request: jobUuid={}, questionLength={}", jobUuid, question.length());
 
-        // Check question count limit (3 per session)
-        long questionCount = qaInteractionRepository.countByJobUuid(jobUuid);
-        if (questionCount >= MAX_QUESTIONS_PER_SESSION) {
-            throw new IllegalArgumentException(
-                    String.format("Maximum question limit (%d) reached for this document session", MAX_QUESTIONS_PER_SESSION));
-        }
-
-        // Retrieve document chunks
-        List<DocumentChunk> chunks = chunkRepository.findByJobUuidOrderByChunkIndex(jobUuid);
-        if (chunks.isEmpty()) {
-            throw new IllegalArgumentException("Document chunks not found. Document may not be processed yet.");
-        }
-
-        // Build context from chunks
-        String context = buildChunkContext(chunks);
+        List<DocumentChunk> chunks = loadChunksForQuestion(jobUuid);
 
         // Build grounded Q&A prompt with cite-or-abstain enforcement
-        String prompt = buildGroundedQaPrompt(question, context, chunks);
+        QaPrompt prompt = buildPrompt(question, chunks);
 
         try {
             // Call Gemini with timeout
             long startTime = System.currentTimeMillis();
-            String response = geminiService.generateContent(prompt, QA_TIMEOUT_SECONDS, "qa");
+            String response = contextCache.generateContent(prompt.documentContext(), prompt.inlineContext(),
+                    prompt.instructions(), false, QA_TIMEOUT_SECONDS, "qa");
             long latencyMs = System.currentTimeMillis() - startTime;
 
             logger.debug("Gemini Q&A response received: latencyMs={}, responseLength={}", latencyMs, response.length());
@@ -85,15 +87,7 @@ public class QaService {
             // Parse response and extract citations
             QaResult result = parseQaResponse(response, chunks, question, latencyMs);
 
-            // Store Q&A interaction
-            QaInteraction interaction = new QaInteraction(jobUuid, question, result.getAnswer());
-            interaction.setConfidence(result.isGrounded() ? "CONFIDENT" : "ABSTAINED");
-            interaction.setCitedChunks(buildCitedChunksJson(result.getCitations()));
-            qaInteractionRepository.save(interaction);
-
-            logger.info("Q&A interaction saved: jobUuid={}, grounded={}, confidence={}",
-                    jobUuid, result.isGrounded(), interaction.getConfidence());
-
+            saveInteraction(jobUuid, chunks.get(0).getJobCreatedAt(), question, result);
             return result;
 
         } catch (TimeoutException e) {
@@ -106,25 +100,108 @@ public class QaService {
     }
 
     /**
-     * Build context string from document chunks for the prompt.
+     * Streaming variant of answerQuestion: the answer text is handed to onAnswerText while Gemini
+     * generates it, then the complete response goes through the same citation checks and is
+     * stored. The streamed text is provisional; when the checks turn the answer into an abstention
+     * the returned result carries the replacement text.
+     *
+     * Not transactional, so no database connection is held for the duration of the stream; the
+     * interaction is saved in the repository's own transaction.
+     *
+     * @param jobUuid The job UUID for the document
+     * @param question The user's question
+     * @param deadline bounds the call; cancelled when the client goes away
+     * @param onAnswerText receives answer text fragments as they are generated
+     * @return QaResult containing the answer, citations, and confidence
+     * @throws IllegalArgumentException if question limit exceeded or document not ready
+     * @throws IllegalStateException if the deadline passes or the request is cancelled
      */
-    private String buildChunkContext(List<DocumentChunk> chunks) {
-        StringBuilder context = new StringBuilder();
-        for (DocumentChunk chunk : chunks) {
-            context.append(String.format("[Chunk %d, Page %d]: %s\n\n",
-                    chunk.getId(),
-                    chunk.getPageNumber() != null ? chunk.getPageNumber() : 0,
-                    chunk.getText() != null ? chunk.getText() : ""));
+    public QaResult answerQuestionStreaming(UUID jobUuid, String question, JobDeadline deadline,
+                                            Consumer<String> onAnswerText) throws IllegalArgumentException {
+        logger.info("Processing streaming Q&A request: jobUuid={}, questionLength={}", jobUuid, question.length());
+
+        List<DocumentChunk> chunks = loadChunksForQuestion(jobUuid);
+        QaPrompt prompt = buildPrompt(question, chunks);
+
+        try {
+            long startTime = System.currentTimeMillis();
+            String response = contextCache.generateContentStream(prompt.documentContext(), prompt.inlineContext(),
+                    prompt.instructions(), false, "qa", deadline, new JsonStringFieldStreamer("answer", onAnswerText));
+            long latencyMs = System.currentTimeMillis() - startTime;
+
+            logger.debug("Gemini Q&A stream completed: latencyMs={}, responseLength={}", latencyMs, response.length());
+
+            QaResult result = parseQaResponse(response, chunks, question, latencyMs);
+            saveInteraction(jobUuid, chunks.get(0).getJobCreatedAt(), question, result);
+            return result;
+
+        } catch (IOException e) {
+            logger.error("Failed to call Gemini API for streaming Q&A: jobUuid={}", jobUuid, e);
+            throw new RuntimeException("Failed to process question. Please try again later.", e);
+        }
+    }
+
+    /**
+     * Enforces the per-session question limit and loads the document chunks to answer from.
+     */
+    private List<DocumentChunk> loadChunksForQuestion(UUID jobUuid) {
+        // Check question count limit (3 per session)
+        long questionCount = qaInteractionRepository.countByJobUuid(jobUuid);
+        if (questionCount >= MAX_QUESTIONS_PER_SESSION) {
+            throw new IllegalArgumentException(
+                    String.format("Maximum question limit (%d) reached for this document session", MAX_QUESTIONS_PER_SESSION));
+        }
+
+        // Retrieve document chunks
+        List<DocumentChunk> chunks = chunkRepository.findByJobUuidOrderByChunkIndex(jobUuid);
+        if (chunks.isEmpty()) {
+            throw new IllegalArgumentException("Document chunks not found. Document may not be processed yet.");
         }
-        return context.toString();
+        return chunks;
+    }
+
+    /**
+     * Stores a Q&A interaction and drops the cached report view that lists it, on every node.
+     */
+    private void saveInteraction(UUID jobUuid, Instant jobCreatedAt, String question, QaResult result) {
+        QaInteraction interaction = new QaInteraction(jobUuid, question, result.getAnswer());
+        interaction.setJobCreatedAt(jobCreatedAt);
+        interaction.setConfidence(result.isGrounded() ? "CONFIDENT" : "ABSTAINED");
+        interaction.setCitedChunks(buildCitedChunksJson(result.getCitations()));
+        qaInteractionRepository.save(interaction);
+        jobEventPublisher.publishReportViewChanged(jobUuid);
+
+        logger.info("Q&A interaction saved: jobUuid={}, grounded={}, confidence={}",
+                jobUuid, result.isGrounded(), interaction.getConfidence());
     }
 
     /**
-     * Build grounded Q&A prompt with cite-or-abstain enforcement.
+     * Builds the Q&A prompt: the job's document context followed by the question instructions.
+     * Uses the whole document when the job has it cached at Gemini, otherwise the chunks that fit
+     * the "qa" prompt budget, preferring those that share the most terms with the question; that
+     * selection is also what is sent if the cached call falls back to an inline prompt. The
+     * context itself is rendered once per job and reused across questions.
      */
-    private String buildGroundedQaPrompt(String question, String context, List<DocumentChunk> chunks) {
+    private QaPrompt buildPrompt(String question, List<DocumentChunk> chunks) {
+        String instructions = buildGroundedQaInstructions(question);
+        DocumentContext documentContext = documentContextCache.forChunks(chunks);
+        List<DocumentChunk> promptChunks = promptBudgetManager.selectChunks("qa", instructions,
+                documentContext.getChunks(), PromptBudgetManager.termOverlap(question));
+        DocumentContext budgeted = documentContext.select(promptChunks);
+        if (contextCache.isCached(documentContext)) {
+            return new QaPrompt(documentContext, budgeted, instructions);
+        }
+        return new QaPrompt(budgeted, budgeted, instructions);
+    }
+
+    /**
+     * Build grounded Q&A instructions with cite-or-abstain enforcement; they follow the document
+     * excerpts.
+     */
+    private String buildGroundedQaInstructions(String question) {
         StringBuilder prompt = new StringBuilder();
-        prompt.append("You are a legal document analyzer. STRICT RULE: Every claim you make MUST cite specific chunks by ID. ");
+        prompt.append("You are a legal document analyzer answering a question about the document excerpts above. ");
+        prompt.append("STRICT RULE: Every claim you make MUST cite specific chunks by ID. ");
         prompt.append("If no evidence exists in the document, respond with: \"Insufficient evidence: This document does not address [question topic].\"\n\n");
         prompt.append("Do NOT:\n");
         prompt.append("- Infer intent\n");
@@ -140,14 +217,19 @@ public class QaService {
         prompt.append("  \"chunk_ids\": [5, 7, 12],\n");
         prompt.append("  \"is_grounded\": true\n");
         prompt.append("}\n\n");
-        prompt.append("Document Context:\n");
-        prompt.append(context);
-        prompt.append("\n\nQuestion: ").append(question).append("\n\n");
+        prompt.append("Question: ").append(question).append("\n\n");
         prompt.append("Answer (JSON format only):");
 
         return prompt.toString();
     }
 
+    /**
+     * Q&A prompt split at the document context, which GeminiContextCache may serve from cache;
+     * inlineContext is the budgeted selection sent when the cache is not used.
+     */
+    private record QaPrompt(DocumentContext documentContext, DocumentContext inlineContext, String instructions) {
+    }
+
     /**
      * Parse Gemini response and extract citations.
      */
@@ -6,11 +6,17 @@ import com.policyinsight.shared.model.PolicyJob;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeoutException;
 
 /**
@@ -19,18 +25,66 @@ import java.util.concurrent.TimeoutException;
  * - Plain-English Summary (max 10 bullets)
  * - Obligations & Restrictions
  * - Termination Triggers
+ *
+ * Documents whose chunk context exceeds app.processing.map-reduce.threshold-tokens are processed
+ * hierarchically: consecutive chunk windows are summarized / scanned in parallel (map) and the
+ * partial results merged (reduce), with chunk-ID citations carried through from the windows.
+ * Such sections carry "coverage": {"windows": n, "failed": k}, so a result built without some
+ * windows is not mistaken for a complete one.
+ *
+ * Prompts open with the job's DocumentContext (rendered once, shared with risk analysis and Q&A)
+ * and end with the task instructions, so single-call prompts over the whole document share the
+ * job's cached Gemini context (GeminiContextCache).
  */
 @Service
 public class ReportGenerationService {
 
     private static final Logger logger = LoggerFactory.getLogger(ReportGenerationService.class);
     private static final int MAX_SUMMARY_BULLETS = 10;
+    private static final List<String> SEVERITY_ORDER = List.of("low", "medium", "high");
+    private static final List<String> OBLIGATION_SECTIONS = List.of("obligations", "restrictions", "termination_triggers");
+    // Used to pick chunks when a large document does not fit the obligations prompt budget
+    private static final String OBLIGATION_TERMS =
+            "must shall required agree obligation responsible prohibited restrict restriction terminate termination suspend";
 
     private final GeminiService geminiService;
+    private final PromptBudgetManager promptBudgetManager;
+    private final GeminiContextCache contextCache;
+    private final DocumentContextCache documentContextCache;
+    private final int mapReduceThresholdTokens;
+    private final int mapReduceWindowTokens;
+    private final int mapReduceParallelism;
 
     @Autowired
-    public ReportGenerationService(GeminiService geminiService) {
+    public ReportGenerationService(
+            GeminiService geminiService,
+            PromptBudgetManager promptBudgetManager,
+            GeminiContextCache contextCache,
+            DocumentContextCache documentContextCache,
+            @Value("${app.processing.map-reduce.threshold-tokens:60000}") int mapReduceThresholdTokens,
+            @Value("${app.processing.map-reduce.window-tokens:20000}") int mapReduceWindowTokens,
+            @Value("${app.processing.map-reduce.parallelism:4}") int mapReduceParallelism) {
         this.geminiService = geminiService;
+        this.promptBudgetManager = promptBudgetManager;
+        this.contextCache = contextCache;
+        this.documentContextCache = documentContextCache;
+        this.mapReduceThresholdTokens = mapReduceThresholdTokens;
+        this.mapReduceWindowTokens = mapReduceWindowTokens;
+        this.mapReduceParallelism = mapReduceParallelism;
+        logger.info("ReportGenerationService initialized: mapReduceThresholdTokens={}, mapReduceWindowTokens={}, mapReduceParallelism={}",
+                mapReduceThresholdTokens, mapReduceWindowTokens, mapReduceParallelism);
+    }
+
+    /**
+     * LLM calls generateSummary and generateObligationsAndRestrictions are expected to make for
+     * these chunks: one each, or with map-reduce one per window each plus the summary merge.
+     */
+    public int plannedLlmCalls(List<DocumentChunk> chunks) {
+        if (!usesMapReduce(chunks)) {
+            return 2;
+        }
+        int windows = splitIntoWindows(chunks).size();
+        return 2 * windows + (windows > 1 ? 1 : 0);
     }
 
     /**
@@ -66,64 +120,41 @@ public class ReportGenerationService {
      * @return Map with "bullets" array
      */
     public Map<String, Object> generateSummary(List<DocumentChunk> chunks) throws IOException, TimeoutException {
-        logger.info("Generating summary bullets from {} chunks", chunks.size());
+        return generateSummary(chunks, JobDeadline.none());
+    }
 
-        String prompt = buildSummaryPrompt(chunks);
+    /**
+     * Generates plain-English summary bullets, aborting when the job deadline passes.
+     *
+     * @param chunks Document chunks
+     * @param deadline job deadline/cancellation token
+     * @return Map with "bullets" array
+     * @throws PromptTooLargeException if a prompt is above the hard token limit
+     * @throws IllegalStateException if the job is cancelled or the stage deadline passes
+     */
+    public Map<String, Object> generateSummary(List<DocumentChunk> chunks, JobDeadline deadline)
+            throws IOException, TimeoutException {
+        logger.info("Generating summary bullets from {} chunks", chunks.size());
 
         try {
-            String response = geminiService.generateContent(prompt, 10, "summary");
-            JsonNode jsonResponse = geminiService.parseJsonResponse(response);
-
-            Map<String, Object> summary = new HashMap<>();
-            List<Map<String, Object>> bullets = new ArrayList<>();
-
-            if (jsonResponse.has("bullets") && jsonResponse.get("bullets").isArray()) {
-                Set<Long> validChunkIds = getValidChunkIds(chunks);
-                int bulletCount = 0;
-
-                for (JsonNode bulletNode : jsonResponse.get("bullets")) {
-                    if (bulletCount >= MAX_SUMMARY_BULLETS) {
-                        logger.warn("Summary contains more than {} bullets, truncating", MAX_SUMMARY_BULLETS);
-                        break;
-                    }
-
-                    Map<String, Object> bullet = new HashMap<>();
-
-                    if (bulletNode.has("text")) {
-                        bullet.put("text", bulletNode.get("text").asText());
-                    }
-
-                    List<Long> chunkIds = new ArrayList<>();
-                    if (bulletNode.has("chunk_ids") && bulletNode.get("chunk_ids").isArray()) {
-                        for (JsonNode chunkIdNode : bulletNode.get("chunk_ids")) {
-                            long chunkId = chunkIdNode.asLong();
-                            if (validChunkIds.contains(chunkId)) {
-                                chunkIds.add(chunkId);
-                            }
-                        }
-                    }
-                    bullet.put("chunk_ids", chunkIds);
-
-                    // Get page references from chunks
-                    List<Integer> pageRefs = new ArrayList<>();
-                    for (Long chunkId : chunkIds) {
-                        for (DocumentChunk chunk : chunks) {
-                            if (chunk.getId() != null && chunk.getId().equals(chunkId)) {
-                                pageRefs.add(chunk.getPageNumber());
-                            }
-                        }
-                    }
-                    bullet.put("page_refs", pageRefs.stream().distinct().sorted().toList());
-
-                    bullets.add(bullet);
-                    bulletCount++;
-                }
+            DocumentContext documentContext = documentContextCache.forChunks(chunks);
+            Set<Long> validChunkIds = getValidChunkIds(chunks);
+            if (usesMapReduce(chunks)) {
+                return mapReduceSummary(documentContext, validChunkIds, deadline);
             }
+            List<DocumentChunk> promptChunks = promptBudgetManager.selectChunks("summary",
+                    buildSummaryInstructions(), documentContext.getChunks(), null);
 
-            summary.put("bullets", bullets);
+            Map<String, Object> summary = new HashMap<>();
+            summary.put("bullets", summarizeChunks(documentContext, promptChunks, validChunkIds, "summary", deadline));
             return summary;
 
+        } catch (PromptTooLargeException e) {
+            // Not a transient failure: an empty summary would pass for a successful one
+            throw e;
         } catch (Exception e) {
+            // Out of time or cancelled: abort the job rather than return an empty summary
+            deadline.check();
             logger.error("Failed to generate summary: {}", e.getMessage(), e);
             // Return empty summary on error
             Map<String, Object> errorSummary = new HashMap<>();
@@ -140,29 +171,40 @@ public class ReportGenerationService {
      */
     public Map<String, Object> generateObligationsAndRestrictions(List<DocumentChunk> chunks)
             throws IOException, TimeoutException {
-        logger.info("Generating obligations and restrictions from {} chunks", chunks.size());
+        return generateObligationsAndRestrictions(chunks, JobDeadline.none());
+    }
 
-        String prompt = buildObligationsPrompt(chunks);
+    /**
+     * Generates obligations, restrictions, and termination triggers, aborting when the job
+     * deadline passes.
+     *
+     * @param chunks Document chunks
+     * @param deadline job deadline/cancellation token
+     * @return Map with "obligations", "restrictions", and "termination_triggers" arrays
+     * @throws PromptTooLargeException if a prompt is above the hard token limit
+     * @throws IllegalStateException if the job is cancelled or the stage deadline passes
+     */
+    public Map<String, Object> generateObligationsAndRestrictions(List<DocumentChunk> chunks, JobDeadline deadline)
+            throws IOException, TimeoutException {
+        logger.info("Generating obligations and restrictions from {} chunks", chunks.size());
 
         try {
-            String response = geminiService.generateContent(prompt, 10, "obligations");
-            JsonNode jsonResponse = geminiService.parseJsonResponse(response);
-
-            Map<String, Object> result = new HashMap<>();
+            DocumentContext documentContext = documentContextCache.forChunks(chunks);
             Set<Long> validChunkIds = getValidChunkIds(chunks);
-
-            // Extract obligations
-            result.put("obligations", extractItems(jsonResponse, "obligations", chunks, validChunkIds));
-
-            // Extract restrictions
-            result.put("restrictions", extractItems(jsonResponse, "restrictions", chunks, validChunkIds));
-
-            // Extract termination triggers
-            result.put("termination_triggers", extractItems(jsonResponse, "termination_triggers", chunks, validChunkIds));
-
-            return result;
-
+            if (usesMapReduce(chunks)) {
+                return mapReduceObligations(documentContext, validChunkIds, deadline);
+            }
+            List<DocumentChunk> promptChunks = promptBudgetManager.selectChunks("obligations",
+                    buildObligationsInstructions(), documentContext.getChunks(),
+                    PromptBudgetManager.termOverlap(OBLIGATION_TERMS));
+            return new HashMap<>(extractObligations(documentContext, promptChunks, validChunkIds, "obligations", deadline));
+
+        } catch (PromptTooLargeException e) {
+            // Not a transient failure: empty sections would pass for a document without obligations
+            throw e;
         } catch (Exception e) {
+            // Out of time or cancelled: abort the job rather than return empty sections
+            deadline.check();
             logger.error("Failed to generate obligations and restrictions: {}", e.getMessage(), e);
             Map<String, Object> errorResult = new HashMap<>();
             errorResult.put("obligations", Collections.emptyList());
@@ -172,16 +214,294 @@ public class ReportGenerationService {
         }
     }
 
-    private String buildSummaryPrompt(List<DocumentChunk> chunks) {
-        StringBuilder prompt = new StringBuilder();
-        prompt.append("Summarize the key findings from this legal document in plain English.\n\n");
-        prompt.append("Document excerpts:\n");
+    /**
+     * Summarizes the given chunks of the document in one call (at most
+     * MAX_SUMMARY_BULLETS bullets).
+     */
+    private List<Map<String, Object>> summarizeChunks(DocumentContext documentContext, List<DocumentChunk> promptChunks,
+                                                      Set<Long> validChunkIds, String taskType, JobDeadline deadline)
+            throws IOException {
+        List<DocumentChunk> chunks = documentContext.getChunks();
+        DocumentContext promptContext = documentContext.select(promptChunks);
+        List<Map<String, Object>> bullets = new ArrayList<>();
+
+        // Only a prompt over the whole document creates the job's context cache (map windows just
+        // send their excerpts)
+        JsonNode response = contextCache.generateJson(promptContext, buildSummaryInstructions(),
+                promptContext == documentContext, taskType, deadline);
+        for (JsonNode bulletNode : response.path("bullets")) {
+            if (bullets.size() >= MAX_SUMMARY_BULLETS) {
+                logger.warn("Summary contains more than {} bullets, truncating", MAX_SUMMARY_BULLETS);
+                break;
+            }
+            bullets.add(toCitedItem(bulletNode, chunks, validChunkIds, false));
+        }
+        return bullets;
+    }
+
+    /**
+     * Extracts obligations, restrictions and termination triggers from the given chunks in one call.
+     */
+    private Map<String, List<Map<String, Object>>> extractObligations(DocumentContext documentContext,
+                                                                       List<DocumentChunk> promptChunks,
+                                                                       Set<Long> validChunkIds, String taskType,
+                                                                       JobDeadline deadline) throws IOException {
+        List<DocumentChunk> chunks = documentContext.getChunks();
+        DocumentContext promptContext = documentContext.select(promptChunks);
+        Map<String, List<Map<String, Object>>> sections = new LinkedHashMap<>();
+        for (String key : OBLIGATION_SECTIONS) {
+            sections.put(key, new ArrayList<>());
+        }
 
+        JsonNode response = contextCache.generateJson(promptContext, buildObligationsInstructions(),
+                promptContext == documentContext, taskType, deadline);
+        for (Map.Entry<String, List<Map<String, Object>>> section : sections.entrySet()) {
+            for (JsonNode itemNode : response.path(section.getKey())) {
+                section.getValue().add(toCitedItem(itemNode, chunks, validChunkIds, true));
+            }
+        }
+        return sections;
+    }
+
+    private boolean usesMapReduce(List<DocumentChunk> chunks) {
+        long contextTokens = 0;
         for (DocumentChunk chunk : chunks) {
-            prompt.append(String.format("[Chunk ID: %d, Page: %d]\n%s\n\n",
-                    chunk.getId(), chunk.getPageNumber(), chunk.getText()));
+            contextTokens += promptBudgetManager.chunkTokens(chunk);
+        }
+        return contextTokens > mapReduceThresholdTokens;
+    }
+
+    /**
+     * Map: summarizes each chunk window in parallel. Reduce: merges the window bullets into at
+     * most MAX_SUMMARY_BULLETS bullets. The merge prompt only sees numbered window bullets and
+     * answers with the numbers each merged bullet is based on; chunk IDs are taken from those
+     * source bullets, so every citation still points at a chunk the window summary cited.
+     *
+     * @return the summary: "bullets" and the map "coverage"
+     */
+    private Map<String, Object> mapReduceSummary(DocumentContext documentContext, Set<Long> validChunkIds,
+                                                 JobDeadline deadline) throws PromptTooLargeException {
+        List<DocumentChunk> chunks = documentContext.getChunks();
+        List<List<DocumentChunk>> windows = splitIntoWindows(chunks);
+        logger.info("Summarizing {} chunks in {} windows (map-reduce)", chunks.size(), windows.size());
+
+        MapResults<List<Map<String, Object>>> mapped = mapWindows(windows, "summary", deadline,
+                window -> summarizeChunks(documentContext, window, validChunkIds, "summary_map", deadline));
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("bullets", reduceSummary(mapped.results(), windows.size(), chunks, deadline));
+        summary.put("coverage", mapped.coverage());
+        return summary;
+    }
+
+    private List<Map<String, Object>> reduceSummary(List<List<Map<String, Object>>> windowBullets, int windows,
+                                                    List<DocumentChunk> chunks, JobDeadline deadline) {
+        List<Map<String, Object>> partialBullets = windowBullets.stream().flatMap(List::stream).toList();
+        if (partialBullets.size() <= MAX_SUMMARY_BULLETS) {
+            if (windows > 1) {
+                deadline.planLlmCalls(-1); // Merge planned by plannedLlmCalls but not needed
+            }
+            return new ArrayList<>(partialBullets);
+        }
+
+        List<Map<String, Object>> merged = new ArrayList<>();
+        try {
+            JsonNode response = geminiService.generateJson(buildSummaryMergePrompt(partialBullets), "summary_reduce",
+                    deadline);
+            for (JsonNode bulletNode : response.path("bullets")) {
+                if (merged.size() >= MAX_SUMMARY_BULLETS) {
+                    break;
+                }
+                Set<Long> chunkIds = new LinkedHashSet<>();
+                for (JsonNode source : bulletNode.path("sources")) {
+                    int index = source.asInt() - 1;
+                    if (index >= 0 && index < partialBullets.size()) {
+                        chunkIds.addAll(chunkIdsOf(partialBullets.get(index)));
+                    }
+                }
+                if (chunkIds.isEmpty()) {
+                    logger.warn("Dropping merged summary bullet without valid sources");
+                    continue;
+                }
+                merged.add(citedItem(bulletNode.path("text").asText(), null, new ArrayList<>(chunkIds), chunks));
+            }
+        } catch (IOException e) {
+            deadline.check();
+            logger.warn("Summary merge failed, keeping window bullets: {}", e.getMessage());
+            merged.clear();
+        }
+        if (!merged.isEmpty()) {
+            return merged;
         }
 
+        // Merge unavailable: take window bullets in turn so the summary covers the whole document
+        List<Map<String, Object>> interleaved = new ArrayList<>();
+        for (int round = 0; interleaved.size() < MAX_SUMMARY_BULLETS; round++) {
+            boolean added = false;
+            for (List<Map<String, Object>> bullets : windowBullets) {
+                if (round < bullets.size() && interleaved.size() < MAX_SUMMARY_BULLETS) {
+                    interleaved.add(bullets.get(round));
+                    added = true;
+                }
+            }
+            if (!added) {
+                break;
+            }
+        }
+        return interleaved;
+    }
+
+    /**
+     * Map: extracts obligations from each chunk window in parallel. Reduce: concatenates the
+     * window results in document order, merging items with the same text (chunk IDs and page
+     * references are combined, the higher severity kept). The reduce step needs no model call,
+     * so citations are exactly those found by the windows.
+     *
+     * @return the three item lists and the map "coverage"
+     */
+    private Map<String, Object> mapReduceObligations(DocumentContext documentContext, Set<Long> validChunkIds,
+                                                     JobDeadline deadline) throws PromptTooLargeException {
+        List<DocumentChunk> chunks = documentContext.getChunks();
+        List<List<DocumentChunk>> windows = splitIntoWindows(chunks);
+        logger.info("Extracting obligations from {} chunks in {} windows (map-reduce)", chunks.size(), windows.size());
+
+        MapResults<Map<String, List<Map<String, Object>>>> mapped = mapWindows(windows, "obligations", deadline,
+                window -> extractObligations(documentContext, window, validChunkIds, "obligations_map", deadline));
+
+        Map<String, Object> merged = new HashMap<>();
+        for (String key : OBLIGATION_SECTIONS) {
+            Map<String, Map<String, Object>> byText = new LinkedHashMap<>();
+            for (Map<String, List<Map<String, Object>>> sections : mapped.results()) {
+                for (Map<String, Object> item : sections.getOrDefault(key, List.of())) {
+                    String text = String.valueOf(item.getOrDefault("text", ""));
+                    String normalized = text.toLowerCase(Locale.ROOT).replaceAll("\\s+", " ").replaceAll("[.;,\\s]+$", "");
+                    Map<String, Object> existing = byText.get(normalized);
+                    if (existing == null) {
+                        byText.put(normalized, item);
+                        continue;
+                    }
+                    Set<Long> chunkIds = new LinkedHashSet<>(chunkIdsOf(existing));
+                    chunkIds.addAll(chunkIdsOf(item));
+                    String severity = SEVERITY_ORDER.indexOf(item.get("severity")) > SEVERITY_ORDER.indexOf(existing.get("severity"))
+                            ? (String) item.get("severity") : (String) existing.get("severity");
+                    byText.put(normalized, citedItem((String) existing.get("text"), severity, new ArrayList<>(chunkIds), chunks));
+                }
+            }
+            merged.put(key, new ArrayList<>(byText.values()));
+        }
+        merged.put("coverage", mapped.coverage());
+        return merged;
+    }
+
+    /**
+     * Runs one call per window, at most mapReduceParallelism at a time, on virtual threads owned
+     * by this call, so windows of one large document never queue behind another job's. Each call
+     * waits on Gemini through the job deadline (GeminiService.generateJson), so an abort ends
+     * them all. A failed window is logged and counted in the coverage; an oversized prompt or an
+     * abort fails the section.
+     */
+    private <T> MapResults<T> mapWindows(List<List<DocumentChunk>> windows, String section, JobDeadline deadline,
+                                         WindowCall<T> call) throws PromptTooLargeException {
+        Semaphore permits = new Semaphore(mapReduceParallelism);
+        List<Future<T>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            try {
+                for (List<DocumentChunk> window : windows) {
+                    futures.add(executor.submit(() -> {
+                        permits.acquire();
+                        try {
+                            return call.apply(window);
+                        } finally {
+                            permits.release();
+                        }
+                    }));
+                }
+
+                List<T> results = new ArrayList<>();
+                int failed = 0;
+                for (int i = 0; i < futures.size(); i++) {
+                    try {
+                        results.add(futures.get(i).get());
+                    } catch (ExecutionException e) {
+                        deadline.check();
+                        if (e.getCause() instanceof PromptTooLargeException tooLarge) {
+                            throw tooLarge;
+                        }
+                        failed++;
+                        logger.warn("Map window {}/{} for {} failed, continuing without it: {}",
+                                i + 1, futures.size(), section, e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+                    }
+                }
+                if (failed > 0) {
+                    logger.warn("{} of {} map windows for {} failed; the section covers only part of the document",
+                            failed, futures.size(), section);
+                }
+                return new MapResults<>(results, windows.size(), failed);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for map windows of " + section, e);
+            } finally {
+                // Windows still running after a failure or abort are stopped before close() waits for them
+                futures.forEach(future -> future.cancel(true));
+            }
+        }
+    }
+
+    /**
+     * Splits chunks into consecutive windows of at most mapReduceWindowTokens (a single larger
+     * chunk forms its own window).
+     */
+    private List<List<DocumentChunk>> splitIntoWindows(List<DocumentChunk> chunks) {
+        List<List<DocumentChunk>> windows = new ArrayList<>();
+        List<DocumentChunk> current = new ArrayList<>();
+        long currentTokens = 0;
+        for (DocumentChunk chunk : chunks) {
+            int chunkTokens = promptBudgetManager.chunkTokens(chunk);
+            if (!current.isEmpty() && currentTokens + chunkTokens > mapReduceWindowTokens) {
+                windows.add(current);
+                current = new ArrayList<>();
+                currentTokens = 0;
+            }
+            current.add(chunk);
+            currentTokens += chunkTokens;
+        }
+        if (!current.isEmpty()) {
+            windows.add(current);
+        }
+        return windows;
+    }
+
+    private String buildSummaryMergePrompt(List<Map<String, Object>> partialBullets) {
+        StringBuilder prompt = new StringBuilder();
+        prompt.append("Below are summary bullets written for consecutive sections of one legal document. ");
+        prompt.append("Merge them into a single plain-English summary of the whole document.\n\n");
+        prompt.append("Section bullets:\n");
+
+        for (int i = 0; i < partialBullets.size(); i++) {
+            prompt.append("[").append(i + 1).append("] ").append(partialBullets.get(i).get("text")).append("\n");
+        }
+
+        prompt.append("\nReturn a JSON response with this structure:\n");
+        prompt.append("{\n");
+        prompt.append("  \"bullets\": [\n");
+        prompt.append("    {\n");
+        prompt.append("      \"text\": \"plain English summary bullet point\",\n");
+        prompt.append("      \"sources\": [numbers of the section bullets this bullet is based on]\n");
+        prompt.append("    }\n");
+        prompt.append("  ]\n");
+        prompt.append("}\n\n");
+        prompt.append("Generate at most ").append(MAX_SUMMARY_BULLETS).append(" bullets. ");
+        prompt.append("Combine overlapping points and keep the most important findings from across the document. ");
+        prompt.append("Each bullet MUST list at least one source number and must not add facts that are not in its sources.");
+
+        return prompt.toString();
+    }
+
+    /**
+     * Task instructions for the summary prompt; they follow the document excerpts.
+     */
+    private String buildSummaryInstructions() {
+        StringBuilder prompt = new StringBuilder();
+        prompt.append("Summarize the key findings from the legal document excerpts above in plain English.\n\n");
         prompt.append("Return a JSON response with this structure:\n");
         prompt.append("{\n");
         prompt.append("  \"bullets\": [\n");
@@ -197,16 +517,12 @@ public class ReportGenerationService {
         return prompt.toString();
     }
 
-    private String buildObligationsPrompt(List<DocumentChunk> chunks) {
+    /**
+     * Task instructions for the obligations prompt; they follow the document excerpts.
+     */
+    private String buildObligationsInstructions() {
         StringBuilder prompt = new StringBuilder();
-        prompt.append("Extract obligations, restrictions, and termination triggers from this legal document.\n\n");
-        prompt.append("Document excerpts:\n");
-
-        for (DocumentChunk chunk : chunks) {
-            prompt.append(String.format("[Chunk ID: %d, Page: %d]\n%s\n\n",
-                    chunk.getId(), chunk.getPageNumber(), chunk.getText()));
-        }
-
+        prompt.append("Extract obligations, restrictions, and termination triggers from the legal document excerpts above.\n\n");
         prompt.append("Return a JSON response with this structure:\n");
         prompt.append("{\n");
         prompt.append("  \"obligations\": [\n");
@@ -224,56 +540,64 @@ public class ReportGenerationService {
         return prompt.toString();
     }
 
-    private List<Map<String, Object>> extractItems(JsonNode jsonResponse, String key,
-                                                    List<DocumentChunk> chunks, Set<Long> validChunkIds) {
-        List<Map<String, Object>> items = new ArrayList<>();
-
-        if (jsonResponse.has(key) && jsonResponse.get(key).isArray()) {
-            for (JsonNode itemNode : jsonResponse.get(key)) {
-                Map<String, Object> item = new HashMap<>();
+    /**
+     * Converts a summary bullet or obligation item to its report form, keeping only chunk IDs that
+     * exist in the document and adding their page references.
+     */
+    private Map<String, Object> toCitedItem(JsonNode itemNode, List<DocumentChunk> chunks,
+                                            Set<Long> validChunkIds, boolean withSeverity) {
+        String severity = null;
+        if (withSeverity) {
+            severity = itemNode.has("severity") ? itemNode.get("severity").asText().toLowerCase() : "";
+            if (!SEVERITY_ORDER.contains(severity)) {
+                severity = "medium";
+            }
+        }
 
-                if (itemNode.has("text")) {
-                    item.put("text", itemNode.get("text").asText());
+        List<Long> chunkIds = new ArrayList<>();
+        if (itemNode.has("chunk_ids") && itemNode.get("chunk_ids").isArray()) {
+            for (JsonNode chunkIdNode : itemNode.get("chunk_ids")) {
+                long chunkId = chunkIdNode.asLong();
+                if (validChunkIds.contains(chunkId)) {
+                    chunkIds.add(chunkId);
                 }
+            }
+        }
 
-                if (itemNode.has("severity")) {
-                    String severity = itemNode.get("severity").asText().toLowerCase();
-                    if (severity.equals("low") || severity.equals("medium") || severity.equals("high")) {
-                        item.put("severity", severity);
-                    } else {
-                        item.put("severity", "medium");
-                    }
-                } else {
-                    item.put("severity", "medium");
-                }
+        return citedItem(itemNode.has("text") ? itemNode.get("text").asText() : null, severity, chunkIds, chunks);
+    }
 
-                List<Long> chunkIds = new ArrayList<>();
-                if (itemNode.has("chunk_ids") && itemNode.get("chunk_ids").isArray()) {
-                    for (JsonNode chunkIdNode : itemNode.get("chunk_ids")) {
-                        long chunkId = chunkIdNode.asLong();
-                        if (validChunkIds.contains(chunkId)) {
-                            chunkIds.add(chunkId);
-                        }
-                    }
-                }
-                item.put("chunk_ids", chunkIds);
-
-                // Add page references
-                List<Integer> pageRefs = new ArrayList<>();
-                for (Long chunkId : chunkIds) {
-                    for (DocumentChunk chunk : chunks) {
-                        if (chunk.getId() != null && chunk.getId().equals(chunkId)) {
-                            pageRefs.add(chunk.getPageNumber());
-                        }
-                    }
+    /**
+     * Builds a report item with its chunk citations and the page references of those chunks.
+     */
+    private Map<String, Object> citedItem(String text, String severity, List<Long> chunkIds, List<DocumentChunk> chunks) {
+        Map<String, Object> item = new HashMap<>();
+        if (text != null) {
+            item.put("text", text);
+        }
+        if (severity != null) {
+            item.put("severity", severity);
+        }
+        item.put("chunk_ids", chunkIds);
+
+        // Add page references
+        List<Integer> pageRefs = new ArrayList<>();
+        for (Long chunkId : chunkIds) {
+            for (DocumentChunk chunk : chunks) {
+                if (chunk.getId() != null && chunk.getId().equals(chunkId)) {
+                    pageRefs.add(chunk.getPageNumber());
                 }
-                item.put("page_refs", pageRefs.stream().distinct().sorted().toList());
-
-                items.add(item);
             }
         }
+        item.put("page_refs", pageRefs.stream().distinct().sorted().toList());
 
-        return items;
+        return item;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Long> chunkIdsOf(Map<String, Object> item) {
+        Object chunkIds = item.get("chunk_ids");
+        return chunkIds instanceof List ? (List<Long>) chunkIds : List.of();
     }
 
     private Set<Long> getValidChunkIds(List<DocumentChunk> chunks) {
@@ -311,5 +635,22 @@ public class ReportGenerationService {
         }
         return "Not specified";
     }
-}
 
+    /**
+     * One map call over a chunk window.
+     */
+    /**
+     * Results of the windows that succeeded, in document order, and how many failed.
+     */
+    private record MapResults<T>(List<T> results, int windows, int failed) {
+
+        Map<String, Object> coverage() {
+            return Map.of("windows", windows, "failed", failed);
+        }
+    }
+
+    @FunctionalInterface
+    private interface WindowCall<T> {
+        T apply(List<DocumentChunk> window) throws IOException;
+    }
+}
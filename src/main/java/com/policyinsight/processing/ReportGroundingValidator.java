@@ -2,7 +2,7 @@ package com.policyinsight.processing;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.policyinsight.shared.model.DocumentChunk;
+import com.policyinsight.shared.model.ChunkMetadata;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -47,10 +47,10 @@ public class ReportGroundingValidator {
      * Validates the entire report structure and enforces cite-or-abstain.
      *
      * @param reportData The report data structure (Map representation)
-     * @param chunks List of stored chunks for the document
+     * @param chunks List of stored chunks for the document (only id and page number are used)
      * @return ValidationResult with validation status and any violations found
      */
-    public ValidationResult validateReport(Map<String, Object> reportData, List<DocumentChunk> chunks) {
+    public ValidationResult validateReport(Map<String, Object> reportData, List<? extends ChunkMetadata> chunks) {
         ValidationResult result = new ValidationResult();
         Set<Long> validChunkIds = getValidChunkIds(chunks);
         Map<Long, Integer> chunkIdToPageNumber = buildChunkIdToPageNumberMap(chunks);
@@ -296,9 +296,9 @@ public class ReportGroundingValidator {
     /**
      * Gets valid chunk IDs from stored chunks.
      */
-    private Set<Long> getValidChunkIds(List<DocumentChunk> chunks) {
+    private Set<Long> getValidChunkIds(List<? extends ChunkMetadata> chunks) {
         return chunks.stream()
-                .map(DocumentChunk::getId)
+                .map(ChunkMetadata::getId)
                 .filter(Objects::nonNull)
                 .collect(Collectors.toSet());
     }
@@ -306,9 +306,9 @@ public class ReportGroundingValidator {
     /**
      * Builds a map from chunk ID to page number.
      */
-    private Map<Long, Integer> buildChunkIdToPageNumberMap(List<DocumentChunk> chunks) {
+    private Map<Long, Integer> buildChunkIdToPageNumberMap(List<? extends ChunkMetadata> chunks) {
         Map<Long, Integer> map = new HashMap<>();
-        for (DocumentChunk chunk : chunks) {
+        for (ChunkMetadata chunk : chunks) {
             if (chunk.getId() != null && chunk.getPageNumber() != null) {
                 map.put(chunk.getId(), chunk.getPageNumber());
             }
@@ -1,24 +1,34 @@
 package com.policyinsight.processing;
 
-import com.policyinsight.shared.repository.DocumentChunkRepository;
+import com.policyinsight.observability.DatadogMetricsServiceInterface;
+import com.policyinsight.security.JobTokenCache;
 import com.policyinsight.shared.repository.PolicyJobRepository;
-import com.policyinsight.shared.repository.QaInteractionRepository;
-import com.policyinsight.shared.repository.ReportRepository;
-import com.policyinsight.shared.repository.ShareLinkRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 
 /**
  * Scheduled task to clean up old jobs, chunks, reports, and Q&A interactions.
  * Runs alongside the job reaper to maintain data retention policy.
  * Only loads when policyinsight.worker.enabled=true.
+ *
+ * Child rows of expired jobs are removed first by dropping whole weekly partitions
+ * (PartitionMaintenanceTask) and their Gemini context caches are deleted, while the job rows
+ * still name them. Then policy_jobs are purged in bounded batches, each batch committing on
+ * its own; ON DELETE CASCADE only has to remove the children in partitions that are not
+ * entirely expired yet, plus share links and progress rows. Batches are throttled to a maximum
+ * number of jobs per second and a run stops once its time budget is spent. Progress is
+ * resumable by construction: every committed batch is durable and the next run continues with
+ * the oldest remaining jobs.
  */
 @Service
 @ConditionalOnProperty(prefix = "policyinsight.worker", name = "enabled", havingValue = "true")
@@ -27,65 +37,113 @@ public class RetentionCleanupTask {
     private static final Logger logger = LoggerFactory.getLogger(RetentionCleanupTask.class);
 
     private final PolicyJobRepository policyJobRepository;
-    private final DocumentChunkRepository documentChunkRepository;
-    private final ReportRepository reportRepository;
-    private final QaInteractionRepository qaInteractionRepository;
-    private final ShareLinkRepository shareLinkRepository;
+    private final PartitionMaintenanceTask partitionMaintenanceTask;
+    private final JobTokenCache jobTokenCache;
+    private final GeminiContextCache geminiContextCache;
+    private final DocumentContextCache documentContextCache;
+    private final DatadogMetricsServiceInterface metricsService;
     private final int retentionDays;
+    private final int batchSize;
+    private final int maxJobsPerSecond;
+    private final Duration maxRunDuration;
 
     public RetentionCleanupTask(
             PolicyJobRepository policyJobRepository,
-            DocumentChunkRepository documentChunkRepository,
-            ReportRepository reportRepository,
-            QaInteractionRepository qaInteractionRepository,
-            ShareLinkRepository shareLinkRepository,
-            @Value("${app.retention.days:30}") int retentionDays) {
+            PartitionMaintenanceTask partitionMaintenanceTask,
+            JobTokenCache jobTokenCache,
+            GeminiContextCache geminiContextCache,
+            DocumentContextCache documentContextCache,
+            @Autowired(required = false) DatadogMetricsServiceInterface metricsService,
+            @Value("${app.retention.days:30}") int retentionDays,
+            @Value("${app.retention.batch-size:100}") int batchSize,
+            @Value("${app.retention.max-jobs-per-second:200}") int maxJobsPerSecond,
+            @Value("${app.retention.max-run-seconds:300}") long maxRunSeconds) {
         this.policyJobRepository = policyJobRepository;
-        this.documentChunkRepository = documentChunkRepository;
-        this.reportRepository = reportRepository;
-        this.qaInteractionRepository = qaInteractionRepository;
-        this.shareLinkRepository = shareLinkRepository;
+        this.partitionMaintenanceTask = partitionMaintenanceTask;
+        this.jobTokenCache = jobTokenCache;
+        this.geminiContextCache = geminiContextCache;
+        this.documentContextCache = documentContextCache;
+        this.metricsService = metricsService;
         this.retentionDays = retentionDays;
-        logger.info("RetentionCleanupTask initialized: retentionDays={}", retentionDays);
+        this.batchSize = batchSize;
+        this.maxJobsPerSecond = maxJobsPerSecond;
+        this.maxRunDuration = Duration.ofSeconds(maxRunSeconds);
+        logger.info("RetentionCleanupTask initialized: retentionDays={}, batchSize={}, maxJobsPerSecond={}, "
+                + "maxRunSeconds={}", retentionDays, batchSize, maxJobsPerSecond, maxRunSeconds);
     }
 
     /**
      * Runs every hour to clean up data older than retention period.
-     * Deletes jobs, chunks, reports, Q&A interactions, and expired share links.
+     * Drops expired chunk, report and Q&A partitions, then deletes jobs; remaining child rows
+     * and share links cascade.
      */
     @Scheduled(fixedDelayString = "3600000") // Every hour (3600000 ms)
-    @Transactional
     public void cleanupOldData() {
-        Instant cutoffDate = Instant.now().minus(retentionDays, java.time.temporal.ChronoUnit.DAYS);
+        Instant startedAt = Instant.now();
+        Instant deadline = startedAt.plus(maxRunDuration);
+        Instant cutoffDate = startedAt.minus(retentionDays, java.time.temporal.ChronoUnit.DAYS);
         logger.info("Starting retention cleanup: deleting data older than {} days (cutoff: {})",
                 retentionDays, cutoffDate);
 
-        try {
-            // Delete old jobs (cascades to chunks, reports, Q&A interactions via foreign keys)
-            // Note: We need to delete in order due to foreign key constraints
-            int deletedChunks = documentChunkRepository.deleteByJobUuidIn(
-                    policyJobRepository.findJobUuidsOlderThan(cutoffDate));
-            logger.info("Deleted {} chunks for old jobs", deletedChunks);
-
-            int deletedReports = reportRepository.deleteByJobUuidIn(
-                    policyJobRepository.findJobUuidsOlderThan(cutoffDate));
-            logger.info("Deleted {} reports for old jobs", deletedReports);
+        long deletedJobs = 0;
+        boolean completed = false;
 
-            int deletedQaInteractions = qaInteractionRepository.deleteByJobUuidIn(
-                    policyJobRepository.findJobUuidsOlderThan(cutoffDate));
-            logger.info("Deleted {} Q&A interactions for old jobs", deletedQaInteractions);
+        try {
+            // Not transactional: partitions are detached concurrently
+            partitionMaintenanceTask.dropExpiredPartitions(LocalDate.ofInstant(cutoffDate, ZoneOffset.UTC));
+            // Cached document text must not outlive the job; the names are on the rows about to go
+            geminiContextCache.deleteCachesOfJobsCreatedBefore(cutoffDate);
 
-            int deletedShareLinks = shareLinkRepository.deleteByJobUuidIn(
-                    policyJobRepository.findJobUuidsOlderThan(cutoffDate));
-            logger.info("Deleted {} share links for old jobs", deletedShareLinks);
+            while (true) {
+                long batchStartNanos = System.nanoTime();
+                int deletedInBatch = policyJobRepository.deleteBatchCreatedBefore(cutoffDate, batchSize);
+                deletedJobs += deletedInBatch;
 
-            int deletedJobs = policyJobRepository.deleteByCreatedAtBefore(cutoffDate);
-            logger.info("Deleted {} jobs older than {} days", deletedJobs, retentionDays);
+                if (deletedInBatch < batchSize) {
+                    completed = true;
+                    break;
+                }
+                if (Instant.now().isAfter(deadline)) {
+                    break;
+                }
+                throttle(deletedInBatch, System.nanoTime() - batchStartNanos);
+            }
 
-            logger.info("Retention cleanup completed successfully");
+            if (completed) {
+                logger.info("Retention cleanup completed successfully: deleted {} jobs older than {} days",
+                        deletedJobs, retentionDays);
+            } else {
+                logger.info("Retention cleanup paused after {}s: deleted {} jobs, "
+                        + "remaining jobs will be purged next run", maxRunDuration.toSeconds(), deletedJobs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Retention cleanup interrupted after deleting {} jobs", deletedJobs);
         } catch (Exception e) {
             logger.error("Error during retention cleanup", e);
+        } finally {
+            if (deletedJobs > 0) {
+                // Purged jobs must stop authenticating immediately, not after the cache TTL
+                jobTokenCache.invalidateAll();
+                documentContextCache.invalidateAll();
+            }
+            if (metricsService != null) {
+                metricsService.recordMaintenanceRowsAffected("retention_cleanup", deletedJobs);
+            }
         }
     }
-}
 
+    /**
+     * Sleeps long enough that the batch just deleted stays within maxJobsPerSecond.
+     */
+    private void throttle(int deletedInBatch, long elapsedNanos) throws InterruptedException {
+        if (maxJobsPerSecond <= 0) {
+            return; // Throttling disabled
+        }
+        long targetNanos = deletedInBatch * 1_000_000_000L / maxJobsPerSecond;
+        long sleepMillis = (targetNanos - elapsedNanos) / 1_000_000L;
+        if (sleepMillis > 0) {
+            Thread.sleep(sleepMillis);
+        }
+    }
+}
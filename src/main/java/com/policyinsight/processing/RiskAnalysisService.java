@@ -20,7 +20,9 @@ public class RiskAnalysisService {
 
     private static final Logger logger = LoggerFactory.getLogger(RiskAnalysisService.class);
 
-    private final GeminiService geminiService;
+    private final PromptBudgetManager promptBudgetManager;
+    private final GeminiContextCache contextCache;
+    private final DocumentContextCache documentContextCache;
 
     // Risk categories as defined in PRD
     public enum RiskCategory {
@@ -48,8 +50,18 @@ public class RiskAnalysisService {
     }
 
     @Autowired
-    public RiskAnalysisService(GeminiService geminiService) {
-        this.geminiService = geminiService;
+    public RiskAnalysisService(PromptBudgetManager promptBudgetManager, GeminiContextCache contextCache,
+                               DocumentContextCache documentContextCache) {
+        this.promptBudgetManager = promptBudgetManager;
+        this.contextCache = contextCache;
+        this.documentContextCache = documentContextCache;
+    }
+
+    /**
+     * LLM calls analyzeRisks makes: one per risk category.
+     */
+    public int plannedLlmCalls() {
+        return RiskCategory.values().length;
     }
 
     /**
@@ -59,14 +71,33 @@ public class RiskAnalysisService {
      * @return Map with risk category keys and their analysis results
      */
     public Map<String, Object> analyzeRisks(List<DocumentChunk> chunks) throws IOException, TimeoutException {
+        return analyzeRisks(chunks, JobDeadline.none());
+    }
+
+    /**
+     * Analyzes risks across all 5 categories, aborting when the job deadline passes.
+     * Failures of a single category are reported as "not detected"; an abort or an oversized
+     * prompt is not.
+     *
+     * @param chunks List of document chunks to analyze
+     * @param deadline job deadline/cancellation token
+     * @return Map with risk category keys and their analysis results
+     * @throws PromptTooLargeException if a prompt is above the hard token limit
+     * @throws IllegalStateException if the job is cancelled or the stage deadline passes
+     */
+    public Map<String, Object> analyzeRisks(List<DocumentChunk> chunks, JobDeadline deadline)
+            throws IOException, TimeoutException {
         logger.info("Starting risk analysis for {} chunks", chunks.size());
 
         Map<String, Object> riskTaxonomy = new LinkedHashMap<>();
+        // Rendered once for all categories (and shared with the report and Q&A prompts)
+        DocumentContext documentContext = documentContextCache.forChunks(chunks);
 
         // Analyze each risk category
         for (RiskCategory category : RiskCategory.values()) {
+            deadline.check();
             logger.debug("Analyzing risk category: {}", category.getKey());
-            Map<String, Object> categoryResult = analyzeCategory(chunks, category);
+            Map<String, Object> categoryResult = analyzeCategory(documentContext, category, deadline);
             riskTaxonomy.put(category.getKey(), categoryResult);
         }
 
@@ -77,65 +108,37 @@ public class RiskAnalysisService {
     /**
      * Analyzes a specific risk category.
      *
-     * @param chunks Document chunks to analyze
+     * @param documentContext Document chunks to analyze, rendered for prompts
      * @param category Risk category to analyze
+     * @param deadline job deadline/cancellation token
      * @return Result map with "detected" boolean and "items" array
      */
-    private Map<String, Object> analyzeCategory(List<DocumentChunk> chunks, RiskCategory category)
-            throws IOException, TimeoutException {
+    private Map<String, Object> analyzeCategory(DocumentContext documentContext, RiskCategory category,
+                                                JobDeadline deadline) throws IOException, TimeoutException {
+        List<DocumentChunk> chunks = documentContext.getChunks();
 
-        // Build prompt for Gemini
-        String prompt = buildRiskAnalysisPrompt(chunks, category);
+        // Build prompt for Gemini; large documents keep the chunks most related to the category
+        String instructions = buildRiskAnalysisInstructions(category);
+        List<DocumentChunk> promptChunks = promptBudgetManager.selectChunks("risk_analysis", instructions, chunks,
+                PromptBudgetManager.termOverlap(category.getDescription()));
+        DocumentContext promptContext = documentContext.select(promptChunks);
 
         try {
-            String response = geminiService.generateContent(prompt, 10, "risk_analysis");
-            JsonNode jsonResponse = geminiService.parseJsonResponse(response);
+            Set<Long> validChunkIds = getValidChunkIds(chunks);
+
+            // When the whole document fits, the excerpts prefix is served from the job's context cache
+            JsonNode jsonResponse = contextCache.generateJson(promptContext, instructions,
+                    promptContext == documentContext, "risk_analysis", deadline);
 
             // Validate and extract results
             Map<String, Object> result = new HashMap<>();
 
             if (jsonResponse.has("detected") && jsonResponse.get("detected").asBoolean()) {
-                result.put("detected", true);
-
                 List<Map<String, Object>> items = new ArrayList<>();
-                if (jsonResponse.has("items") && jsonResponse.get("items").isArray()) {
-                    for (JsonNode item : jsonResponse.get("items")) {
-                        Map<String, Object> riskItem = new HashMap<>();
-
-                        if (item.has("text")) {
-                            riskItem.put("text", item.get("text").asText());
-                        }
-
-                        if (item.has("severity")) {
-                            String severity = item.get("severity").asText().toLowerCase();
-                            // Validate severity
-                            if (severity.equals("low") || severity.equals("medium") || severity.equals("high")) {
-                                riskItem.put("severity", severity);
-                            } else {
-                                riskItem.put("severity", "medium"); // Default
-                            }
-                        } else {
-                            riskItem.put("severity", "medium"); // Default
-                        }
-
-                        // Extract chunk IDs and validate they exist
-                        List<Long> chunkIds = new ArrayList<>();
-                        if (item.has("chunk_ids") && item.get("chunk_ids").isArray()) {
-                            Set<Long> validChunkIds = getValidChunkIds(chunks);
-                            for (JsonNode chunkIdNode : item.get("chunk_ids")) {
-                                long chunkId = chunkIdNode.asLong();
-                                if (validChunkIds.contains(chunkId)) {
-                                    chunkIds.add(chunkId);
-                                } else {
-                                    logger.warn("Invalid chunk_id {} in risk analysis response, ignoring", chunkId);
-                                }
-                            }
-                        }
-                        riskItem.put("chunk_ids", chunkIds);
-
-                        items.add(riskItem);
-                    }
+                for (JsonNode item : jsonResponse.path("items")) {
+                    items.add(toRiskItem(item, validChunkIds));
                 }
+                result.put("detected", true);
                 result.put("items", items);
             } else {
                 // Not detected
@@ -146,7 +149,12 @@ public class RiskAnalysisService {
 
             return result;
 
+        } catch (PromptTooLargeException e) {
+            // Not a transient failure: "not detected" would read as a clean result
+            throw e;
         } catch (Exception e) {
+            // Out of time or cancelled: abort the job rather than report "not detected"
+            deadline.check();
             logger.error("Failed to analyze risk category {}: {}", category.getKey(), e.getMessage(), e);
             // Return "not detected" on error to be safe
             Map<String, Object> errorResult = new HashMap<>();
@@ -158,20 +166,52 @@ public class RiskAnalysisService {
     }
 
     /**
-     * Builds the prompt for Gemini risk analysis.
+     * Converts a risk item from the Gemini response, validating severity and chunk IDs.
      */
-    private String buildRiskAnalysisPrompt(List<DocumentChunk> chunks, RiskCategory category) {
-        StringBuilder prompt = new StringBuilder();
-        prompt.append("You are analyzing a legal document for risks. Scan all provided document excerpts and identify ");
-        prompt.append(category.getDescription());
-        prompt.append(".\n\n");
-        prompt.append("Document excerpts:\n");
+    private Map<String, Object> toRiskItem(JsonNode item, Set<Long> validChunkIds) {
+        Map<String, Object> riskItem = new HashMap<>();
 
-        for (DocumentChunk chunk : chunks) {
-            prompt.append(String.format("[Chunk ID: %d, Page: %d]\n%s\n\n",
-                    chunk.getId(), chunk.getPageNumber(), chunk.getText()));
+        if (item.has("text")) {
+            riskItem.put("text", item.get("text").asText());
+        }
+
+        if (item.has("severity")) {
+            String severity = item.get("severity").asText().toLowerCase();
+            // Validate severity
+            if (severity.equals("low") || severity.equals("medium") || severity.equals("high")) {
+                riskItem.put("severity", severity);
+            } else {
+                riskItem.put("severity", "medium"); // Default
+            }
+        } else {
+            riskItem.put("severity", "medium"); // Default
+        }
+
+        // Extract chunk IDs and validate they exist
+        List<Long> chunkIds = new ArrayList<>();
+        if (item.has("chunk_ids") && item.get("chunk_ids").isArray()) {
+            for (JsonNode chunkIdNode : item.get("chunk_ids")) {
+                long chunkId = chunkIdNode.asLong();
+                if (validChunkIds.contains(chunkId)) {
+                    chunkIds.add(chunkId);
+                } else {
+                    logger.warn("Invalid chunk_id {} in risk analysis response, ignoring", chunkId);
+                }
+            }
         }
+        riskItem.put("chunk_ids", chunkIds);
 
+        return riskItem;
+    }
+
+    /**
+     * Builds the task instructions for Gemini risk analysis; they follow the document excerpts.
+     */
+    private String buildRiskAnalysisInstructions(RiskCategory category) {
+        StringBuilder prompt = new StringBuilder();
+        prompt.append("You are analyzing the legal document excerpts above for risks. Scan all of them and identify ");
+        prompt.append(category.getDescription());
+        prompt.append(".\n\n");
         prompt.append("Return a JSON response with this structure:\n");
         prompt.append("{\n");
         prompt.append("  \"detected\": true/false,\n");
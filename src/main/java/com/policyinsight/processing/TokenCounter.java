@@ -0,0 +1,86 @@
+package com.policyinsight.processing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Local token counter for Gemini prompts, used to size prompts before a call is made.
+ * Counts the way subword tokenizers split text: a word costs one token per few characters,
+ * punctuation and symbols one token each, CJK ideographs one token each, whitespace nothing.
+ * The result is scaled by a correction factor that is calibrated against the prompt token counts
+ * Gemini reports in its usage metadata, so estimates converge on the real tokenizer.
+ */
+@Component
+public class TokenCounter {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenCounter.class);
+
+    // Characters of a word covered by one token (common words are a single token)
+    private static final int WORD_PIECE_CHARS = 6;
+    // Smoothing for calibration; one call never moves the factor by more than 10% of the gap
+    private static final double CALIBRATION_WEIGHT = 0.1;
+    private static final double MIN_CORRECTION = 0.5;
+    private static final double MAX_CORRECTION = 2.0;
+    // Below this size the fixed per-request overhead dominates and would skew the factor
+    private static final int MIN_CALIBRATION_TOKENS = 200;
+
+    private volatile double correction = 1.0;
+
+    /**
+     * Estimated number of tokens in the text.
+     */
+    public int count(CharSequence text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        return (int) Math.ceil(rawCount(text) * correction);
+    }
+
+    /**
+     * Adjusts the correction factor from a real token count, e.g. promptTokenCount from the
+     * usage metadata of a Gemini response.
+     *
+     * @param text the text that was sent
+     * @param actualTokens the token count reported for it
+     */
+    public synchronized void calibrate(String text, int actualTokens) {
+        if (text == null || actualTokens <= 0) {
+            return;
+        }
+        int raw = rawCount(text);
+        if (raw < MIN_CALIBRATION_TOKENS) {
+            return;
+        }
+        double observed = (double) actualTokens / raw;
+        double updated = correction + CALIBRATION_WEIGHT * (observed - correction);
+        correction = Math.max(MIN_CORRECTION, Math.min(MAX_CORRECTION, updated));
+        logger.debug("Token counter calibrated: estimated={}, actual={}, correction={}", raw, actualTokens, correction);
+    }
+
+    public double getCorrection() {
+        return correction;
+    }
+
+    private static int rawCount(CharSequence text) {
+        int tokens = 0;
+        int wordLength = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c) && !Character.isIdeographic(c)) {
+                wordLength++;
+                continue;
+            }
+            tokens += wordTokens(wordLength);
+            wordLength = 0;
+            if (!Character.isWhitespace(c) && !Character.isLowSurrogate(c)) {
+                tokens++;
+            }
+        }
+        return tokens + wordTokens(wordLength);
+    }
+
+    private static int wordTokens(int length) {
+        return length == 0 ? 0 : 1 + (length - 1) / WORD_PIECE_CHARS;
+    }
+}
@@ -0,0 +1,80 @@
+package com.policyinsight.processing.pipeline;
+
+import com.policyinsight.processing.JobProgressService;
+import com.policyinsight.processing.TextChunkerService;
+import com.policyinsight.processing.model.TextChunk;
+import com.policyinsight.shared.model.DocumentChunk;
+import com.policyinsight.shared.repository.DocumentChunkRepository;
+import io.opentelemetry.api.trace.Span;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Splits the extracted text into chunks and stores them, replacing chunks left by an earlier attempt.
+ * The replacement runs in one transaction, so a job never has a partial set of chunks.
+ */
+@Component
+@Order(300)
+public class ChunkingStage implements PipelineStage {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkingStage.class);
+
+    private final TextChunkerService textChunkerService;
+    private final DocumentChunkRepository documentChunkRepository;
+    private final JobProgressService jobProgressService;
+    private final TransactionTemplate transactionTemplate;
+
+    public ChunkingStage(TextChunkerService textChunkerService,
+                         DocumentChunkRepository documentChunkRepository,
+                         JobProgressService jobProgressService,
+                         PlatformTransactionManager transactionManager) {
+        this.textChunkerService = textChunkerService;
+        this.documentChunkRepository = documentChunkRepository;
+        this.jobProgressService = jobProgressService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public String name() {
+        return "chunking";
+    }
+
+    @Override
+    public void execute(PipelineContext context, Span span) {
+        UUID jobId = context.getJobId();
+        List<TextChunk> chunks = textChunkerService.chunkText(context.getExtractedText());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            // Delete existing chunks for this job to ensure idempotency (in case of retry)
+            // This prevents duplicate chunks if the job is retried after partial chunk insertion
+            documentChunkRepository.deleteByJobUuid(jobId);
+            logger.debug("Deleted existing chunks for job: {} (idempotency)", jobId);
+
+            for (TextChunk chunk : chunks) {
+                DocumentChunk docChunk = new DocumentChunk(jobId);
+                docChunk.setJobCreatedAt(context.getJob().getCreatedAt());
+                docChunk.setChunkIndex(chunk.getChunkIndex());
+                docChunk.setText(chunk.getText());
+                docChunk.setPageNumber(chunk.getPageNumber());
+                docChunk.setStartOffset(chunk.getStartOffset());
+                docChunk.setEndOffset(chunk.getEndOffset());
+                docChunk.setSpanConfidence(chunk.getSpanConfidence());
+                documentChunkRepository.save(docChunk);
+            }
+        });
+
+        logger.info("Stored {} chunks for job: {}", chunks.size(), jobId);
+        jobProgressService.chunksStored(jobId, chunks.size());
+        span.setAttribute("chunk_count", (long) chunks.size());
+
+        // Retrieve stored chunks from DB to get IDs
+        context.setStoredChunks(documentChunkRepository.findByJobUuidOrderByChunkIndex(jobId));
+    }
+}
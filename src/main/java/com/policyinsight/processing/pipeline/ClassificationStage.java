@@ -0,0 +1,47 @@
+package com.policyinsight.processing.pipeline;
+
+import com.policyinsight.api.validation.PdfValidator;
+import com.policyinsight.processing.DocumentClassifierService;
+import com.policyinsight.util.Strings;
+import io.opentelemetry.api.trace.Span;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rejects oversized text, then classifies the document type.
+ */
+@Component
+@Order(400)
+public class ClassificationStage implements PipelineStage {
+
+    private final DocumentClassifierService documentClassifierService;
+    private final PdfValidator pdfValidator;
+
+    public ClassificationStage(DocumentClassifierService documentClassifierService, PdfValidator pdfValidator) {
+        this.documentClassifierService = documentClassifierService;
+        this.pdfValidator = pdfValidator;
+    }
+
+    @Override
+    public String name() {
+        return "classification";
+    }
+
+    @Override
+    public void execute(PipelineContext context, Span span) {
+        String fullText = context.getExtractedText().getFullText();
+
+        // Validate extracted text length (reject if exceeds limit - prevents excessive costs)
+        pdfValidator.validateMaxTextLength(fullText, null);
+
+        DocumentClassifierService.ClassificationResult classification = documentClassifierService.classify(fullText);
+        context.getJob().setClassification(classification.getClassification());
+        context.getJob().setClassificationConfidence(classification.getConfidence());
+
+        span.setAttribute("classification", Strings.safe(classification.getClassification()));
+        if (classification.getConfidence() != null) {
+            span.setAttribute("confidence", classification.getConfidence().doubleValue());
+        }
+        span.setAttribute("provider", "llm");
+    }
+}
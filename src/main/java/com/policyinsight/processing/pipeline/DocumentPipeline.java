@@ -0,0 +1,234 @@
+package com.policyinsight.processing.pipeline;
+
+import com.policyinsight.api.events.JobEvent;
+import com.policyinsight.api.events.JobEventPublisher;
+import com.policyinsight.observability.DatadogMetricsServiceInterface;
+import com.policyinsight.observability.TracingServiceInterface;
+import com.policyinsight.processing.JobProgressService;
+import com.policyinsight.processing.PromptTooLargeException;
+import com.policyinsight.shared.model.PolicyJob;
+import com.policyinsight.shared.repository.PolicyJobRepository;
+import com.policyinsight.util.NonNulls;
+import com.policyinsight.util.Strings;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Scope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Document processing engine shared by all DocumentJobProcessor implementations.
+ * Runs the PipelineStage beans in order (download, extraction, chunking, classification,
+ * risk scan, report generation, grounding validation, export) and wraps every stage the same way:
+ * job progress, a child span of "job.process", a duration metric and the stage timeout.
+ * The timeout is enforced cooperatively: the job's JobDeadline is re-armed as each stage starts
+ * and stages hand it to extraction and LLM calls, which abort as soon as it passes.
+ *
+ * Stages run synchronously on the thread that owns the job (Pub/Sub callback, push executor,
+ * local consumer or poller), so concurrency stays bounded by the caller. The pipeline runs outside
+ * any transaction: each stage's writes commit as they happen.
+ */
+@Service
+public class DocumentPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentPipeline.class);
+
+    private final List<PipelineStage> stages;
+    private final PolicyJobRepository policyJobRepository;
+    private final JobEventPublisher jobEventPublisher;
+    private final JobProgressService jobProgressService;
+    private final TracingServiceInterface tracingService;
+    private final DatadogMetricsServiceInterface metricsService;
+    private final int stageTimeoutSeconds;
+
+    public DocumentPipeline(
+            List<PipelineStage> stages,
+            PolicyJobRepository policyJobRepository,
+            JobEventPublisher jobEventPublisher,
+            JobProgressService jobProgressService,
+            @Autowired(required = false) TracingServiceInterface tracingService,
+            @Autowired(required = false) DatadogMetricsServiceInterface metricsService,
+            @Value("${app.processing.stage-timeout-seconds:300}") int stageTimeoutSeconds) {
+        this.stages = List.copyOf(stages);
+        this.policyJobRepository = policyJobRepository;
+        this.jobEventPublisher = jobEventPublisher;
+        this.jobProgressService = jobProgressService;
+        this.tracingService = tracingService;
+        this.metricsService = metricsService;
+        this.stageTimeoutSeconds = stageTimeoutSeconds;
+        logger.info("DocumentPipeline initialized: stages={}, stageTimeoutSeconds={}",
+                this.stages.stream().map(PipelineStage::name).toList(), stageTimeoutSeconds);
+    }
+
+    /**
+     * Processes a claimed job end to end. Jobs already in a final state are skipped. On success
+     * the job is marked SUCCESS; any stage failure marks it FAILED with PROCESSING_ERROR and is
+     * not rethrown.
+     *
+     * @param jobId the UUID of the job to process
+     */
+    public void process(UUID jobId) {
+        Optional<PolicyJob> jobOpt = policyJobRepository.findByJobUuid(jobId);
+        if (jobOpt.isEmpty()) {
+            logger.error("Job not found: {}", jobId);
+            return;
+        }
+
+        PolicyJob job = jobOpt.get();
+
+        // Idempotency check: if job is already SUCCESS or FAILED, skip processing
+        if ("SUCCESS".equals(job.getStatus()) || "FAILED".equals(job.getStatus())) {
+            logger.info("Job {} is already in final state: {}, skipping processing", jobId, job.getStatus());
+            return;
+        }
+
+        // Ensure job is in PROCESSING state (normally set by the claim)
+        if (!"PROCESSING".equals(job.getStatus())) {
+            logger.warn("Job {} is not in PROCESSING state (status: {}), updating to PROCESSING",
+                    jobId, job.getStatus());
+            job.setStatus("PROCESSING");
+            if (job.getStartedAt() == null) {
+                job.setStartedAt(Instant.now());
+            }
+            policyJobRepository.save(job);
+            jobEventPublisher.publishAfterCommit(JobEvent.status(jobId, "PROCESSING"));
+        }
+
+        // UUID.toString() never returns null, but wrap through NonNulls for JDT null analysis
+        String jobIdStr = NonNulls.nn(jobId.toString(), "jobId.toString() returned null");
+        MDC.put("job_id", jobIdStr);
+
+        long startTime = System.currentTimeMillis();
+
+        // Parent span for the whole job; stage spans are its children
+        Span parentSpan = null;
+        if (tracingService != null) {
+            parentSpan = tracingService.spanBuilder("job.process")
+                    .setAttribute("job_id", jobIdStr)
+                    .setAttribute("document_id", jobIdStr)
+                    .setAttribute("stage", "processing")
+                    .setAttribute("file_size_bytes", job.getFileSizeBytes() != null ? job.getFileSizeBytes() : 0)
+                    .startSpan();
+        }
+
+        try (Scope scope = parentSpan != null ? parentSpan.makeCurrent() : null) {
+            PipelineContext context = new PipelineContext(job);
+            context.getDeadline().onLlmCalls((done, total) -> jobProgressService.llmCalls(jobId, done, total));
+            runStages(context, parentSpan);
+
+            job.setStatus("SUCCESS");
+            job.setCompletedAt(Instant.now());
+            policyJobRepository.save(job);
+            jobEventPublisher.publishAfterCommit(JobEvent.status(jobId, "SUCCESS"));
+            logger.info("Document processing completed for job: {}, classification: {}",
+                    jobId, job.getClassification());
+
+            if (metricsService != null) {
+                long durationMs = System.currentTimeMillis() - startTime;
+                metricsService.recordJobDuration(durationMs, jobIdStr);
+                metricsService.recordJobSuccess(jobIdStr);
+            }
+
+            if (parentSpan != null) {
+                parentSpan.setStatus(StatusCode.OK);
+                parentSpan.setAttribute("status", "SUCCESS");
+            }
+        } catch (Exception e) {
+            logger.error("Failed to process document for job: {}", jobId, e);
+            job.setStatus("FAILED");
+            job.setErrorMessage(e.getMessage());
+            job.setLastErrorCode(e instanceof PromptTooLargeException ? "PROMPT_TOO_LARGE" : "PROCESSING_ERROR");
+            job.setCompletedAt(Instant.now());
+            policyJobRepository.save(job);
+            jobEventPublisher.publishAfterCommit(JobEvent.status(jobId, "FAILED"));
+
+            if (metricsService != null) {
+                long durationMs = System.currentTimeMillis() - startTime;
+                metricsService.recordJobDuration(durationMs, jobIdStr);
+                metricsService.recordJobFailure(jobIdStr, e.getClass().getSimpleName());
+            }
+
+            if (parentSpan != null) {
+                parentSpan.setStatus(StatusCode.ERROR);
+                parentSpan.setAttribute("status", "FAILED");
+                parentSpan.setAttribute("error", true);
+                parentSpan.setAttribute("error.message", Strings.safe(e.getMessage()));
+                parentSpan.recordException(e);
+            }
+        } finally {
+            if (parentSpan != null) {
+                parentSpan.end();
+            }
+            MDC.remove("job_id");
+        }
+    }
+
+    private void runStages(PipelineContext context, Span parentSpan) throws Exception {
+        boolean started = false;
+        boolean llmCallsPlanned = false;
+        for (int i = 0; i < stages.size(); i++) {
+            PipelineStage stage = stages.get(i);
+            if (!llmCallsPlanned && context.getStoredChunks() != null) {
+                // Chunks are known from here on: the remaining stages can say how many calls they need
+                int planned = 0;
+                for (PipelineStage remaining : stages.subList(i, stages.size())) {
+                    planned += remaining.plannedLlmCalls(context);
+                }
+                context.getDeadline().planLlmCalls(planned);
+                llmCallsPlanned = true;
+            }
+            if (stage.reportsProgress()) {
+                if (started) {
+                    jobProgressService.stage(context.getJobId(), stage.name());
+                } else {
+                    // First stage resets progress left over from an earlier attempt
+                    jobProgressService.start(context.getJobId(), stage.name());
+                    started = true;
+                }
+            }
+            runStage(stage, context, parentSpan);
+        }
+    }
+
+    private void runStage(PipelineStage stage, PipelineContext context, Span parentSpan) throws Exception {
+        Span span = Span.getInvalid();
+        if (tracingService != null && parentSpan != null) {
+            span = tracingService.spanBuilder(stage.spanName())
+                    .setAttribute("job_id", context.getJobIdStr())
+                    .setAttribute("document_id", context.getJobIdStr())
+                    .setAttribute("stage", stage.spanName())
+                    .startSpan();
+        }
+
+        context.getDeadline().startStage(stage.name(), stageTimeoutSeconds);
+        long stageStartTime = System.currentTimeMillis();
+        String outcome = "failed";
+        try (Scope stageScope = span.makeCurrent()) {
+            stage.execute(context, span);
+            outcome = "success";
+        } catch (Exception e) {
+            span.setStatus(StatusCode.ERROR);
+            span.recordException(e);
+            throw e;
+        } finally {
+            span.end();
+            if (metricsService != null) {
+                metricsService.recordStageDuration(System.currentTimeMillis() - stageStartTime, stage.name(), outcome);
+            }
+        }
+
+        // Stages that do not check the deadline themselves are still held to it here
+        context.getDeadline().check();
+        logger.debug("Stage '{}' completed in {}ms (limit: {}s)", stage.name(),
+                System.currentTimeMillis() - stageStartTime, stageTimeoutSeconds);
+    }
+}
@@ -0,0 +1,54 @@
+package com.policyinsight.processing.pipeline;
+
+import com.policyinsight.api.storage.StorageService;
+import com.policyinsight.api.validation.PdfValidator;
+import io.opentelemetry.api.trace.Span;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+/**
+ * Downloads the uploaded PDF from storage and re-checks the page limit on the worker side.
+ */
+@Component
+@Order(100)
+public class DownloadStage implements PipelineStage {
+
+    private static final Logger logger = LoggerFactory.getLogger(DownloadStage.class);
+
+    private final StorageService storageService;
+    private final PdfValidator pdfValidator;
+
+    public DownloadStage(StorageService storageService, PdfValidator pdfValidator) {
+        this.storageService = storageService;
+        this.pdfValidator = pdfValidator;
+    }
+
+    @Override
+    public String name() {
+        return "download";
+    }
+
+    @Override
+    public void execute(PipelineContext context, Span span) throws Exception {
+        String storagePath = context.getJob().getPdfGcsPath();
+        if (storagePath == null || storagePath.isEmpty()) {
+            throw new IllegalArgumentException("Storage path is null or empty");
+        }
+
+        logger.info("Downloading PDF from storage: {}", storagePath);
+        byte[] pdfBytes = storageService.downloadFile(storagePath);
+
+        // Validate PDF page count (worker-side validation)
+        try (InputStream pdfStreamForValidation = new ByteArrayInputStream(pdfBytes)) {
+            pdfValidator.validateMaxPages(pdfStreamForValidation, null);
+        }
+
+        context.setPdfBytes(pdfBytes);
+        span.setAttribute("file_size_bytes", (long) pdfBytes.length);
+    }
+}
@@ -0,0 +1,108 @@
+package com.policyinsight.processing.pipeline;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.policyinsight.api.storage.StorageService;
+import com.policyinsight.shared.model.Report;
+import com.policyinsight.shared.repository.ReportRepository;
+import com.policyinsight.util.Strings;
+import io.opentelemetry.api.trace.Span;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Saves the validated report, uploading a JSON copy to storage when possible.
+ */
+@Component
+@Order(800)
+public class ExportStage implements PipelineStage {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportStage.class);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final ReportRepository reportRepository;
+    private final StorageService storageService;
+
+    public ExportStage(ReportRepository reportRepository, StorageService storageService) {
+        this.reportRepository = reportRepository;
+        this.storageService = storageService;
+    }
+
+    @Override
+    public String name() {
+        return "export";
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void execute(PipelineContext context, Span span) {
+        UUID jobId = context.getJobId();
+        Map<String, Object> documentOverview = context.getDocumentOverview();
+        Map<String, Object> reportDataMap = context.getReportData();
+
+        Report report = new Report(jobId);
+        report.setJobCreatedAt(context.getJob().getCreatedAt());
+        report.setDocumentOverview(documentOverview);
+        report.setSummaryBullets((Map<String, Object>) reportDataMap.get("summary_bullets"));
+        // obligations/restrictions/termination_triggers from reportDataMap are already validated
+        List<Map<String, Object>> validatedObligations = (List<Map<String, Object>>) reportDataMap.get("obligations");
+        List<Map<String, Object>> validatedRestrictions = (List<Map<String, Object>>) reportDataMap.get("restrictions");
+        List<Map<String, Object>> validatedTerminationTriggers = (List<Map<String, Object>>) reportDataMap.get("termination_triggers");
+        Map<String, Object> obligationsCoverage = (Map<String, Object>) reportDataMap.get("obligations_coverage");
+        report.setObligations(itemsSection(validatedObligations, obligationsCoverage));
+        report.setRestrictions(itemsSection(validatedRestrictions, obligationsCoverage));
+        report.setTerminationTriggers(itemsSection(validatedTerminationTriggers, obligationsCoverage));
+        report.setRiskTaxonomy((Map<String, Object>) reportDataMap.get("risk_taxonomy"));
+        report.setGeneratedAt(Instant.now());
+
+        // Optionally upload report JSON to storage
+        try {
+            String reportJson = OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(Map.of(
+                    "document_overview", documentOverview,
+                    "summary_bullets", reportDataMap.get("summary_bullets"),
+                    "obligations", reportDataMap.get("obligations"),
+                    "restrictions", reportDataMap.get("restrictions"),
+                    "termination_triggers", reportDataMap.get("termination_triggers"),
+                    "risk_taxonomy", reportDataMap.get("risk_taxonomy")
+            ));
+            String reportStoragePath = storageService.uploadArtifact(
+                    jobId, "report.json",
+                    new ByteArrayInputStream(reportJson.getBytes(StandardCharsets.UTF_8)),
+                    "application/json");
+            report.setGcsPath(reportStoragePath);
+            context.getJob().setReportGcsPath(reportStoragePath);
+            logger.info("Report JSON uploaded to storage: {}", reportStoragePath);
+            span.setAttribute("report_stored", true);
+            span.setAttribute("report_path", Strings.safe(reportStoragePath));
+        } catch (Exception e) {
+            logger.warn("Failed to upload report JSON to storage, continuing without storage path: {}", e.getMessage());
+            span.setAttribute("report_stored", false);
+        }
+
+        reportRepository.save(report);
+        logger.info("Report saved to database for job: {}", jobId);
+    }
+
+    /**
+     * An items column value; the three obligation sections come from the same map windows and
+     * share their coverage.
+     */
+    private static Map<String, Object> itemsSection(List<Map<String, Object>> items, Map<String, Object> coverage) {
+        Map<String, Object> section = new HashMap<>();
+        section.put("items", items != null ? items : Collections.emptyList());
+        if (coverage != null) {
+            section.put("coverage", coverage);
+        }
+        return section;
+    }
+}
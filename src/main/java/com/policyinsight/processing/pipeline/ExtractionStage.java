@@ -0,0 +1,46 @@
+package com.policyinsight.processing.pipeline;
+
+import com.policyinsight.processing.FallbackOcrService;
+import com.policyinsight.processing.JobProgressService;
+import com.policyinsight.processing.model.ExtractedText;
+import io.opentelemetry.api.trace.Span;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+
+/**
+ * Extracts page text from the PDF with PDFBox.
+ */
+@Component
+@Order(200)
+public class ExtractionStage implements PipelineStage {
+
+    private final FallbackOcrService fallbackOcrService;
+    private final JobProgressService jobProgressService;
+
+    public ExtractionStage(FallbackOcrService fallbackOcrService, JobProgressService jobProgressService) {
+        this.fallbackOcrService = fallbackOcrService;
+        this.jobProgressService = jobProgressService;
+    }
+
+    @Override
+    public String name() {
+        return "extraction";
+    }
+
+    @Override
+    public void execute(PipelineContext context, Span span) throws Exception {
+        ExtractedText extractedText = fallbackOcrService.extractText(
+                new ByteArrayInputStream(context.getPdfBytes()), context.getDeadline());
+        context.setExtractedText(extractedText);
+        // The raw PDF is not needed past this point
+        context.setPdfBytes(null);
+
+        span.setAttribute("provider", "pdfbox");
+        span.setAttribute("fallback_used", false);
+        span.setAttribute("page_count", (long) extractedText.getPages().size());
+
+        jobProgressService.pagesExtracted(context.getJobId(), extractedText.getPages().size());
+    }
+}
@@ -0,0 +1,72 @@
+package com.policyinsight.processing.pipeline;
+
+import com.policyinsight.processing.ReportGroundingValidator;
+import io.opentelemetry.api.trace.Span;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Enforces cite-or-abstain on the generated sections before they are exported.
+ * Not reported as a separate progress stage; it is part of report generation for status clients.
+ */
+@Component
+@Order(700)
+public class GroundingValidationStage implements PipelineStage {
+
+    private static final Logger logger = LoggerFactory.getLogger(GroundingValidationStage.class);
+
+    private final ReportGroundingValidator reportGroundingValidator;
+
+    public GroundingValidationStage(ReportGroundingValidator reportGroundingValidator) {
+        this.reportGroundingValidator = reportGroundingValidator;
+    }
+
+    @Override
+    public String name() {
+        return "validation";
+    }
+
+    @Override
+    public boolean reportsProgress() {
+        return false;
+    }
+
+    @Override
+    public void execute(PipelineContext context, Span span) {
+        logger.info("Validating report grounding for job: {}", context.getJobId());
+        Map<String, Object> obligationsAndRestrictions = context.getObligationsAndRestrictions();
+        Map<String, Object> reportDataMap = new HashMap<>();
+        reportDataMap.put("summary_bullets", context.getSummary());
+        reportDataMap.put("obligations", obligationsAndRestrictions.get("obligations"));
+        reportDataMap.put("restrictions", obligationsAndRestrictions.get("restrictions"));
+        reportDataMap.put("termination_triggers", obligationsAndRestrictions.get("termination_triggers"));
+        // Present when the sections were built by map-reduce; not validated, carried to the report
+        if (obligationsAndRestrictions.get("coverage") != null) {
+            reportDataMap.put("obligations_coverage", obligationsAndRestrictions.get("coverage"));
+        }
+        reportDataMap.put("risk_taxonomy", context.getRiskTaxonomy());
+
+        ReportGroundingValidator.ValidationResult validationResult =
+                reportGroundingValidator.validateReport(reportDataMap, context.getStoredChunks());
+
+        if (!validationResult.isValid()) {
+            logger.warn("Report validation found {} violations for job: {}",
+                    validationResult.getViolations().size(), context.getJobId());
+            for (String violation : validationResult.getViolations()) {
+                logger.warn("Validation violation: {}", violation);
+            }
+            // Violations are handled by abstain statements in validated data, per PRD
+            // Continue processing with validated (abstained) data
+        } else {
+            logger.info("Report validation passed for job: {}", context.getJobId());
+        }
+        span.setAttribute("violation_count", validationResult.getViolations().size());
+
+        context.setReportData(reportDataMap);
+    }
+}
@@ -0,0 +1,125 @@
+package com.policyinsight.processing.pipeline;
+
+import com.policyinsight.processing.JobDeadline;
+import com.policyinsight.processing.model.ExtractedText;
+import com.policyinsight.shared.model.DocumentChunk;
+import com.policyinsight.shared.model.PolicyJob;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Mutable state of one job as it moves through the pipeline stages.
+ * Created per job by DocumentPipeline and confined to the thread running that job.
+ */
+public class PipelineContext {
+
+    private final PolicyJob job;
+    private final UUID jobId;
+    private final String jobIdStr;
+    private final JobDeadline deadline;
+
+    private byte[] pdfBytes;
+    private ExtractedText extractedText;
+    private List<DocumentChunk> storedChunks;
+    private Map<String, Object> riskTaxonomy;
+    private Map<String, Object> documentOverview;
+    private Map<String, Object> summary;
+    private Map<String, Object> obligationsAndRestrictions;
+    private Map<String, Object> reportData;
+
+    public PipelineContext(PolicyJob job) {
+        this.job = job;
+        this.jobId = job.getJobUuid();
+        this.jobIdStr = job.getJobUuid().toString();
+        this.deadline = new JobDeadline(job.getJobUuid());
+    }
+
+    public PolicyJob getJob() {
+        return job;
+    }
+
+    public UUID getJobId() {
+        return jobId;
+    }
+
+    public String getJobIdStr() {
+        return jobIdStr;
+    }
+
+    /**
+     * Deadline/cancellation token for the job, re-armed by the pipeline at each stage.
+     * Stages pass it to long-running calls so they abort when the stage runs out of time.
+     */
+    public JobDeadline getDeadline() {
+        return deadline;
+    }
+
+    public byte[] getPdfBytes() {
+        return pdfBytes;
+    }
+
+    public void setPdfBytes(byte[] pdfBytes) {
+        this.pdfBytes = pdfBytes;
+    }
+
+    public ExtractedText getExtractedText() {
+        return extractedText;
+    }
+
+    public void setExtractedText(ExtractedText extractedText) {
+        this.extractedText = extractedText;
+    }
+
+    public List<DocumentChunk> getStoredChunks() {
+        return storedChunks;
+    }
+
+    public void setStoredChunks(List<DocumentChunk> storedChunks) {
+        this.storedChunks = storedChunks;
+    }
+
+    public Map<String, Object> getRiskTaxonomy() {
+        return riskTaxonomy;
+    }
+
+    public void setRiskTaxonomy(Map<String, Object> riskTaxonomy) {
+        this.riskTaxonomy = riskTaxonomy;
+    }
+
+    public Map<String, Object> getDocumentOverview() {
+        return documentOverview;
+    }
+
+    public void setDocumentOverview(Map<String, Object> documentOverview) {
+        this.documentOverview = documentOverview;
+    }
+
+    public Map<String, Object> getSummary() {
+        return summary;
+    }
+
+    public void setSummary(Map<String, Object> summary) {
+        this.summary = summary;
+    }
+
+    public Map<String, Object> getObligationsAndRestrictions() {
+        return obligationsAndRestrictions;
+    }
+
+    public void setObligationsAndRestrictions(Map<String, Object> obligationsAndRestrictions) {
+        this.obligationsAndRestrictions = obligationsAndRestrictions;
+    }
+
+    /**
+     * Report sections after grounding validation (cite-or-abstain applied).
+     */
+    public Map<String, Object> getReportData() {
+        return reportData;
+    }
+
+    public void setReportData(Map<String, Object> reportData) {
+        this.reportData = reportData;
+    }
+}
@@ -0,0 +1,48 @@
+package com.policyinsight.processing.pipeline;
+
+import io.opentelemetry.api.trace.Span;
+
+/**
+ * One step of the document pipeline (download, extraction, chunking, ...).
+ * Stages are Spring beans run by DocumentPipeline in @Order order. They read their inputs from
+ * and write their outputs to the per-job PipelineContext; the pipeline takes care of progress
+ * updates, the stage span, timing metrics and the stage timeout.
+ */
+public interface PipelineStage {
+
+    /**
+     * Stage name used for job progress, metrics and timeout messages.
+     */
+    String name();
+
+    /**
+     * Name of the tracing span for this stage. Defaults to the stage name.
+     */
+    default String spanName() {
+        return name();
+    }
+
+    /**
+     * Whether entering this stage is reported as job progress.
+     */
+    default boolean reportsProgress() {
+        return true;
+    }
+
+    /**
+     * LLM calls this stage expects to make, given the stored chunks. The pipeline adds up the
+     * remaining stages' plans once chunking is done, for the job's LLM call progress.
+     */
+    default int plannedLlmCalls(PipelineContext context) {
+        return 0;
+    }
+
+    /**
+     * Runs the stage.
+     *
+     * @param context per-job pipeline state
+     * @param span span for this stage, for attributes; a no-op span when tracing is disabled
+     * @throws Exception if the stage fails (the job is then marked FAILED)
+     */
+    void execute(PipelineContext context, Span span) throws Exception;
+}
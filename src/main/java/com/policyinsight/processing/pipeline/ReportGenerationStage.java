@@ -0,0 +1,60 @@
+package com.policyinsight.processing.pipeline;
+
+import com.policyinsight.processing.ReportGenerationService;
+import com.policyinsight.shared.model.DocumentChunk;
+import io.opentelemetry.api.trace.Span;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generates the overview, summary and obligations sections of the report.
+ */
+@Component
+@Order(600)
+public class ReportGenerationStage implements PipelineStage {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportGenerationStage.class);
+
+    private final ReportGenerationService reportGenerationService;
+
+    public ReportGenerationStage(ReportGenerationService reportGenerationService) {
+        this.reportGenerationService = reportGenerationService;
+    }
+
+    @Override
+    public String name() {
+        return "report_generation";
+    }
+
+    @Override
+    public String spanName() {
+        return "llm";
+    }
+
+    @Override
+    public int plannedLlmCalls(PipelineContext context) {
+        return reportGenerationService.plannedLlmCalls(context.getStoredChunks());
+    }
+
+    @Override
+    public void execute(PipelineContext context, Span span) throws Exception {
+        List<DocumentChunk> storedChunks = context.getStoredChunks();
+        span.setAttribute("provider", "gemini");
+
+        logger.info("Generating report sections for job: {}", context.getJobId());
+        context.setDocumentOverview(reportGenerationService.generateDocumentOverview(context.getJob(), storedChunks));
+        Map<String, Object> summary = reportGenerationService.generateSummary(storedChunks, context.getDeadline());
+        context.setSummary(summary);
+        context.setObligationsAndRestrictions(reportGenerationService.generateObligationsAndRestrictions(
+                storedChunks, context.getDeadline()));
+
+        if (summary != null && summary.get("bullets") instanceof List) {
+            span.setAttribute("summary_bullet_count", ((List<?>) summary.get("bullets")).size());
+        }
+    }
+}
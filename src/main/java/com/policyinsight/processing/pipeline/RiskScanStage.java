@@ -0,0 +1,63 @@
+package com.policyinsight.processing.pipeline;
+
+import com.policyinsight.processing.RiskAnalysisService;
+import io.opentelemetry.api.trace.Span;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the risk analysis over the stored chunks (one LLM call per risk category).
+ */
+@Component
+@Order(500)
+public class RiskScanStage implements PipelineStage {
+
+    private static final Logger logger = LoggerFactory.getLogger(RiskScanStage.class);
+
+    private final RiskAnalysisService riskAnalysisService;
+
+    public RiskScanStage(RiskAnalysisService riskAnalysisService) {
+        this.riskAnalysisService = riskAnalysisService;
+    }
+
+    @Override
+    public String name() {
+        return "risk_scan";
+    }
+
+    @Override
+    public int plannedLlmCalls(PipelineContext context) {
+        return riskAnalysisService.plannedLlmCalls();
+    }
+
+    @Override
+    public void execute(PipelineContext context, Span span) throws Exception {
+        logger.info("Starting risk analysis for job: {}", context.getJobId());
+        Map<String, Object> riskTaxonomy = riskAnalysisService.analyzeRisks(
+                context.getStoredChunks(), context.getDeadline());
+        logger.info("Risk analysis completed for job: {}", context.getJobId());
+        context.setRiskTaxonomy(riskTaxonomy);
+
+        // Count risks by category
+        int totalRisks = 0;
+        if (riskTaxonomy != null) {
+            for (RiskAnalysisService.RiskCategory category : RiskAnalysisService.RiskCategory.values()) {
+                Object categoryData = riskTaxonomy.get(category.getKey());
+                if (categoryData instanceof Map) {
+                    Object items = ((Map<?, ?>) categoryData).get("items");
+                    if (items instanceof List) {
+                        int count = ((List<?>) items).size();
+                        span.setAttribute("risk_count." + category.getKey(), count);
+                        totalRisks += count;
+                    }
+                }
+            }
+        }
+        span.setAttribute("risk_count.total", totalRisks);
+    }
+}
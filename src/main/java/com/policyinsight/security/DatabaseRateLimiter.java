@@ -0,0 +1,44 @@
+package com.policyinsight.security;
+
+import com.policyinsight.shared.repository.RateLimitCounterRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Rate limiter backed by the rate_limit_counters table, shared by every instance.
+ * Requests are counted in one-minute buckets and summed over the trailing hour, so the
+ * limit slides instead of resetting on the hour. Each request is a single statement
+ * (atomic upsert plus windowed sum); no read-modify-write.
+ */
+@Component
+@ConditionalOnProperty(name = "app.rate-limit.backend", havingValue = "database")
+public class DatabaseRateLimiter implements RateLimiter {
+
+    private final RateLimitCounterRepository rateLimitCounterRepository;
+
+    public DatabaseRateLimiter(RateLimitCounterRepository rateLimitCounterRepository) {
+        this.rateLimitCounterRepository = rateLimitCounterRepository;
+    }
+
+    @Override
+    public long incrementAndCount(String ipAddress, String endpoint, Instant now) {
+        return rateLimitCounterRepository.incrementAndSumSince(
+                ipAddress, endpoint, now.truncatedTo(ChronoUnit.MINUTES), windowSince(now));
+    }
+
+    @Override
+    public long currentCount(String ipAddress, String endpoint, Instant now) {
+        Long count = rateLimitCounterRepository.sumCountsSince(ipAddress, endpoint, windowSince(now));
+        return count != null ? count : 0L;
+    }
+
+    /**
+     * Start of the oldest minute bucket still inside the trailing window.
+     */
+    private static Instant windowSince(Instant now) {
+        return now.truncatedTo(ChronoUnit.MINUTES).minus(WINDOW).plus(1, ChronoUnit.MINUTES);
+    }
+}
@@ -0,0 +1,145 @@
+package com.policyinsight.security;
+
+import com.policyinsight.observability.DatadogMetricsServiceInterface;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-process sliding-window rate limiter (default backend).
+ *
+ * <p>Each IP/endpoint key owns a ring of one-minute buckets covering the trailing hour.
+ * A bucket packs its minute number and count into a single long, so rolling a bucket
+ * over and incrementing it is one CAS and no locks are taken on the request path.
+ * The key map is bounded: once {@code max-keys} is reached, keys idle for longer than
+ * the window are swept (at most once a minute). Active windows are never dropped, since
+ * that would reset their counts; if the map is still full, requests from keys that are not
+ * yet tracked fail open: they are admitted without being counted, and reported through the
+ * policyinsight.rate_limit.untracked_requests metric. Failing closed would let whoever filled
+ * the map lock every new client out for up to an hour.</p>
+ *
+ * <p>Counts are per instance; use the {@code database} backend when limits must be
+ * shared across replicas.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "app.rate-limit.backend", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRateLimiter implements RateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryRateLimiter.class);
+
+    static final int BUCKETS = (int) WINDOW.toMinutes();
+    private static final long BUCKET_MILLIS = WINDOW.toMillis() / BUCKETS;
+    private static final long COUNT_MASK = 0xFFFFFFFFL;
+
+    private final ConcurrentHashMap<String, Window> windows = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweepMinute = new AtomicLong(Long.MIN_VALUE);
+    private final int maxKeys;
+    private final DatadogMetricsServiceInterface metricsService;
+
+    public InMemoryRateLimiter(
+            @Value("${app.rate-limit.memory.max-keys:100000}") int maxKeys,
+            @Autowired(required = false) DatadogMetricsServiceInterface metricsService) {
+        this.maxKeys = Math.max(1, maxKeys);
+        this.metricsService = metricsService;
+    }
+
+    @Override
+    public long incrementAndCount(String ipAddress, String endpoint, Instant now) {
+        String key = key(ipAddress, endpoint);
+        long minute = now.toEpochMilli() / BUCKET_MILLIS;
+
+        Window window = windows.get(key);
+        if (window == null) {
+            if (windows.size() >= maxKeys) {
+                sweepIdle(minute);
+                if (windows.size() >= maxKeys) {
+                    // Fail open: dropping an active window would reset that client's count
+                    if (metricsService != null) {
+                        metricsService.recordRateLimitUntracked(endpoint);
+                    }
+                    return 1L;
+                }
+            }
+            // Concurrent inserters may briefly overshoot the bound by a few keys
+            window = windows.computeIfAbsent(key, k -> new Window());
+        }
+        window.increment(minute);
+        return window.sum(minute);
+    }
+
+    @Override
+    public long currentCount(String ipAddress, String endpoint, Instant now) {
+        Window window = windows.get(key(ipAddress, endpoint));
+        return window != null ? window.sum(now.toEpochMilli() / BUCKET_MILLIS) : 0L;
+    }
+
+    /**
+     * Number of keys currently tracked.
+     */
+    int size() {
+        return windows.size();
+    }
+
+    private void sweepIdle(long currentMinute) {
+        // Idleness only changes when the minute does, so one sweeper per minute is enough
+        long last = lastSweepMinute.get();
+        if (last == currentMinute || !lastSweepMinute.compareAndSet(last, currentMinute)) {
+            return;
+        }
+        windows.entrySet().removeIf(e -> e.getValue().isIdle(currentMinute));
+        if (windows.size() >= maxKeys) {
+            logger.warn("Rate limiter key map full ({} active keys), admitting requests from new keys uncounted",
+                    windows.size());
+        }
+    }
+
+    private static String key(String ipAddress, String endpoint) {
+        return endpoint + '|' + ipAddress;
+    }
+
+    /**
+     * Ring of per-minute buckets; each slot holds {@code (minute << 32) | count}.
+     */
+    private static final class Window {
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private volatile long lastMinute;
+
+        void increment(long minute) {
+            int slot = (int) (minute % BUCKETS);
+            while (true) {
+                long current = buckets.get(slot);
+                long next = (current >>> 32) == minute
+                        ? current + 1
+                        : (minute << 32) | 1L;
+                if (buckets.compareAndSet(slot, current, next)) {
+                    break;
+                }
+            }
+            lastMinute = minute;
+        }
+
+        long sum(long minute) {
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                long value = buckets.get(i);
+                if (minute - (value >>> 32) < BUCKETS) {
+                    total += value & COUNT_MASK;
+                }
+            }
+            return total;
+        }
+
+        boolean isIdle(long minute) {
+            return minute - lastMinute >= BUCKETS;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.policyinsight.security;
+
+import com.policyinsight.shared.repository.PolicyJobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Bounded, short-TTL read-through cache of job access token HMACs, keyed by job UUID.
+ * Status polling checks the same job token every few seconds; this turns those checks into
+ * a map lookup plus an HMAC instead of loading the full job entity each time.
+ * Missing jobs are never cached, and entries expire after the TTL so deletions made by
+ * other instances are picked up; local deletions call {@link #invalidate} or {@link #invalidateAll}.
+ */
+@Component
+public class JobTokenCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobTokenCache.class);
+
+    private final PolicyJobRepository policyJobRepository;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Map<UUID, Entry> entries;
+
+    public JobTokenCache(
+            PolicyJobRepository policyJobRepository,
+            @Value("${app.security.token-cache.max-entries:10000}") int maxEntries,
+            @Value("${app.security.token-cache.ttl-seconds:30}") long ttlSeconds) {
+        this.policyJobRepository = policyJobRepository;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Entry> eldest) {
+                return size() > JobTokenCache.this.maxEntries;
+            }
+        });
+        logger.info("JobTokenCache initialized: maxEntries={}, ttlSeconds={}", maxEntries, ttlSeconds);
+    }
+
+    /**
+     * Returns the stored token HMAC for a job, loading it with a projection query on a miss.
+     *
+     * @param jobUuid the job UUID
+     * @return the HMAC; an empty string if the job has no token configured; empty if the job does not exist
+     */
+    public Optional<String> getAccessTokenHmac(UUID jobUuid) {
+        long now = System.nanoTime();
+        Entry cached = entries.get(jobUuid);
+        if (cached != null && now - cached.loadedAtNanos < ttlNanos) {
+            return Optional.of(cached.accessTokenHmac);
+        }
+
+        Optional<String> loaded = policyJobRepository.findAccessTokenHmacByJobUuid(jobUuid);
+        if (loaded.isPresent() && !loaded.get().isEmpty() && maxEntries > 0 && ttlNanos > 0) {
+            entries.put(jobUuid, new Entry(loaded.get(), now));
+        } else if (cached != null) {
+            entries.remove(jobUuid);
+        }
+        return loaded;
+    }
+
+    /**
+     * Drops the cached HMAC for a job (e.g. when the job is deleted).
+     *
+     * @param jobUuid the job UUID
+     */
+    public void invalidate(UUID jobUuid) {
+        entries.remove(jobUuid);
+        logger.debug("Invalidated cached job token: jobUuid={}", jobUuid);
+    }
+
+    /**
+     * Drops every cached HMAC, for bulk deletions that do not know the affected UUIDs.
+     */
+    public void invalidateAll() {
+        entries.clear();
+        logger.debug("Invalidated all cached job tokens");
+    }
+
+    /**
+     * Number of cached entries.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private record Entry(String accessTokenHmac, long loadedAtNanos) {
+    }
+}
@@ -1,7 +1,5 @@
 package com.policyinsight.security;
 
-import com.policyinsight.shared.model.PolicyJob;
-import com.policyinsight.shared.repository.PolicyJobRepository;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -35,19 +33,20 @@ public class JobTokenInterceptor implements HandlerInterceptor {
 
     // Protected endpoints that need special handling (UUID in body/params)
     private static final List<String> PROTECTED_SPECIAL_PATHS = List.of(
-        "/api/questions"
+        "/api/questions",
+        "/api/questions/stream"
     );
 
     private final TokenService tokenService;
-    private final PolicyJobRepository policyJobRepository;
+    private final JobTokenCache jobTokenCache;
     private final List<String> allowedOrigins;
 
     public JobTokenInterceptor(
             TokenService tokenService,
-            PolicyJobRepository policyJobRepository,
+            JobTokenCache jobTokenCache,
             @Value("${app.security.allowed-origins:http://localhost:8080}") String allowedOrigins) {
         this.tokenService = tokenService;
-        this.policyJobRepository = policyJobRepository;
+        this.jobTokenCache = jobTokenCache;
         // Parse comma-separated origins
         this.allowedOrigins = Arrays.stream(allowedOrigins.split(","))
                 .map(String::trim)
@@ -108,21 +107,21 @@ public class JobTokenInterceptor implements HandlerInterceptor {
             return false;
         }
 
-        // Validate token
-        PolicyJob job = policyJobRepository.findByJobUuid(jobUuid).orElse(null);
-        if (job == null) {
+        // Validate token (HMAC served from a short-TTL cache, projection query on a miss)
+        String accessTokenHmac = jobTokenCache.getAccessTokenHmac(jobUuid).orElse(null);
+        if (accessTokenHmac == null) {
             logger.debug("Job not found: jobUuid={}", jobUuid);
             sendNotFound(response, "Job not found");
             return false;
         }
 
-        if (job.getAccessTokenHmac() == null) {
+        if (accessTokenHmac.isEmpty()) {
             logger.debug("Job has no token HMAC: jobUuid={}", jobUuid);
             sendUnauthorized(response, "Job token not configured");
             return false;
         }
 
-        if (!tokenService.verifyToken(token, job.getAccessTokenHmac())) {
+        if (!tokenService.verifyToken(token, accessTokenHmac)) {
             logger.debug("Token validation failed: path={}, jobUuid={}", path, jobUuid);
             sendUnauthorized(response, "Invalid job token");
             return false;
@@ -12,7 +12,8 @@ import java.time.temporal.ChronoUnit;
 
 /**
  * Scheduled task to clean up old rate limit counters.
- * Deletes counters older than 24 hours to prevent unbounded table growth.
+ * Deletes counters older than 2 hours (well past the 1-hour window) to prevent
+ * unbounded table growth now that counters are kept per minute.
  */
 @Component
 public class RateLimitCleanupTask {
@@ -26,15 +27,15 @@ public class RateLimitCleanupTask {
     }
 
     /**
-     * Runs every hour to delete rate limit counters older than 24 hours.
+     * Runs every hour to delete rate limit counters older than 2 hours.
      */
     @Scheduled(fixedDelayString = "3600000") // 1 hour in milliseconds
     @Transactional
     public void cleanupOldCounters() {
         try {
-            Instant cutoff = Instant.now().minus(24, ChronoUnit.HOURS);
+            Instant cutoff = Instant.now().minus(2, ChronoUnit.HOURS);
             rateLimitCounterRepository.deleteOldCounters(cutoff);
-            logger.debug("Cleaned up old rate limit counters (older than 24 hours)");
+            logger.debug("Cleaned up old rate limit counters (older than 2 hours)");
         } catch (Exception e) {
             logger.error("Failed to cleanup old rate limit counters", e);
         }
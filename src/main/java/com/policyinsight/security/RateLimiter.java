@@ -0,0 +1,28 @@
+package com.policyinsight.security;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Backend for per-IP, per-endpoint request counting over a trailing one-hour window.
+ * Selected with {@code app.rate-limit.backend}: {@code memory} (default, per instance)
+ * or {@code database} (shared across instances via rate_limit_counters).
+ */
+public interface RateLimiter {
+
+    /**
+     * Length of the trailing window that limits are expressed over.
+     */
+    Duration WINDOW = Duration.ofHours(1);
+
+    /**
+     * Records one request and returns the number of requests in the trailing window,
+     * including this one.
+     */
+    long incrementAndCount(String ipAddress, String endpoint, Instant now);
+
+    /**
+     * Returns the number of requests in the trailing window without recording one.
+     */
+    long currentCount(String ipAddress, String endpoint, Instant now);
+}
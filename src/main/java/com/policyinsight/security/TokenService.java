@@ -24,13 +24,20 @@ public class TokenService {
     private static final int TOKEN_BYTES = 32;
     private static final String HMAC_ALGORITHM = "HmacSHA256";
 
-    private final String tokenSecret;
+    private final SecretKeySpec secretKeySpec;
     private final SecureRandom secureRandom;
 
+    // Mac is not thread-safe; each thread keeps one initialized with the key.
+    // doFinal() resets it, so it is ready for the next token on that thread.
+    private final ThreadLocal<Mac> threadMac = ThreadLocal.withInitial(this::newMac);
+
     public TokenService(@Value("${app.security.token-secret:change-me-in-production}") String tokenSecret) {
-        this.tokenSecret = tokenSecret;
+        this.secretKeySpec = new SecretKeySpec(tokenSecret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
         this.secureRandom = new SecureRandom();
 
+        // Fail fast on a missing provider or unusable key instead of on the first request
+        newMac();
+
         if ("change-me-in-production".equals(tokenSecret)) {
             logger.warn("Using default token secret! Set APP_TOKEN_SECRET environment variable in production.");
         }
@@ -54,21 +61,28 @@ public class TokenService {
      * @return base64-encoded HMAC digest
      */
     public String computeHmac(String rawToken) {
+        Mac mac = threadMac.get();
         try {
-            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
-            SecretKeySpec secretKeySpec = new SecretKeySpec(
-                    tokenSecret.getBytes(StandardCharsets.UTF_8),
-                    HMAC_ALGORITHM
-            );
-            mac.init(secretKeySpec);
             byte[] hmacBytes = mac.doFinal(rawToken.getBytes(StandardCharsets.UTF_8));
             return Base64.getEncoder().encodeToString(hmacBytes);
         } catch (Exception e) {
+            mac.reset();
             logger.error("Failed to compute HMAC for token", e);
             throw new RuntimeException("Failed to compute token HMAC", e);
         }
     }
 
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(secretKeySpec);
+            return mac;
+        } catch (Exception e) {
+            logger.error("Failed to initialize HMAC", e);
+            throw new RuntimeException("Failed to initialize token HMAC", e);
+        }
+    }
+
     /**
      * Verifies a token against a stored HMAC using constant-time comparison.
      * @param rawToken the raw token to verify
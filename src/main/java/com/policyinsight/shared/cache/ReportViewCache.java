@@ -0,0 +1,216 @@
+package com.policyinsight.shared.cache;
+
+import com.policyinsight.shared.model.ChunkText;
+import com.policyinsight.shared.model.PolicyJob;
+import com.policyinsight.shared.model.QaInteraction;
+import com.policyinsight.shared.model.Report;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded, in-process read-through cache of assembled report view models, keyed by job UUID.
+ * Reports are immutable after SUCCESS, so entries are only invalidated when Q&A interactions
+ * are added or a share link is revoked. Least-recently-used entries are evicted beyond max size.
+ *
+ * Each node holds its own entries; changes are invalidated on every node through
+ * JobEventPublisher.publishReportViewChanged, which calls invalidate here and, in postgres
+ * mode, on the other nodes.
+ *
+ * A reader that misses builds the view from the database and then puts it. If the job is
+ * invalidated while the view is being built, the view may hold the old Q&A list, so put only
+ * accepts it when the job's generation, taken before building, has not changed. Generations
+ * are striped by job UUID to keep memory bounded; a collision only skips caching a view.
+ */
+@Component
+public class ReportViewCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportViewCache.class);
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final int maxEntries;
+    private final Map<UUID, ReportView> views;
+    // Incremented while holding the views lock, together with the removal
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public ReportViewCache(@Value("${app.cache.report-views.max-entries:500}") int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.views = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, ReportView> eldest) {
+                return size() > ReportViewCache.this.maxEntries;
+            }
+        });
+        logger.info("ReportViewCache initialized: maxEntries={}", maxEntries);
+    }
+
+    /**
+     * Returns the cached view for a job, or null on a miss.
+     *
+     * @param jobUuid the job UUID
+     * @return the cached view, or null
+     */
+    public ReportView getIfPresent(UUID jobUuid) {
+        return views.get(jobUuid);
+    }
+
+    /**
+     * Returns the job's current generation; take it before reading the data for a view to put.
+     *
+     * @param jobUuid the job UUID
+     * @return the generation, to pass to put
+     */
+    public long generation(UUID jobUuid) {
+        return generations.get(stripe(jobUuid));
+    }
+
+    /**
+     * Caches a freshly assembled view. Views are only cached once the job has reached SUCCESS
+     * (the report is final); anything else is left for the next request to rebuild. A view is
+     * also dropped if the job was invalidated since the generation was taken.
+     *
+     * @param view the assembled view
+     * @param generation the job's generation taken before the view's data was read
+     * @return whether the view was cached
+     */
+    public boolean put(ReportView view, long generation) {
+        if (maxEntries <= 0 || !"SUCCESS".equals(view.getJob().getStatus())) {
+            return false;
+        }
+        UUID jobUuid = view.getJob().getJobUuid();
+        synchronized (views) {
+            if (generations.get(stripe(jobUuid)) != generation) {
+                logger.debug("Not caching report view invalidated while it was built: jobUuid={}", jobUuid);
+                return false;
+            }
+            views.put(jobUuid, view);
+            return true;
+        }
+    }
+
+    /**
+     * Drops the cached view for a job. When called inside a transaction the entry is dropped
+     * again after commit, so a concurrent read cannot re-cache pre-commit state.
+     *
+     * @param jobUuid the job UUID
+     */
+    public void invalidate(UUID jobUuid) {
+        remove(jobUuid);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(jobUuid);
+                }
+            });
+        }
+        logger.debug("Invalidated cached report view: jobUuid={}", jobUuid);
+    }
+
+    /**
+     * Drops every cached view, e.g. after notifications from other nodes may have been missed.
+     */
+    public void invalidateAll() {
+        synchronized (views) {
+            for (int i = 0; i < GENERATION_STRIPES; i++) {
+                generations.incrementAndGet(i);
+            }
+            views.clear();
+        }
+        logger.debug("Invalidated all cached report views");
+    }
+
+    /**
+     * Number of cached views.
+     */
+    public int size() {
+        return views.size();
+    }
+
+    private void remove(UUID jobUuid) {
+        synchronized (views) {
+            generations.incrementAndGet(stripe(jobUuid));
+            views.remove(jobUuid);
+        }
+    }
+
+    private static int stripe(UUID jobUuid) {
+        return Math.floorMod(jobUuid.hashCode(), GENERATION_STRIPES);
+    }
+
+    /**
+     * Assembled, read-only data needed to render a report page.
+     */
+    public static class ReportView {
+        private final PolicyJob job;
+        private final Report report;
+        private final List<ChunkText> chunks;
+        private final List<QaInteraction> qaInteractions;
+        private final long questionCount;
+        private final Map<String, Object> reportData;
+        private final String etag;
+
+        public ReportView(PolicyJob job, Report report, List<ChunkText> chunks,
+                          List<QaInteraction> qaInteractions, long questionCount) {
+            this.job = job;
+            this.report = report;
+            this.chunks = chunks;
+            this.qaInteractions = qaInteractions;
+            this.questionCount = questionCount;
+
+            // Extract report sections for easier template access
+            Map<String, Object> data = new HashMap<>();
+            data.put("documentOverview", report.getDocumentOverview());
+            data.put("summaryBullets", report.getSummaryBullets());
+            data.put("obligations", report.getObligations());
+            data.put("restrictions", report.getRestrictions());
+            data.put("terminationTriggers", report.getTerminationTriggers());
+            data.put("riskTaxonomy", report.getRiskTaxonomy());
+            this.reportData = Collections.unmodifiableMap(data);
+
+            // Derived from persisted state only, so every instance computes the same ETag
+            this.etag = "\"" + job.getJobUuid() + "-" + report.getId() + "-"
+                    + (report.getGeneratedAt() != null ? report.getGeneratedAt().toEpochMilli() : 0)
+                    + "-" + questionCount + "\"";
+        }
+
+        public PolicyJob getJob() {
+            return job;
+        }
+
+        public Report getReport() {
+            return report;
+        }
+
+        public List<ChunkText> getChunks() {
+            return chunks;
+        }
+
+        public List<QaInteraction> getQaInteractions() {
+            return qaInteractions;
+        }
+
+        public long getQuestionCount() {
+            return questionCount;
+        }
+
+        public Map<String, Object> getReportData() {
+            return reportData;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.policyinsight.shared.model;
+
+/**
+ * Lightweight view of a document chunk without its text.
+ * Used where only citation metadata (id, index, page, offsets) is needed,
+ * so chunk text is not loaded from the database.
+ */
+public interface ChunkMetadata {
+    Long getId();
+    Integer getChunkIndex();
+    Integer getPageNumber();
+    Integer getStartOffset();
+    Integer getEndOffset();
+}
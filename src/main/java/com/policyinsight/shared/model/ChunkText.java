@@ -0,0 +1,11 @@
+package com.policyinsight.shared.model;
+
+/**
+ * View of a document chunk's text for citation display.
+ * Loaded in one batch only for the chunks a report actually cites.
+ */
+public interface ChunkText {
+    Long getId();
+    Integer getPageNumber();
+    String getText();
+}
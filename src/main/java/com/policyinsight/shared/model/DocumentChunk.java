@@ -16,9 +16,9 @@ import java.util.UUID;
 @Table(name = "document_chunks", indexes = {
     @Index(name = "idx_document_chunks_job_uuid", columnList = "job_uuid")
 }, uniqueConstraints = {
-    @UniqueConstraint(name = "uk_document_chunks_job_uuid_chunk_index", columnNames = {"job_uuid", "chunk_index"})
+    @UniqueConstraint(name = "uk_document_chunks_job_uuid_chunk_index", columnNames = {"job_uuid", "chunk_index", "job_created_at"})
 })
-public class DocumentChunk {
+public class DocumentChunk implements ChunkMetadata {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -28,6 +28,11 @@ public class DocumentChunk {
     @NotNull
     private UUID jobUuid;
 
+    // Owning job's created_at; partition key of this table (see V10 migration)
+    @Column(name = "job_created_at", nullable = false, updatable = false)
+    @NotNull
+    private Instant jobCreatedAt;
+
     @Column(name = "chunk_index")
     private Integer chunkIndex;
 
@@ -75,6 +80,14 @@ public class DocumentChunk {
         this.jobUuid = jobUuid;
     }
 
+    public Instant getJobCreatedAt() {
+        return jobCreatedAt;
+    }
+
+    public void setJobCreatedAt(Instant jobCreatedAt) {
+        this.jobCreatedAt = jobCreatedAt;
+    }
+
     public Integer getChunkIndex() {
         return chunkIndex;
     }
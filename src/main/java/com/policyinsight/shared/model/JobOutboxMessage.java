@@ -0,0 +1,85 @@
+package com.policyinsight.shared.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Entity representing a pending job queued message.
+ * Maps to the job_outbox table. Inserted alongside the job row and deleted by JobOutboxRelay
+ * once the message has been handed to the JobPublisher.
+ */
+@Entity
+@Table(name = "job_outbox")
+public class JobOutboxMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_uuid", nullable = false, updatable = false)
+    private UUID jobUuid;
+
+    @Column(name = "gcs_path", nullable = false, updatable = false, columnDefinition = "TEXT")
+    private String gcsPath;
+
+    @Column(name = "request_id", length = 64, updatable = false)
+    private String requestId;
+
+    @Column(name = "attempts", nullable = false, insertable = false, updatable = false)
+    private Integer attempts = 0;
+
+    // Database clock, so relay comparisons against NOW() never depend on app clock skew
+    @Column(name = "next_attempt_at", nullable = false, insertable = false, updatable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "last_error", columnDefinition = "TEXT", insertable = false, updatable = false)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, insertable = false, updatable = false)
+    private Instant createdAt;
+
+    // Constructors
+    public JobOutboxMessage() {
+    }
+
+    public JobOutboxMessage(UUID jobUuid, String gcsPath, String requestId) {
+        this.jobUuid = jobUuid;
+        this.gcsPath = gcsPath;
+        this.requestId = requestId;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public UUID getJobUuid() {
+        return jobUuid;
+    }
+
+    public String getGcsPath() {
+        return gcsPath;
+    }
+
+    public String getRequestId() {
+        return requestId;
+    }
+
+    public Integer getAttempts() {
+        return attempts;
+    }
+
+    public Instant getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
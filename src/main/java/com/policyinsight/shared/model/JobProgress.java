@@ -0,0 +1,73 @@
+package com.policyinsight.shared.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Entity representing processing progress for a job.
+ * Maps to the job_progress table. Rows are written with native upserts by JobProgressService
+ * (outside the worker's job transaction), so the entity is read-only.
+ */
+@Entity
+@Immutable
+@Table(name = "job_progress")
+public class JobProgress {
+
+    @Id
+    @Column(name = "job_uuid", nullable = false, updatable = false)
+    private UUID jobUuid;
+
+    @Column(name = "stage", nullable = false, length = 50)
+    private String stage;
+
+    @Column(name = "pages_extracted", nullable = false)
+    private Integer pagesExtracted = 0;
+
+    @Column(name = "chunks_stored", nullable = false)
+    private Integer chunksStored = 0;
+
+    @Column(name = "llm_calls_done", nullable = false)
+    private Integer llmCallsDone = 0;
+
+    @Column(name = "llm_calls_total", nullable = false)
+    private Integer llmCallsTotal = 0;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    // Constructors
+    public JobProgress() {
+    }
+
+    // Getters
+    public UUID getJobUuid() {
+        return jobUuid;
+    }
+
+    public String getStage() {
+        return stage;
+    }
+
+    public Integer getPagesExtracted() {
+        return pagesExtracted;
+    }
+
+    public Integer getChunksStored() {
+        return chunksStored;
+    }
+
+    public Integer getLlmCallsDone() {
+        return llmCallsDone;
+    }
+
+    public Integer getLlmCallsTotal() {
+        return llmCallsTotal;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -98,6 +98,17 @@ public class PolicyJob {
     @Size(max = 50)
     private String lastErrorCode;
 
+    // Written only through PolicyJobRepository.updateGeminiCache, so saving a job loaded before
+    // the cache was created never clears it
+    @Column(name = "gemini_cache_name", length = 255, insertable = false, updatable = false)
+    private String geminiCacheName;
+
+    @Column(name = "gemini_cache_hash", length = 64, insertable = false, updatable = false)
+    private String geminiCacheHash;
+
+    @Column(name = "gemini_cache_expires_at", insertable = false, updatable = false)
+    private Instant geminiCacheExpiresAt;
+
     // Constructors
     public PolicyJob() {
         this.jobUuid = UUID.randomUUID();
@@ -276,5 +287,28 @@ public class PolicyJob {
     public void setLastErrorCode(String lastErrorCode) {
         this.lastErrorCode = lastErrorCode;
     }
-}
 
+    public String getGeminiCacheName() {
+        return geminiCacheName;
+    }
+
+    public void setGeminiCacheName(String geminiCacheName) {
+        this.geminiCacheName = geminiCacheName;
+    }
+
+    public String getGeminiCacheHash() {
+        return geminiCacheHash;
+    }
+
+    public void setGeminiCacheHash(String geminiCacheHash) {
+        this.geminiCacheHash = geminiCacheHash;
+    }
+
+    public Instant getGeminiCacheExpiresAt() {
+        return geminiCacheExpiresAt;
+    }
+
+    public void setGeminiCacheExpiresAt(Instant geminiCacheExpiresAt) {
+        this.geminiCacheExpiresAt = geminiCacheExpiresAt;
+    }
+}
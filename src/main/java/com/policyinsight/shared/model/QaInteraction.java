@@ -30,6 +30,11 @@ public class QaInteraction {
     @NotNull
     private UUID jobUuid;
 
+    // Owning job's created_at; partition key of this table (see V10 migration)
+    @Column(name = "job_created_at", nullable = false, updatable = false)
+    @NotNull
+    private Instant jobCreatedAt;
+
     @Column(name = "question", nullable = false, columnDefinition = "TEXT")
     @NotBlank
     private String question;
@@ -77,6 +82,14 @@ public class QaInteraction {
         this.jobUuid = jobUuid;
     }
 
+    public Instant getJobCreatedAt() {
+        return jobCreatedAt;
+    }
+
+    public void setJobCreatedAt(Instant jobCreatedAt) {
+        this.jobCreatedAt = jobCreatedAt;
+    }
+
     public String getQuestion() {
         return question;
     }
@@ -17,6 +17,8 @@ import java.util.UUID;
 @Entity
 @Table(name = "reports", indexes = {
     @Index(name = "idx_reports_job_uuid", columnList = "job_uuid")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "uk_reports_job_uuid", columnNames = {"job_uuid", "job_created_at"})
 })
 public class Report {
 
@@ -24,10 +26,15 @@ public class Report {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(name = "job_uuid", nullable = false, unique = true, updatable = false)
+    @Column(name = "job_uuid", nullable = false, updatable = false)
     @NotNull
     private UUID jobUuid;
 
+    // Owning job's created_at; partition key of this table (see V10 migration)
+    @Column(name = "job_created_at", nullable = false, updatable = false)
+    @NotNull
+    private Instant jobCreatedAt;
+
     @JdbcTypeCode(SqlTypes.JSON)
     @Column(name = "document_overview", columnDefinition = "JSONB")
     private Map<String, Object> documentOverview;
@@ -83,6 +90,14 @@ public class Report {
         this.jobUuid = jobUuid;
     }
 
+    public Instant getJobCreatedAt() {
+        return jobCreatedAt;
+    }
+
+    public void setJobCreatedAt(Instant jobCreatedAt) {
+        this.jobCreatedAt = jobCreatedAt;
+    }
+
     public Map<String, Object> getDocumentOverview() {
         return documentOverview;
     }
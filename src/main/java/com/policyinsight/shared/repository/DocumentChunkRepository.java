@@ -1,11 +1,14 @@
 package com.policyinsight.shared.repository;
 
+import com.policyinsight.shared.model.ChunkMetadata;
+import com.policyinsight.shared.model.ChunkText;
 import com.policyinsight.shared.model.DocumentChunk;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -23,6 +26,34 @@ public interface DocumentChunkRepository extends JpaRepository<DocumentChunk, Lo
     @Query("SELECT d FROM DocumentChunk d WHERE d.jobUuid = :jobUuid ORDER BY d.chunkIndex ASC")
     List<DocumentChunk> findByJobUuidOrderByChunkIndex(@Param("jobUuid") UUID jobUuid);
 
+    /**
+     * Find chunk metadata (no text) for a given job UUID, ordered by chunk index.
+     * @param jobUuid the job UUID
+     * @return list of chunk metadata projections
+     */
+    @Query("SELECT d.id AS id, d.chunkIndex AS chunkIndex, d.pageNumber AS pageNumber, " +
+            "d.startOffset AS startOffset, d.endOffset AS endOffset " +
+            "FROM DocumentChunk d WHERE d.jobUuid = :jobUuid ORDER BY d.chunkIndex ASC")
+    List<ChunkMetadata> findMetadataByJobUuidOrderByChunkIndex(@Param("jobUuid") UUID jobUuid);
+
+    /**
+     * Find the text of selected chunks of a job in one query, ordered by chunk index.
+     * @param jobUuid the job UUID
+     * @param ids chunk IDs to load (must not be empty)
+     * @return list of chunk text projections
+     */
+    @Query("SELECT d.id AS id, d.pageNumber AS pageNumber, d.text AS text " +
+            "FROM DocumentChunk d WHERE d.jobUuid = :jobUuid AND d.id IN :ids ORDER BY d.chunkIndex ASC")
+    List<ChunkText> findTextByJobUuidAndIdIn(@Param("jobUuid") UUID jobUuid, @Param("ids") Collection<Long> ids);
+
+    /**
+     * Average span confidence of a job's chunks, computed in the database.
+     * @param jobUuid the job UUID
+     * @return average span confidence, or null if no chunk has one
+     */
+    @Query("SELECT AVG(d.spanConfidence) FROM DocumentChunk d WHERE d.jobUuid = :jobUuid")
+    Double averageSpanConfidenceByJobUuid(@Param("jobUuid") UUID jobUuid);
+
     /**
      * Find all chunks for a given job UUID.
      * @param jobUuid the job UUID
@@ -42,15 +73,4 @@ public interface DocumentChunkRepository extends JpaRepository<DocumentChunk, Lo
      * @param jobUuid the job UUID
      */
     void deleteByJobUuid(UUID jobUuid);
-
-    /**
-     * Delete chunks for multiple job UUIDs.
-     * Used for retention cleanup.
-     * @param jobUuids list of job UUIDs
-     * @return number of chunks deleted
-     */
-    @org.springframework.data.jpa.repository.Modifying
-    @org.springframework.data.jpa.repository.Query("DELETE FROM DocumentChunk d WHERE d.jobUuid IN :jobUuids")
-    int deleteByJobUuidIn(@Param("jobUuids") java.util.List<UUID> jobUuids);
 }
-
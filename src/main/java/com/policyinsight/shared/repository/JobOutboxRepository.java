@@ -0,0 +1,52 @@
+package com.policyinsight.shared.repository;
+
+import com.policyinsight.shared.model.JobOutboxMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for JobOutboxMessage rows.
+ * Relay queries lock rows with SKIP LOCKED so several instances can drain the outbox concurrently.
+ */
+@Repository
+public interface JobOutboxRepository extends JpaRepository<JobOutboxMessage, Long> {
+
+    /**
+     * Locks the oldest due messages for relaying. Must run inside a transaction;
+     * rows locked by another relay are skipped.
+     */
+    @Query(value = """
+        SELECT * FROM job_outbox
+        WHERE next_attempt_at <= NOW()
+        ORDER BY id
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+        """, nativeQuery = true)
+    List<JobOutboxMessage> lockDueBatch(@Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM job_outbox WHERE id IN (:ids)", nativeQuery = true)
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Records a failed relay attempt and pushes the next attempt back.
+     */
+    @Modifying
+    @Query(value = """
+        UPDATE job_outbox
+        SET attempts = attempts + 1,
+            last_error = :error,
+            next_attempt_at = NOW() + CAST(:delaySeconds AS DOUBLE PRECISION) * INTERVAL '1 second'
+        WHERE id = :id
+        """, nativeQuery = true)
+    int markFailed(@Param("id") Long id, @Param("error") String error, @Param("delaySeconds") long delaySeconds);
+
+    long countByJobUuid(UUID jobUuid);
+}
@@ -0,0 +1,57 @@
+package com.policyinsight.shared.repository;
+
+import com.policyinsight.shared.model.JobProgress;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+/**
+ * Repository for JobProgress rows. All writes are single-row native statements
+ * so recording progress never loads or re-saves the PolicyJob entity.
+ */
+@Repository
+public interface JobProgressRepository extends JpaRepository<JobProgress, UUID> {
+
+    /**
+     * Creates the progress row for a job, or resets it when a job is retried.
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO job_progress (job_uuid, stage, pages_extracted, chunks_stored, llm_calls_done, llm_calls_total, updated_at)
+        VALUES (:jobUuid, :stage, 0, 0, 0, 0, NOW())
+        ON CONFLICT (job_uuid) DO UPDATE SET
+            stage = EXCLUDED.stage,
+            pages_extracted = 0,
+            chunks_stored = 0,
+            llm_calls_done = 0,
+            llm_calls_total = 0,
+            updated_at = NOW()
+        """, nativeQuery = true)
+    int resetProgress(@Param("jobUuid") UUID jobUuid, @Param("stage") String stage);
+
+    @Modifying
+    @Query(value = "UPDATE job_progress SET stage = :stage, updated_at = NOW() WHERE job_uuid = :jobUuid",
+            nativeQuery = true)
+    int updateStage(@Param("jobUuid") UUID jobUuid, @Param("stage") String stage);
+
+    @Modifying
+    @Query(value = "UPDATE job_progress SET pages_extracted = :pages, updated_at = NOW() WHERE job_uuid = :jobUuid",
+            nativeQuery = true)
+    int updatePagesExtracted(@Param("jobUuid") UUID jobUuid, @Param("pages") int pages);
+
+    @Modifying
+    @Query(value = "UPDATE job_progress SET chunks_stored = :chunks, updated_at = NOW() WHERE job_uuid = :jobUuid",
+            nativeQuery = true)
+    int updateChunksStored(@Param("jobUuid") UUID jobUuid, @Param("chunks") int chunks);
+
+    @Modifying
+    @Query(value = """
+        UPDATE job_progress SET llm_calls_done = :done, llm_calls_total = :total, updated_at = NOW()
+        WHERE job_uuid = :jobUuid
+        """, nativeQuery = true)
+    int updateLlmCalls(@Param("jobUuid") UUID jobUuid, @Param("done") int done, @Param("total") int total);
+}
@@ -22,6 +22,15 @@ public interface PolicyJobRepository extends JpaRepository<PolicyJob, Long> {
      */
     Optional<PolicyJob> findByJobUuid(UUID jobUuid);
 
+    /**
+     * Load only the access token HMAC for a job, for token checks on the request path.
+     * A job without a configured token yields an empty string, so "not found" stays distinguishable.
+     * @param jobUuid the job UUID
+     * @return Optional containing the HMAC (empty string if unset) if the job exists
+     */
+    @Query("SELECT COALESCE(p.accessTokenHmac, '') FROM PolicyJob p WHERE p.jobUuid = :jobUuid")
+    Optional<String> findAccessTokenHmacByJobUuid(@Param("jobUuid") UUID jobUuid);
+
     /**
      * Check if a policy job exists with the given UUID.
      * @param jobUuid the job UUID
@@ -97,34 +106,145 @@ public interface PolicyJobRepository extends JpaRepository<PolicyJob, Long> {
     );
 
     /**
-     * Find PROCESSING jobs with expired leases (stale jobs).
-     * Used by the reaper to identify jobs that need recovery.
+     * Extend the leases of jobs this instance is processing, as long as they are making progress.
+     * A job counts as progressing if its job_progress row (or, before the first stage, its start)
+     * is newer than progressSince; stalled jobs keep their old lease so the reaper can recover them.
+     * Rows locked by another transaction are skipped (SKIP LOCKED).
+     *
+     * @param jobUuids jobs in flight on this instance
+     * @param leaseExpiresAt new lease expiry
+     * @param progressSince oldest progress update that still counts as alive
+     * @return the number of leases extended
+     */
+    @org.springframework.transaction.annotation.Transactional
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.data.jpa.repository.Query(
+            value = "UPDATE policy_jobs p SET lease_expires_at = :leaseExpiresAt, updated_at = CURRENT_TIMESTAMP " +
+                    "WHERE p.id IN (" +
+                    "SELECT s.id FROM policy_jobs s LEFT JOIN job_progress jp ON jp.job_uuid = s.job_uuid " +
+                    "WHERE s.job_uuid IN (:jobUuids) AND s.status = 'PROCESSING' " +
+                    "AND COALESCE(jp.updated_at, s.started_at) > :progressSince " +
+                    "FOR UPDATE OF s SKIP LOCKED)",
+            nativeQuery = true
+    )
+    int extendLeasesIfProgressing(
+            @Param("jobUuids") java.util.Collection<UUID> jobUuids,
+            @Param("leaseExpiresAt") java.time.Instant leaseExpiresAt,
+            @Param("progressSince") java.time.Instant progressSince
+    );
+
+    /**
+     * Recover a bounded batch of stale PROCESSING jobs (expired leases) in a single set-based UPDATE.
+     * Jobs below the attempt limit are reset to PENDING with lease and error code cleared;
+     * jobs at or above the limit are marked FAILED with LEASE_EXPIRED_MAX_ATTEMPTS.
+     * Rows locked by another instance are skipped (SKIP LOCKED).
      *
      * @param now current timestamp
-     * @return list of stale PROCESSING jobs
+     * @param maxAttempts attempt limit before a stale job is failed
+     * @param errorMessage error message recorded on failed jobs
+     * @param batchSize maximum number of jobs updated by this statement
+     * @return the number of rows updated
+     */
+    @org.springframework.transaction.annotation.Transactional
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.data.jpa.repository.Query(
+            value = "UPDATE policy_jobs p SET " +
+                    "status = CASE WHEN COALESCE(p.attempt_count, 0) < :maxAttempts THEN 'PENDING' ELSE 'FAILED' END, " +
+                    "lease_expires_at = CASE WHEN COALESCE(p.attempt_count, 0) < :maxAttempts THEN NULL ELSE p.lease_expires_at END, " +
+                    "last_error_code = CASE WHEN COALESCE(p.attempt_count, 0) < :maxAttempts THEN NULL ELSE 'LEASE_EXPIRED_MAX_ATTEMPTS' END, " +
+                    "error_message = CASE WHEN COALESCE(p.attempt_count, 0) < :maxAttempts THEN p.error_message ELSE :errorMessage END, " +
+                    "completed_at = CASE WHEN COALESCE(p.attempt_count, 0) < :maxAttempts THEN p.completed_at ELSE CURRENT_TIMESTAMP END, " +
+                    "updated_at = CURRENT_TIMESTAMP " +
+                    "WHERE p.id IN (" +
+                    "SELECT s.id FROM policy_jobs s " +
+                    "WHERE s.status = 'PROCESSING' AND s.lease_expires_at < :now " +
+                    "ORDER BY s.lease_expires_at ASC LIMIT :batchSize FOR UPDATE SKIP LOCKED)",
+            nativeQuery = true
+    )
+    int reapStaleProcessingJobs(
+            @Param("now") java.time.Instant now,
+            @Param("maxAttempts") int maxAttempts,
+            @Param("errorMessage") String errorMessage,
+            @Param("batchSize") int batchSize
+    );
+
+    /**
+     * Record the job's Gemini cached-content handle (V11); a null name records a skipped or
+     * failed creation until expiresAt.
+     *
+     * @param jobUuid the job UUID
+     * @param name cached content name, or null
+     * @param contextHash SHA-256 of the cached document context
+     * @param expiresAt when the cache (or the failure record) expires
+     * @return the number of rows updated (0 or 1)
+     */
+    @org.springframework.transaction.annotation.Transactional
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.data.jpa.repository.Query(
+            value = "UPDATE policy_jobs SET gemini_cache_name = :name, gemini_cache_hash = :contextHash, " +
+                    "gemini_cache_expires_at = :expiresAt WHERE job_uuid = :jobUuid",
+            nativeQuery = true
+    )
+    int updateGeminiCache(
+            @Param("jobUuid") UUID jobUuid,
+            @Param("name") String name,
+            @Param("contextHash") String contextHash,
+            @Param("expiresAt") java.time.Instant expiresAt
+    );
+
+    /**
+     * Forget the job's Gemini cache if it is still the given one (e.g. after it was found gone).
+     *
+     * @param jobUuid the job UUID
+     * @param name cached content name
+     * @return the number of rows updated (0 or 1)
      */
-    @Query("SELECT p FROM PolicyJob p WHERE p.status = 'PROCESSING' AND p.leaseExpiresAt < :now")
-    java.util.List<PolicyJob> findStaleProcessingJobs(@Param("now") java.time.Instant now);
+    @org.springframework.transaction.annotation.Transactional
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.data.jpa.repository.Query(
+            value = "UPDATE policy_jobs SET gemini_cache_name = NULL, gemini_cache_hash = NULL, gemini_cache_expires_at = NULL " +
+                    "WHERE job_uuid = :jobUuid AND gemini_cache_name = :name",
+            nativeQuery = true
+    )
+    int clearGeminiCache(@Param("jobUuid") UUID jobUuid, @Param("name") String name);
 
     /**
-     * Find job UUIDs older than the specified date.
-     * Used for retention cleanup.
+     * Names of the Gemini caches, not yet expired, of jobs created before the cutoff date; used
+     * by retention to delete the caches of the jobs it purges.
      *
      * @param cutoffDate cutoff date
-     * @return list of job UUIDs
+     * @param now current timestamp
+     * @return cached content names
      */
-    @Query("SELECT p.jobUuid FROM PolicyJob p WHERE p.createdAt < :cutoffDate")
-    java.util.List<UUID> findJobUuidsOlderThan(@Param("cutoffDate") java.time.Instant cutoffDate);
+    @org.springframework.data.jpa.repository.Query(
+            value = "SELECT gemini_cache_name FROM policy_jobs WHERE created_at < :cutoffDate " +
+                    "AND gemini_cache_name IS NOT NULL AND gemini_cache_expires_at > :now",
+            nativeQuery = true
+    )
+    java.util.List<String> findLiveGeminiCachesCreatedBefore(
+            @Param("cutoffDate") java.time.Instant cutoffDate,
+            @Param("now") java.time.Instant now
+    );
 
     /**
-     * Delete jobs older than the specified date.
-     * Used for retention cleanup.
+     * Delete a bounded batch of the oldest jobs created before the cutoff date.
+     * Used for retention cleanup; chunks, reports, Q&A interactions and share links
+     * are removed by ON DELETE CASCADE (V7).
      *
      * @param cutoffDate cutoff date
+     * @param batchSize maximum number of jobs deleted by this statement
      * @return number of jobs deleted
      */
+    @org.springframework.transaction.annotation.Transactional
     @org.springframework.data.jpa.repository.Modifying
-    @org.springframework.data.jpa.repository.Query("DELETE FROM PolicyJob p WHERE p.createdAt < :cutoffDate")
-    int deleteByCreatedAtBefore(@Param("cutoffDate") java.time.Instant cutoffDate);
+    @org.springframework.data.jpa.repository.Query(
+            value = "DELETE FROM policy_jobs p USING (" +
+                    "SELECT id FROM policy_jobs WHERE created_at < :cutoffDate ORDER BY created_at LIMIT :batchSize) old " +
+                    "WHERE p.id = old.id",
+            nativeQuery = true
+    )
+    int deleteBatchCreatedBefore(
+            @Param("cutoffDate") java.time.Instant cutoffDate,
+            @Param("batchSize") int batchSize
+    );
 }
-
@@ -41,6 +41,35 @@ public interface RateLimitCounterRepository extends JpaRepository<RateLimitCount
             @Param("since") Instant since
     );
 
+    /**
+     * Increments the counter for the current window and returns the total across all windows
+     * since {@code since}, in one round trip. The upsert is a single statement, so concurrent
+     * requests neither lose updates nor collide on the key. The outer query reads the pre-insert
+     * snapshot, so the current window is taken from the upsert's RETURNING value instead.
+     */
+    @org.springframework.transaction.annotation.Transactional
+    @Query(value = """
+        WITH up AS (
+            INSERT INTO rate_limit_counters (ip_address, endpoint, window_start, count, created_at)
+            VALUES (:ipAddress, :endpoint, :windowStart, 1, NOW())
+            ON CONFLICT (ip_address, endpoint, window_start)
+            DO UPDATE SET count = rate_limit_counters.count + 1
+            RETURNING count
+        )
+        SELECT (SELECT count FROM up) + COALESCE(SUM(r.count), 0)
+        FROM rate_limit_counters r
+        WHERE r.ip_address = :ipAddress
+        AND r.endpoint = :endpoint
+        AND r.window_start >= :since
+        AND r.window_start <> :windowStart
+        """, nativeQuery = true)
+    long incrementAndSumSince(
+            @Param("ipAddress") String ipAddress,
+            @Param("endpoint") String endpoint,
+            @Param("windowStart") Instant windowStart,
+            @Param("since") Instant since
+    );
+
     /**
      * Delete old rate limit counters (cleanup task).
      */
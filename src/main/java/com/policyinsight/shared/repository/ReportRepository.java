@@ -2,7 +2,6 @@ package com.policyinsight.shared.repository;
 
 import com.policyinsight.shared.model.Report;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -33,15 +32,4 @@ public interface ReportRepository extends JpaRepository<Report, Long> {
      * @param jobUuid the job UUID
      */
     void deleteByJobUuid(UUID jobUuid);
-
-    /**
-     * Delete reports for multiple job UUIDs.
-     * Used for retention cleanup.
-     * @param jobUuids list of job UUIDs
-     * @return number of reports deleted
-     */
-    @org.springframework.data.jpa.repository.Modifying
-    @org.springframework.data.jpa.repository.Query("DELETE FROM Report r WHERE r.jobUuid IN :jobUuids")
-    int deleteByJobUuidIn(@Param("jobUuids") java.util.List<UUID> jobUuids);
 }
-
@@ -1,23 +1,26 @@
 package com.policyinsight.web;
 
+import com.policyinsight.processing.ChunkCitationService;
 import com.policyinsight.processing.QaService;
-import com.policyinsight.shared.model.DocumentChunk;
+import com.policyinsight.shared.cache.ReportViewCache;
+import com.policyinsight.shared.cache.ReportViewCache.ReportView;
+import com.policyinsight.shared.model.ChunkText;
 import com.policyinsight.shared.model.PolicyJob;
 import com.policyinsight.shared.model.QaInteraction;
 import com.policyinsight.shared.model.Report;
-import com.policyinsight.shared.repository.DocumentChunkRepository;
 import com.policyinsight.shared.repository.PolicyJobRepository;
 import com.policyinsight.shared.repository.ReportRepository;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -31,18 +34,21 @@ public class ReportController {
 
     private final PolicyJobRepository policyJobRepository;
     private final ReportRepository reportRepository;
-    private final DocumentChunkRepository chunkRepository;
+    private final ChunkCitationService chunkCitationService;
     private final QaService qaService;
+    private final ReportViewCache reportViewCache;
 
     public ReportController(
             PolicyJobRepository policyJobRepository,
             ReportRepository reportRepository,
-            DocumentChunkRepository chunkRepository,
-            QaService qaService) {
+            ChunkCitationService chunkCitationService,
+            QaService qaService,
+            ReportViewCache reportViewCache) {
         this.policyJobRepository = policyJobRepository;
         this.reportRepository = reportRepository;
-        this.chunkRepository = chunkRepository;
+        this.chunkCitationService = chunkCitationService;
         this.qaService = qaService;
+        this.reportViewCache = reportViewCache;
     }
 
     /**
@@ -56,7 +62,8 @@ public class ReportController {
      *           - HX-Redirect header: "/documents/{id}/report"
      */
     @GetMapping("/documents/{id}/report")
-    public String viewReport(@PathVariable("id") String id, Model model) {
+    public String viewReport(@PathVariable("id") String id, Model model,
+                             WebRequest webRequest, HttpServletResponse response) {
         logger.info("Rendering report page: documentId={}", id);
 
         UUID jobUuid;
@@ -67,54 +74,60 @@ public class ReportController {
             return "error";
         }
 
-        // Fetch job
-        PolicyJob job = policyJobRepository.findByJobUuid(jobUuid)
-                .orElse(null);
-        if (job == null) {
-            logger.warn("Job not found: {}", jobUuid);
-            model.addAttribute("error", "Document not found");
-            return "error";
+        ReportView view = reportViewCache.getIfPresent(jobUuid);
+        if (view == null) {
+            // Taken before reading, so a view built from data a Q&A commit has since changed is not cached
+            long generation = reportViewCache.generation(jobUuid);
+
+            // Fetch job
+            PolicyJob job = policyJobRepository.findByJobUuid(jobUuid)
+                    .orElse(null);
+            if (job == null) {
+                logger.warn("Job not found: {}", jobUuid);
+                model.addAttribute("error", "Document not found");
+                return "error";
+            }
+
+            // Fetch report
+            Report report = reportRepository.findByJobUuid(jobUuid)
+                    .orElse(null);
+            if (report == null) {
+                logger.warn("Report not found for job: {}", jobUuid);
+                model.addAttribute("error", "Report not available. Document may still be processing.");
+                return "error";
+            }
+
+            // Fetch text only for the chunks the report cites (citation anchors)
+            List<ChunkText> chunks = chunkCitationService.loadCitedChunks(jobUuid, report);
+
+            // Fetch Q&A interactions
+            List<QaInteraction> qaInteractions = qaService.getQaInteractions(jobUuid);
+            long questionCount = qaService.getQuestionCount(jobUuid);
+
+            view = new ReportView(job, report, chunks, qaInteractions, questionCount);
+            reportViewCache.put(view, generation);
         }
 
-        // Fetch report
-        Report report = reportRepository.findByJobUuid(jobUuid)
-                .orElse(null);
-        if (report == null) {
-            logger.warn("Report not found for job: {}", jobUuid);
-            model.addAttribute("error", "Report not available. Document may still be processing.");
-            return "error";
+        // Let browsers revalidate cheaply; 304 skips rendering entirely
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        if (webRequest.checkNotModified(view.getEtag())) {
+            logger.debug("Report page not modified: jobUuid={}", jobUuid);
+            return null;
         }
 
-        // Fetch chunks for citation display
-        List<DocumentChunk> chunks = chunkRepository.findByJobUuidOrderByChunkIndex(jobUuid);
-
-        // Fetch Q&A interactions
-        List<QaInteraction> qaInteractions = qaService.getQaInteractions(jobUuid);
-        long questionCount = qaService.getQuestionCount(jobUuid);
-
         // Build model attributes
-        model.addAttribute("job", job);
-        model.addAttribute("report", report);
-        model.addAttribute("chunks", chunks);
-        model.addAttribute("qaInteractions", qaInteractions);
-        model.addAttribute("questionCount", questionCount);
+        model.addAttribute("job", view.getJob());
+        model.addAttribute("report", view.getReport());
+        model.addAttribute("chunks", view.getChunks());
+        model.addAttribute("qaInteractions", view.getQaInteractions());
+        model.addAttribute("questionCount", view.getQuestionCount());
         model.addAttribute("maxQuestions", 3);
-        model.addAttribute("canAskMore", questionCount < 3);
-
-        // Extract report sections for easier template access
-        Map<String, Object> reportData = new HashMap<>();
-        reportData.put("documentOverview", report.getDocumentOverview());
-        reportData.put("summaryBullets", report.getSummaryBullets());
-        reportData.put("obligations", report.getObligations());
-        reportData.put("restrictions", report.getRestrictions());
-        reportData.put("terminationTriggers", report.getTerminationTriggers());
-        reportData.put("riskTaxonomy", report.getRiskTaxonomy());
-        model.addAttribute("reportData", reportData);
+        model.addAttribute("canAskMore", view.getQuestionCount() < 3);
+        model.addAttribute("reportData", view.getReportData());
 
         logger.info("Report page rendered successfully: jobUuid={}, chunks={}, qaCount={}",
-                jobUuid, chunks.size(), qaInteractions.size());
+                jobUuid, view.getChunks().size(), view.getQaInteractions().size());
 
         return "report";
     }
 }
-
@@ -1,11 +1,13 @@
 package com.policyinsight.web;
 
+import com.policyinsight.processing.ChunkCitationService;
 import com.policyinsight.api.ShareLinkService;
-import com.policyinsight.shared.model.DocumentChunk;
+import com.policyinsight.shared.cache.ReportViewCache;
+import com.policyinsight.shared.cache.ReportViewCache.ReportView;
+import com.policyinsight.shared.model.ChunkText;
 import com.policyinsight.shared.model.PolicyJob;
 import com.policyinsight.shared.model.Report;
 import com.policyinsight.shared.model.ShareLink;
-import com.policyinsight.shared.repository.DocumentChunkRepository;
 import com.policyinsight.shared.repository.PolicyJobRepository;
 import com.policyinsight.shared.repository.ReportRepository;
 import org.slf4j.Logger;
@@ -30,18 +32,21 @@ public class ShareReportController {
 
     private final PolicyJobRepository policyJobRepository;
     private final ReportRepository reportRepository;
-    private final DocumentChunkRepository chunkRepository;
+    private final ChunkCitationService chunkCitationService;
     private final ShareLinkService shareLinkService;
+    private final ReportViewCache reportViewCache;
 
     public ShareReportController(
             PolicyJobRepository policyJobRepository,
             ReportRepository reportRepository,
-            DocumentChunkRepository chunkRepository,
-            ShareLinkService shareLinkService) {
+            ChunkCitationService chunkCitationService,
+            ShareLinkService shareLinkService,
+            ReportViewCache reportViewCache) {
         this.policyJobRepository = policyJobRepository;
         this.reportRepository = reportRepository;
-        this.chunkRepository = chunkRepository;
+        this.chunkCitationService = chunkCitationService;
         this.shareLinkService = shareLinkService;
+        this.reportViewCache = reportViewCache;
     }
 
     /**
@@ -83,27 +88,49 @@ public class ShareReportController {
             return "error";
         }
 
-        // Fetch job
-        PolicyJob job = policyJobRepository.findByJobUuid(jobUuid)
-                .orElse(null);
-        if (job == null) {
-            logger.warn("Job not found: {}", jobUuid);
-            model.addAttribute("error", "Document not found");
-            return "error";
-        }
-
-        // Fetch report
-        Report report = reportRepository.findByJobUuid(jobUuid)
-                .orElse(null);
-        if (report == null) {
-            logger.warn("Report not found for job: {}", jobUuid);
-            model.addAttribute("error", "Report not available");
-            return "error";
+        // Job, report and cited chunks come from the shared report view cache when available
+        ReportView view = reportViewCache.getIfPresent(jobUuid);
+        PolicyJob job;
+        Report report;
+        List<ChunkText> chunks;
+        Map<String, Object> reportData;
+        if (view != null) {
+            job = view.getJob();
+            report = view.getReport();
+            chunks = view.getChunks();
+            reportData = view.getReportData();
+        } else {
+            // Fetch job
+            job = policyJobRepository.findByJobUuid(jobUuid)
+                    .orElse(null);
+            if (job == null) {
+                logger.warn("Job not found: {}", jobUuid);
+                model.addAttribute("error", "Document not found");
+                return "error";
+            }
+
+            // Fetch report
+            report = reportRepository.findByJobUuid(jobUuid)
+                    .orElse(null);
+            if (report == null) {
+                logger.warn("Report not found for job: {}", jobUuid);
+                model.addAttribute("error", "Report not available");
+                return "error";
+            }
+
+            // Fetch text only for the chunks the report cites (citation anchors)
+            chunks = chunkCitationService.loadCitedChunks(jobUuid, report);
+
+            // Extract report sections for easier template access
+            reportData = new HashMap<>();
+            reportData.put("documentOverview", report.getDocumentOverview());
+            reportData.put("summaryBullets", report.getSummaryBullets());
+            reportData.put("obligations", report.getObligations());
+            reportData.put("restrictions", report.getRestrictions());
+            reportData.put("terminationTriggers", report.getTerminationTriggers());
+            reportData.put("riskTaxonomy", report.getRiskTaxonomy());
         }
 
-        // Fetch chunks for citation display
-        List<DocumentChunk> chunks = chunkRepository.findByJobUuidOrderByChunkIndex(jobUuid);
-
         // Build model attributes (same as regular report, but read-only)
         model.addAttribute("job", job);
         model.addAttribute("report", report);
@@ -111,15 +138,6 @@ public class ShareReportController {
         model.addAttribute("shareLink", shareLink);
         model.addAttribute("isReadOnly", true);
         model.addAttribute("expiresAt", shareLink.getExpiresAt());
-
-        // Extract report sections for easier template access
-        Map<String, Object> reportData = new HashMap<>();
-        reportData.put("documentOverview", report.getDocumentOverview());
-        reportData.put("summaryBullets", report.getSummaryBullets());
-        reportData.put("obligations", report.getObligations());
-        reportData.put("restrictions", report.getRestrictions());
-        reportData.put("terminationTriggers", report.getTerminationTriggers());
-        reportData.put("riskTaxonomy", report.getRiskTaxonomy());
         model.addAttribute("reportData", reportData);
 
         logger.info("Shared report page rendered: jobUuid={}, accessCount={}",
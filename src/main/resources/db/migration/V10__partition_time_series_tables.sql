@@ -0,0 +1,110 @@
+-- Weekly range partitions for document_chunks, reports and qa_interactions
+-- V10: Partitioned on the owning job's created_at (job_created_at) so retention drops whole
+-- partitions of purged jobs (PartitionMaintenanceTask) instead of deleting their rows.
+--
+-- Unique constraints on a partitioned table must include the partition key. job_created_at is
+-- pinned to the job row by a (job_uuid, job_created_at) foreign key, so every row of a job has
+-- the same value and UNIQUE (job_uuid, chunk_index, job_created_at) still allows one chunk per
+-- index per job (and UNIQUE (job_uuid, job_created_at) one report per job).
+--
+-- Cutover without copying rows: each existing table becomes the first partition of its new
+-- parent, covering everything up to the end of the current week; weekly partitions follow.
+-- The backfill touches at most one retention window of rows, and the CHECK constraint validated
+-- up front lets SET NOT NULL and ATTACH PARTITION skip their own table scans.
+
+UPDATE policy_jobs SET created_at = CURRENT_TIMESTAMP WHERE created_at IS NULL;
+ALTER TABLE policy_jobs ALTER COLUMN created_at SET NOT NULL;
+ALTER TABLE policy_jobs ADD CONSTRAINT uk_policy_jobs_job_uuid_created_at UNIQUE (job_uuid, created_at);
+
+-- Rename a partition's indexes (and so their constraints) after the parent's, plus the partition
+-- suffix, e.g. uk_document_chunks_job_uuid_chunk_index_p20261019, so constraint violations
+-- reported by a partition still name the parent constraint.
+CREATE OR REPLACE FUNCTION name_partition_indexes(partition_name TEXT) RETURNS VOID AS $$
+DECLARE
+  suffix TEXT := substring(partition_name from '_p[0-9]{8}$');
+  idx RECORD;
+BEGIN
+  FOR idx IN
+    SELECT ci.relname AS child_index, pi.relname AS parent_index
+    FROM pg_index x
+    JOIN pg_class ci ON ci.oid = x.indexrelid
+    JOIN pg_inherits h ON h.inhrelid = x.indexrelid
+    JOIN pg_class pi ON pi.oid = h.inhparent
+    WHERE x.indrelid = to_regclass(partition_name)
+  LOOP
+    IF idx.child_index <> idx.parent_index || suffix THEN
+      EXECUTE format('ALTER INDEX %I RENAME TO %I', idx.child_index, idx.parent_index || suffix);
+    END IF;
+  END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Create the weekly partition containing week_start (Monday-aligned), if missing.
+-- Partitions are named <table>_pYYYYMMDD after their first day.
+CREATE OR REPLACE FUNCTION create_weekly_partition(parent_table TEXT, week_start DATE) RETURNS VOID AS $$
+DECLARE
+  monday DATE := date_trunc('week', week_start)::DATE;
+  partition_name TEXT := parent_table || '_p' || to_char(monday, 'YYYYMMDD');
+BEGIN
+  EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                 partition_name, parent_table, monday, monday + 7);
+  PERFORM name_partition_indexes(partition_name);
+END;
+$$ LANGUAGE plpgsql;
+
+-- Convert one table. The existing table is renamed to the current week's partition name and
+-- attached with MINVALUE as lower bound, so retention drops it once the current week expires.
+CREATE OR REPLACE FUNCTION partition_by_job_created_at(tbl TEXT, unique_name TEXT, unique_cols TEXT) RETURNS VOID AS $$
+DECLARE
+  current_week DATE := date_trunc('week', CURRENT_DATE)::DATE;
+  first_partition TEXT := tbl || '_p' || to_char(current_week, 'YYYYMMDD');
+  wk DATE;
+BEGIN
+  EXECUTE format('ALTER TABLE %I ADD COLUMN job_created_at TIMESTAMP', tbl);
+  EXECUTE format('UPDATE %I t SET job_created_at = j.created_at FROM policy_jobs j WHERE j.job_uuid = t.job_uuid', tbl);
+  EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I CHECK (job_created_at IS NOT NULL AND job_created_at < %L) NOT VALID',
+                 tbl, 'ck_' || first_partition || '_bound', current_week + 7);
+  EXECUTE format('ALTER TABLE %I VALIDATE CONSTRAINT %I', tbl, 'ck_' || first_partition || '_bound');
+  EXECUTE format('ALTER TABLE %I ALTER COLUMN job_created_at SET NOT NULL', tbl);
+
+  -- Keys that move to the parent; the job_uuid index is renamed so the parent's index adopts it
+  EXECUTE format('ALTER TABLE %I DROP CONSTRAINT IF EXISTS %I', tbl, 'fk_' || tbl || '_job_uuid');
+  EXECUTE format('ALTER TABLE %I DROP CONSTRAINT IF EXISTS %I', tbl, tbl || '_job_uuid_key');
+  IF unique_name IS NOT NULL THEN
+    EXECUTE format('ALTER TABLE %I DROP CONSTRAINT IF EXISTS %I', tbl, unique_name);
+  END IF;
+  EXECUTE format('ALTER INDEX IF EXISTS %I RENAME TO %I', 'idx_' || tbl || '_job_uuid', 'idx_' || first_partition || '_job_uuid');
+  EXECUTE format('ALTER TABLE %I RENAME TO %I', tbl, first_partition);
+
+  EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS) PARTITION BY RANGE (job_created_at)', tbl, first_partition);
+  -- The id sequence must survive the first partition being dropped
+  EXECUTE format('ALTER SEQUENCE %I OWNED BY %I.id', tbl || '_id_seq', tbl);
+  EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (MINVALUE) TO (%L)',
+                 tbl, first_partition, current_week + 7);
+  wk := current_week + 7;
+  WHILE wk <= current_week + 56 LOOP
+    PERFORM create_weekly_partition(tbl, wk);
+    wk := wk + 7;
+  END LOOP;
+
+  EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I PRIMARY KEY (id, job_created_at)', tbl, 'pk_' || tbl);
+  EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I FOREIGN KEY (job_uuid, job_created_at) '
+                 || 'REFERENCES policy_jobs(job_uuid, created_at) ON DELETE CASCADE', tbl, 'fk_' || tbl || '_job_uuid');
+  EXECUTE format('CREATE INDEX %I ON %I (job_uuid)', 'idx_' || tbl || '_job_uuid', tbl);
+  IF unique_name IS NOT NULL THEN
+    EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I UNIQUE (%s, job_created_at)', tbl, unique_name, unique_cols);
+  END IF;
+  PERFORM name_partition_indexes(first_partition);
+  wk := current_week + 7;
+  WHILE wk <= current_week + 56 LOOP
+    PERFORM name_partition_indexes(tbl || '_p' || to_char(wk, 'YYYYMMDD'));
+    wk := wk + 7;
+  END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT partition_by_job_created_at('document_chunks', 'uk_document_chunks_job_uuid_chunk_index', 'job_uuid, chunk_index');
+SELECT partition_by_job_created_at('reports', 'uk_reports_job_uuid', 'job_uuid');
+SELECT partition_by_job_created_at('qa_interactions', NULL, NULL);
+
+DROP FUNCTION partition_by_job_created_at(TEXT, TEXT, TEXT);
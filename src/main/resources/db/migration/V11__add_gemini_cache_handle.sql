@@ -0,0 +1,9 @@
+-- Gemini cached-content handle of each job's document context
+-- V11: Stored on the job row so every instance (worker or web tier answering questions) uses the
+-- same cache, and retention can delete the caches of the jobs it purges.
+-- gemini_cache_hash is the SHA-256 of the cached context; a row with a hash and expiry but no
+-- name records a skipped or failed creation, not retried before gemini_cache_expires_at.
+
+ALTER TABLE policy_jobs ADD COLUMN gemini_cache_name VARCHAR(255);
+ALTER TABLE policy_jobs ADD COLUMN gemini_cache_hash VARCHAR(64);
+ALTER TABLE policy_jobs ADD COLUMN gemini_cache_expires_at TIMESTAMP;
@@ -0,0 +1,28 @@
+-- Add ON DELETE CASCADE to child foreign keys so retention only deletes policy_jobs rows
+-- V7: Replace default-named FK constraints from V1 with cascading ones
+
+ALTER TABLE document_chunks DROP CONSTRAINT IF EXISTS document_chunks_job_uuid_fkey;
+ALTER TABLE document_chunks
+ADD CONSTRAINT fk_document_chunks_job_uuid FOREIGN KEY (job_uuid)
+    REFERENCES policy_jobs(job_uuid) ON DELETE CASCADE;
+
+ALTER TABLE reports DROP CONSTRAINT IF EXISTS reports_job_uuid_fkey;
+ALTER TABLE reports
+ADD CONSTRAINT fk_reports_job_uuid FOREIGN KEY (job_uuid)
+    REFERENCES policy_jobs(job_uuid) ON DELETE CASCADE;
+
+ALTER TABLE qa_interactions DROP CONSTRAINT IF EXISTS qa_interactions_job_uuid_fkey;
+ALTER TABLE qa_interactions
+ADD CONSTRAINT fk_qa_interactions_job_uuid FOREIGN KEY (job_uuid)
+    REFERENCES policy_jobs(job_uuid) ON DELETE CASCADE;
+
+ALTER TABLE share_links DROP CONSTRAINT IF EXISTS share_links_job_uuid_fkey;
+ALTER TABLE share_links
+ADD CONSTRAINT fk_share_links_job_uuid FOREIGN KEY (job_uuid)
+    REFERENCES policy_jobs(job_uuid) ON DELETE CASCADE;
+
+-- share_links had no job_uuid index; cascading deletes look children up by job_uuid
+CREATE INDEX idx_share_links_job_uuid ON share_links(job_uuid);
+
+-- Retention batches select the oldest jobs by created_at
+CREATE INDEX idx_policy_jobs_created_at ON policy_jobs(created_at);
@@ -0,0 +1,14 @@
+-- Per-job processing progress, updated at stage boundaries by the worker
+-- V8: Kept apart from policy_jobs so progress writes never rewrite the job row
+
+CREATE TABLE job_progress (
+  job_uuid UUID PRIMARY KEY,
+  stage VARCHAR(50) NOT NULL,
+  pages_extracted INT NOT NULL DEFAULT 0,
+  chunks_stored INT NOT NULL DEFAULT 0,
+  llm_calls_done INT NOT NULL DEFAULT 0,
+  llm_calls_total INT NOT NULL DEFAULT 0,
+  updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  CONSTRAINT fk_job_progress_job_uuid FOREIGN KEY (job_uuid)
+      REFERENCES policy_jobs(job_uuid) ON DELETE CASCADE
+);
@@ -0,0 +1,19 @@
+-- Transactional outbox for job queued messages
+-- V9: Rows are inserted in the same transaction as the job and relayed to the queue after commit
+
+CREATE TABLE job_outbox (
+  id BIGSERIAL PRIMARY KEY,
+  job_uuid UUID NOT NULL,
+  gcs_path TEXT NOT NULL,
+  request_id VARCHAR(64),
+  attempts INT NOT NULL DEFAULT 0,
+  next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  last_error TEXT,
+  created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  CONSTRAINT fk_job_outbox_job_uuid FOREIGN KEY (job_uuid)
+      REFERENCES policy_jobs(job_uuid) ON DELETE CASCADE
+);
+
+-- Relay picks due rows in insertion order
+CREATE INDEX idx_job_outbox_next_attempt ON job_outbox(next_attempt_at, id);
+CREATE INDEX idx_job_outbox_job_uuid ON job_outbox(job_uuid);
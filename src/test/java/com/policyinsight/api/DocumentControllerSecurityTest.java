@@ -87,6 +87,28 @@ class DocumentControllerSecurityTest {
                 .andExpect(jsonPath("$.error").value("UNAUTHORIZED"));
     }
 
+    @Test
+    void testEventsEndpointRequiresToken() throws Exception {
+        mockMvc.perform(get("/api/documents/{id}/events", testJobId))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.error").value("UNAUTHORIZED"));
+    }
+
+    @Test
+    void testEventsEndpointSendsCurrentStatus() throws Exception {
+        // When: Subscribe to events for a completed job
+        var result = mockMvc.perform(get("/api/documents/{id}/events", testJobId)
+                        .header("X-Job-Token", testToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then: The current (terminal) status is sent on connect
+        assertThat(result.getResponse().getContentType()).startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+        assertThat(result.getResponse().getContentAsString())
+                .contains("event:status")
+                .contains("\"status\":\"SUCCESS\"");
+    }
+
     @Test
     void testStatusEndpointAcceptsTokenHeader() throws Exception {
         // When: Request status with X-Job-Token header
@@ -0,0 +1,225 @@
+package com.policyinsight.api;
+
+import com.policyinsight.processing.JobDeadline;
+import com.policyinsight.processing.QaService;
+import com.policyinsight.security.RateLimitService;
+import com.policyinsight.security.TokenService;
+import com.policyinsight.shared.model.PolicyJob;
+import com.policyinsight.shared.repository.PolicyJobRepository;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests for the streaming Q&A endpoint (POST /api/questions/stream): event contract, retraction
+ * of ungrounded text, timeout, cancellation and rejection when rate limited or saturated.
+ */
+class QaControllerStreamTest {
+
+    private static final UUID JOB_ID = UUID.randomUUID();
+
+    private final QaService qaService = mock(QaService.class);
+    private final PolicyJobRepository policyJobRepository = mock(PolicyJobRepository.class);
+    private final TokenService tokenService = mock(TokenService.class);
+    private final RateLimitService rateLimitService = mock(RateLimitService.class);
+    private QaController controller;
+
+    @BeforeEach
+    void setUp() {
+        PolicyJob job = new PolicyJob(JOB_ID);
+        job.setStatus("SUCCESS");
+        job.setAccessTokenHmac("hmac");
+        when(policyJobRepository.findByJobUuid(JOB_ID)).thenReturn(Optional.of(job));
+        when(tokenService.verifyToken("token", "hmac")).thenReturn(true);
+        when(rateLimitService.getQaMaxPerJob()).thenReturn(3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (controller != null) {
+            controller.shutdown();
+        }
+    }
+
+    @Test
+    void shouldRetractStreamedTextWhenTheAnswerIsNotGrounded() throws Exception {
+        MockMvc mockMvc = mockMvc(30_000, 2, 2);
+        when(qaService.answerQuestionStreaming(eq(JOB_ID), anyString(), any(), any())).thenAnswer(invocation -> {
+            Consumer<String> onText = invocation.getArgument(3);
+            onText.accept("The fee ");
+            onText.accept("is probably $10.");
+            return new QaService.QaResult("What is the fee?",
+                    "Insufficient evidence: This document does not address your question.", false, List.of(), 5);
+        });
+
+        MvcResult result = mockMvc.perform(question()).andExpect(request().asyncStarted()).andReturn();
+        String events = awaitContent(result, "event:answer");
+
+        assertThat(events).contains("event:delta", "\"text\":\"The fee \"", "event:retract",
+                "\"reason\":\"ungrounded\"", "\"confidence\":\"ABSTAINED\"");
+        assertThat(events.lastIndexOf("event:delta")).isLessThan(events.indexOf("event:retract"));
+        assertThat(events.indexOf("event:retract")).isLessThan(events.indexOf("event:answer"));
+    }
+
+    @Test
+    void shouldNotRetractAGroundedAnswerThatMatchesTheStreamedText() throws Exception {
+        MockMvc mockMvc = mockMvc(30_000, 2, 2);
+        when(qaService.answerQuestionStreaming(eq(JOB_ID), anyString(), any(), any())).thenAnswer(invocation -> {
+            Consumer<String> onText = invocation.getArgument(3);
+            onText.accept("The fee is $10.");
+            return new QaService.QaResult("What is the fee?", "The fee is $10.", true,
+                    List.of(new QaService.QaResult.Citation(1L, 1, "Fees: $10")), 5);
+        });
+
+        MvcResult result = mockMvc.perform(question()).andExpect(request().asyncStarted()).andReturn();
+        String events = awaitContent(result, "event:answer");
+
+        assertThat(events).contains("event:delta", "\"confidence\":\"CONFIDENT\"").doesNotContain("event:retract");
+    }
+
+    @Test
+    void shouldSendTimeoutErrorWhenTheStreamDeadlinePasses() throws Exception {
+        MockMvc mockMvc = mockMvc(1_000, 2, 2);
+        when(qaService.answerQuestionStreaming(eq(JOB_ID), anyString(), any(), any())).thenAnswer(invocation -> {
+            Consumer<String> onText = invocation.getArgument(3);
+            onText.accept("The fee");
+            invocation.getArgument(2, JobDeadline.class).sleep(30_000);
+            return null;
+        });
+
+        MvcResult result = mockMvc.perform(question()).andExpect(request().asyncStarted()).andReturn();
+        String events = awaitContent(result, "event:error");
+
+        assertThat(events).contains("event:retract", "\"reason\":\"failed\"", "timed out")
+                .doesNotContain("event:answer");
+    }
+
+    @Test
+    void shouldCancelGenerationWhenTheStreamTimesOut() throws Exception {
+        MockMvc mockMvc = mockMvc(30_000, 2, 2);
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicReference<Exception> abort = new AtomicReference<>();
+        CountDownLatch aborted = new CountDownLatch(1);
+        when(qaService.answerQuestionStreaming(eq(JOB_ID), anyString(), any(), any())).thenAnswer(invocation -> {
+            started.countDown();
+            try {
+                invocation.getArgument(2, JobDeadline.class).sleep(30_000);
+            } catch (IllegalStateException e) {
+                abort.set(e);
+                aborted.countDown();
+                throw e;
+            }
+            return null;
+        });
+
+        MvcResult result = mockMvc.perform(question()).andExpect(request().asyncStarted()).andReturn();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // The container reports the async timeout; the emitter's callback cancels the deadline
+        MockAsyncContext asyncContext = (MockAsyncContext) result.getRequest().getAsyncContext();
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(new AsyncEvent(asyncContext));
+        }
+
+        assertThat(aborted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(abort.get()).hasMessageContaining("stream timed out");
+        assertThat(result.getResponse().getContentAsString()).doesNotContain("event:answer");
+    }
+
+    @Test
+    void shouldRejectWithTooManyRequestsWhenRateLimited() throws Exception {
+        MockMvc mockMvc = mockMvc(30_000, 2, 2);
+        when(rateLimitService.checkQaRateLimit(any())).thenReturn(true);
+
+        MvcResult result = mockMvc.perform(question()).andExpect(status().isTooManyRequests()).andReturn();
+
+        assertThat(awaitContent(result, "event:error")).contains("rate limit exceeded");
+        verify(qaService, never()).answerQuestionStreaming(any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldRejectWithServiceUnavailableWhenStreamsAreSaturated() throws Exception {
+        MockMvc mockMvc = mockMvc(30_000, 1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        when(qaService.answerQuestionStreaming(eq(JOB_ID), anyString(), any(), any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return new QaService.QaResult("q", "Insufficient evidence: n/a", false, List.of(), 1);
+        });
+
+        try {
+            // One stream running, one queued, the third has no room
+            mockMvc.perform(question()).andExpect(status().isOk());
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            mockMvc.perform(question()).andExpect(status().isOk());
+
+            MvcResult rejected = mockMvc.perform(question()).andExpect(status().isServiceUnavailable()).andReturn();
+            assertThat(awaitContent(rejected, "event:error")).contains("Too many questions in progress");
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private MockMvc mockMvc(long streamTimeoutMs, int threads, int queueCapacity) {
+        controller = new QaController(qaService, policyJobRepository, tokenService, rateLimitService,
+                streamTimeoutMs, threads, queueCapacity);
+        return MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    private static MockHttpServletRequestBuilder question() {
+        return post("/api/questions/stream")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(String.format("{\"documentId\":\"%s\",\"question\":\"What is the fee?\"}", JOB_ID))
+                .header("X-Job-Token", "token");
+    }
+
+    /**
+     * Waits for the streamed response to contain the marker and the rest of that event (its name
+     * and data are written separately), and returns the events so far.
+     */
+    private static String awaitContent(MvcResult result, String marker) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        String content = result.getResponse().getContentAsString();
+        while (!containsEvent(content, marker) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = result.getResponse().getContentAsString();
+        }
+        assertThat(content).contains(marker);
+        assertThat(containsEvent(content, marker)).as("complete %s event", marker).isTrue();
+        return content;
+    }
+
+    private static boolean containsEvent(String content, String marker) {
+        int start = content.indexOf(marker);
+        return start >= 0 && content.indexOf("\n\n", start) >= 0;
+    }
+}
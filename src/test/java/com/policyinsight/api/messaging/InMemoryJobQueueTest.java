@@ -0,0 +1,110 @@
+package com.policyinsight.api.messaging;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for InMemoryJobQueue.
+ * Tests the capacity bound, de-duplication, FIFO hand-off, consumer timeout and concurrent producers/consumers.
+ */
+class InMemoryJobQueueTest {
+
+    @Test
+    void testOfferIsBoundedByCapacity() throws Exception {
+        InMemoryJobQueue queue = new InMemoryJobQueue(2);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        assertThat(queue.offer(first)).isTrue();
+        assertThat(queue.offer(second)).isTrue();
+        assertThat(queue.offer(UUID.randomUUID())).isFalse();
+        assertThat(queue.size()).isEqualTo(2);
+
+        assertThat(queue.poll(1, TimeUnit.SECONDS)).isEqualTo(first);
+        assertThat(queue.offer(UUID.randomUUID())).isTrue();
+        assertThat(queue.poll(1, TimeUnit.SECONDS)).isEqualTo(second);
+    }
+
+    @Test
+    void testOfferingAQueuedIdDoesNotDuplicateIt() throws Exception {
+        InMemoryJobQueue queue = new InMemoryJobQueue(10);
+        UUID jobId = UUID.randomUUID();
+
+        assertThat(queue.offer(jobId)).isTrue();
+        assertThat(queue.offer(jobId)).isTrue();
+        assertThat(queue.size()).isEqualTo(1);
+        assertThat(queue.contains(jobId)).isTrue();
+
+        assertThat(queue.poll(1, TimeUnit.SECONDS)).isEqualTo(jobId);
+        assertThat(queue.contains(jobId)).isFalse();
+        assertThat(queue.poll(10, TimeUnit.MILLISECONDS)).isNull();
+
+        // Once taken, the ID can be queued again (e.g. after lease recovery)
+        assertThat(queue.offer(jobId)).isTrue();
+        assertThat(queue.size()).isEqualTo(1);
+    }
+
+    @Test
+    void testPollTimesOutWhenEmpty() throws Exception {
+        InMemoryJobQueue queue = new InMemoryJobQueue(10);
+
+        assertThat(queue.poll(10, TimeUnit.MILLISECONDS)).isNull();
+        assertThat(queue.size()).isZero();
+    }
+
+    @Test
+    void testConcurrentProducersAndConsumersDeliverEachIdOnce() throws Exception {
+        int producers = 4;
+        int perProducer = 500;
+        InMemoryJobQueue queue = new InMemoryJobQueue(100);
+        Set<UUID> received = ConcurrentHashMap.newKeySet();
+        AtomicInteger receivedCount = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(producers + 2);
+        CountDownLatch producersDone = new CountDownLatch(producers);
+
+        for (int c = 0; c < 2; c++) {
+            pool.execute(() -> {
+                try {
+                    while (receivedCount.get() < producers * perProducer) {
+                        UUID id = queue.poll(50, TimeUnit.MILLISECONDS);
+                        if (id != null) {
+                            received.add(id);
+                            receivedCount.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        for (int p = 0; p < producers; p++) {
+            pool.execute(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    UUID id = UUID.randomUUID();
+                    while (!queue.offer(id)) {
+                        Thread.onSpinWait();
+                    }
+                }
+                producersDone.countDown();
+            });
+        }
+
+        assertThat(producersDone.await(10, TimeUnit.SECONDS)).isTrue();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(receivedCount.get()).isEqualTo(producers * perProducer);
+        assertThat(received).hasSize(producers * perProducer);
+        assertThat(queue.size()).isZero();
+    }
+}
@@ -0,0 +1,149 @@
+package com.policyinsight.api.messaging;
+
+import com.policyinsight.shared.model.JobOutboxMessage;
+import com.policyinsight.shared.model.PolicyJob;
+import com.policyinsight.shared.repository.JobOutboxRepository;
+import com.policyinsight.shared.repository.PolicyJobRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration test for the job outbox relay.
+ * The relay thread is shut down before enqueueing so each test drives drain() itself.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Testcontainers
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class JobOutboxRelayTest {
+
+    @Container
+    @SuppressWarnings("resource")
+    static final PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:15-alpine")
+            .withDatabaseName("policyinsight_test")
+            .withUsername("postgres")
+            .withPassword("postgres");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private JobOutboxRepository jobOutboxRepository;
+
+    @Autowired
+    private PolicyJobRepository policyJobRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        jobOutboxRepository.deleteAll();
+        policyJobRepository.deleteAll();
+    }
+
+    @Test
+    void testRolledBackUploadLeavesNoMessage() {
+        List<UUID> published = new CopyOnWriteArrayList<>();
+        JobOutboxRelay relay = newRelay((jobId, gcsPath, requestId) -> {
+            published.add(jobId);
+            return CompletableFuture.completedFuture("msg-" + jobId);
+        }, 10);
+        UUID jobId = UUID.randomUUID();
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            policyJobRepository.save(newJob(jobId));
+            relay.enqueue(jobId, "local://" + jobId, "req-1");
+            status.setRollbackOnly();
+        });
+
+        assertThat(jobOutboxRepository.count()).isZero();
+        assertThat(relay.drain()).isZero();
+        assertThat(published).isEmpty();
+    }
+
+    @Test
+    void testDrainPublishesInBatchesAndDeletes() {
+        List<UUID> published = new CopyOnWriteArrayList<>();
+        JobOutboxRelay relay = newRelay((jobId, gcsPath, requestId) -> {
+            published.add(jobId);
+            return CompletableFuture.completedFuture("msg-" + jobId);
+        }, 10);
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        for (int i = 0; i < 25; i++) {
+            UUID jobId = UUID.randomUUID();
+            tx.executeWithoutResult(status -> {
+                policyJobRepository.save(newJob(jobId));
+                relay.enqueue(jobId, "local://" + jobId, null);
+            });
+        }
+
+        assertThat(relay.drain()).isEqualTo(25);
+        assertThat(published).hasSize(25).doesNotHaveDuplicates();
+        assertThat(jobOutboxRepository.count()).isZero();
+    }
+
+    @Test
+    void testFailedPublishIsRescheduled() {
+        JobOutboxRelay relay = newRelay((jobId, gcsPath, requestId) ->
+                CompletableFuture.failedFuture(new IllegalStateException("topic unavailable")), 10);
+        UUID jobId = UUID.randomUUID();
+        policyJobRepository.save(newJob(jobId));
+        relay.enqueue(jobId, "local://" + jobId, "req-2");
+
+        assertThat(relay.drain()).isZero();
+
+        List<JobOutboxMessage> remaining = jobOutboxRepository.findAll();
+        assertThat(remaining).hasSize(1);
+        JobOutboxMessage message = remaining.get(0);
+        assertThat(message.getAttempts()).isEqualTo(1);
+        assertThat(message.getLastError()).isEqualTo("topic unavailable");
+        assertThat(message.getNextAttemptAt()).isAfter(message.getCreatedAt());
+
+        // Not due again until the backoff passes
+        assertThat(relay.drain()).isZero();
+        assertThat(jobOutboxRepository.findAll().get(0).getAttempts()).isEqualTo(1);
+    }
+
+    private JobOutboxRelay newRelay(JobPublisher publisher, int batchSize) {
+        JobOutboxRelay relay = new JobOutboxRelay(jobOutboxRepository, publisher, transactionManager, batchSize, 300, 5);
+        relay.shutdown();
+        return relay;
+    }
+
+    private static PolicyJob newJob(UUID jobId) {
+        PolicyJob job = new PolicyJob(jobId);
+        job.setStatus("PENDING");
+        job.setPdfFilename("document.pdf");
+        job.setCreatedAt(Instant.now());
+        return job;
+    }
+}
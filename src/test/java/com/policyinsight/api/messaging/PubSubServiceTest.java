@@ -0,0 +1,115 @@
+package com.policyinsight.api.messaging;
+
+import com.google.api.core.ApiFutures;
+import com.google.api.gax.batching.FlowController;
+import com.google.api.gax.grpc.GrpcStatusCode;
+import com.google.api.gax.rpc.ApiExceptionFactory;
+import com.google.cloud.pubsub.v1.Publisher;
+import com.google.pubsub.v1.PubsubMessage;
+import io.grpc.Status;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for PubSubService asynchronous publishing.
+ * Tests message attributes, in-process retries of transient failures and the retry buffer bound.
+ */
+class PubSubServiceTest {
+
+    private Publisher publisher;
+    private PubSubService service;
+
+    @BeforeEach
+    void setUp() {
+        publisher = mock(Publisher.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void testPublishReturnsMessageIdWithoutBlocking() throws Exception {
+        service = newService(3, 1000);
+        when(publisher.publish(any(PubsubMessage.class))).thenReturn(ApiFutures.immediateFuture("m-1"));
+        UUID jobId = UUID.randomUUID();
+
+        CompletableFuture<String> future = service.publishJobQueued(jobId, "gs://bucket/doc.pdf", "req-1");
+
+        assertThat(future.get(1, TimeUnit.SECONDS)).isEqualTo("m-1");
+        verify(publisher).publish(argThat(message ->
+                message.getAttributesMap().get("job_id").equals(jobId.toString())
+                        && "req-1".equals(message.getAttributesMap().get("request_id"))));
+    }
+
+    @Test
+    void testTransientFailureIsRetried() throws Exception {
+        service = newService(3, 1000);
+        when(publisher.publish(any(PubsubMessage.class)))
+                .thenReturn(ApiFutures.immediateFailedFuture(unavailable()))
+                .thenReturn(ApiFutures.immediateFuture("m-2"));
+
+        CompletableFuture<String> future = service.publishJobQueued(UUID.randomUUID(), "gs://bucket/doc.pdf", null);
+
+        assertThat(future.get(5, TimeUnit.SECONDS)).isEqualTo("m-2");
+        verify(publisher, times(2)).publish(any(PubsubMessage.class));
+        assertThat(service.getRetryBufferedCount()).isZero();
+    }
+
+    @Test
+    void testPermanentFailureFailsFuture() {
+        service = newService(3, 1000);
+        when(publisher.publish(any(PubsubMessage.class)))
+                .thenReturn(ApiFutures.immediateFailedFuture(new IllegalArgumentException("bad message")));
+
+        CompletableFuture<String> future = service.publishJobQueued(UUID.randomUUID(), "gs://bucket/doc.pdf", null);
+
+        assertThatThrownBy(() -> future.get(1, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+        verify(publisher, times(1)).publish(any(PubsubMessage.class));
+    }
+
+    @Test
+    void testFullRetryBufferFailsBackToCaller() {
+        service = newService(3, 0);
+        when(publisher.publish(any(PubsubMessage.class)))
+                .thenReturn(ApiFutures.immediateFailedFuture(unavailable()));
+
+        CompletableFuture<String> future = service.publishJobQueued(UUID.randomUUID(), "gs://bucket/doc.pdf", null);
+
+        assertThatThrownBy(() -> future.get(1, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class);
+        verify(publisher, times(1)).publish(any(PubsubMessage.class));
+    }
+
+    private PubSubService newService(int maxAttempts, int bufferSize) {
+        PubSubService pubSubService = new PubSubService("test-project", "test-topic", 100, 1048576, 10,
+                1000, 10485760, FlowController.LimitExceededBehavior.Block,
+                maxAttempts, 10, bufferSize, null);
+        pubSubService.initialize(publisher);
+        return pubSubService;
+    }
+
+    private static Exception unavailable() {
+        return ApiExceptionFactory.createException(
+                new RuntimeException("unavailable"), GrpcStatusCode.of(Status.Code.UNAVAILABLE), true);
+    }
+}
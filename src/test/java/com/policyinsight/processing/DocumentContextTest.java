@@ -0,0 +1,60 @@
+package com.policyinsight.processing;
+
+import com.policyinsight.shared.model.DocumentChunk;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the rendered per-job document context and its cache.
+ */
+class DocumentContextTest {
+
+    private final UUID jobUuid = UUID.randomUUID();
+    private final List<DocumentChunk> chunks = List.of(chunk(1, 1, "First clause."), chunk(2, 2, "Second clause."),
+            chunk(3, null, "Third clause."));
+
+    @Test
+    void of_shouldRenderCitationTaggedExcerpts() {
+        DocumentContext context = DocumentContext.of(jobUuid, chunks);
+
+        assertThat(context.toString()).isEqualTo("Document excerpts:\n"
+                + "[Chunk ID: 1, Page: 1]\nFirst clause.\n\n"
+                + "[Chunk ID: 2, Page: 2]\nSecond clause.\n\n"
+                + "[Chunk ID: 3, Page: 0]\nThird clause.\n\n");
+        assertThat(context.withInstructions("Go.")).isEqualTo(context + "Go.");
+    }
+
+    @Test
+    void select_shouldReuseRenderedExcerpts() {
+        DocumentContext context = DocumentContext.of(jobUuid, chunks);
+
+        assertThat(context.select(chunks)).isSameAs(context);
+        DocumentContext selected = context.select(List.of(chunks.get(0), chunks.get(2)));
+        assertThat(selected.toString()).isEqualTo(DocumentContext.of(jobUuid, List.of(chunks.get(0), chunks.get(2))).toString());
+        assertThat(selected.getChunks()).containsExactly(chunks.get(0), chunks.get(2));
+        assertThat(selected.contentHash()).isNotEqualTo(context.contentHash());
+    }
+
+    @Test
+    void forChunks_shouldRenderOncePerJobUntilChunksChange() {
+        DocumentContextCache cache = new DocumentContextCache(32, 30);
+
+        DocumentContext context = cache.forChunks(chunks);
+
+        assertThat(cache.forChunks(new ArrayList<>(chunks))).isSameAs(context);
+        assertThat(cache.forChunks(chunks.subList(0, 2))).isNotSameAs(context);
+    }
+
+    private DocumentChunk chunk(long id, Integer page, String text) {
+        DocumentChunk chunk = new DocumentChunk(jobUuid);
+        chunk.setId(id);
+        chunk.setPageNumber(page);
+        chunk.setText(text);
+        return chunk;
+    }
+}
@@ -0,0 +1,155 @@
+package com.policyinsight.processing;
+
+import com.policyinsight.shared.model.DocumentChunk;
+import com.policyinsight.shared.model.PolicyJob;
+import com.policyinsight.shared.repository.PolicyJobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for per-job Gemini context caching.
+ */
+class GeminiContextCacheTest {
+
+    private static final String CONTEXT = "Document excerpts:\n[Chunk ID: 1, Page: 1]\nThe subscriber shall pay all fees.\n\n";
+    private static final String INSTRUCTIONS = "Summarize the excerpts above.";
+
+    private final GeminiService geminiService = mock(GeminiService.class);
+    private final PolicyJobRepository policyJobRepository = mock(PolicyJobRepository.class);
+    private final UUID jobUuid = UUID.randomUUID();
+    private final GeminiContextCache cache = new GeminiContextCache(geminiService, policyJobRepository,
+            new TokenCounter(), true, 1, 60, 30);
+    private final DocumentContext context = DocumentContext.of(jobUuid, List.of(chunk(1, "The subscriber shall pay all fees.")));
+    private final PolicyJob job = new PolicyJob(jobUuid);
+
+    @BeforeEach
+    void setUp() {
+        job.setCreatedAt(Instant.now().minus(29, ChronoUnit.DAYS).minus(10, ChronoUnit.HOURS));
+        when(policyJobRepository.findByJobUuid(jobUuid)).thenReturn(Optional.of(job));
+        // The cache handle lives on the job row
+        when(policyJobRepository.updateGeminiCache(eq(jobUuid), any(), anyString(), any())).thenAnswer(invocation -> {
+            job.setGeminiCacheName(invocation.getArgument(1));
+            job.setGeminiCacheHash(invocation.getArgument(2));
+            job.setGeminiCacheExpiresAt(invocation.getArgument(3));
+            return 1;
+        });
+        when(policyJobRepository.clearGeminiCache(eq(jobUuid), anyString())).thenAnswer(invocation -> {
+            if (!invocation.getArgument(1).equals(job.getGeminiCacheName())) {
+                return 0;
+            }
+            job.setGeminiCacheName(null);
+            job.setGeminiCacheHash(null);
+            job.setGeminiCacheExpiresAt(null);
+            return 1;
+        });
+        when(geminiService.isCachedContentAvailable()).thenReturn(true);
+        when(geminiService.createCachedContent(eq(CONTEXT), any(), anyString())).thenReturn(Optional.of("cachedContents/1"));
+    }
+
+    @Test
+    void generateContentStream_shouldCreateCacheOnceAndSendOnlyInstructions() throws Exception {
+        DocumentContext empty = context.select(List.of());
+
+        cache.generateContentStream(context, INSTRUCTIONS, true, "summary", JobDeadline.none(), text -> {});
+        cache.generateContentStream(context, INSTRUCTIONS, false, "qa", JobDeadline.none(), text -> {});
+        cache.generateContentStream(empty, INSTRUCTIONS, false, "qa", JobDeadline.none(), text -> {});
+
+        // TTL is capped at the job's retention expiry (14 hours left)
+        verify(geminiService).createCachedContent(eq(CONTEXT), eq(Duration.ofMinutes(60)), anyString());
+        verify(geminiService, times(2)).generateContentStream(eq(INSTRUCTIONS), eq("cachedContents/1"), anyString(), any(), any());
+        verify(geminiService).generateContentStream(eq("Document excerpts:\n" + INSTRUCTIONS), isNull(), eq("qa"), any(), any());
+        verify(policyJobRepository).updateGeminiCache(eq(jobUuid), eq("cachedContents/1"), eq(context.contentHash()), any());
+        assertThat(cache.isCached(context)).isTrue();
+    }
+
+    @Test
+    void generateContentStream_shouldUseTheCacheAnotherInstanceCreated() throws Exception {
+        cache.generateContentStream(context, INSTRUCTIONS, true, "summary", JobDeadline.none(), text -> {});
+        GeminiContextCache webInstance = new GeminiContextCache(geminiService, policyJobRepository,
+                new TokenCounter(), true, 1, 60, 30);
+
+        webInstance.generateContentStream(context, INSTRUCTIONS, false, "qa", JobDeadline.none(), text -> {});
+
+        verify(geminiService).generateContentStream(eq(INSTRUCTIONS), eq("cachedContents/1"), eq("qa"), any(), any());
+        verify(geminiService, times(1)).createCachedContent(anyString(), any(), anyString());
+    }
+
+    @Test
+    void deleteCachesOfJobsCreatedBefore_shouldDeleteTheCachesNamedOnPurgedRows() {
+        Instant cutoff = Instant.now().minus(30, ChronoUnit.DAYS);
+        when(policyJobRepository.findLiveGeminiCachesCreatedBefore(eq(cutoff), any()))
+                .thenReturn(List.of("cachedContents/1", "cachedContents/2"));
+
+        assertThat(cache.deleteCachesOfJobsCreatedBefore(cutoff)).isEqualTo(2);
+
+        verify(geminiService).deleteCachedContent("cachedContents/1");
+        verify(geminiService).deleteCachedContent("cachedContents/2");
+    }
+
+    @Test
+    void generateContentStream_shouldSendContextInlineWhenCachedCallFails() throws Exception {
+        when(geminiService.generateContentStream(eq(INSTRUCTIONS), eq("cachedContents/1"), anyString(), any(), any()))
+                .thenThrow(new IOException("404 cached content not found"));
+        when(geminiService.generateContentStream(eq(CONTEXT + INSTRUCTIONS), isNull(), anyString(), any(), any()))
+                .thenReturn("{}");
+
+        String response = cache.generateContentStream(context, INSTRUCTIONS, true, "summary",
+                JobDeadline.none(), text -> {});
+
+        assertThat(response).isEqualTo("{}");
+        verify(policyJobRepository).clearGeminiCache(jobUuid, "cachedContents/1");
+        assertThat(cache.isCached(context)).isFalse();
+    }
+
+    @Test
+    void generateContentStream_shouldNotRetryInlineWhenTheFailureIsNotAboutTheCache() throws Exception {
+        when(geminiService.generateContentStream(eq(INSTRUCTIONS), eq("cachedContents/1"), anyString(), any(), any()))
+                .thenThrow(new IOException("Gemini API call failed after 3 attempts: 429 Too Many Requests"));
+
+        assertThatThrownBy(() -> cache.generateContentStream(context, INSTRUCTIONS, true, "summary",
+                JobDeadline.none(), text -> {}))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("429");
+
+        verify(geminiService, never()).generateContentStream(anyString(), isNull(), anyString(), any(), any());
+        assertThat(cache.isCached(context)).isTrue();
+    }
+
+    @Test
+    void generateContentStream_shouldFallBackToTheBudgetedContext() throws Exception {
+        DocumentContext budgeted = context.select(List.of());
+        cache.generateContentStream(context, INSTRUCTIONS, true, "summary", JobDeadline.none(), text -> {});
+        when(geminiService.generateContentStream(eq(INSTRUCTIONS), eq("cachedContents/1"), eq("qa"), any(), any()))
+                .thenThrow(new IOException("Gemini API call failed: 403 PERMISSION_DENIED"));
+
+        cache.generateContentStream(context, budgeted, INSTRUCTIONS, false, "qa", JobDeadline.none(), text -> {});
+
+        // The whole document is never sent inline for a question
+        verify(geminiService).generateContentStream(eq("Document excerpts:\n" + INSTRUCTIONS), isNull(), eq("qa"), any(), any());
+        verify(geminiService, never()).generateContentStream(eq(CONTEXT + INSTRUCTIONS), any(), anyString(), any(), any());
+    }
+
+    private DocumentChunk chunk(long id, String text) {
+        DocumentChunk chunk = new DocumentChunk(jobUuid);
+        chunk.setId(id);
+        chunk.setPageNumber(1);
+        chunk.setText(text);
+        return chunk;
+    }
+}
@@ -14,6 +14,7 @@ import java.io.IOException;
 import java.util.concurrent.TimeoutException;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.lenient;
@@ -59,7 +60,9 @@ class GeminiServiceRetryTest {
                 3, // maxRetryAttempts
                 100, // baseRetryDelayMs (short for testing)
                 metricsService,
-                tracingService
+                tracingService,
+                new TokenCounter(),
+                900000 // maxPromptTokens
         );
     }
 
@@ -108,6 +111,22 @@ class GeminiServiceRetryTest {
         assertThat(isRetryable).isFalse();
     }
 
+    @Test
+    void testPromptAboveLimitIsRejectedAndNotRetried() {
+        GeminiService limited = new GeminiService(false, "test-project", "us-central1", "gemini-2.0-flash-exp",
+                3, 100, metricsService, tracingService, new TokenCounter(), 5);
+
+        assertThatThrownBy(() -> limited.generateContent("a prompt well above the five token limit", 10, "summary"))
+                .isInstanceOf(PromptTooLargeException.class)
+                .hasMessageContaining("summary")
+                .hasMessageContaining("limit: 5");
+
+        // A token count such as 1500 must not be mistaken for an HTTP 500
+        boolean isRetryable = (boolean) ReflectionTestUtils.invokeMethod(
+                geminiService, "isRetryableError", new PromptTooLargeException("summary", 1500, 1000));
+        assertThat(isRetryable).isFalse();
+    }
+
     @Test
     void testMaxAttemptsConfiguration() {
         // Verify max attempts is set correctly
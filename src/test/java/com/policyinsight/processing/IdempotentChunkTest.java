@@ -16,6 +16,7 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 import org.testcontainers.postgresql.PostgreSQLContainer;
 
+import java.time.Instant;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -52,6 +53,7 @@ class IdempotentChunkTest {
     private DocumentChunkRepository documentChunkRepository;
 
     private UUID testJobId;
+    private Instant testJobCreatedAt;
 
     @BeforeEach
     void setUp() {
@@ -64,7 +66,7 @@ class IdempotentChunkTest {
         PolicyJob job = new PolicyJob(testJobId);
         job.setStatus("PROCESSING");
         job.setPdfFilename("test.pdf");
-        policyJobRepository.save(job);
+        testJobCreatedAt = policyJobRepository.save(job).getCreatedAt();
     }
 
     @Test
@@ -72,12 +74,14 @@ class IdempotentChunkTest {
     void testChunkInsertionIsIdempotent() {
         // Given: Insert chunks for a job
         DocumentChunk chunk1 = new DocumentChunk(testJobId);
+        chunk1.setJobCreatedAt(testJobCreatedAt);
         chunk1.setChunkIndex(0);
         chunk1.setText("First chunk text");
         chunk1.setPageNumber(1);
         documentChunkRepository.save(chunk1);
 
         DocumentChunk chunk2 = new DocumentChunk(testJobId);
+        chunk2.setJobCreatedAt(testJobCreatedAt);
         chunk2.setChunkIndex(1);
         chunk2.setText("Second chunk text");
         chunk2.setPageNumber(1);
@@ -96,12 +100,14 @@ class IdempotentChunkTest {
 
         // Re-insert chunks with same job_uuid and chunk_index
         DocumentChunk chunk1Retry = new DocumentChunk(testJobId);
+        chunk1Retry.setJobCreatedAt(testJobCreatedAt);
         chunk1Retry.setChunkIndex(0);
         chunk1Retry.setText("First chunk text (retry)");
         chunk1Retry.setPageNumber(1);
         documentChunkRepository.save(chunk1Retry);
 
         DocumentChunk chunk2Retry = new DocumentChunk(testJobId);
+        chunk2Retry.setJobCreatedAt(testJobCreatedAt);
         chunk2Retry.setChunkIndex(1);
         chunk2Retry.setText("Second chunk text (retry)");
         chunk2Retry.setPageNumber(1);
@@ -122,6 +128,7 @@ class IdempotentChunkTest {
     void testUniqueConstraintPreventsDuplicateChunks() {
         // Given: Insert a chunk (commit it first)
         DocumentChunk chunk1 = new DocumentChunk(testJobId);
+        chunk1.setJobCreatedAt(testJobCreatedAt);
         chunk1.setChunkIndex(0);
         chunk1.setText("First chunk");
         chunk1.setPageNumber(1);
@@ -130,6 +137,7 @@ class IdempotentChunkTest {
 
         // When: Try to insert another chunk with same job_uuid and chunk_index in a new transaction
         DocumentChunk chunk2 = new DocumentChunk(testJobId);
+        chunk2.setJobCreatedAt(testJobCreatedAt);
         chunk2.setChunkIndex(0); // Same chunk_index
         chunk2.setText("Duplicate chunk");
         chunk2.setPageNumber(1);
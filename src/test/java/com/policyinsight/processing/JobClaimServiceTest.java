@@ -14,7 +14,10 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 import org.testcontainers.postgresql.PostgreSQLContainer;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import jakarta.persistence.EntityManager;
@@ -68,4 +71,52 @@ class JobClaimServiceTest {
         assertThat(updated.getStatus()).isEqualTo("PROCESSING");
         assertThat(updated.getLeaseExpiresAt()).isNotNull();
     }
+
+    @Test
+    void claimJob_shouldClaimOnlyOnce() {
+        PolicyJob job = new PolicyJob(UUID.randomUUID());
+        job.setStatus("PENDING");
+        job.setPdfFilename("test.pdf");
+        policyJobRepository.save(job);
+
+        assertThat(jobClaimService.claimJob(job.getJobUuid())).isTrue();
+        // A redelivered message for the same job must not claim it again
+        assertThat(jobClaimService.claimJob(job.getJobUuid())).isFalse();
+
+        entityManager.flush();
+        entityManager.clear();
+
+        PolicyJob updated = policyJobRepository.findByJobUuid(job.getJobUuid()).orElseThrow();
+        assertThat(updated.getStatus()).isEqualTo("PROCESSING");
+        assertThat(updated.getAttemptCount()).isEqualTo(1);
+    }
+
+    @Test
+    void extendLeasesIfProgressing_shouldSkipStalledJobs() {
+        Instant now = Instant.now();
+        PolicyJob active = processingJob(now.minus(1, ChronoUnit.MINUTES), now.plus(1, ChronoUnit.MINUTES));
+        PolicyJob stalled = processingJob(now.minus(2, ChronoUnit.HOURS), now.plus(1, ChronoUnit.MINUTES));
+        entityManager.flush();
+
+        Instant newLease = now.plus(30, ChronoUnit.MINUTES);
+        int extended = policyJobRepository.extendLeasesIfProgressing(
+                Set.of(active.getJobUuid(), stalled.getJobUuid()), newLease, now.minus(5, ChronoUnit.MINUTES));
+
+        entityManager.clear();
+
+        assertThat(extended).isEqualTo(1);
+        assertThat(policyJobRepository.findByJobUuid(active.getJobUuid()).orElseThrow().getLeaseExpiresAt())
+                .isAfter(now.plus(29, ChronoUnit.MINUTES));
+        assertThat(policyJobRepository.findByJobUuid(stalled.getJobUuid()).orElseThrow().getLeaseExpiresAt())
+                .isBefore(now.plus(2, ChronoUnit.MINUTES));
+    }
+
+    private PolicyJob processingJob(Instant startedAt, Instant leaseExpiresAt) {
+        PolicyJob job = new PolicyJob(UUID.randomUUID());
+        job.setStatus("PROCESSING");
+        job.setPdfFilename("test.pdf");
+        job.setStartedAt(startedAt);
+        job.setLeaseExpiresAt(leaseExpiresAt);
+        return policyJobRepository.save(job);
+    }
 }
@@ -0,0 +1,105 @@
+package com.policyinsight.processing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the job deadline/cancellation token used to abort pipeline stages.
+ */
+class JobDeadlineTest {
+
+    @Test
+    void await_shouldReturnResultWithoutDeadline() throws Exception {
+        JobDeadline deadline = JobDeadline.none();
+
+        assertThat(deadline.await(CompletableFuture.completedFuture("ok"))).isEqualTo("ok");
+        assertThat(deadline.isAborted()).isFalse();
+    }
+
+    @Test
+    void await_shouldAbortAndCancelCallWhenStageDeadlinePasses() {
+        JobDeadline deadline = new JobDeadline(UUID.randomUUID());
+        deadline.startStage("report_generation", 1);
+        CompletableFuture<String> neverCompletes = new CompletableFuture<>();
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> deadline.await(neverCompletes))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("report_generation");
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(5000);
+        assertThat(neverCompletes.isCancelled()).isTrue();
+    }
+
+    @Test
+    void onCancel_shouldRunOnCancellationOrImmediatelyIfAlreadyCancelled() {
+        JobDeadline deadline = new JobDeadline(UUID.randomUUID());
+        AtomicInteger runs = new AtomicInteger();
+
+        deadline.onCancel(runs::incrementAndGet);
+        assertThat(runs.get()).isZero();
+
+        deadline.cancel("client disconnected");
+        assertThat(runs.get()).isEqualTo(1);
+
+        deadline.onCancel(runs::incrementAndGet);
+        assertThat(runs.get()).isEqualTo(2);
+    }
+
+    @Test
+    void sleep_shouldWakeEarlyWhenCancelled() {
+        JobDeadline deadline = new JobDeadline(UUID.randomUUID());
+        deadline.startStage("risk_scan", 300);
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            scheduler.schedule(() -> deadline.cancel("shutdown"), 100, TimeUnit.MILLISECONDS);
+
+            long start = System.nanoTime();
+            assertThatThrownBy(() -> deadline.sleep(60_000))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("shutdown");
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(5000);
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    void startStage_shouldRearmDeadlineForEachStage() {
+        JobDeadline deadline = new JobDeadline(UUID.randomUUID());
+        deadline.startStage("download", 0);
+        assertThat(deadline.isExpired()).isTrue();
+
+        deadline.startStage("extraction", 300);
+        assertThat(deadline.isExpired()).isFalse();
+        deadline.check();
+    }
+
+    @Test
+    void llmCalls_shouldPublishDoneAndPlannedTotals() {
+        JobDeadline deadline = new JobDeadline(UUID.randomUUID());
+        List<String> published = new ArrayList<>();
+        deadline.llmCallDone(); // Before a listener is set: counted, not published
+        deadline.onLlmCalls((done, total) -> published.add(done + "/" + total));
+
+        deadline.planLlmCalls(3);
+        deadline.llmCallDone();
+        deadline.planLlmCalls(-1);
+        // Unplanned calls (e.g. a fallback nobody planned) never show more done than total
+        deadline.llmCallDone();
+        deadline.llmCallDone();
+
+        assertThat(published).containsExactly("1/3", "2/3", "2/2", "3/3", "4/4");
+    }
+}
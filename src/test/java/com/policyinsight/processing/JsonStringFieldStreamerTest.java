@@ -0,0 +1,64 @@
+package com.policyinsight.processing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for extracting a string field from a streamed JSON response.
+ */
+class JsonStringFieldStreamerTest {
+
+    @Test
+    void shouldStreamFieldValueAcrossFragmentsAndIgnoreTheRest() {
+        List<String> fragments = new ArrayList<>();
+        JsonStringFieldStreamer streamer = new JsonStringFieldStreamer("answer", fragments::add);
+
+        feed(streamer, "```json\n{\"ans", "wer\": \"The fee ", "is $10.\", \"chunk_ids\": [1], ", "\"answer\": \"again\"}");
+
+        assertThat(fragments).containsExactly("The fee ", "is $10.");
+    }
+
+    @Test
+    void shouldDecodeEscapesIncludingOnesSplitAcrossFragments() {
+        StringBuilder value = new StringBuilder();
+        JsonStringFieldStreamer streamer = new JsonStringFieldStreamer("answer", value::append);
+
+        feed(streamer, "{\"answer\": \"Say \\", "\"yes\\\" \\\\ no", "\\nnext\\t\\/end\\", "u00e9\\u00", "41\"}");
+
+        assertThat(value.toString()).isEqualTo("Say \"yes\" \\ no\nnext\t/endéA");
+    }
+
+    @Test
+    void shouldNeverEmitHalfASurrogatePair() {
+        List<String> fragments = new ArrayList<>();
+        JsonStringFieldStreamer streamer = new JsonStringFieldStreamer("answer", fragments::add);
+
+        // U+1F600 as an escaped surrogate pair, split between the two halves and inside the second
+        feed(streamer, "{\"answer\": \"ok \\ud83d", "\\ude", "00!\"}");
+
+        assertThat(String.join("", fragments)).isEqualTo("ok 😀!");
+        for (String fragment : fragments) {
+            assertThat(Character.isHighSurrogate(fragment.charAt(fragment.length() - 1))).isFalse();
+        }
+    }
+
+    @Test
+    void shouldEmitNothingWhenTheFieldIsMissing() {
+        List<String> fragments = new ArrayList<>();
+        JsonStringFieldStreamer streamer = new JsonStringFieldStreamer("answer", fragments::add);
+
+        feed(streamer, "{\"result\": \"stub_response\"}");
+
+        assertThat(fragments).isEmpty();
+    }
+
+    private static void feed(JsonStringFieldStreamer streamer, String... fragments) {
+        for (String fragment : fragments) {
+            streamer.accept(fragment);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.policyinsight.processing;
+
+import com.policyinsight.api.messaging.InMemoryJobQueue;
+import com.policyinsight.processing.pipeline.DocumentPipeline;
+import com.policyinsight.shared.model.PolicyJob;
+import com.policyinsight.shared.repository.PolicyJobRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for LocalDocumentProcessingWorker in memory-queue mode.
+ * Tests the consumer claim/process loop and the recovery sweep against a real InMemoryJobQueue.
+ */
+class LocalDocumentProcessingWorkerQueueTest {
+
+    private final PolicyJobRepository policyJobRepository = mock(PolicyJobRepository.class);
+    private final JobClaimService jobClaimService = mock(JobClaimService.class);
+    private final DocumentPipeline documentPipeline = mock(DocumentPipeline.class);
+    private final InMemoryJobQueue queue = new InMemoryJobQueue(10);
+    private final LocalDocumentProcessingWorker worker = new LocalDocumentProcessingWorker();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(worker, "policyJobRepository", policyJobRepository);
+        ReflectionTestUtils.setField(worker, "jobClaimService", jobClaimService);
+        ReflectionTestUtils.setField(worker, "documentPipeline", documentPipeline);
+        ReflectionTestUtils.setField(worker, "inMemoryJobQueue", queue);
+    }
+
+    @AfterEach
+    void tearDown() {
+        worker.stopConsumers();
+    }
+
+    @Test
+    void testRecoverySweepSkipsJobsAlreadyQueued() throws Exception {
+        UUID queuedJob = UUID.randomUUID();
+        UUID lostJob = UUID.randomUUID();
+        queue.offer(queuedJob);
+        when(policyJobRepository.findOldestPendingJobs(anyInt()))
+                .thenReturn(List.of(pendingJob(queuedJob), pendingJob(lostJob)));
+
+        // No consumers, so the sweep's effect stays in the queue
+        ReflectionTestUtils.setField(worker, "consumerThreads", 0);
+        worker.startConsumers();
+        worker.recoverPendingJobs();
+
+        // Both sweeps look past the queued jobs and neither re-adds them
+        verify(policyJobRepository, times(2)).findOldestPendingJobs(10);
+        assertThat(queue.size()).isEqualTo(2);
+        assertThat(queue.poll(1, TimeUnit.SECONDS)).isEqualTo(queuedJob);
+        assertThat(queue.poll(1, TimeUnit.SECONDS)).isEqualTo(lostJob);
+        assertThat(queue.poll(10, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void testConsumerProcessesOnlyClaimedJobsAndSurvivesFailures() throws Exception {
+        UUID failingJob = UUID.randomUUID();
+        UUID duplicateJob = UUID.randomUUID();
+        UUID goodJob = UUID.randomUUID();
+        when(jobClaimService.claimJob(failingJob)).thenReturn(true);
+        when(jobClaimService.claimJob(duplicateJob)).thenReturn(false);
+        when(jobClaimService.claimJob(goodJob)).thenReturn(true);
+        doThrow(new IllegalStateException("stage failed")).when(documentPipeline).process(failingJob);
+        CountDownLatch processed = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            processed.countDown();
+            return null;
+        }).when(documentPipeline).process(goodJob);
+
+        queue.offer(failingJob);
+        queue.offer(duplicateJob);
+        queue.offer(goodJob);
+        ReflectionTestUtils.setField(worker, "consumerThreads", 1);
+        worker.startConsumers();
+
+        assertThat(processed.await(5, TimeUnit.SECONDS)).isTrue();
+        verify(documentPipeline).process(failingJob);
+        verify(documentPipeline, never()).process(duplicateJob);
+        assertThat(queue.size()).isZero();
+    }
+
+    private static PolicyJob pendingJob(UUID jobUuid) {
+        PolicyJob job = new PolicyJob(jobUuid);
+        job.setStatus("PENDING");
+        return job;
+    }
+}
@@ -0,0 +1,152 @@
+package com.policyinsight.processing;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests the V10 cutover of existing chunk, report and Q&A rows to weekly partitions, and
+ * retention by dropping partitions.
+ * Migrates a Testcontainers PostgreSQL to V9, inserts rows, then migrates to the latest version.
+ */
+@Testcontainers
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class PartitionMaintenanceTaskTest {
+
+    @Container
+    @SuppressWarnings("resource")
+    static final PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:15-alpine")
+            .withDatabaseName("policyinsight_test")
+            .withUsername("postgres")
+            .withPassword("postgres");
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final LocalDate CURRENT_WEEK =
+            LocalDate.now(ZoneOffset.UTC).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    private static final UUID OLD_JOB = UUID.randomUUID();
+    private static final UUID RECENT_JOB = UUID.randomUUID();
+
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void migrateWithExistingRows() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").target("9").load().migrate();
+        insertJob(OLD_JOB, LocalDateTime.now(ZoneOffset.UTC).minusDays(60));
+        insertJob(RECENT_JOB, LocalDateTime.now(ZoneOffset.UTC).minusHours(1));
+        for (UUID job : List.of(OLD_JOB, RECENT_JOB)) {
+            for (int i = 0; i < 2; i++) {
+                jdbcTemplate.update("INSERT INTO document_chunks (job_uuid, chunk_index, text) VALUES (?, ?, 'text')", job, i);
+            }
+            jdbcTemplate.update("INSERT INTO reports (job_uuid) VALUES (?)", job);
+        }
+        jdbcTemplate.update("INSERT INTO qa_interactions (job_uuid, question, answer) VALUES (?, 'q', 'a')", RECENT_JOB);
+
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+    }
+
+    @Test
+    @Order(1)
+    void migration_shouldKeepExistingRowsInTheFirstPartition() {
+        for (String table : List.of("document_chunks", "reports", "qa_interactions")) {
+            assertThat(jdbcTemplate.queryForObject(
+                    "SELECT relkind::text FROM pg_class WHERE relname = ?", String.class, table)).isEqualTo("p");
+            assertThat(partitionsOf(table)).contains(partitionName(table, CURRENT_WEEK),
+                    partitionName(table, CURRENT_WEEK.plusWeeks(8)));
+            assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " t JOIN policy_jobs j "
+                    + "ON j.job_uuid = t.job_uuid AND j.created_at = t.job_created_at", Integer.class))
+                    .isEqualTo(table.equals("qa_interactions") ? 1 : table.equals("reports") ? 2 : 4);
+        }
+
+        new PartitionMaintenanceTask(jdbcTemplate, 10).createUpcomingPartitions();
+        assertThat(partitionsOf("document_chunks")).contains(partitionName("document_chunks", CURRENT_WEEK.plusWeeks(10)));
+    }
+
+    @Test
+    @Order(2)
+    void migration_shouldKeepChunkAndReportsUniquePerJob() {
+        Timestamp jobCreatedAt = jobCreatedAt(RECENT_JOB);
+
+        assertThatThrownBy(() -> jdbcTemplate.update("INSERT INTO document_chunks (job_uuid, job_created_at, chunk_index, text) "
+                + "VALUES (?, ?, 0, 'duplicate')", RECENT_JOB, jobCreatedAt))
+                .isInstanceOf(DuplicateKeyException.class)
+                .hasMessageContaining("uk_document_chunks_job_uuid_chunk_index");
+        assertThatThrownBy(() -> jdbcTemplate.update("INSERT INTO reports (job_uuid, job_created_at) VALUES (?, ?)",
+                RECENT_JOB, jobCreatedAt))
+                .isInstanceOf(DuplicateKeyException.class);
+        // A different job_created_at cannot sidestep the constraint: it must match the job row
+        assertThatThrownBy(() -> jdbcTemplate.update("INSERT INTO document_chunks (job_uuid, job_created_at, chunk_index, text) "
+                + "VALUES (?, ?, 0, 'duplicate')", RECENT_JOB, new Timestamp(jobCreatedAt.getTime() + 1000)))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .hasMessageContaining("fk_document_chunks_job_uuid");
+    }
+
+    @Test
+    @Order(3)
+    void dropExpiredPartitions_shouldDropOnlyWeeksEndingBeforeTheCutoff() {
+        UUID futureJob = UUID.randomUUID();
+        insertJob(futureJob, CURRENT_WEEK.plusWeeks(2).atTime(1, 0));
+        jdbcTemplate.update("INSERT INTO document_chunks (job_uuid, job_created_at, chunk_index, text) VALUES (?, ?, 0, 'text')",
+                futureJob, jobCreatedAt(futureJob));
+
+        int dropped = new PartitionMaintenanceTask(jdbcTemplate, 8).dropExpiredPartitions(CURRENT_WEEK.plusWeeks(2));
+
+        // The first partition (all pre-migration rows) and the following week, for each table
+        assertThat(dropped).isEqualTo(6);
+        assertThat(partitionsOf("document_chunks")).doesNotContain(partitionName("document_chunks", CURRENT_WEEK),
+                partitionName("document_chunks", CURRENT_WEEK.plusWeeks(1)))
+                .contains(partitionName("document_chunks", CURRENT_WEEK.plusWeeks(2)));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM document_chunks", Integer.class)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reports", Integer.class)).isZero();
+
+        // The id sequences belong to the parents and survive the first partition
+        jdbcTemplate.update("INSERT INTO document_chunks (job_uuid, job_created_at, chunk_index, text) VALUES (?, ?, 1, 'text')",
+                futureJob, jobCreatedAt(futureJob));
+        jdbcTemplate.update("DELETE FROM policy_jobs WHERE job_uuid = ?", futureJob);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM document_chunks", Integer.class)).isZero();
+    }
+
+    private static void insertJob(UUID jobUuid, LocalDateTime createdAt) {
+        jdbcTemplate.update("INSERT INTO policy_jobs (job_uuid, status, created_at) VALUES (?, 'SUCCESS', ?)",
+                jobUuid, Timestamp.valueOf(createdAt));
+    }
+
+    private static Timestamp jobCreatedAt(UUID jobUuid) {
+        return jdbcTemplate.queryForObject("SELECT created_at FROM policy_jobs WHERE job_uuid = ?", Timestamp.class, jobUuid);
+    }
+
+    private static List<String> partitionsOf(String table) {
+        return jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                + "JOIN pg_class p ON p.oid = i.inhparent WHERE p.relname = ?", String.class, table);
+    }
+
+    private static String partitionName(String table, LocalDate weekStart) {
+        return table + "_p" + weekStart.format(PARTITION_SUFFIX);
+    }
+}
@@ -0,0 +1,141 @@
+package com.policyinsight.processing;
+
+import com.policyinsight.shared.model.PolicyJob;
+import com.policyinsight.shared.model.Report;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load test for streaming PDF export.
+ * Runs many exports of a large report concurrently and checks every stream
+ * receives a complete PDF, without buffering the output in the service.
+ */
+class PdfExportServiceLoadTest {
+
+    private static final int CONCURRENT_EXPORTS = 16;
+    private static final int ITEMS_PER_SECTION = 300;
+
+    private final PdfExportService pdfExportService = new PdfExportService();
+
+    @Test
+    void testConcurrentStreamingExportsProduceCompletePdfs() throws Exception {
+        PolicyJob job = new PolicyJob(UUID.randomUUID());
+        job.setStatus("SUCCESS");
+        job.setPdfFilename("large-contract.pdf");
+        Report report = largeReport(job.getJobUuid());
+
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_EXPORTS);
+        try {
+            List<Future<CapturingOutputStream>> futures = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_EXPORTS; i++) {
+                Callable<CapturingOutputStream> export = () -> {
+                    CapturingOutputStream out = new CapturingOutputStream();
+                    long written = pdfExportService.writePdf(job, report, Collections.emptyList(), out);
+                    assertThat(written).isEqualTo(out.count);
+                    return out;
+                };
+                futures.add(executor.submit(export));
+            }
+
+            for (Future<CapturingOutputStream> future : futures) {
+                CapturingOutputStream out = future.get(60, TimeUnit.SECONDS);
+                assertThat(out.count).isGreaterThan(10_000);
+                assertThat(out.head()).startsWith("%PDF-");
+                assertThat(out.tail()).contains("%%EOF");
+                assertThat(out.closed).isFalse(); // caller owns the stream
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testGeneratePdfMatchesStreamingOutputShape() throws Exception {
+        PolicyJob job = new PolicyJob(UUID.randomUUID());
+        job.setPdfFilename("contract.pdf");
+        Report report = largeReport(job.getJobUuid());
+
+        byte[] buffered = pdfExportService.generatePdf(job, report, Collections.emptyList());
+
+        assertThat(new String(buffered, 0, 5, StandardCharsets.ISO_8859_1)).isEqualTo("%PDF-");
+    }
+
+    private Report largeReport(UUID jobUuid) {
+        Report report = new Report(jobUuid);
+        report.setGeneratedAt(Instant.parse("2026-01-01T00:00:00Z"));
+
+        List<Map<String, Object>> bullets = new ArrayList<>();
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS_PER_SECTION; i++) {
+            Map<String, Object> bullet = new HashMap<>();
+            bullet.put("text", "Summary point " + i + " describing a clause in plain English.");
+            bullet.put("chunk_ids", List.of(i));
+            bullet.put("page_refs", List.of(i / 10 + 1));
+            bullets.add(bullet);
+
+            Map<String, Object> item = new HashMap<>();
+            item.put("text", "Obligation " + i + ": the user must comply with section " + i + ".");
+            item.put("citations", List.of(Map.of("chunk_id", i, "page_number", i / 10 + 1)));
+            items.add(item);
+        }
+        report.setSummaryBullets(Map.of("bullets", bullets));
+        report.setObligations(Map.of("items", items));
+        report.setRestrictions(Map.of("items", items));
+        report.setTerminationTriggers(Map.of("items", items));
+        return report;
+    }
+
+    /**
+     * Keeps only the first and last bytes written, like a socket would not retain the body.
+     */
+    private static final class CapturingOutputStream extends OutputStream {
+        private final ByteArrayOutputStream head = new ByteArrayOutputStream();
+        private final byte[] tail = new byte[64];
+        private long count;
+        private boolean closed;
+
+        @Override
+        public void write(int b) {
+            if (head.size() < 16) {
+                head.write(b);
+            }
+            tail[(int) (count % tail.length)] = (byte) b;
+            count++;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        String head() {
+            return head.toString(StandardCharsets.ISO_8859_1);
+        }
+
+        String tail() {
+            int length = (int) Math.min(count, tail.length);
+            byte[] ordered = new byte[length];
+            for (int i = 0; i < length; i++) {
+                ordered[i] = tail[(int) ((count - length + i) % tail.length)];
+            }
+            return new String(ordered, StandardCharsets.ISO_8859_1);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.policyinsight.processing;
+
+import com.policyinsight.observability.DatadogMetricsServiceInterface;
+import com.policyinsight.shared.model.DocumentChunk;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for prompt budget enforcement and the calibrated token counter.
+ */
+class PromptBudgetManagerTest {
+
+    private final DatadogMetricsServiceInterface metricsService = mock(DatadogMetricsServiceInterface.class);
+
+    private final DocumentChunk intro = chunk(1, "alpha beta gamma");
+    private final DocumentChunk definitions = chunk(2, "delta epsilon zeta");
+    private final DocumentChunk fees = chunk(3, "termination fee applies");
+    private final DocumentChunk notice = chunk(4, "monthly termination notice");
+    private final List<DocumentChunk> chunks = List.of(intro, definitions, fees, notice);
+
+    @Test
+    void selectChunks_shouldReturnAllChunksWhenWithinBudget() {
+        PromptBudgetManager manager = new PromptBudgetManager(new TokenCounter(), metricsService, 1000, "");
+
+        assertThat(manager.selectChunks("summary", "Summarize:", chunks, null)).isSameAs(chunks);
+        verifyNoInteractions(metricsService);
+    }
+
+    @Test
+    void selectChunks_shouldKeepLeadingChunksWithoutRelevance() {
+        PromptBudgetManager manager = new PromptBudgetManager(new TokenCounter(), metricsService, 60, "");
+
+        assertThat(manager.selectChunks("summary", "", chunks, null)).containsExactly(intro, definitions, fees);
+        verify(metricsService).recordPromptChunksDropped("summary", 1);
+    }
+
+    @Test
+    void selectChunks_shouldPreferRelevantChunksWithinTaskBudget() {
+        PromptBudgetManager manager = new PromptBudgetManager(new TokenCounter(), metricsService, 1000, "qa=40");
+        String question = "When does termination apply?";
+
+        List<DocumentChunk> selected = manager.selectChunks("qa", "Question: " + question, chunks,
+                PromptBudgetManager.termOverlap(question));
+
+        assertThat(selected).containsExactly(fees);
+        assertThat(manager.budgetFor("qa")).isEqualTo(40);
+        assertThat(manager.budgetFor("summary")).isEqualTo(1000);
+    }
+
+    @Test
+    void tokenCounter_shouldMoveTowardsReportedCounts() {
+        TokenCounter counter = new TokenCounter();
+        String text = "The subscriber shall pay all applicable fees within thirty days. ".repeat(40);
+        int before = counter.count(text);
+
+        counter.calibrate(text, before * 2);
+
+        assertThat(counter.getCorrection()).isGreaterThan(1.0).isLessThan(2.0);
+        assertThat(counter.count(text)).isGreaterThan(before);
+    }
+
+    private static DocumentChunk chunk(long id, String text) {
+        DocumentChunk chunk = new DocumentChunk(UUID.randomUUID());
+        chunk.setId(id);
+        chunk.setChunkIndex((int) id - 1);
+        chunk.setPageNumber(1);
+        chunk.setText(text);
+        return chunk;
+    }
+}
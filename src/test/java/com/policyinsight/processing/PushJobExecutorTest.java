@@ -0,0 +1,81 @@
+package com.policyinsight.processing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for PushJobExecutor.
+ * Tests capacity reservation, saturation and slot release after background processing.
+ */
+class PushJobExecutorTest {
+
+    private PushJobExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testReservationsAreBoundedByThreadsPlusQueue() {
+        executor = new PushJobExecutor(jobId -> { }, 1, 1, 1);
+
+        assertThat(executor.tryReserve()).isTrue();
+        assertThat(executor.tryReserve()).isTrue();
+        assertThat(executor.tryReserve()).isFalse();
+
+        executor.release();
+        assertThat(executor.tryReserve()).isTrue();
+    }
+
+    @Test
+    void testSubmittedJobRunsAndFreesItsSlot() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        UUID jobId = UUID.randomUUID();
+        executor = new PushJobExecutor(id -> {
+            assertThat(id).isEqualTo(jobId);
+            started.countDown();
+            finish.await(5, TimeUnit.SECONDS);
+        }, 1, 0, 1);
+
+        assertThat(executor.tryReserve()).isTrue();
+        executor.submit(jobId);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Saturated while the job runs
+        assertThat(executor.tryReserve()).isFalse();
+        assertThat(executor.getActiveCount()).isEqualTo(1);
+
+        finish.countDown();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (executor.getActiveCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(executor.tryReserve()).isTrue();
+    }
+
+    @Test
+    void testFailedJobStillFreesItsSlot() throws Exception {
+        executor = new PushJobExecutor(id -> {
+            throw new IllegalStateException("boom");
+        }, 1, 0, 1);
+
+        assertThat(executor.tryReserve()).isTrue();
+        executor.submit(UUID.randomUUID());
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (executor.getActiveCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(executor.getActiveCount()).isZero();
+    }
+}
@@ -0,0 +1,159 @@
+package com.policyinsight.processing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.policyinsight.shared.model.DocumentChunk;
+import com.policyinsight.shared.repository.PolicyJobRepository;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.InstanceOfAssertFactories.LIST;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for hierarchical (map-reduce) summary and obligations generation on large documents.
+ */
+class ReportGenerationMapReduceTest {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final GeminiService geminiService = mock(GeminiService.class);
+    // Every chunk is ~17 tokens: above the threshold together, one chunk per window
+    private final ReportGenerationService service = new ReportGenerationService(geminiService,
+            new PromptBudgetManager(new TokenCounter(), null, 120000, ""),
+            new GeminiContextCache(geminiService, mock(PolicyJobRepository.class), new TokenCounter(), true, 4096, 60, 30),
+            new DocumentContextCache(32, 30), 20, 20, 2);
+
+    private final List<DocumentChunk> chunks = List.of(chunk(1, 1, "alpha beta gamma"), chunk(2, 3, "delta epsilon zeta"));
+
+    @Test
+    void generateSummary_shouldMergeWindowBulletsKeepingTheirCitations() throws Exception {
+        when(geminiService.generateJson(anyString(), isNull(), eq("summary_map"), any())).thenAnswer(invocation -> {
+            long chunkId = invocation.<String>getArgument(0).contains("[Chunk ID: 1,") ? 1 : 2;
+            List<String> bullets = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                bullets.add("{\"text\": \"window " + chunkId + " point " + i + "\", \"chunk_ids\": [" + chunkId + "]}");
+            }
+            return json("{\"bullets\": [" + String.join(", ", bullets) + "]}");
+        });
+        when(geminiService.generateJson(anyString(), eq("summary_reduce"), any())).thenReturn(json(
+                "{\"bullets\": [{\"text\": \"merged\", \"sources\": [1, 7]}, "
+                        + "{\"text\": \"unsupported\", \"sources\": [99]}]}"));
+
+        Map<String, Object> summary = service.generateSummary(chunks);
+
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> bullets = (List<Map<String, Object>>) summary.get("bullets");
+        assertThat(bullets).hasSize(1);
+        assertThat(bullets.get(0)).containsEntry("text", "merged")
+                .containsEntry("chunk_ids", List.of(1L, 2L))
+                .containsEntry("page_refs", List.of(1, 3));
+        verify(geminiService, times(2)).generateJson(anyString(), isNull(), eq("summary_map"), any());
+        assertThat(summary).containsEntry("coverage", Map.of("windows", 2, "failed", 0));
+    }
+
+    @Test
+    void generateObligations_shouldMergeDuplicateItemsAcrossWindows() throws Exception {
+        when(geminiService.generateJson(anyString(), isNull(), eq("obligations_map"), any())).thenAnswer(invocation -> {
+            boolean first = invocation.<String>getArgument(0).contains("[Chunk ID: 1,");
+            return json(first
+                    ? "{\"obligations\": [{\"text\": \"Pay fees monthly.\", \"severity\": \"low\", \"chunk_ids\": [1]}]}"
+                    : "{\"obligations\": [{\"text\": \"pay fees  monthly\", \"severity\": \"high\", \"chunk_ids\": [2]}], "
+                            + "\"termination_triggers\": [{\"text\": \"Non-payment\", \"severity\": \"medium\", "
+                            + "\"chunk_ids\": [2, 42]}]}");
+        });
+
+        Map<String, Object> result = service.generateObligationsAndRestrictions(chunks);
+
+        assertThat(result.get("obligations")).asInstanceOf(LIST).containsExactly(Map.of(
+                "text", "Pay fees monthly.", "severity", "high", "chunk_ids", List.of(1L, 2L), "page_refs", List.of(1, 3)));
+        assertThat((List<?>) result.get("restrictions")).isEmpty();
+        assertThat(result.get("termination_triggers")).asInstanceOf(LIST).containsExactly(Map.of(
+                "text", "Non-payment", "severity", "medium", "chunk_ids", List.of(2L), "page_refs", List.of(3)));
+        assertThat(result).containsEntry("coverage", Map.of("windows", 2, "failed", 0));
+    }
+
+    @Test
+    void generateSummary_shouldReportFailedWindowsInTheCoverage() throws Exception {
+        when(geminiService.generateJson(anyString(), isNull(), eq("summary_map"), any())).thenAnswer(invocation -> {
+            if (invocation.<String>getArgument(0).contains("[Chunk ID: 2,")) {
+                throw new IOException("HTTP 400 Bad Request");
+            }
+            return json("{\"bullets\": [{\"text\": \"window 1\", \"chunk_ids\": [1]}]}");
+        });
+
+        Map<String, Object> summary = service.generateSummary(chunks);
+
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> bullets = (List<Map<String, Object>>) summary.get("bullets");
+        assertThat(bullets).extracting(bullet -> bullet.get("text")).containsExactly("window 1");
+        assertThat(summary).containsEntry("coverage", Map.of("windows", 2, "failed", 1));
+    }
+
+    @Test
+    void generateObligations_shouldAbortAllWindowsWhenTheJobIsCancelled() throws Exception {
+        JobDeadline deadline = new JobDeadline(UUID.randomUUID());
+        deadline.startStage("report_generation", 60);
+        CountDownLatch windowsStarted = new CountDownLatch(2);
+        when(geminiService.generateJson(anyString(), isNull(), eq("obligations_map"), any())).thenAnswer(invocation -> {
+            windowsStarted.countDown();
+            // Stands in for a call waiting on Gemini through the deadline
+            invocation.<JobDeadline>getArgument(3).sleep(30_000);
+            return null;
+        });
+
+        ExecutorService canceller = Executors.newSingleThreadExecutor();
+        try {
+            canceller.submit(() -> {
+                windowsStarted.await(5, TimeUnit.SECONDS);
+                deadline.cancel("cancelled by test");
+                return null;
+            });
+
+            long start = System.nanoTime();
+            assertThatThrownBy(() -> service.generateObligationsAndRestrictions(chunks, deadline))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("cancelled by test");
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(10));
+        } finally {
+            canceller.shutdownNow();
+        }
+    }
+
+    @Test
+    void generateSummary_shouldFailWhenAPromptIsTooLarge() throws Exception {
+        when(geminiService.generateJson(anyString(), isNull(), eq("summary_map"), any()))
+                .thenThrow(new PromptTooLargeException("summary_map", 2000, 1000));
+
+        assertThatThrownBy(() -> service.generateSummary(chunks)).isInstanceOf(PromptTooLargeException.class);
+    }
+
+    private static JsonNode json(String json) throws Exception {
+        return objectMapper.readTree(json);
+    }
+
+    private static DocumentChunk chunk(long id, int page, String text) {
+        DocumentChunk chunk = new DocumentChunk(UUID.randomUUID());
+        chunk.setId(id);
+        chunk.setChunkIndex((int) id - 1);
+        chunk.setPageNumber(page);
+        chunk.setText(text);
+        return chunk;
+    }
+}
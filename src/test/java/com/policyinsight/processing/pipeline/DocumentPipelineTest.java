@@ -0,0 +1,189 @@
+package com.policyinsight.processing.pipeline;
+
+import com.policyinsight.api.events.JobEventPublisher;
+import com.policyinsight.processing.JobProgressService;
+import com.policyinsight.shared.model.PolicyJob;
+import com.policyinsight.shared.repository.PolicyJobRepository;
+import io.opentelemetry.api.trace.Span;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the shared document pipeline engine: stage ordering, progress reporting and
+ * final job status handling.
+ */
+class DocumentPipelineTest {
+
+    private PolicyJobRepository policyJobRepository;
+    private JobEventPublisher jobEventPublisher;
+    private JobProgressService jobProgressService;
+    private UUID jobId;
+    private PolicyJob job;
+    private List<String> executed;
+
+    @BeforeEach
+    void setUp() {
+        policyJobRepository = mock(PolicyJobRepository.class);
+        jobEventPublisher = mock(JobEventPublisher.class);
+        jobProgressService = mock(JobProgressService.class);
+        jobId = UUID.randomUUID();
+        job = new PolicyJob(jobId);
+        job.setStatus("PROCESSING");
+        when(policyJobRepository.findByJobUuid(jobId)).thenReturn(Optional.of(job));
+        executed = new ArrayList<>();
+    }
+
+    @Test
+    void process_shouldRunStagesInOrderAndMarkSuccess() {
+        DocumentPipeline pipeline = pipeline(
+                stage("download", true, null),
+                stage("validation", false, null),
+                stage("export", true, null));
+
+        pipeline.process(jobId);
+
+        assertThat(executed).containsExactly("download", "validation", "export");
+        assertThat(job.getStatus()).isEqualTo("SUCCESS");
+        assertThat(job.getCompletedAt()).isNotNull();
+        InOrder inOrder = inOrder(jobProgressService);
+        inOrder.verify(jobProgressService).start(jobId, "download");
+        inOrder.verify(jobProgressService).stage(jobId, "export");
+        verify(jobProgressService, never()).stage(jobId, "validation");
+        verify(policyJobRepository).save(job);
+    }
+
+    @Test
+    void process_shouldStopAtFailedStageAndMarkFailed() {
+        DocumentPipeline pipeline = pipeline(
+                stage("download", true, null),
+                stage("extraction", true, new IllegalStateException("corrupt PDF")),
+                stage("chunking", true, null));
+
+        pipeline.process(jobId);
+
+        assertThat(executed).containsExactly("download", "extraction");
+        assertThat(job.getStatus()).isEqualTo("FAILED");
+        assertThat(job.getErrorMessage()).isEqualTo("corrupt PDF");
+        assertThat(job.getLastErrorCode()).isEqualTo("PROCESSING_ERROR");
+    }
+
+    @Test
+    void process_shouldFailStageThatOutlivesItsDeadline() {
+        PipelineStage slowStage = new PipelineStage() {
+            @Override
+            public String name() {
+                return "risk_scan";
+            }
+
+            @Override
+            public void execute(PipelineContext context, Span span) {
+                executed.add(name());
+                // Cooperative wait, as in an LLM retry backoff
+                context.getDeadline().sleep(60_000);
+            }
+        };
+        DocumentPipeline pipeline = new DocumentPipeline(List.of(slowStage, stage("export", true, null)),
+                policyJobRepository, jobEventPublisher, jobProgressService, null, null, 1);
+
+        pipeline.process(jobId);
+
+        assertThat(executed).containsExactly("risk_scan");
+        assertThat(job.getStatus()).isEqualTo("FAILED");
+        assertThat(job.getErrorMessage()).contains("risk_scan").contains("timeout exceeded");
+    }
+
+    @Test
+    void process_shouldPlanLlmCallsOnceChunksAreStoredAndCountFinishedCalls() {
+        PipelineStage chunking = new PipelineStage() {
+            @Override
+            public String name() {
+                return "chunking";
+            }
+
+            @Override
+            public int plannedLlmCalls(PipelineContext context) {
+                return 1; // Already running when chunks appear: not part of the plan
+            }
+
+            @Override
+            public void execute(PipelineContext context, Span span) {
+                context.setStoredChunks(List.of());
+            }
+        };
+        PipelineStage llmStage = new PipelineStage() {
+            @Override
+            public String name() {
+                return "risk_scan";
+            }
+
+            @Override
+            public int plannedLlmCalls(PipelineContext context) {
+                return 2;
+            }
+
+            @Override
+            public void execute(PipelineContext context, Span span) {
+                // As GeminiService reports each finished call
+                context.getDeadline().llmCallDone();
+                context.getDeadline().llmCallDone();
+            }
+        };
+
+        pipeline(chunking, llmStage).process(jobId);
+
+        assertThat(job.getStatus()).isEqualTo("SUCCESS");
+        InOrder inOrder = inOrder(jobProgressService);
+        inOrder.verify(jobProgressService).llmCalls(jobId, 0, 2);
+        inOrder.verify(jobProgressService).llmCalls(jobId, 1, 2);
+        inOrder.verify(jobProgressService).llmCalls(jobId, 2, 2);
+    }
+
+    @Test
+    void process_shouldSkipJobsInFinalState() {
+        job.setStatus("SUCCESS");
+        DocumentPipeline pipeline = pipeline(stage("download", true, null));
+
+        pipeline.process(jobId);
+
+        assertThat(executed).isEmpty();
+        verify(policyJobRepository, never()).save(any());
+        verifyNoInteractions(jobProgressService);
+    }
+
+    private DocumentPipeline pipeline(PipelineStage... stages) {
+        return new DocumentPipeline(List.of(stages), policyJobRepository, jobEventPublisher,
+                jobProgressService, null, null, 300);
+    }
+
+    private PipelineStage stage(String name, boolean reportsProgress, RuntimeException failure) {
+        return new PipelineStage() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public boolean reportsProgress() {
+                return reportsProgress;
+            }
+
+            @Override
+            public void execute(PipelineContext context, Span span) {
+                assertThat(context.getJobId()).isEqualTo(jobId);
+                executed.add(name);
+                if (failure != null) {
+                    throw failure;
+                }
+            }
+        };
+    }
+}
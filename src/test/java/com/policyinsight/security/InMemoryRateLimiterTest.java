@@ -0,0 +1,119 @@
+package com.policyinsight.security;
+
+import com.policyinsight.observability.DatadogMetricsServiceInterface;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for the in-memory sliding-window rate limiter.
+ */
+class InMemoryRateLimiterTest {
+
+    private static final String ENDPOINT = "/api/documents/upload";
+
+    @Test
+    void testCountsSlideOutOfTheWindow() {
+        InMemoryRateLimiter limiter = new InMemoryRateLimiter(100, null);
+        Instant start = Instant.parse("2026-01-01T10:00:00Z");
+
+        limiter.incrementAndCount("10.0.0.1", ENDPOINT, start);
+        limiter.incrementAndCount("10.0.0.1", ENDPOINT, start.plus(Duration.ofMinutes(30)));
+        assertThat(limiter.incrementAndCount("10.0.0.1", ENDPOINT, start.plus(Duration.ofMinutes(59))))
+                .isEqualTo(3);
+
+        // The first request has aged out; the other two are still inside the trailing hour
+        assertThat(limiter.currentCount("10.0.0.1", ENDPOINT, start.plus(Duration.ofMinutes(61))))
+                .isEqualTo(2);
+        assertThat(limiter.currentCount("10.0.0.1", ENDPOINT, start.plus(Duration.ofHours(3))))
+                .isZero();
+    }
+
+    @Test
+    void testKeysAreIsolatedByIpAndEndpoint() {
+        InMemoryRateLimiter limiter = new InMemoryRateLimiter(100, null);
+        Instant now = Instant.now();
+
+        limiter.incrementAndCount("10.0.0.1", ENDPOINT, now);
+        limiter.incrementAndCount("10.0.0.1", "/api/questions", now);
+
+        assertThat(limiter.currentCount("10.0.0.1", ENDPOINT, now)).isEqualTo(1);
+        assertThat(limiter.currentCount("10.0.0.2", ENDPOINT, now)).isZero();
+    }
+
+    @Test
+    void testKeyMapStaysBounded() {
+        InMemoryRateLimiter limiter = new InMemoryRateLimiter(50, null);
+        Instant now = Instant.now();
+
+        for (int i = 0; i < 1_000; i++) {
+            limiter.incrementAndCount("10.0.0." + i, ENDPOINT, now);
+        }
+
+        assertThat(limiter.size()).isLessThanOrEqualTo(50);
+    }
+
+    @Test
+    void testFullMapKeepsActiveWindowsAndAdmitsNewKeysUncounted() {
+        DatadogMetricsServiceInterface metricsService = mock(DatadogMetricsServiceInterface.class);
+        InMemoryRateLimiter limiter = new InMemoryRateLimiter(10, metricsService);
+        Instant now = Instant.parse("2026-01-01T10:00:00Z");
+
+        for (int i = 0; i < 10; i++) {
+            limiter.incrementAndCount("10.0.0." + i, ENDPOINT, now);
+        }
+
+        // Flooding with new keys neither resets existing counts nor locks new clients out
+        for (int i = 10; i < 100; i++) {
+            assertThat(limiter.incrementAndCount("10.0.0." + i, ENDPOINT, now)).isEqualTo(1);
+        }
+        assertThat(limiter.incrementAndCount("10.0.0.0", ENDPOINT, now)).isEqualTo(2);
+        assertThat(limiter.size()).isEqualTo(10);
+        verify(metricsService, times(90)).recordRateLimitUntracked(ENDPOINT);
+
+        // Once the tracked windows have gone idle they are swept and new keys are counted again
+        Instant later = now.plus(Duration.ofMinutes(61));
+        assertThat(limiter.incrementAndCount("10.0.0.100", ENDPOINT, later)).isEqualTo(1);
+        assertThat(limiter.incrementAndCount("10.0.0.100", ENDPOINT, later)).isEqualTo(2);
+        assertThat(limiter.size()).isEqualTo(1);
+    }
+
+    @Test
+    void testConcurrentIncrementsAreNotLost() throws Exception {
+        InMemoryRateLimiter limiter = new InMemoryRateLimiter(100, null);
+        Instant now = Instant.now();
+        int threads = 8;
+        int perThread = 10_000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        limiter.incrementAndCount("10.0.0.1", ENDPOINT, now);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(limiter.currentCount("10.0.0.1", ENDPOINT, now)).isEqualTo((long) threads * perThread);
+    }
+}
@@ -0,0 +1,89 @@
+package com.policyinsight.security;
+
+import com.policyinsight.shared.repository.PolicyJobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for JobTokenCache.
+ * Tests read-through caching, negative lookups, TTL expiry and invalidation.
+ */
+class JobTokenCacheTest {
+
+    private PolicyJobRepository policyJobRepository;
+    private UUID jobUuid;
+
+    @BeforeEach
+    void setUp() {
+        policyJobRepository = mock(PolicyJobRepository.class);
+        jobUuid = UUID.randomUUID();
+        when(policyJobRepository.findAccessTokenHmacByJobUuid(jobUuid)).thenReturn(Optional.of("hmac"));
+    }
+
+    @Test
+    void testHitsAvoidRepository() {
+        JobTokenCache cache = new JobTokenCache(policyJobRepository, 10, 60);
+
+        assertThat(cache.getAccessTokenHmac(jobUuid)).contains("hmac");
+        assertThat(cache.getAccessTokenHmac(jobUuid)).contains("hmac");
+
+        verify(policyJobRepository, times(1)).findAccessTokenHmacByJobUuid(jobUuid);
+    }
+
+    @Test
+    void testMissingJobsAreNotCached() {
+        JobTokenCache cache = new JobTokenCache(policyJobRepository, 10, 60);
+        UUID missing = UUID.randomUUID();
+        when(policyJobRepository.findAccessTokenHmacByJobUuid(missing)).thenReturn(Optional.empty());
+
+        assertThat(cache.getAccessTokenHmac(missing)).isEmpty();
+        assertThat(cache.getAccessTokenHmac(missing)).isEmpty();
+
+        verify(policyJobRepository, times(2)).findAccessTokenHmacByJobUuid(missing);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void testInvalidateForcesReload() {
+        JobTokenCache cache = new JobTokenCache(policyJobRepository, 10, 60);
+
+        cache.getAccessTokenHmac(jobUuid);
+        cache.invalidate(jobUuid);
+        cache.getAccessTokenHmac(jobUuid);
+        cache.invalidateAll();
+        cache.getAccessTokenHmac(jobUuid);
+
+        verify(policyJobRepository, times(3)).findAccessTokenHmacByJobUuid(jobUuid);
+    }
+
+    @Test
+    void testZeroTtlDisablesCaching() {
+        JobTokenCache cache = new JobTokenCache(policyJobRepository, 10, 0);
+
+        cache.getAccessTokenHmac(jobUuid);
+        cache.getAccessTokenHmac(jobUuid);
+
+        verify(policyJobRepository, times(2)).findAccessTokenHmacByJobUuid(jobUuid);
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntriesAreEvicted() {
+        JobTokenCache cache = new JobTokenCache(policyJobRepository, 2, 60);
+        for (int i = 0; i < 5; i++) {
+            UUID other = UUID.randomUUID();
+            when(policyJobRepository.findAccessTokenHmacByJobUuid(other)).thenReturn(Optional.of("hmac-" + i));
+            cache.getAccessTokenHmac(other);
+        }
+
+        assertThat(cache.size()).isEqualTo(2);
+    }
+}
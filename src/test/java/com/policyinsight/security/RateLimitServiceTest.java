@@ -0,0 +1,51 @@
+package com.policyinsight.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for client IP extraction behind trusted proxies.
+ */
+class RateLimitServiceTest {
+
+    @Test
+    void testUsesTheAddressAppendedByTheTrustedProxy() {
+        RateLimitService service = service(1);
+
+        // The left-most value is whatever the client sent; Cloud Run appends the real address
+        assertThat(service.extractClientIp(request("6.6.6.6, 203.0.113.7"))).isEqualTo("203.0.113.7");
+        assertThat(service.extractClientIp(request("203.0.113.7"))).isEqualTo("203.0.113.7");
+    }
+
+    @Test
+    void testSkipsTheHopsOfEachTrustedProxy() {
+        RateLimitService service = service(2);
+
+        assertThat(service.extractClientIp(request("6.6.6.6, 203.0.113.7, 10.0.0.2"))).isEqualTo("203.0.113.7");
+        assertThat(service.extractClientIp(request("203.0.113.7"))).isEqualTo("203.0.113.7");
+    }
+
+    @Test
+    void testIgnoresTheHeaderWithoutTrustedProxies() {
+        RateLimitService service = service(0);
+
+        assertThat(service.extractClientIp(request("6.6.6.6"))).isEqualTo("192.0.2.1");
+        assertThat(service(1).extractClientIp(request(null))).isEqualTo("192.0.2.1");
+    }
+
+    private static RateLimitService service(int trustedProxyHops) {
+        return new RateLimitService(mock(RateLimiter.class), 10, 20, 3, trustedProxyHops);
+    }
+
+    private static MockHttpServletRequest request(String xForwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("192.0.2.1");
+        if (xForwardedFor != null) {
+            request.addHeader("X-Forwarded-For", xForwardedFor);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,94 @@
+package com.policyinsight.security;
+
+import com.policyinsight.shared.repository.RateLimitCounterRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Microbenchmark comparing the rate limiter backends on the request path.
+ * Timings are logged for comparison; assertions only check that both backends count exactly.
+ * Excluded from the default build; run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Testcontainers
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RateLimiterBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimiterBenchmarkTest.class);
+
+    private static final String ENDPOINT = "/api/documents/upload";
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 2_000;
+
+    @Container
+    @SuppressWarnings("resource")
+    static final PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:15-alpine")
+            .withDatabaseName("policyinsight_test")
+            .withUsername("postgres")
+            .withPassword("postgres");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private RateLimitCounterRepository rateLimitCounterRepository;
+
+    @AfterEach
+    void tearDown() {
+        rateLimitCounterRepository.deleteAll();
+    }
+
+    @Test
+    void testCompareBackends() {
+        RateLimiter memory = new InMemoryRateLimiter(100_000, null);
+        RateLimiter database = new DatabaseRateLimiter(rateLimitCounterRepository);
+
+        long memoryNanos = run(memory, "memory");
+        long databaseNanos = run(database, "database");
+
+        logger.info("Rate limiter benchmark: memory={} ns/op, database={} ns/op",
+                memoryNanos / ITERATIONS, databaseNanos / ITERATIONS);
+    }
+
+    private long run(RateLimiter limiter, String label) {
+        Instant now = Instant.now();
+        for (int i = 0; i < WARMUP; i++) {
+            limiter.incrementAndCount("warmup-" + label, ENDPOINT, now);
+        }
+
+        String ip = "bench-" + label;
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            limiter.incrementAndCount(ip, ENDPOINT, now);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        assertThat(limiter.currentCount(ip, ENDPOINT, now)).isEqualTo(ITERATIONS);
+        return elapsed;
+    }
+}
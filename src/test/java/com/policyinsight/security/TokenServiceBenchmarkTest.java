@@ -0,0 +1,64 @@
+package com.policyinsight.security;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Microbenchmark for token verification cost.
+ * Compares building a Mac per call (the previous implementation) with the per-thread Mac
+ * in TokenService; timings are logged, assertions only check the results agree.
+ * Excluded from the default build; run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class TokenServiceBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenServiceBenchmarkTest.class);
+
+    private static final String SECRET = "benchmark-secret";
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 100_000;
+
+    private final TokenService tokenService = new TokenService(SECRET);
+
+    @Test
+    void testCompareMacPerCallWithThreadLocalMac() throws Exception {
+        String token = tokenService.generateToken();
+        String storedHmac = macPerCall(token);
+        assertThat(tokenService.computeHmac(token)).isEqualTo(storedHmac);
+
+        for (int i = 0; i < WARMUP; i++) {
+            macPerCall(token);
+            tokenService.verifyToken(token, storedHmac);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            macPerCall(token);
+        }
+        long beforeNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            assertThat(tokenService.verifyToken(token, storedHmac)).isTrue();
+        }
+        long afterNanos = System.nanoTime() - start;
+
+        logger.info("Token verification benchmark: mac-per-call={} ns/op, thread-local mac={} ns/op",
+                beforeNanos / ITERATIONS, afterNanos / ITERATIONS);
+    }
+
+    private static String macPerCall(String token) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return Base64.getEncoder().encodeToString(mac.doFinal(token.getBytes(StandardCharsets.UTF_8)));
+    }
+}
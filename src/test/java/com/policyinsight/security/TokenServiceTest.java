@@ -0,0 +1,78 @@
+package com.policyinsight.security;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for TokenService HMAC computation and verification.
+ */
+class TokenServiceTest {
+
+    private static final String SECRET = "test-secret";
+
+    private final TokenService tokenService = new TokenService(SECRET);
+
+    @Test
+    void testVerifyTokenMatchesStandaloneHmac() throws Exception {
+        String token = tokenService.generateToken();
+        String storedHmac = referenceHmac(token);
+
+        assertThat(tokenService.computeHmac(token)).isEqualTo(storedHmac);
+        assertThat(tokenService.verifyToken(token, storedHmac)).isTrue();
+        assertThat(tokenService.verifyToken(tokenService.generateToken(), storedHmac)).isFalse();
+    }
+
+    @Test
+    void testConcurrentVerificationsAgree() throws Exception {
+        List<String> tokens = new ArrayList<>();
+        List<String> hmacs = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            String token = tokenService.generateToken();
+            tokens.add(token);
+            hmacs.add(referenceHmac(token));
+        }
+
+        // Threads start together so the per-thread Macs are exercised concurrently
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 200; i++) {
+                        int n = i % tokens.size();
+                        assertThat(tokenService.verifyToken(tokens.get(n), hmacs.get(n))).isTrue();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static String referenceHmac(String token) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return Base64.getEncoder().encodeToString(mac.doFinal(token.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,120 @@
+package com.policyinsight.shared.cache;
+
+import com.policyinsight.shared.cache.ReportViewCache.ReportView;
+import com.policyinsight.shared.model.PolicyJob;
+import com.policyinsight.shared.model.Report;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for ReportViewCache.
+ * Tests SUCCESS-only caching, LRU eviction, invalidation and ETag derivation.
+ */
+class ReportViewCacheTest {
+
+    private ReportViewCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ReportViewCache(2);
+    }
+
+    @Test
+    void testCachesOnlySuccessfulJobs() {
+        ReportView success = view(UUID.randomUUID(), "SUCCESS", 0);
+        ReportView processing = view(UUID.randomUUID(), "PROCESSING", 0);
+
+        cache.put(success, 0);
+        cache.put(processing, 0);
+
+        assertThat(cache.getIfPresent(success.getJob().getJobUuid())).isSameAs(success);
+        assertThat(cache.getIfPresent(processing.getJob().getJobUuid())).isNull();
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsedBeyondMaxEntries() {
+        ReportView first = view(UUID.randomUUID(), "SUCCESS", 0);
+        ReportView second = view(UUID.randomUUID(), "SUCCESS", 0);
+        ReportView third = view(UUID.randomUUID(), "SUCCESS", 0);
+
+        cache.put(first, cache.generation(first.getJob().getJobUuid()));
+        cache.put(second, cache.generation(second.getJob().getJobUuid()));
+        cache.getIfPresent(first.getJob().getJobUuid()); // first becomes most recently used
+        cache.put(third, cache.generation(third.getJob().getJobUuid()));
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.getIfPresent(first.getJob().getJobUuid())).isNotNull();
+        assertThat(cache.getIfPresent(second.getJob().getJobUuid())).isNull();
+        assertThat(cache.getIfPresent(third.getJob().getJobUuid())).isNotNull();
+    }
+
+    @Test
+    void testInvalidateRemovesEntry() {
+        ReportView view = view(UUID.randomUUID(), "SUCCESS", 0);
+        cache.put(view, cache.generation(view.getJob().getJobUuid()));
+
+        cache.invalidate(view.getJob().getJobUuid());
+
+        assertThat(cache.getIfPresent(view.getJob().getJobUuid())).isNull();
+    }
+
+    @Test
+    void testDropsAViewInvalidatedWhileItWasBuilt() {
+        UUID jobUuid = UUID.randomUUID();
+        long generation = cache.generation(jobUuid);
+        ReportView stale = view(jobUuid, "SUCCESS", 0);
+
+        // A Q&A commit lands between the reader's miss and its put
+        cache.invalidate(jobUuid);
+
+        assertThat(cache.put(stale, generation)).isFalse();
+        assertThat(cache.getIfPresent(jobUuid)).isNull();
+
+        ReportView fresh = view(jobUuid, "SUCCESS", 1);
+        assertThat(cache.put(fresh, cache.generation(jobUuid))).isTrue();
+        assertThat(cache.getIfPresent(jobUuid)).isSameAs(fresh);
+    }
+
+    @Test
+    void testDropsAViewBuiltBeforeInvalidateAll() {
+        UUID jobUuid = UUID.randomUUID();
+        long generation = cache.generation(jobUuid);
+
+        cache.invalidateAll();
+
+        assertThat(cache.put(view(jobUuid, "SUCCESS", 0), generation)).isFalse();
+    }
+
+    @Test
+    void testInvalidateAllRemovesEveryEntry() {
+        cache.put(view(UUID.randomUUID(), "SUCCESS", 0), 0);
+        cache.put(view(UUID.randomUUID(), "SUCCESS", 0), 0);
+
+        cache.invalidateAll();
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void testEtagChangesWithQuestionCount() {
+        UUID jobUuid = UUID.randomUUID();
+
+        assertThat(view(jobUuid, "SUCCESS", 0).getEtag()).isEqualTo(view(jobUuid, "SUCCESS", 0).getEtag());
+        assertThat(view(jobUuid, "SUCCESS", 1).getEtag()).isNotEqualTo(view(jobUuid, "SUCCESS", 0).getEtag());
+    }
+
+    private ReportView view(UUID jobUuid, String status, long questionCount) {
+        PolicyJob job = new PolicyJob(jobUuid);
+        job.setStatus(status);
+        Report report = new Report(jobUuid);
+        report.setId(1L);
+        report.setGeneratedAt(Instant.parse("2026-01-01T00:00:00Z"));
+        return new ReportView(job, report, Collections.emptyList(), Collections.emptyList(), questionCount);
+    }
+}
@@ -0,0 +1,110 @@
+package com.policyinsight.shared.repository;
+
+import com.policyinsight.shared.model.ChunkMetadata;
+import com.policyinsight.shared.model.ChunkText;
+import com.policyinsight.shared.model.DocumentChunk;
+import com.policyinsight.shared.model.PolicyJob;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration test for DocumentChunkRepository projections.
+ * Uses Testcontainers PostgreSQL for actual PostgreSQL type validation.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Testcontainers
+class DocumentChunkRepositoryTest {
+
+    @Container
+    @SuppressWarnings("resource")
+    static final PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:15-alpine")
+            .withDatabaseName("policyinsight_test")
+            .withUsername("postgres")
+            .withPassword("postgres");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private DocumentChunkRepository chunkRepository;
+
+    @Autowired
+    private PolicyJobRepository policyJobRepository;
+
+    private UUID testJobUuid;
+
+    @BeforeEach
+    void setUp() {
+        testJobUuid = UUID.randomUUID();
+        PolicyJob job = new PolicyJob(testJobUuid);
+        job.setStatus("SUCCESS");
+        job.setPdfFilename("test.pdf");
+        policyJobRepository.save(job);
+
+        for (int i = 0; i < 3; i++) {
+            DocumentChunk chunk = new DocumentChunk(testJobUuid);
+            chunk.setJobCreatedAt(job.getCreatedAt());
+            chunk.setChunkIndex(i);
+            chunk.setText("Chunk text " + i);
+            chunk.setPageNumber(i + 1);
+            chunk.setStartOffset(i * 100);
+            chunk.setEndOffset(i * 100 + 99);
+            chunk.setSpanConfidence(new BigDecimal(i == 0 ? "0.50" : "1.00"));
+            chunkRepository.save(chunk);
+        }
+        chunkRepository.flush();
+    }
+
+    @Test
+    void testFindMetadataReturnsOrderedMetadata() {
+        List<ChunkMetadata> metadata = chunkRepository.findMetadataByJobUuidOrderByChunkIndex(testJobUuid);
+
+        assertThat(metadata).hasSize(3);
+        assertThat(metadata).extracting(ChunkMetadata::getChunkIndex).containsExactly(0, 1, 2);
+        assertThat(metadata).extracting(ChunkMetadata::getPageNumber).containsExactly(1, 2, 3);
+        assertThat(metadata.get(1).getStartOffset()).isEqualTo(100);
+        assertThat(metadata.get(1).getEndOffset()).isEqualTo(199);
+        assertThat(metadata).allSatisfy(m -> assertThat(m.getId()).isNotNull());
+    }
+
+    @Test
+    void testFindTextLoadsOnlyRequestedChunks() {
+        List<ChunkMetadata> metadata = chunkRepository.findMetadataByJobUuidOrderByChunkIndex(testJobUuid);
+        List<Long> requested = List.of(metadata.get(2).getId(), metadata.get(0).getId());
+
+        List<ChunkText> texts = chunkRepository.findTextByJobUuidAndIdIn(testJobUuid, requested);
+
+        assertThat(texts).extracting(ChunkText::getText).containsExactly("Chunk text 0", "Chunk text 2");
+        assertThat(texts).extracting(ChunkText::getPageNumber).containsExactly(1, 3);
+    }
+
+    @Test
+    void testAverageSpanConfidence() {
+        Double average = chunkRepository.averageSpanConfidenceByJobUuid(testJobUuid);
+
+        assertThat(average).isNotNull();
+        assertThat(average).isCloseTo(0.8333, org.assertj.core.data.Offset.offset(0.001));
+        assertThat(chunkRepository.averageSpanConfidenceByJobUuid(UUID.randomUUID())).isNull();
+    }
+}
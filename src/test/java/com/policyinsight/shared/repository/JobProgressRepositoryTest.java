@@ -0,0 +1,98 @@
+package com.policyinsight.shared.repository;
+
+import com.policyinsight.shared.model.JobProgress;
+import com.policyinsight.shared.model.PolicyJob;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration test for JobProgressRepository single-row progress writes.
+ * Uses Testcontainers PostgreSQL for the native upsert and cascade behaviour.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Testcontainers
+class JobProgressRepositoryTest {
+
+    @Container
+    @SuppressWarnings("resource")
+    static final PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:15-alpine")
+            .withDatabaseName("policyinsight_test")
+            .withUsername("postgres")
+            .withPassword("postgres");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private JobProgressRepository jobProgressRepository;
+
+    @Autowired
+    private PolicyJobRepository policyJobRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private UUID jobUuid;
+
+    @BeforeEach
+    void setUp() {
+        jobUuid = UUID.randomUUID();
+        PolicyJob job = new PolicyJob(jobUuid);
+        job.setStatus("PROCESSING");
+        job.setPdfFilename("test.pdf");
+        policyJobRepository.saveAndFlush(job);
+    }
+
+    @Test
+    void testProgressUpdatesAndResetOnRetry() {
+        jobProgressRepository.resetProgress(jobUuid, "download");
+        jobProgressRepository.updateStage(jobUuid, "risk_scan");
+        jobProgressRepository.updatePagesExtracted(jobUuid, 12);
+        jobProgressRepository.updateChunksStored(jobUuid, 40);
+        jobProgressRepository.updateLlmCalls(jobUuid, 3, 7);
+        entityManager.clear();
+
+        JobProgress progress = jobProgressRepository.findById(jobUuid).orElseThrow();
+        assertThat(progress.getStage()).isEqualTo("risk_scan");
+        assertThat(progress.getPagesExtracted()).isEqualTo(12);
+        assertThat(progress.getChunksStored()).isEqualTo(40);
+        assertThat(progress.getLlmCallsDone()).isEqualTo(3);
+        assertThat(progress.getLlmCallsTotal()).isEqualTo(7);
+        assertThat(progress.getUpdatedAt()).isNotNull();
+
+        // A retried job starts over
+        jobProgressRepository.resetProgress(jobUuid, "download");
+        entityManager.clear();
+
+        JobProgress restarted = jobProgressRepository.findById(jobUuid).orElseThrow();
+        assertThat(restarted.getStage()).isEqualTo("download");
+        assertThat(restarted.getPagesExtracted()).isZero();
+        assertThat(restarted.getLlmCallsDone()).isZero();
+    }
+
+    @Test
+    void testUpdatesWithoutRowAffectNothing() {
+        assertThat(jobProgressRepository.updateStage(jobUuid, "extraction")).isZero();
+        assertThat(jobProgressRepository.findById(jobUuid)).isEmpty();
+    }
+}